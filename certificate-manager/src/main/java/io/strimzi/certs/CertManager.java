@@ -6,6 +6,7 @@ package io.strimzi.certs;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 public interface CertManager {
     /**
@@ -98,4 +99,76 @@ public interface CertManager {
      * @throws IOException If an input or output file could not be read/written.
      */
     void generateCert(File csrFile, byte[] caKey, byte[] caCert, File crtFile, Subject sbj, int days) throws IOException;
+
+    /**
+     * Generate a self-signed certificate, returning the private key and certificate rather than writing them to files.
+     * The default implementation goes through temporary files.
+     *
+     * @param sbj subject information
+     * @param days certificate duration
+     * @return the private key and the self signed certificate
+     * @throws IOException If the key or certificate could not be generated.
+     */
+    default CertAndKey generateSelfSignedCert(Subject sbj, int days) throws IOException {
+        File keyFile = File.createTempFile("tls", "key");
+        File certFile = File.createTempFile("tls", "cert");
+        try {
+            generateSelfSignedCert(keyFile, certFile, sbj, days);
+            return new CertAndKey(Files.readAllBytes(keyFile.toPath()), Files.readAllBytes(certFile.toPath()));
+        } finally {
+            Files.deleteIfExists(keyFile.toPath());
+            Files.deleteIfExists(certFile.toPath());
+        }
+    }
+
+    /**
+     * Renew a self-signed certificate, keeping the existing private key,
+     * without reading or writing them from or to files.
+     * The default implementation goes through temporary files.
+     *
+     * @param key the existing private key
+     * @param sbj subject information
+     * @param days certificate duration
+     * @return the existing private key and the new self signed certificate
+     * @throws IOException If the certificate could not be generated.
+     */
+    default CertAndKey renewSelfSignedCert(byte[] key, Subject sbj, int days) throws IOException {
+        File keyFile = File.createTempFile("tls", "key");
+        File certFile = File.createTempFile("tls", "cert");
+        try {
+            Files.write(keyFile.toPath(), key);
+            renewSelfSignedCert(keyFile, certFile, sbj, days);
+            return new CertAndKey(key, Files.readAllBytes(certFile.toPath()));
+        } finally {
+            Files.deleteIfExists(keyFile.toPath());
+            Files.deleteIfExists(certFile.toPath());
+        }
+    }
+
+    /**
+     * Generate a private key and a certificate for it signed by a Certificate Authority,
+     * returning them rather than writing them to files.
+     * The default implementation generates a certificate sign request and goes through temporary files.
+     *
+     * @param sbj subject information
+     * @param caKey CA private key bytes
+     * @param caCert CA certificate bytes
+     * @param days certificate duration
+     * @return the private key and the signed certificate
+     * @throws IOException If the key or certificate could not be generated.
+     */
+    default CertAndKey generateSignedCert(Subject sbj, byte[] caKey, byte[] caCert, int days) throws IOException {
+        File keyFile = File.createTempFile("tls", "key");
+        File csrFile = File.createTempFile("tls", "csr");
+        File certFile = File.createTempFile("tls", "cert");
+        try {
+            generateCsr(keyFile, csrFile, sbj);
+            generateCert(csrFile, caKey, caCert, certFile, sbj, days);
+            return new CertAndKey(Files.readAllBytes(keyFile.toPath()), Files.readAllBytes(certFile.toPath()));
+        } finally {
+            Files.deleteIfExists(keyFile.toPath());
+            Files.deleteIfExists(csrFile.toPath());
+            Files.deleteIfExists(certFile.toPath());
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import java.util.Locale;
+
+/**
+ * The available {@link CertManager} implementations, as selected in the configuration of an operator.
+ */
+public enum CertManagerType {
+    /** The {@link OpenSslCertManager}, which runs {@code openssl} in a subprocess. */
+    OPENSSL {
+        @Override
+        public CertManager create(KeyPairPool keyPairs) {
+            // openssl generates its keys itself, of the type of the pool's keys
+            return new OpenSslCertManager(keyPairs.keyType());
+        }
+    },
+    /** The {@link JcaCertManager}, which generates keys and certificates in-process. */
+    JCA {
+        @Override
+        public CertManager create(KeyPairPool keyPairs) {
+            return new JcaCertManager(keyPairs);
+        }
+    };
+
+    /**
+     * @return A new instance of this type of {@code CertManager}, generating key pairs on demand.
+     */
+    public CertManager create() {
+        return create(new KeyPairPool(KeyType.RSA_2048, 0));
+    }
+
+    /**
+     * @param keyPairs The pool of key pairs to use, if this type of {@code CertManager} generates key pairs in-process.
+     * @return A new instance of this type of {@code CertManager}.
+     */
+    public abstract CertManager create(KeyPairPool keyPairs);
+
+    /**
+     * @return Whether this type of {@code CertManager} takes its key pairs from a {@link KeyPairPool}.
+     */
+    public boolean usesKeyPairPool() {
+        return this == JCA;
+    }
+
+    /**
+     * @return The value used to select this type in the configuration.
+     */
+    public String toValue() {
+        return name().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @param value The configured value, case insensitive.
+     * @return The type with the given value.
+     * @throws IllegalArgumentException If there is no type with the given value.
+     */
+    public static CertManagerType forValue(String value) {
+        for (CertManagerType type : values()) {
+            if (type.toValue().equalsIgnoreCase(value.trim())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown certificate manager " + value);
+    }
+}
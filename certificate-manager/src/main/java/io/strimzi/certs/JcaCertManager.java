@@ -0,0 +1,390 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.X500NameBuilder;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.openssl.PEMKeyPair;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.openssl.jcajce.JcaPKCS8Generator;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.pkcs.PKCS10CertificationRequest;
+import org.bouncycastle.pkcs.PKCSException;
+import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A certificates manager which generates keys, certificate sign requests and certificates in-process,
+ * using the Java Cryptography Architecture and BouncyCastle, rather than by running {@code openssl}.
+ * Keys and certificates are read and written in the same PEM formats as the {@link OpenSslCertManager} uses,
+ * and the methods which return a {@link CertAndKey} don't write anything to the filesystem.
+ * Key pairs are taken from a {@link KeyPairPool}, which may have generated them in advance.
+ */
+@SuppressWarnings({"checkstyle:ClassDataAbstractionCoupling", "checkstyle:ClassFanOutComplexity"})
+public class JcaCertManager implements CertManager {
+
+    private static final String KEY_ALGORITHM = "RSA";
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    private static final String DEFAULT_ORGANIZATION_NAME = "io.strimzi";
+
+    private final SecureRandom random = new SecureRandom();
+    private final KeyPairPool keyPairs;
+
+    /** The most recently used CA, which is usually the same from one call to the next. */
+    private volatile CaSigner caSigner;
+
+    /**
+     * A CA's key and certificate parsed into the form needed for signing certificates.
+     */
+    private static final class CaSigner {
+        private final byte[] key;
+        private final byte[] cert;
+        private final PrivateKey privateKey;
+        private final X500Name issuer;
+        private final AuthorityKeyIdentifier authorityKeyIdentifier;
+
+        private CaSigner(byte[] key, byte[] cert, PrivateKey privateKey, X500Name issuer, AuthorityKeyIdentifier authorityKeyIdentifier) {
+            this.key = key;
+            this.cert = cert;
+            this.privateKey = privateKey;
+            this.issuer = issuer;
+            this.authorityKeyIdentifier = authorityKeyIdentifier;
+        }
+    }
+
+    public JcaCertManager() {
+        this(new KeyPairPool(KeyType.RSA_2048, 0));
+    }
+
+    /**
+     * @param keyPairs The pool from which to take the key pairs of the generated keys and certificates.
+     */
+    public JcaCertManager(KeyPairPool keyPairs) {
+        this.keyPairs = keyPairs;
+    }
+
+    @Override
+    public void generateSelfSignedCert(File keyFile, File certFile, int days) throws IOException {
+        generateSelfSignedCert(keyFile, certFile, null, days);
+    }
+
+    @Override
+    public void generateSelfSignedCert(File keyFile, File certFile, Subject sbj, int days) throws IOException {
+        CertAndKey certAndKey = generateSelfSignedCert(sbj, days);
+        Files.write(keyFile.toPath(), certAndKey.key());
+        Files.write(certFile.toPath(), certAndKey.cert());
+    }
+
+    @Override
+    public CertAndKey generateSelfSignedCert(Subject sbj, int days) throws IOException {
+        KeyPair keyPair = generateKeyPair();
+        X509Certificate cert = selfSign(keyPair, sbj, days);
+        return new CertAndKey(pem(keyPair.getPrivate()), pem(cert));
+    }
+
+    @Override
+    public void renewSelfSignedCert(File keyFile, File certFile, Subject sbj, int days) throws IOException {
+        CertAndKey certAndKey = renewSelfSignedCert(Files.readAllBytes(keyFile.toPath()), sbj, days);
+        Files.write(certFile.toPath(), certAndKey.cert());
+    }
+
+    @Override
+    public CertAndKey renewSelfSignedCert(byte[] key, Subject sbj, int days) throws IOException {
+        KeyPair keyPair = readKeyPair(key);
+        X509Certificate cert = selfSign(keyPair, sbj, days);
+        return new CertAndKey(key, pem(cert));
+    }
+
+    @Override
+    public void generateCsr(File keyFile, File csrFile, Subject sbj) throws IOException {
+        KeyPair keyPair = generateKeyPair();
+        PKCS10CertificationRequest csr;
+        try {
+            csr = new JcaPKCS10CertificationRequestBuilder(x500Name(sbj), keyPair.getPublic())
+                    .build(new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(keyPair.getPrivate()));
+        } catch (OperatorCreationException e) {
+            throw new IOException("Failed to sign certificate sign request", e);
+        }
+        Files.write(keyFile.toPath(), pem(keyPair.getPrivate()));
+        Files.write(csrFile.toPath(), pem(csr));
+    }
+
+    @Override
+    public void generateCert(File csrFile, File caKey, File caCert, File crtFile, int days) throws IOException {
+        generateCert(csrFile, caKey, caCert, crtFile, null, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, File caKey, File caCert, File crtFile, Subject sbj, int days) throws IOException {
+        generateCert(csrFile, Files.readAllBytes(caKey.toPath()), Files.readAllBytes(caCert.toPath()), crtFile, sbj, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, byte[] caKey, byte[] caCert, File crtFile, int days) throws IOException {
+        generateCert(csrFile, caKey, caCert, crtFile, null, days);
+    }
+
+    @Override
+    public void generateCert(File csrFile, byte[] caKey, byte[] caCert, File crtFile, Subject sbj, int days) throws IOException {
+        PKCS10CertificationRequest csr = readCsr(Files.readAllBytes(csrFile.toPath()));
+        PublicKey publicKey = new JcaPEMKeyConverter().getPublicKey(csr.getSubjectPublicKeyInfo());
+        try {
+            if (!csr.isSignatureValid(new JcaContentVerifierProviderBuilder().build(publicKey))) {
+                throw new IOException("The signature of the certificate sign request " + csrFile + " is not valid");
+            }
+        } catch (OperatorCreationException | PKCSException e) {
+            throw new IOException("Failed to verify the certificate sign request " + csrFile, e);
+        }
+        X509Certificate cert = sign(csr.getSubject(), publicKey, sbj, caSigner(caKey, caCert), days);
+        Files.write(crtFile.toPath(), pem(cert));
+    }
+
+    @Override
+    public CertAndKey generateSignedCert(Subject sbj, byte[] caKey, byte[] caCert, int days) throws IOException {
+        // There's no need for a certificate sign request when we hold the private key ourselves
+        KeyPair keyPair = generateKeyPair();
+        X509Certificate cert = sign(x500Name(sbj), keyPair.getPublic(), sbj, caSigner(caKey, caCert), days);
+        return new CertAndKey(pem(keyPair.getPrivate()), pem(cert));
+    }
+
+    private KeyPair generateKeyPair() throws IOException {
+        try {
+            return keyPairs.take();
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to generate key pair", e);
+        }
+    }
+
+    private X509Certificate selfSign(KeyPair keyPair, Subject sbj, int days) throws IOException {
+        X500Name name = x500Name(sbj);
+        if (name.getRDNs().length == 0) {
+            // Unlike openssl we have no configured default subject, but the issuer of a certificate can't be empty
+            name = new X500NameBuilder(BCStyle.INSTANCE).addRDN(BCStyle.O, DEFAULT_ORGANIZATION_NAME).build();
+        }
+        try {
+            JcaX509ExtensionUtils extensionUtils = new JcaX509ExtensionUtils();
+            X509v3CertificateBuilder builder = certificateBuilder(name, name, keyPair.getPublic(), sbj, days)
+                    .addExtension(Extension.basicConstraints, true, new BasicConstraints(true))
+                    .addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign))
+                    .addExtension(Extension.authorityKeyIdentifier, false, extensionUtils.createAuthorityKeyIdentifier(keyPair.getPublic()));
+            return build(builder, keyPair.getPrivate());
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to generate self-signed certificate", e);
+        }
+    }
+
+    /**
+     * Returns the signer for the given CA key and certificate, parsing them only if they differ from those of
+     * the previous call.
+     */
+    private CaSigner caSigner(byte[] caKey, byte[] caCert) throws IOException {
+        CaSigner signer = caSigner;
+        if (signer == null || !Arrays.equals(signer.key, caKey) || !Arrays.equals(signer.cert, caCert)) {
+            X509Certificate cert = readCert(caCert);
+            try {
+                signer = new CaSigner(caKey.clone(), caCert.clone(), readKeyPair(caKey).getPrivate(),
+                        new JcaX509CertificateHolder(cert).getSubject(),
+                        new JcaX509ExtensionUtils().createAuthorityKeyIdentifier(cert));
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to read CA certificate", e);
+            }
+            caSigner = signer;
+        }
+        return signer;
+    }
+
+    private X509Certificate sign(X500Name subject, PublicKey publicKey, Subject sbj, CaSigner ca, int days) throws IOException {
+        try {
+            X509v3CertificateBuilder builder = certificateBuilder(ca.issuer, subject, publicKey, sbj, days)
+                    .addExtension(Extension.authorityKeyIdentifier, false, ca.authorityKeyIdentifier);
+            return build(builder, ca.privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to generate certificate", e);
+        }
+    }
+
+    private X509v3CertificateBuilder certificateBuilder(X500Name issuer, X500Name subject, PublicKey publicKey,
+                                                        Subject sbj, int days) throws IOException, GeneralSecurityException {
+        long now = System.currentTimeMillis();
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(issuer,
+                new BigInteger(64, random),
+                new Date(now),
+                new Date(now + TimeUnit.DAYS.toMillis(days)),
+                subject,
+                publicKey)
+                .addExtension(Extension.subjectKeyIdentifier, false, new JcaX509ExtensionUtils().createSubjectKeyIdentifier(publicKey));
+        if (sbj != null && sbj.subjectAltNames() != null && sbj.subjectAltNames().size() > 0) {
+            builder.addExtension(Extension.subjectAlternativeName, false, subjectAltNames(sbj.subjectAltNames()));
+        }
+        return builder;
+    }
+
+    private X509Certificate build(X509v3CertificateBuilder builder, PrivateKey signingKey) throws IOException, GeneralSecurityException {
+        try {
+            return new JcaX509CertificateConverter().getCertificate(
+                    builder.build(new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(signingKey)));
+        } catch (OperatorCreationException e) {
+            throw new IOException("Failed to sign certificate", e);
+        }
+    }
+
+    /**
+     * The equivalent of the {@code /O=.../CN=...} subject which the {@link OpenSslCertManager} passes to openssl.
+     */
+    private static X500Name x500Name(Subject sbj) {
+        X500NameBuilder builder = new X500NameBuilder(BCStyle.INSTANCE);
+        if (sbj != null) {
+            if (sbj.organizationName() != null) {
+                builder.addRDN(BCStyle.O, sbj.organizationName());
+            }
+            if (sbj.commonName() != null) {
+                builder.addRDN(BCStyle.CN, sbj.commonName());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converts subject alt names in the form of the {@code [alt_names]} section of an openssl configuration
+     * file (for example {@code DNS.1 = example.com}) to {@code GeneralNames}.
+     */
+    private static GeneralNames subjectAltNames(Map<String, String> subjectAltNames) {
+        List<GeneralName> names = new ArrayList<>(subjectAltNames.size());
+        for (Map.Entry<String, String> entry : subjectAltNames.entrySet()) {
+            String key = entry.getKey();
+            int dot = key.indexOf('.');
+            String type = dot >= 0 ? key.substring(0, dot) : key;
+            int tag;
+            switch (type) {
+                case "DNS":
+                    tag = GeneralName.dNSName;
+                    break;
+                case "IP":
+                    tag = GeneralName.iPAddress;
+                    break;
+                case "email":
+                    tag = GeneralName.rfc822Name;
+                    break;
+                case "URI":
+                    tag = GeneralName.uniformResourceIdentifier;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported subject alt name " + key);
+            }
+            names.add(new GeneralName(tag, entry.getValue()));
+        }
+        return new GeneralNames(names.toArray(new GeneralName[0]));
+    }
+
+    private static Object readPem(byte[] pem) throws IOException {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(pem), StandardCharsets.US_ASCII);
+             PEMParser parser = new PEMParser(reader)) {
+            Object object = parser.readObject();
+            if (object == null) {
+                throw new IOException("No PEM encoded object found");
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Reads a private key in either the PKCS#8 format (as written by {@code openssl req -keyout})
+     * or the traditional PKCS#1 format, together with its public key.
+     */
+    private static KeyPair readKeyPair(byte[] key) throws IOException {
+        Object object = readPem(key);
+        JcaPEMKeyConverter converter = new JcaPEMKeyConverter();
+        if (object instanceof PEMKeyPair) {
+            return converter.getKeyPair((PEMKeyPair) object);
+        } else if (object instanceof PrivateKeyInfo) {
+            PrivateKey privateKey = converter.getPrivateKey((PrivateKeyInfo) object);
+            if (!(privateKey instanceof RSAPrivateCrtKey)) {
+                throw new IOException("Expected an RSA private key but found " + privateKey.getAlgorithm());
+            }
+            RSAPrivateCrtKey rsaKey = (RSAPrivateCrtKey) privateKey;
+            try {
+                PublicKey publicKey = KeyFactory.getInstance(KEY_ALGORITHM)
+                        .generatePublic(new RSAPublicKeySpec(rsaKey.getModulus(), rsaKey.getPublicExponent()));
+                return new KeyPair(publicKey, privateKey);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Failed to derive the public key from the private key", e);
+            }
+        } else {
+            throw new IOException("Expected a PEM encoded private key but found " + object.getClass().getSimpleName());
+        }
+    }
+
+    private static PKCS10CertificationRequest readCsr(byte[] csr) throws IOException {
+        Object object = readPem(csr);
+        if (object instanceof PKCS10CertificationRequest) {
+            return (PKCS10CertificationRequest) object;
+        } else {
+            throw new IOException("Expected a PEM encoded certificate sign request but found " + object.getClass().getSimpleName());
+        }
+    }
+
+    private static X509Certificate readCert(byte[] cert) throws IOException {
+        try {
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(cert));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to read certificate", e);
+        }
+    }
+
+    private static byte[] pem(Object object) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JcaPEMWriter pemWriter = new JcaPEMWriter(writer)) {
+            if (object instanceof PrivateKey) {
+                // PKCS#8, like openssl req -keyout
+                pemWriter.writeObject(new JcaPKCS8Generator((PrivateKey) object, null));
+            } else {
+                pemWriter.writeObject(object);
+            }
+        }
+        return writer.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of key pairs which are generated in advance by a low priority background thread,
+ * so that issuing a certificate (for example for a new TLS {@code KafkaUser}, or for every broker when the cluster CA
+ * is renewed) only costs signing it, rather than generating a key pair first.
+ * The background thread refills the pool as soon as a key pair is {@linkplain #take() taken}.
+ * When the pool is empty the key pair is generated by the caller instead, which is counted as a
+ * {@linkplain #fallbacks() fallback}.
+ * A pool with a capacity of zero holds no key pairs and has no background thread.
+ */
+public class KeyPairPool implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(KeyPairPool.class);
+
+    private final KeyType keyType;
+    private final int capacity;
+    private final BlockingQueue<KeyPair> keyPairs;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final Thread refiller;
+
+    /**
+     * @param keyType The type of the key pairs.
+     * @param capacity The maximum number of key pairs to hold.
+     */
+    public KeyPairPool(KeyType keyType, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.keyType = keyType;
+        this.capacity = capacity;
+        this.keyPairs = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        if (capacity > 0) {
+            refiller = new Thread(this::refill, "key-pair-pool");
+            refiller.setDaemon(true);
+            refiller.setPriority(Thread.MIN_PRIORITY);
+            refiller.start();
+        } else {
+            refiller = null;
+        }
+    }
+
+    private void refill() {
+        log.debug("Filling pool of {} {} key pairs", capacity, keyType);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                keyPairs.put(generate());
+            }
+        } catch (InterruptedException e) {
+            log.debug("Stopped filling pool of {} key pairs", keyType);
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to generate {} key pair, key pairs will be generated on demand", keyType, e);
+        }
+    }
+
+    private KeyPair generate() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyType.algorithm());
+        generator.initialize(keyType.size(), random);
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Takes a key pair from the pool, or generates one if the pool is empty.
+     * @return A key pair which has not been handed out before.
+     * @throws GeneralSecurityException If generating the key pair failed.
+     */
+    public KeyPair take() throws GeneralSecurityException {
+        KeyPair keyPair = keyPairs.poll();
+        if (keyPair == null) {
+            if (capacity > 0) {
+                fallbacks.incrementAndGet();
+                log.debug("Pool of {} key pairs is empty, generating key pair on demand", keyType);
+            }
+            keyPair = generate();
+        }
+        return keyPair;
+    }
+
+    /**
+     * @return The type of the key pairs.
+     */
+    public KeyType keyType() {
+        return keyType;
+    }
+
+    /**
+     * @return The maximum number of key pairs held.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of key pairs currently held.
+     */
+    public int available() {
+        return keyPairs.size();
+    }
+
+    /**
+     * @return The number of key pairs which had to be generated on demand because the pool was empty.
+     */
+    public long fallbacks() {
+        return fallbacks.get();
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    @Override
+    public void close() {
+        if (refiller != null) {
+            refiller.interrupt();
+        }
+        keyPairs.clear();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import java.util.Locale;
+
+/**
+ * The algorithm and size of the keys generated by a {@link CertManager}, written like the argument of
+ * the {@code -newkey} option of {@code openssl req}, for example {@code rsa:2048}.
+ * Only RSA keys of at least 2048 bits are supported.
+ */
+public final class KeyType {
+
+    public static final KeyType RSA_2048 = new KeyType("RSA", 2048);
+
+    private static final int MIN_RSA_KEY_SIZE = 2048;
+
+    private final String algorithm;
+    private final int size;
+
+    private KeyType(String algorithm, int size) {
+        this.algorithm = algorithm;
+        this.size = size;
+    }
+
+    /**
+     * @param value The key type, for example {@code rsa:4096}.
+     * @return The key type.
+     * @throws IllegalArgumentException If the value is not a supported key type.
+     */
+    public static KeyType forValue(String value) {
+        String[] parts = value.trim().split(":");
+        if (parts.length != 2 || !"rsa".equalsIgnoreCase(parts[0])) {
+            throw new IllegalArgumentException("Unsupported key type " + value);
+        }
+        int size;
+        try {
+            size = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unsupported key type " + value);
+        }
+        if (size < MIN_RSA_KEY_SIZE) {
+            throw new IllegalArgumentException("RSA keys must be at least " + MIN_RSA_KEY_SIZE + " bits");
+        }
+        return new KeyType("RSA", size);
+    }
+
+    /**
+     * @return The JCA name of the key algorithm.
+     */
+    public String algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return The key size, in bits.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The value used to select this type in the configuration.
+     */
+    public String toValue() {
+        return algorithm.toLowerCase(Locale.ENGLISH) + ":" + size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        KeyType keyType = (KeyType) o;
+        return size == keyType.size && algorithm.equals(keyType.algorithm);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * algorithm.hashCode() + size;
+    }
+
+    @Override
+    public String toString() {
+        return toValue();
+    }
+}
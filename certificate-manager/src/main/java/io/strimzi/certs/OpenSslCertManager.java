@@ -32,7 +32,18 @@ public class OpenSslCertManager implements CertManager {
 
     private static final Logger log = LogManager.getLogger(OpenSslCertManager.class);
 
-    public OpenSslCertManager() {}
+    private final KeyType keyType;
+
+    public OpenSslCertManager() {
+        this(KeyType.RSA_2048);
+    }
+
+    /**
+     * @param keyType The type of the keys generated by {@code openssl req}.
+     */
+    public OpenSslCertManager(KeyType keyType) {
+        this.keyType = keyType;
+    }
 
     @Override
     public void generateSelfSignedCert(File keyFile, File certFile, int days) throws IOException {
@@ -43,7 +54,7 @@ public class OpenSslCertManager implements CertManager {
     public void generateSelfSignedCert(File keyFile, File certFile, Subject sbj, int days) throws IOException {
 
         List<String> cmd = new ArrayList<>(asList("openssl", "req", "-x509", "-new", "-days", String.valueOf(days), "-batch", "-nodes",
-                "-out", certFile.getAbsolutePath(), "-keyout", keyFile.getAbsolutePath()));
+                "-newkey", keyType.toValue(), "-out", certFile.getAbsolutePath(), "-keyout", keyFile.getAbsolutePath()));
 
         File sna = null;
         File openSslConf = null;
@@ -170,7 +181,7 @@ public class OpenSslCertManager implements CertManager {
     @Override
     public void generateCsr(File keyFile, File csrFile, Subject sbj) throws IOException {
 
-        List<String> cmd = new ArrayList<>(asList("openssl", "req", "-new", "-batch", "-nodes",
+        List<String> cmd = new ArrayList<>(asList("openssl", "req", "-new", "-batch", "-nodes", "-newkey", keyType.toValue(),
                 "-keyout", keyFile.getAbsolutePath(), "-out", csrFile.getAbsolutePath()));
 
         File sna = null;
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how many signed certificates per second each {@link CertManagerType} generates,
+ * the way the operators generate them for brokers and users.
+ * Not run as part of the build; run it with {@code java -cp ... io.strimzi.certs.CertManagerBenchmark [iterations]}.
+ */
+public class CertManagerBenchmark {
+
+    private static final int WARMUP = 10;
+
+    private static Subject subject(int i) {
+        Subject sbj = new Subject();
+        sbj.setOrganizationName("io.strimzi");
+        sbj.setCommonName("my-cluster-kafka-" + i);
+        Map<String, String> sans = new HashMap<>();
+        sans.put("DNS.1", "my-cluster-kafka-bootstrap");
+        sans.put("DNS.2", "my-cluster-kafka-" + i + ".my-cluster-kafka-brokers.myproject.svc.cluster.local");
+        sbj.setSubjectAltNames(sans);
+        return sbj;
+    }
+
+    private static double certsPerSecond(CertManager certManager, int iterations) throws IOException {
+        Subject caSubject = new Subject();
+        caSubject.setOrganizationName("io.strimzi");
+        caSubject.setCommonName("cluster-ca");
+        CertAndKey ca = certManager.generateSelfSignedCert(caSubject, 365);
+        for (int i = 0; i < WARMUP; i++) {
+            certManager.generateSignedCert(subject(i), ca.key(), ca.cert(), 365);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            certManager.generateSignedCert(subject(i), ca.key(), ca.cert(), 365);
+        }
+        return iterations / ((double) (System.nanoTime() - start) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @SuppressWarnings("checkstyle:Regexp")
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        for (CertManagerType type : CertManagerType.values()) {
+            System.out.printf("%-8s %8.1f certs/s%n", type.toValue(), certsPerSecond(type.create(), iterations));
+        }
+    }
+}
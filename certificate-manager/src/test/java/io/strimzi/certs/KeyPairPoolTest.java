@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.certs;
+
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KeyPairPoolTest {
+
+    private static void awaitAvailable(KeyPairPool pool, int available) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (pool.available() < available) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the pool to fill");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testKeyPairsAreTakenFromThePool() throws Exception {
+        try (KeyPairPool pool = new KeyPairPool(KeyType.RSA_2048, 2)) {
+            awaitAvailable(pool, 2);
+            assertEquals(2, pool.available());
+
+            KeyPair first = pool.take();
+            KeyPair second = pool.take();
+
+            assertNotEquals(first.getPublic(), second.getPublic());
+            assertEquals(2048, ((RSAPublicKey) first.getPublic()).getModulus().bitLength());
+            assertEquals(0, pool.fallbacks());
+            // The pool is refilled after key pairs are taken
+            awaitAvailable(pool, 1);
+        }
+    }
+
+    @Test
+    public void testEmptyPoolFallsBackToGeneratingKeyPairs() throws Exception {
+        KeyPairPool pool = new KeyPairPool(KeyType.RSA_2048, 1);
+        pool.close();
+
+        pool.take();
+
+        assertEquals(1, pool.fallbacks());
+        assertEquals(0, pool.available());
+    }
+
+    @Test
+    public void testZeroCapacityPoolGeneratesKeyPairsWithoutFallbacks() throws Exception {
+        try (KeyPairPool pool = new KeyPairPool(KeyType.forValue("rsa:3072"), 0)) {
+            KeyPair keyPair = pool.take();
+
+            assertEquals(3072, ((RSAPublicKey) keyPair.getPublic()).getModulus().bitLength());
+            assertEquals(0, pool.fallbacks());
+            assertEquals(0, pool.available());
+        }
+    }
+
+    @Test
+    public void testJcaCertManagerUsesThePool() throws Exception {
+        try (KeyPairPool pool = new KeyPairPool(KeyType.RSA_2048, 1)) {
+            awaitAvailable(pool, 1);
+            CertManager certManager = CertManagerType.JCA.create(pool);
+
+            Subject subject = new Subject();
+            subject.setCommonName("test");
+            CertAndKey ca = certManager.generateSelfSignedCert(subject, 365);
+            certManager.generateSignedCert(subject, ca.key(), ca.cert(), 365);
+
+            // At least the first key pair came from the pool, the second may have been generated before it was refilled
+            assertTrue(pool.fallbacks() <= 1);
+        }
+    }
+
+    @Test
+    public void testKeyType() {
+        assertEquals(KeyType.RSA_2048, KeyType.forValue(" RSA:2048 "));
+        assertEquals("rsa:4096", KeyType.forValue("rsa:4096").toValue());
+        for (String value : asList("", "rsa", "rsa:1024", "rsa:big", "ec:256")) {
+            try {
+                KeyType.forValue(value);
+                fail("Expected " + value + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.file.Files;
@@ -17,11 +18,13 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPublicKey;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -251,4 +254,23 @@ public class OpenSslCertManagerTest {
         caKey.delete();
         newCert.delete();
     }
+
+    @Test
+    public void testKeyType() throws Exception {
+        CertManager rsa3072 = CertManagerType.OPENSSL.create(new KeyPairPool(KeyType.forValue("rsa:3072"), 0));
+        Subject caSbj = new Subject();
+        caSbj.setCommonName("CACommonName");
+        caSbj.setOrganizationName("CAOrganizationName");
+        Subject sbj = new Subject();
+        sbj.setCommonName("MyCommonName");
+        sbj.setOrganizationName("MyOrganization");
+
+        CertAndKey ca = rsa3072.generateSelfSignedCert(caSbj, 365);
+        CertAndKey certAndKey = rsa3072.generateSignedCert(sbj, ca.key(), ca.cert(), 365);
+
+        for (CertAndKey generated : asList(ca, certAndKey)) {
+            X509Certificate c = (X509Certificate) certFactory.generateCertificate(new ByteArrayInputStream(generated.cert()));
+            assertEquals(3072, ((RSAPublicKey) c.getPublicKey()).getModulus().bitLength());
+        }
+    }
 }
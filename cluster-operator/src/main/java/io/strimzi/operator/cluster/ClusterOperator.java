@@ -17,6 +17,7 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.http.HttpServer;
@@ -176,6 +177,9 @@ public class ClusterOperator extends AbstractVerticle {
         this.vertx.createHttpServer()
                 .requestHandler(request -> {
 
+                    if (OperatorMetrics.handle(request)) {
+                        return;
+                    }
                     if (request.path().equals("/healthy")) {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
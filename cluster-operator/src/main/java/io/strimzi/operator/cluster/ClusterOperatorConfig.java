@@ -6,6 +6,8 @@ package io.strimzi.operator.cluster;
 
 import io.fabric8.kubernetes.api.model.LocalObjectReference;
 import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
+import io.strimzi.certs.CertManagerType;
+import io.strimzi.certs.KeyType;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.cluster.model.ModelUtils;
@@ -43,10 +45,20 @@ public class ClusterOperatorConfig {
     public static final String STRIMZI_KAFKA_MIRROR_MAKER_IMAGES = "STRIMZI_KAFKA_MIRROR_MAKER_IMAGES";
     public static final String STRIMZI_IMAGE_PULL_POLICY = "STRIMZI_IMAGE_PULL_POLICY";
     public static final String STRIMZI_IMAGE_PULL_SECRETS = "STRIMZI_IMAGE_PULL_SECRETS";
+    public static final String STRIMZI_RESOURCE_CACHE_ENABLED = "STRIMZI_RESOURCE_CACHE_ENABLED";
+    public static final String STRIMZI_MAX_CONCURRENT_RECONCILIATIONS = "STRIMZI_MAX_CONCURRENT_RECONCILIATIONS";
+    public static final String STRIMZI_CERT_MANAGER = "STRIMZI_CERT_MANAGER";
+    public static final String STRIMZI_KEY_TYPE = "STRIMZI_KEY_TYPE";
+    public static final String STRIMZI_KEY_PAIR_POOL_SIZE = "STRIMZI_KEY_PAIR_POOL_SIZE";
 
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final long DEFAULT_OPERATION_TIMEOUT_MS = 300_000;
     public static final boolean DEFAULT_CREATE_CLUSTER_ROLES = false;
+    public static final boolean DEFAULT_RESOURCE_CACHE_ENABLED = false;
+    public static final int DEFAULT_MAX_CONCURRENT_RECONCILIATIONS = 10;
+    public static final CertManagerType DEFAULT_CERT_MANAGER = CertManagerType.OPENSSL;
+    public static final KeyType DEFAULT_KEY_TYPE = KeyType.RSA_2048;
+    public static final int DEFAULT_KEY_PAIR_POOL_SIZE = 0;
 
     private final Set<String> namespaces;
     private final long reconciliationIntervalMs;
@@ -55,6 +67,11 @@ public class ClusterOperatorConfig {
     private final KafkaVersion.Lookup versions;
     private final ImagePullPolicy imagePullPolicy;
     private final List<LocalObjectReference> imagePullSecrets;
+    private final boolean resourceCacheEnabled;
+    private final int maxConcurrentReconciliations;
+    private final CertManagerType certManager;
+    private final KeyType keyType;
+    private final int keyPairPoolSize;
 
     /**
      * Constructor
@@ -66,8 +83,13 @@ public class ClusterOperatorConfig {
      * @param versions The configured Kafka versions
      * @param imagePullPolicy Image pull policy configured by the user
      * @param imagePullSecrets Set of secrets for pulling container images from secured repositories
+     * @param resourceCacheEnabled true to serve reads of Kubernetes resources from watch-backed caches
+     * @param maxConcurrentReconciliations The maximum number of reconciliations of each kind of resource to run at a time
+     * @param certManager The implementation to use for generating keys and certificates
+     * @param keyType The type of the keys generated by the certificate manager
+     * @param keyPairPoolSize The number of key pairs which the {@code jca} certificate manager generates in advance
      */
-    public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets) {
+    public ClusterOperatorConfig(Set<String> namespaces, long reconciliationIntervalMs, long operationTimeoutMs, boolean createClusterRoles, KafkaVersion.Lookup versions, ImagePullPolicy imagePullPolicy, List<LocalObjectReference> imagePullSecrets, boolean resourceCacheEnabled, int maxConcurrentReconciliations, CertManagerType certManager, KeyType keyType, int keyPairPoolSize) {
         this.namespaces = unmodifiableSet(new HashSet<>(namespaces));
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.operationTimeoutMs = operationTimeoutMs;
@@ -75,6 +97,11 @@ public class ClusterOperatorConfig {
         this.versions = versions;
         this.imagePullPolicy = imagePullPolicy;
         this.imagePullSecrets = imagePullSecrets;
+        this.resourceCacheEnabled = resourceCacheEnabled;
+        this.maxConcurrentReconciliations = maxConcurrentReconciliations;
+        this.certManager = certManager;
+        this.keyType = keyType;
+        this.keyPairPoolSize = keyPairPoolSize;
     }
 
     /**
@@ -91,8 +118,13 @@ public class ClusterOperatorConfig {
         ImagePullPolicy imagePullPolicy = parseImagePullPolicy(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_POLICY));
         KafkaVersion.Lookup lookup = parseKafkaVersions(map.get(STRIMZI_KAFKA_IMAGES), map.get(STRIMZI_KAFKA_CONNECT_IMAGES), map.get(STRIMZI_KAFKA_CONNECT_S2I_IMAGES), map.get(STRIMZI_KAFKA_MIRROR_MAKER_IMAGES));
         List<LocalObjectReference> imagePullSecrets = parseImagePullSecrets(map.get(ClusterOperatorConfig.STRIMZI_IMAGE_PULL_SECRETS));
+        boolean resourceCacheEnabled = parseResourceCacheEnabled(map.get(ClusterOperatorConfig.STRIMZI_RESOURCE_CACHE_ENABLED));
+        int maxConcurrentReconciliations = parseMaxConcurrentReconciliations(map.get(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS));
+        CertManagerType certManager = parseCertManager(map.get(ClusterOperatorConfig.STRIMZI_CERT_MANAGER));
+        KeyType keyType = parseKeyType(map.get(ClusterOperatorConfig.STRIMZI_KEY_TYPE));
+        int keyPairPoolSize = parseKeyPairPoolSize(map.get(ClusterOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE));
 
-        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets);
+        return new ClusterOperatorConfig(namespaces, reconciliationInterval, operationTimeout, createClusterRoles, lookup, imagePullPolicy, imagePullSecrets, resourceCacheEnabled, maxConcurrentReconciliations, certManager, keyType, keyPairPoolSize);
     }
 
     private static Set<String> parseNamespaceList(String namespacesList)   {
@@ -144,6 +176,76 @@ public class ClusterOperatorConfig {
         return createClusterRoles;
     }
 
+    private static boolean parseResourceCacheEnabled(String resourceCacheEnabledEnvVar) {
+        boolean resourceCacheEnabled = DEFAULT_RESOURCE_CACHE_ENABLED;
+
+        if (resourceCacheEnabledEnvVar != null) {
+            resourceCacheEnabled = Boolean.parseBoolean(resourceCacheEnabledEnvVar);
+        }
+
+        return resourceCacheEnabled;
+    }
+
+    private static int parseMaxConcurrentReconciliations(String maxConcurrentReconciliationsEnvVar) {
+        int maxConcurrentReconciliations = DEFAULT_MAX_CONCURRENT_RECONCILIATIONS;
+
+        if (maxConcurrentReconciliationsEnvVar != null) {
+            maxConcurrentReconciliations = Integer.parseInt(maxConcurrentReconciliationsEnvVar);
+            if (maxConcurrentReconciliations <= 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS
+                        + " must be a positive number");
+            }
+        }
+
+        return maxConcurrentReconciliations;
+    }
+
+    private static CertManagerType parseCertManager(String certManagerEnvVar) {
+        CertManagerType certManager = DEFAULT_CERT_MANAGER;
+
+        if (certManagerEnvVar != null) {
+            try {
+                certManager = CertManagerType.forValue(certManagerEnvVar);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidConfigurationException(certManagerEnvVar
+                        + " is not a valid " + ClusterOperatorConfig.STRIMZI_CERT_MANAGER + " value. "
+                        + ClusterOperatorConfig.STRIMZI_CERT_MANAGER + " can have one of the following values: openssl, jca.");
+            }
+        }
+
+        return certManager;
+    }
+
+    private static KeyType parseKeyType(String keyTypeEnvVar) {
+        KeyType keyType = DEFAULT_KEY_TYPE;
+
+        if (keyTypeEnvVar != null) {
+            try {
+                keyType = KeyType.forValue(keyTypeEnvVar);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidConfigurationException(keyTypeEnvVar
+                        + " is not a valid " + ClusterOperatorConfig.STRIMZI_KEY_TYPE + " value. "
+                        + ClusterOperatorConfig.STRIMZI_KEY_TYPE + " must be of the form rsa:<bits>, with at least 2048 bits.");
+            }
+        }
+
+        return keyType;
+    }
+
+    private static int parseKeyPairPoolSize(String keyPairPoolSizeEnvVar) {
+        int keyPairPoolSize = DEFAULT_KEY_PAIR_POOL_SIZE;
+
+        if (keyPairPoolSizeEnvVar != null) {
+            keyPairPoolSize = Integer.parseInt(keyPairPoolSizeEnvVar);
+            if (keyPairPoolSize < 0) {
+                throw new InvalidConfigurationException(ClusterOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE
+                        + " must not be negative");
+            }
+        }
+
+        return keyPairPoolSize;
+    }
+
     private static ImagePullPolicy parseImagePullPolicy(String imagePullPolicyEnvVar) {
         ImagePullPolicy imagePullPolicy = null;
 
@@ -206,6 +308,41 @@ public class ClusterOperatorConfig {
         return imagePullSecrets;
     }
 
+    /**
+     * @return  Indicates whether reads of Kubernetes resources should be served from watch-backed caches
+     */
+    public boolean isResourceCacheEnabled() {
+        return resourceCacheEnabled;
+    }
+
+    /**
+     * @return  The maximum number of reconciliations of each kind of resource to run at a time
+     */
+    public int getMaxConcurrentReconciliations() {
+        return maxConcurrentReconciliations;
+    }
+
+    /**
+     * @return  The implementation to use for generating keys and certificates
+     */
+    public CertManagerType getCertManager() {
+        return certManager;
+    }
+
+    /**
+     * @return  The type of the keys generated by the certificate manager
+     */
+    public KeyType getKeyType() {
+        return keyType;
+    }
+
+    /**
+     * @return  The number of key pairs which the {@code jca} certificate manager generates in advance
+     */
+    public int getKeyPairPoolSize() {
+        return keyPairPoolSize;
+    }
+
     /**
      * @return  namespaces in which the operator runs and creates resources
      */
@@ -262,6 +399,11 @@ public class ClusterOperatorConfig {
                 ",versions=" + versions +
                 ",imagePullPolicy=" + imagePullPolicy +
                 ",imagePullSecrets=" + imagePullSecrets +
+                ",resourceCacheEnabled=" + resourceCacheEnabled +
+                ",maxConcurrentReconciliations=" + maxConcurrentReconciliations +
+                ",certManager=" + certManager +
+                ",keyType=" + keyType +
+                ",keyPairPoolSize=" + keyPairPoolSize +
                 ")";
     }
 }
@@ -8,7 +8,7 @@ import io.fabric8.kubernetes.api.model.rbac.ClusterRole;
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.api.kafka.Crds;
-import io.strimzi.certs.OpenSslCertManager;
+import io.strimzi.certs.CertManager;
 import io.strimzi.operator.cluster.operator.assembly.KafkaBridgeAssemblyOperator;
 import io.strimzi.operator.PlatformFeaturesAvailability;
 import io.strimzi.operator.cluster.operator.assembly.KafkaAssemblyOperator;
@@ -16,6 +16,7 @@ import io.strimzi.operator.cluster.operator.assembly.KafkaConnectAssemblyOperato
 import io.strimzi.operator.cluster.operator.assembly.KafkaConnectS2IAssemblyOperator;
 import io.strimzi.operator.cluster.operator.assembly.KafkaMirrorMakerAssemblyOperator;
 import io.strimzi.operator.cluster.operator.resource.ResourceOperatorSupplier;
+import io.strimzi.operator.common.Util;
 import io.strimzi.operator.common.operator.resource.ClusterRoleOperator;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -79,7 +80,7 @@ public class Main {
 
         ResourceOperatorSupplier resourceOperatorSupplier = new ResourceOperatorSupplier(vertx, client, pfa, config.getOperationTimeoutMs());
 
-        OpenSslCertManager certManager = new OpenSslCertManager();
+        CertManager certManager = Util.createCertManager(config.getCertManager(), config.getKeyType(), config.getKeyPairPoolSize());
         KafkaAssemblyOperator kafkaClusterOperations = new KafkaAssemblyOperator(vertx, pfa,
                 certManager, resourceOperatorSupplier, config);
         KafkaConnectAssemblyOperator kafkaConnectClusterOperations = new KafkaConnectAssemblyOperator(vertx, pfa,
@@ -110,20 +111,39 @@ public class Main {
                     kafkaConnectS2IClusterOperations,
                     kafkaMirrorMakerAssemblyOperator,
                     kafkaBridgeAssemblyOperator);
-            vertx.deployVerticle(operator,
-                res -> {
-                    if (res.succeeded()) {
-                        log.info("Cluster Operator verticle started in namespace {}", namespace);
-                    } else {
-                        log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
-                        System.exit(1);
-                    }
-                    fut.handle(res);
-                });
+            maybeEnableResourceCaches(vertx, config, resourceOperatorSupplier, namespace).compose(ignored -> {
+                Future<String> deployed = Future.future();
+                vertx.deployVerticle(operator, deployed);
+                return deployed;
+            }).setHandler(res -> {
+                if (res.succeeded()) {
+                    log.info("Cluster Operator verticle started in namespace {}", namespace);
+                } else {
+                    log.error("Cluster Operator verticle in namespace {} failed to start", namespace, res.cause());
+                    System.exit(1);
+                }
+                fut.handle(res);
+            });
         }
         return CompositeFuture.join(futures);
     }
 
+    static Future<Void> maybeEnableResourceCaches(Vertx vertx, ClusterOperatorConfig config, ResourceOperatorSupplier supplier, String namespace) {
+        if (config.isResourceCacheEnabled()) {
+            Future<Void> result = Future.future();
+            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+                future -> {
+                    supplier.enableCaches(namespace);
+                    future.complete();
+                },
+                true,
+                result);
+            return result;
+        } else {
+            return Future.succeededFuture();
+        }
+    }
+
     /*test*/ static Future<Void> maybeCreateClusterRoles(Vertx vertx, ClusterOperatorConfig config, KubernetesClient client)  {
         if (config.isCreateClusterRoles()) {
             List<Future> futures = new ArrayList<>();
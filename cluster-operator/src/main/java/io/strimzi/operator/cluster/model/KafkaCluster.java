@@ -130,7 +130,7 @@ public class KafkaCluster extends AbstractModel {
     protected static final int CLIENT_PORT = 9092;
     protected static final String CLIENT_PORT_NAME = "clients";
 
-    protected static final int REPLICATION_PORT = 9091;
+    public static final int REPLICATION_PORT = 9091;
     protected static final String REPLICATION_PORT_NAME = "replication";
 
     protected static final int CLIENT_TLS_PORT = 9093;
@@ -1390,9 +1390,10 @@ public class KafkaCluster extends AbstractModel {
     }
 
     /**
+     * @param namespaceAndPodSelectorNetworkPolicySupported whether the kube cluster supports namespace selectors
      * @return The network policy.
      */
-    public NetworkPolicy generateNetworkPolicy() {
+    public NetworkPolicy generateNetworkPolicy(boolean namespaceAndPodSelectorNetworkPolicySupported) {
         List<NetworkPolicyIngressRule> rules = new ArrayList<>(5);
 
         // Restrict access to 9091 / replication port
@@ -1413,9 +1414,25 @@ public class KafkaCluster extends AbstractModel {
         labelSelector2.setMatchLabels(expressions2);
         entityOperatorPeer.setPodSelector(labelSelector2);
 
+        List<NetworkPolicyPeer> replicationPortPeers = new ArrayList<>(3);
+        replicationPortPeers.add(kafkaClusterPeer);
+        replicationPortPeers.add(entityOperatorPeer);
+
+        if (namespaceAndPodSelectorNetworkPolicySupported) {
+            // The cluster operator checks the state of the partitions when rolling the brokers
+            NetworkPolicyPeer clusterOperatorPeer = new NetworkPolicyPeer();
+            LabelSelector labelSelector3 = new LabelSelector();
+            Map<String, String> expressions3 = new HashMap<>();
+            expressions3.put(Labels.STRIMZI_KIND_LABEL, "cluster-operator");
+            labelSelector3.setMatchLabels(expressions3);
+            clusterOperatorPeer.setPodSelector(labelSelector3);
+            clusterOperatorPeer.setNamespaceSelector(new LabelSelector());
+            replicationPortPeers.add(clusterOperatorPeer);
+        }
+
         NetworkPolicyIngressRule replicationRule = new NetworkPolicyIngressRuleBuilder()
                 .withPorts(replicationPort)
-                .withFrom(kafkaClusterPeer, entityOperatorPeer)
+                .withFrom(replicationPortPeers)
                 .build();
 
         rules.add(replicationRule);
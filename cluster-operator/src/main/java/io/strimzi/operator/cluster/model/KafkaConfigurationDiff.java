@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_CONFIGURATION;
+import static java.util.Arrays.asList;
+
+/**
+ * The difference between the user-supplied {@link KafkaConfiguration}s of two versions of the Kafka StatefulSet,
+ * with each changed option classified by the {@linkplain Scope scope} in which Kafka can update it
+ * without restarting the brokers.
+ */
+public class KafkaConfigurationDiff {
+
+    private static final Logger log = LogManager.getLogger(KafkaConfigurationDiff.class.getName());
+
+    /**
+     * How a broker config option can be changed.
+     */
+    public enum Scope {
+        /** The option can only be changed by restarting the broker. */
+        READ_ONLY,
+        /** The option can be changed dynamically, but only for each broker individually. */
+        PER_BROKER,
+        /** The option can be changed dynamically, for all the brokers at once by changing the cluster-wide default. */
+        CLUSTER_WIDE
+    }
+
+    /**
+     * The options which Kafka 2.1 and 2.2 brokers can update dynamically as cluster-wide defaults.
+     * The {@code .hours} and {@code .minutes} variants of the {@code .ms} options are not dynamic.
+     */
+    private static final Set<String> CLUSTER_WIDE_OPTIONS = new HashSet<>(asList(
+            // Log config defaults
+            "log.segment.bytes",
+            "log.roll.ms",
+            "log.roll.jitter.ms",
+            "log.index.size.max.bytes",
+            "log.flush.interval.messages",
+            "log.flush.interval.ms",
+            "log.retention.bytes",
+            "log.retention.ms",
+            "message.max.bytes",
+            "log.index.interval.bytes",
+            "log.cleaner.delete.retention.ms",
+            "log.cleaner.min.compaction.lag.ms",
+            "log.segment.delete.delay.ms",
+            "log.cleaner.min.cleanable.ratio",
+            "log.cleanup.policy",
+            "unclean.leader.election.enable",
+            "min.insync.replicas",
+            "compression.type",
+            "log.preallocate",
+            "log.message.timestamp.type",
+            "log.message.timestamp.difference.max.ms",
+            "log.message.downconversion.enable",
+            // Thread pools
+            "num.io.threads",
+            "num.network.threads",
+            "num.replica.fetchers",
+            "num.recovery.threads.per.data.dir",
+            "background.threads",
+            // Log cleaner
+            "log.cleaner.threads",
+            "log.cleaner.io.max.bytes.per.second",
+            "log.cleaner.dedupe.buffer.size",
+            "log.cleaner.io.buffer.size",
+            "log.cleaner.io.buffer.load.factor",
+            "log.cleaner.backoff.ms",
+            // Metrics reporters and connection quotas
+            "metric.reporters",
+            "max.connections.per.ip",
+            "max.connections.per.ip.overrides"));
+
+    /**
+     * The options which brokers can update dynamically, but only per broker.
+     * Most of these are forbidden in {@code spec.kafka.config} because the operator configures them.
+     */
+    private static final Set<String> PER_BROKER_OPTIONS = new HashSet<>(asList(
+            "listeners",
+            "advertised.listeners",
+            "listener.security.protocol.map"));
+    private static final String[] PER_BROKER_PREFIXES = {"ssl.", "sasl.", "listener.name."};
+
+    private final Map<String, String> current;
+    private final Map<String, String> desired;
+    private final Map<String, Scope> changes = new LinkedHashMap<>();
+
+    /**
+     * Diff the configuration of the brokers in the given StatefulSets.
+     * @param current The current StatefulSet.
+     * @param desired The desired StatefulSet.
+     */
+    public KafkaConfigurationDiff(StatefulSet current, StatefulSet desired) {
+        this(configuration(current), configuration(desired));
+    }
+
+    /**
+     * Diff the given configurations.
+     * @param current The current configuration.
+     * @param desired The desired configuration.
+     */
+    public KafkaConfigurationDiff(KafkaConfiguration current, KafkaConfiguration desired) {
+        this.current = current.asOrderedProperties().asMap();
+        this.desired = desired.asOrderedProperties().asMap();
+        Set<String> options = new HashSet<>(this.current.keySet());
+        options.addAll(this.desired.keySet());
+        for (String option : options) {
+            String currentValue = this.current.get(option);
+            String desiredValue = this.desired.get(option);
+            if (currentValue == null ? desiredValue != null : !currentValue.equals(desiredValue)) {
+                Scope scope = scope(option);
+                log.debug("Broker config option {} changed from {} to {} ({})", option, currentValue, desiredValue, scope);
+                changes.put(option, scope);
+            }
+        }
+    }
+
+    private static KafkaConfiguration configuration(StatefulSet ss) {
+        String configuration = ss == null ? null : ModelUtils.getKafkaContainerEnv(ss).get(ENV_VAR_KAFKA_CONFIGURATION);
+        return KafkaConfiguration.unvalidated(configuration == null ? "" : configuration);
+    }
+
+    /**
+     * @param option The name of a broker config option.
+     * @return The scope in which the given option can be changed.
+     */
+    public static Scope scope(String option) {
+        if (CLUSTER_WIDE_OPTIONS.contains(option)) {
+            return Scope.CLUSTER_WIDE;
+        }
+        if (PER_BROKER_OPTIONS.contains(option)) {
+            return Scope.PER_BROKER;
+        }
+        for (String prefix : PER_BROKER_PREFIXES) {
+            if (option.startsWith(prefix)) {
+                return Scope.PER_BROKER;
+            }
+        }
+        return Scope.READ_ONLY;
+    }
+
+    /**
+     * @return true if no option changed.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return The changed options, with their scopes.
+     */
+    public Map<String, Scope> changes() {
+        return changes;
+    }
+
+    /**
+     * Returns whether the brokers have to be restarted for the change to take effect:
+     * That is, whether a read-only or per-broker option changed, or an option was removed.
+     * A removed cluster-wide option needs a restart too, because the brokers would otherwise go back to
+     * the value they were started with, rather than the default.
+     * @return true if the brokers have to be restarted.
+     */
+    public boolean requiresRestart() {
+        for (Map.Entry<String, Scope> change : changes.entrySet()) {
+            if (change.getValue() != Scope.CLUSTER_WIDE || !desired.containsKey(change.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the cluster-wide dynamic defaults which the brokers should have, given the ones they have now:
+     * The cluster-wide options in the desired configuration are set,
+     * and the cluster-wide options which were removed from the configuration are removed.
+     * Other dynamic defaults, such as ones set using {@code kafka-configs.sh}, are kept.
+     * @param currentDefaults The current cluster-wide dynamic defaults of the brokers.
+     * @return The cluster-wide dynamic defaults.
+     */
+    public Map<String, String> clusterWideDefaults(Map<String, String> currentDefaults) {
+        Map<String, String> result = new HashMap<>(currentDefaults);
+        for (String option : current.keySet()) {
+            if (scope(option) == Scope.CLUSTER_WIDE && !desired.containsKey(option)) {
+                result.remove(option);
+            }
+        }
+        for (Map.Entry<String, String> entry : desired.entrySet()) {
+            if (scope(entry.getKey()) == Scope.CLUSTER_WIDE) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The cluster-wide options of the desired configuration,
+     * which {@link #clusterWideDefaults(Map)} sets as dynamic defaults.
+     */
+    public Set<String> desiredClusterWideOptions() {
+        return clusterWideOptions(desired.keySet());
+    }
+
+    /**
+     * @return The cluster-wide options of either the current or the desired configuration.
+     */
+    public Set<String> clusterWideOptions() {
+        Set<String> result = clusterWideOptions(current.keySet());
+        result.addAll(desiredClusterWideOptions());
+        return result;
+    }
+
+    private static Set<String> clusterWideOptions(Set<String> options) {
+        Set<String> result = new TreeSet<>();
+        for (String option : options) {
+            if (scope(option) == Scope.CLUSTER_WIDE) {
+                result.add(option);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "KafkaConfigurationDiff(" + changes + ")";
+    }
+}
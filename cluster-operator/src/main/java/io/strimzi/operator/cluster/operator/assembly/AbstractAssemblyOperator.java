@@ -26,7 +26,10 @@ import io.strimzi.certs.CertManager;
 import io.strimzi.operator.cluster.InvalidConfigParameterException;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.InvalidResourceException;
+import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.WorkQueue;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceType;
@@ -48,6 +51,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Consumer;
@@ -63,6 +67,10 @@ import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
  *
  * <p>This class manages a per-assembly locking strategy so only one operation per assembly
  * can proceed at once.</p>
+ *
+ * <p>Reconciliations triggered by watch events and by the periodic reconciliation go through a {@link WorkQueue},
+ * so that events for an assembly which is being reconciled are coalesced into a single follow-up reconciliation
+ * rather than waiting for the lock, and failed reconciliations are retried with a back-off.</p>
  */
 public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T extends HasMetadata,
         L extends KubernetesResourceList/*<T>*/, D extends Doneable<T>, R extends Resource<T, D>> {
@@ -70,6 +78,8 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
     private static final Logger log = LogManager.getLogger(AbstractAssemblyOperator.class.getName());
 
     protected static final int LOCK_TIMEOUT_MS = 10000;
+    private static final long RETRY_SCALE_MS = 5_000L;
+    private static final int RETRY_MAX_ATTEMPTS = 5;
 
     protected final Vertx vertx;
     protected final PlatformFeaturesAvailability pfa;
@@ -87,6 +97,7 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
     protected final List<LocalObjectReference> imagePullSecrets;
     protected final KafkaVersion.Lookup versions;
     private final String kind;
+    private final WorkQueue<NamespaceAndName> workQueue;
 
     /**
      * @param vertx The Vertx instance
@@ -118,6 +129,8 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
         this.imagePullPolicy = config.getImagePullPolicy();
         this.imagePullSecrets = config.getImagePullSecrets();
         this.versions = config.versions();
+        this.workQueue = new WorkQueue<>(vertx, kind.toLowerCase(Locale.ENGLISH) + "-reconciliations",
+                config.getMaxConcurrentReconciliations(), () -> new BackOff(RETRY_SCALE_MS, 2, RETRY_MAX_ATTEMPTS));
     }
 
     /**
@@ -155,6 +168,14 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
         return null;
     }
 
+    /**
+     * Called when the custom resource of the assembly has been deleted, to release any state held for it.
+     * Its Kubernetes resources are deleted by garbage collection.
+     * @param reconciliation The reconciliation.
+     */
+    protected void deleted(Reconciliation reconciliation) {
+    }
+
     /**
      * Reconcile assembly resources in the given namespace having the given {@code name}.
      * Reconciliation works by getting the assembly resource (e.g. {@code KafkaAssembly}) in the given namespace with the given name and
@@ -170,7 +191,10 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
         String namespace = reconciliation.namespace();
         String assemblyName = reconciliation.name();
         final String lockName = getLockName(assemblyType, namespace, assemblyName);
+        final String kind = reconciliation.type().toString();
+        final long startNanos = System.nanoTime();
         vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, res -> {
+            OperatorMetrics.lockWaited(kind, startNanos, res.succeeded());
             if (res.succeeded()) {
                 log.debug("{}: Lock {} acquired", reconciliation, lockName);
                 Lock lock = res.result();
@@ -186,33 +210,45 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                             .setHandler(createResult -> {
                                 lock.release();
                                 log.debug("{}: Lock {} released", reconciliation, lockName);
-                                if (createResult.failed()) {
-                                    if (createResult.cause() instanceof InvalidResourceException) {
-                                        log.error("{}: createOrUpdate failed. {}", reconciliation, createResult.cause().getMessage());
-                                    } else {
-                                        log.error("{}: createOrUpdate failed", reconciliation, createResult.cause());
-                                    }
-                                } else {
-                                    handler.handle(createResult);
-                                }
+                                OperatorMetrics.reconciliationCompleted(kind, startNanos, createResult.succeeded());
+                                handler.handle(createResult);
                             });
                     } else {
                         log.info("{}: Assembly {} should be deleted by garbage collection", reconciliation, assemblyName);
+                        deleted(reconciliation);
                         lock.release();
                         log.debug("{}: Lock {} released", reconciliation, lockName);
+                        OperatorMetrics.reconciliationCompleted(kind, startNanos, true);
                         handler.handle(Future.succeededFuture());
                     }
                 } catch (Throwable ex) {
                     lock.release();
                     log.debug("{}: Lock {} released", reconciliation, lockName);
+                    OperatorMetrics.reconciliationCompleted(kind, startNanos, false);
                     handler.handle(Future.failedFuture(ex));
                 }
             } else {
                 log.debug("{}: Failed to acquire lock {}.", reconciliation, lockName);
+                OperatorMetrics.reconciliationLockedOut(kind);
+                handler.handle(Future.failedFuture(res.cause()));
             }
         });
     }
 
+    /**
+     * Enqueues a {@linkplain #reconcileAssembly(Reconciliation, Handler) reconciliation} of the assembly
+     * with the namespace and name of the given {@code reconciliation} on the work queue of this operator.
+     * @param reconciliation The reconciliation.
+     * @return A future which completes with the outcome of the next reconciliation of the assembly.
+     */
+    public final Future<Void> enqueueReconciliation(Reconciliation reconciliation) {
+        return workQueue.enqueue(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()), () -> {
+            Future<Void> result = Future.future();
+            reconcileAssembly(reconciliation, result);
+            return result;
+        });
+    }
+
     /**
      * Validate the Custom Resource.
      * This should log at the WARN level (rather than throwing) if the resource can safely be reconciled.
@@ -254,7 +290,7 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
 
         for (NamespaceAndName name: desiredNames) {
             Reconciliation reconciliation = new Reconciliation(trigger, assemblyType, name.getNamespace(), name.getName());
-            reconcileAssembly(reconciliation, result -> {
+            enqueueReconciliation(reconciliation).setHandler(result -> {
                 handleResult(reconciliation, result);
                 latch.countDown();
             });
@@ -284,7 +320,7 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
                             case MODIFIED:
                                 Reconciliation reconciliation = new Reconciliation("watch", assemblyType, resourceNamespace, name);
                                 log.info("{}: {} {} in namespace {} was {}", reconciliation, kind, name, resourceNamespace, action);
-                                reconcileAssembly(reconciliation, result -> {
+                                enqueueReconciliation(reconciliation).setHandler(result -> {
                                     handleResult(reconciliation, result);
                                 });
                                 break;
@@ -317,7 +353,7 @@ public abstract class AbstractAssemblyOperator<C extends KubernetesClient, T ext
             log.info("{}: Assembly reconciled", reconciliation);
         } else {
             Throwable cause = result.cause();
-            if (cause instanceof InvalidConfigParameterException) {
+            if (cause instanceof InvalidConfigParameterException || cause instanceof InvalidResourceException) {
                 log.warn("{}: Failed to reconcile {}", reconciliation, cause.getMessage());
             } else {
                 log.warn("{}: Failed to reconcile", reconciliation, cause);
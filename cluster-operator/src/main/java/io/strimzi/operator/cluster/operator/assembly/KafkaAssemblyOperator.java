@@ -98,6 +98,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -177,6 +179,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         ReconciliationState reconcileState = createReconciliationState(reconciliation, kafkaAssembly);
         reconcile(reconcileState).setHandler(reconcileResult -> {
+            log.info("{}: {} resources were already up to date and did not need to be patched", reconciliation, reconcileState.skippedWrites);
             KafkaStatus status = reconcileState.kafkaStatus;
             Condition readyCondition;
 
@@ -223,84 +226,269 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         return createOrUpdateFuture;
     }
 
+    @Override
+    protected void deleted(Reconciliation reconciliation) {
+        zkSetOperations.clusterDeleted(reconciliation.namespace(), reconciliation.name());
+    }
+
+    /**
+     * The state and the resources which are read and written by the steps of the reconciliation.
+     * The keys declared for each step determine which steps can run concurrently,
+     * see {@link ReconciliationGraph}.
+     */
+    enum Key {
+        /** The cluster and clients CAs */
+        CAS,
+        /** The cluster operator secret (and {@code oldCoSecret}) */
+        CO_SECRET,
+
+        /** {@code zkCluster} and the resources generated from it */
+        ZK_MODEL,
+        /** The replicas of {@code zkCluster}, which change while scaling up */
+        ZK_REPLICAS,
+        /** The ZooKeeper StatefulSet, its Pods and {@code zkDiffs} */
+        ZK_PODS,
+        ZK_PVCS,
+        /** The ZooKeeper pods to restart for file system resizing */
+        ZK_FS_RESIZE,
+        ZK_NET_POLICY,
+        ZK_SERVICE_ACCOUNT,
+        ZK_SERVICE,
+        ZK_HEADLESS_SERVICE,
+        /** The ZooKeeper ancillary ConfigMap and {@code zkAncillaryCmChange} */
+        ZK_ANCILLARY_CM,
+        ZK_NODES_SECRET,
+        ZK_PDB,
+        ZK_SERVICE_READY,
+        ZK_HEADLESS_SERVICE_READY,
+
+        /** {@code kafkaCluster} and the resources generated from it */
+        KAFKA_MODEL,
+        /** The Kafka StatefulSet, its Pods and {@code kafkaDiffs} */
+        KAFKA_PODS,
+        KAFKA_PVCS,
+        /** The Kafka pods to restart for file system resizing */
+        KAFKA_FS_RESIZE,
+        KAFKA_NET_POLICY,
+        KAFKA_SERVICE_ACCOUNT,
+        KAFKA_CLUSTER_ROLE_BINDING,
+        KAFKA_SERVICE,
+        KAFKA_HEADLESS_SERVICE,
+        KAFKA_EXTERNAL_BOOTSTRAP_SERVICE,
+        KAFKA_EXTERNAL_SERVICES,
+        KAFKA_BOOTSTRAP_ROUTE,
+        KAFKA_ROUTES,
+        KAFKA_BOOTSTRAP_INGRESS,
+        KAFKA_INGRESSES,
+        /** The external addresses and DNS names of the brokers */
+        KAFKA_EXTERNAL_ADDRESSES,
+        /** The listeners in {@code kafkaStatus} */
+        KAFKA_LISTENER_STATUS,
+        /** The broker certificates of {@code kafkaCluster} */
+        KAFKA_CERTS,
+        /** The Kafka ancillary ConfigMap and {@code kafkaAncillaryCmChange} */
+        KAFKA_ANCILLARY_CM,
+        KAFKA_BROKERS_SECRET,
+        KAFKA_PDB,
+        KAFKA_SERVICE_READY,
+        KAFKA_HEADLESS_SERVICE_READY,
+
+        /** {@code topicOperator} and the resources generated from it */
+        TO_MODEL,
+        TO_SERVICE_ACCOUNT,
+        TO_ROLE_BINDING,
+        TO_ANCILLARY_CM,
+        TO_SECRET,
+        TO_DEPLOYMENT,
+
+        /** {@code entityOperator} and the resources generated from it */
+        EO_MODEL,
+        EO_SERVICE_ACCOUNT,
+        EO_TOPIC_OPERATOR_ROLE_BINDING,
+        EO_USER_OPERATOR_ROLE_BINDING,
+        EO_TOPIC_OPERATOR_ANCILLARY_CM,
+        EO_USER_OPERATOR_ANCILLARY_CM,
+        EO_SECRET,
+        EO_DEPLOYMENT
+    }
+
     Future<Void> reconcile(ReconciliationState reconcileState)  {
-        Future<Void> chainFuture = Future.future();
-
-        reconcileState.reconcileCas(this::dateSupplier)
-                .compose(state -> state.clusterOperatorSecret())
-                // Roll everything if a new CA is added to the trust store.
-                .compose(state -> state.rollingUpdateForNewCaKey())
-                .compose(state -> state.getZookeeperDescription())
-                .compose(state -> state.zkManualPodCleaning())
-                .compose(state -> state.zkNetPolicy())
-                .compose(state -> state.zkManualRollingUpdate())
-                .compose(state -> state.zookeeperServiceAccount())
-                .compose(state -> state.zkPvcs())
-                .compose(state -> state.zkScaleUpStep())
-                .compose(state -> state.zkScaleDown())
-                .compose(state -> state.zkService())
-                .compose(state -> state.zkHeadlessService())
-                .compose(state -> state.zkAncillaryCm())
-                .compose(state -> state.zkNodesSecret())
-                .compose(state -> state.zkPodDisruptionBudget())
-                .compose(state -> state.zkStatefulSet())
-                .compose(state -> state.zkScaleUp())
-                .compose(state -> state.zkRollingUpdate())
-                .compose(state -> state.zkServiceEndpointReadiness())
-                .compose(state -> state.zkHeadlessServiceEndpointReadiness())
-                .compose(state -> state.zkPersistentClaimDeletion())
-
-                .compose(state -> state.getKafkaClusterDescription())
-                .compose(state -> state.kafkaManualPodCleaning())
-                .compose(state -> state.kafkaNetPolicy())
-                .compose(state -> state.kafkaManualRollingUpdate())
-                .compose(state -> state.kafkaUpgrade())
-                .compose(state -> state.kafkaPvcs())
-                .compose(state -> state.kafkaInitServiceAccount())
-                .compose(state -> state.kafkaInitClusterRoleBinding())
-                .compose(state -> state.kafkaScaleDown())
-                .compose(state -> state.kafkaService())
-                .compose(state -> state.kafkaHeadlessService())
-                .compose(state -> state.kafkaExternalBootstrapService())
-                .compose(state -> state.kafkaReplicaServices())
-                .compose(state -> state.kafkaBootstrapRoute())
-                .compose(state -> state.kafkaReplicaRoutes())
-                .compose(state -> state.kafkaBootstrapIngress())
-                .compose(state -> state.kafkaReplicaIngress())
-                .compose(state -> state.kafkaExternalBootstrapServiceReady())
-                .compose(state -> state.kafkaReplicaServicesReady())
-                .compose(state -> state.kafkaBootstrapRouteReady())
-                .compose(state -> state.kafkaReplicaRoutesReady())
-                .compose(state -> state.kafkaGenerateCertificates())
-                .compose(state -> state.kafkaAncillaryCm())
-                .compose(state -> state.kafkaBrokersSecret())
-                .compose(state -> state.kafkaPodDisruptionBudget())
-                .compose(state -> state.kafkaStatefulSet())
-                .compose(state -> state.kafkaRollingUpdate())
-                .compose(state -> state.kafkaScaleUp())
-                .compose(state -> state.kafkaServiceEndpointReady())
-                .compose(state -> state.kafkaHeadlessServiceEndpointReady())
-                .compose(state -> state.kafkaPersistentClaimDeletion())
-
-                .compose(state -> state.getTopicOperatorDescription())
-                .compose(state -> state.topicOperatorServiceAccount())
-                .compose(state -> state.topicOperatorRoleBinding())
-                .compose(state -> state.topicOperatorAncillaryCm())
-                .compose(state -> state.topicOperatorSecret())
-                .compose(state -> state.topicOperatorDeployment())
-
-                .compose(state -> state.getEntityOperatorDescription())
-                .compose(state -> state.entityOperatorServiceAccount())
-                .compose(state -> state.entityOperatorTopicOpRoleBinding())
-                .compose(state -> state.entityOperatorUserOpRoleBinding())
-                .compose(state -> state.entityOperatorTopicOpAncillaryCm())
-                .compose(state -> state.entityOperatorUserOpAncillaryCm())
-                .compose(state -> state.entityOperatorSecret())
-                .compose(state -> state.entityOperatorDeployment())
-
-                .compose(state -> chainFuture.complete(), chainFuture);
-
-        return chainFuture;
+        return reconciliationGraph(reconcileState).execute();
+    }
+
+    /**
+     * The steps of the reconciliation, in the order in which they would be executed sequentially,
+     * together with the state and resources which each of them reads and writes.
+     */
+    ReconciliationGraph<Key> reconciliationGraph(ReconciliationState state) {
+        ReconciliationGraph<Key> graph = new ReconciliationGraph<>(state.reconciliation);
+
+        graph.step("reconcileCas", () -> state.reconcileCas(this::dateSupplier))
+                .writes(Key.CAS);
+        graph.step("clusterOperatorSecret", state::clusterOperatorSecret)
+                .reads(Key.CAS).writes(Key.CO_SECRET);
+        // Roll everything if a new CA is added to the trust store.
+        graph.step("rollingUpdateForNewCaKey", state::rollingUpdateForNewCaKey)
+                .reads(Key.CAS, Key.CO_SECRET).writes(Key.ZK_PODS, Key.KAFKA_PODS, Key.TO_DEPLOYMENT, Key.EO_DEPLOYMENT);
+
+        zookeeperSteps(graph, state);
+        kafkaSteps(graph, state);
+        topicOperatorSteps(graph, state);
+        entityOperatorSteps(graph, state);
+
+        return graph;
+    }
+
+    private void zookeeperSteps(ReconciliationGraph<Key> graph, ReconciliationState state) {
+        graph.step("getZookeeperDescription", state::getZookeeperDescription)
+                .reads(Key.ZK_PODS).writes(Key.ZK_MODEL, Key.ZK_REPLICAS);
+        graph.step("zkManualPodCleaning", state::zkManualPodCleaning)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS).writes(Key.ZK_PODS, Key.ZK_PVCS);
+        graph.step("zkNetPolicy", state::zkNetPolicy)
+                .reads(Key.ZK_MODEL).writes(Key.ZK_NET_POLICY);
+        graph.step("zkManualRollingUpdate", state::zkManualRollingUpdate)
+                .writes(Key.ZK_PODS);
+        graph.step("zookeeperServiceAccount", state::zookeeperServiceAccount)
+                .reads(Key.ZK_MODEL).writes(Key.ZK_SERVICE_ACCOUNT);
+        graph.step("zkPvcs", state::zkPvcs)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS).writes(Key.ZK_PVCS, Key.ZK_FS_RESIZE);
+        graph.step("zkScaleUpStep", state::zkScaleUpStep)
+                .reads(Key.ZK_MODEL, Key.ZK_PODS).writes(Key.ZK_REPLICAS);
+        graph.step("zkScaleDown", state::zkScaleDown)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS).writes(Key.ZK_PODS);
+        graph.step("zkService", state::zkService)
+                .reads(Key.ZK_MODEL).writes(Key.ZK_SERVICE);
+        graph.step("zkHeadlessService", state::zkHeadlessService)
+                .reads(Key.ZK_MODEL).writes(Key.ZK_HEADLESS_SERVICE);
+        graph.step("zkAncillaryCm", state::zkAncillaryCm)
+                .reads(Key.ZK_MODEL).writes(Key.ZK_ANCILLARY_CM);
+        graph.step("zkNodesSecret", state::zkNodesSecret)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS, Key.CAS).writes(Key.ZK_NODES_SECRET);
+        graph.step("zkPodDisruptionBudget", state::zkPodDisruptionBudget)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS).writes(Key.ZK_PDB);
+        graph.step("zkStatefulSet", state::zkStatefulSet)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS, Key.CAS, Key.ZK_PVCS, Key.ZK_NET_POLICY, Key.ZK_SERVICE_ACCOUNT,
+                        Key.ZK_SERVICE, Key.ZK_HEADLESS_SERVICE, Key.ZK_ANCILLARY_CM, Key.ZK_NODES_SECRET, Key.ZK_PDB)
+                .writes(Key.ZK_PODS);
+        graph.step("zkScaleUp", state::zkScaleUp)
+                .reads(Key.ZK_MODEL, Key.ZK_REPLICAS).writes(Key.ZK_PODS);
+        graph.step("zkRollingUpdate", state::zkRollingUpdate)
+                .reads(Key.CAS, Key.ZK_ANCILLARY_CM, Key.ZK_FS_RESIZE).writes(Key.ZK_PODS);
+        graph.step("zkServiceEndpointReadiness", state::zkServiceEndpointReadiness)
+                .reads(Key.ZK_PODS, Key.ZK_SERVICE).writes(Key.ZK_SERVICE_READY);
+        graph.step("zkHeadlessServiceEndpointReadiness", state::zkHeadlessServiceEndpointReadiness)
+                .reads(Key.ZK_PODS, Key.ZK_HEADLESS_SERVICE).writes(Key.ZK_HEADLESS_SERVICE_READY);
+        graph.step("zkPersistentClaimDeletion", state::zkPersistentClaimDeletion)
+                .reads(Key.ZK_MODEL, Key.ZK_PODS).writes(Key.ZK_PVCS);
+    }
+
+    private void kafkaSteps(ReconciliationGraph<Key> graph, ReconciliationState state) {
+        graph.step("getKafkaClusterDescription", state::getKafkaClusterDescription)
+                .reads(Key.KAFKA_PODS).writes(Key.KAFKA_MODEL);
+        // Kafka pods are only touched once ZooKeeper is ready
+        graph.step("kafkaManualPodCleaning", state::kafkaManualPodCleaning)
+                .reads(Key.KAFKA_MODEL, Key.ZK_SERVICE_READY, Key.ZK_HEADLESS_SERVICE_READY).writes(Key.KAFKA_PODS, Key.KAFKA_PVCS);
+        graph.step("kafkaNetPolicy", state::kafkaNetPolicy)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_NET_POLICY);
+        graph.step("kafkaManualRollingUpdate", state::kafkaManualRollingUpdate)
+                .writes(Key.KAFKA_PODS);
+        graph.step("kafkaUpgrade", state::kafkaUpgrade)
+                .writes(Key.KAFKA_PODS);
+        graph.step("kafkaPvcs", state::kafkaPvcs)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_PVCS, Key.KAFKA_FS_RESIZE);
+        graph.step("kafkaInitServiceAccount", state::kafkaInitServiceAccount)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_SERVICE_ACCOUNT);
+        graph.step("kafkaInitClusterRoleBinding", state::kafkaInitClusterRoleBinding)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_CLUSTER_ROLE_BINDING);
+        graph.step("kafkaScaleDown", state::kafkaScaleDown)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_PODS);
+        graph.step("kafkaService", state::kafkaService)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_SERVICE, Key.KAFKA_LISTENER_STATUS);
+        graph.step("kafkaHeadlessService", state::kafkaHeadlessService)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_HEADLESS_SERVICE);
+        graph.step("kafkaExternalBootstrapService", state::kafkaExternalBootstrapService)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_EXTERNAL_BOOTSTRAP_SERVICE);
+        graph.step("kafkaReplicaServices", state::kafkaReplicaServices)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_EXTERNAL_SERVICES);
+        graph.step("kafkaBootstrapRoute", state::kafkaBootstrapRoute)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_BOOTSTRAP_ROUTE);
+        graph.step("kafkaReplicaRoutes", state::kafkaReplicaRoutes)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_ROUTES);
+        graph.step("kafkaBootstrapIngress", state::kafkaBootstrapIngress)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_BOOTSTRAP_INGRESS, Key.KAFKA_EXTERNAL_ADDRESSES);
+        graph.step("kafkaReplicaIngress", state::kafkaReplicaIngress)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_INGRESSES, Key.KAFKA_EXTERNAL_ADDRESSES);
+        graph.step("kafkaExternalBootstrapServiceReady", state::kafkaExternalBootstrapServiceReady)
+                .reads(Key.KAFKA_MODEL, Key.KAFKA_EXTERNAL_BOOTSTRAP_SERVICE).writes(Key.KAFKA_EXTERNAL_ADDRESSES, Key.KAFKA_LISTENER_STATUS);
+        graph.step("kafkaReplicaServicesReady", state::kafkaReplicaServicesReady)
+                .reads(Key.KAFKA_MODEL, Key.KAFKA_EXTERNAL_SERVICES).writes(Key.KAFKA_EXTERNAL_ADDRESSES);
+        graph.step("kafkaBootstrapRouteReady", state::kafkaBootstrapRouteReady)
+                .reads(Key.KAFKA_MODEL, Key.KAFKA_BOOTSTRAP_ROUTE).writes(Key.KAFKA_EXTERNAL_ADDRESSES, Key.KAFKA_LISTENER_STATUS);
+        graph.step("kafkaReplicaRoutesReady", state::kafkaReplicaRoutesReady)
+                .reads(Key.KAFKA_MODEL, Key.KAFKA_ROUTES).writes(Key.KAFKA_EXTERNAL_ADDRESSES);
+        graph.step("kafkaGenerateCertificates", state::kafkaGenerateCertificates)
+                .reads(Key.KAFKA_MODEL, Key.CAS, Key.KAFKA_EXTERNAL_ADDRESSES).writes(Key.KAFKA_CERTS);
+        graph.step("kafkaAncillaryCm", state::kafkaAncillaryCm)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_ANCILLARY_CM);
+        graph.step("kafkaBrokersSecret", state::kafkaBrokersSecret)
+                .reads(Key.KAFKA_MODEL, Key.KAFKA_CERTS).writes(Key.KAFKA_BROKERS_SECRET);
+        graph.step("kafkaPodDisruptionBudget", state::kafkaPodDisruptionBudget)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_PDB);
+        graph.step("kafkaStatefulSet", state::kafkaStatefulSet)
+                .reads(Key.KAFKA_MODEL, Key.CAS, Key.KAFKA_EXTERNAL_ADDRESSES, Key.KAFKA_PVCS, Key.KAFKA_NET_POLICY,
+                        Key.KAFKA_SERVICE_ACCOUNT, Key.KAFKA_CLUSTER_ROLE_BINDING, Key.KAFKA_SERVICE, Key.KAFKA_HEADLESS_SERVICE,
+                        Key.KAFKA_BOOTSTRAP_INGRESS, Key.KAFKA_INGRESSES, Key.KAFKA_ANCILLARY_CM, Key.KAFKA_BROKERS_SECRET, Key.KAFKA_PDB)
+                .writes(Key.KAFKA_PODS);
+        graph.step("kafkaRollingUpdate", state::kafkaRollingUpdate)
+                .reads(Key.CAS, Key.KAFKA_ANCILLARY_CM, Key.KAFKA_FS_RESIZE).writes(Key.KAFKA_PODS);
+        graph.step("kafkaScaleUp", state::kafkaScaleUp)
+                .reads(Key.KAFKA_MODEL).writes(Key.KAFKA_PODS);
+        graph.step("kafkaServiceEndpointReady", state::kafkaServiceEndpointReady)
+                .reads(Key.KAFKA_PODS, Key.KAFKA_SERVICE).writes(Key.KAFKA_SERVICE_READY);
+        graph.step("kafkaHeadlessServiceEndpointReady", state::kafkaHeadlessServiceEndpointReady)
+                .reads(Key.KAFKA_PODS, Key.KAFKA_HEADLESS_SERVICE).writes(Key.KAFKA_HEADLESS_SERVICE_READY);
+        graph.step("kafkaPersistentClaimDeletion", state::kafkaPersistentClaimDeletion)
+                .reads(Key.KAFKA_MODEL, Key.KAFKA_PODS).writes(Key.KAFKA_PVCS);
+    }
+
+    private void topicOperatorSteps(ReconciliationGraph<Key> graph, ReconciliationState state) {
+        graph.step("getTopicOperatorDescription", state::getTopicOperatorDescription)
+                .writes(Key.TO_MODEL);
+        graph.step("topicOperatorServiceAccount", state::topicOperatorServiceAccount)
+                .reads(Key.TO_MODEL).writes(Key.TO_SERVICE_ACCOUNT);
+        graph.step("topicOperatorRoleBinding", state::topicOperatorRoleBinding)
+                .reads(Key.TO_MODEL).writes(Key.TO_ROLE_BINDING);
+        graph.step("topicOperatorAncillaryCm", state::topicOperatorAncillaryCm)
+                .reads(Key.TO_MODEL).writes(Key.TO_ANCILLARY_CM);
+        graph.step("topicOperatorSecret", state::topicOperatorSecret)
+                .reads(Key.TO_MODEL, Key.CAS).writes(Key.TO_SECRET);
+        // The operator deployments are only touched once Kafka is ready
+        graph.step("topicOperatorDeployment", state::topicOperatorDeployment)
+                .reads(Key.TO_MODEL, Key.CAS, Key.TO_SERVICE_ACCOUNT, Key.TO_ROLE_BINDING, Key.TO_ANCILLARY_CM, Key.TO_SECRET,
+                        Key.KAFKA_SERVICE_READY, Key.KAFKA_HEADLESS_SERVICE_READY)
+                .writes(Key.TO_DEPLOYMENT);
+    }
+
+    private void entityOperatorSteps(ReconciliationGraph<Key> graph, ReconciliationState state) {
+        graph.step("getEntityOperatorDescription", state::getEntityOperatorDescription)
+                .writes(Key.EO_MODEL);
+        graph.step("entityOperatorServiceAccount", state::entityOperatorServiceAccount)
+                .reads(Key.EO_MODEL).writes(Key.EO_SERVICE_ACCOUNT);
+        graph.step("entityOperatorTopicOpRoleBinding", state::entityOperatorTopicOpRoleBinding)
+                .reads(Key.EO_MODEL).writes(Key.EO_TOPIC_OPERATOR_ROLE_BINDING);
+        graph.step("entityOperatorUserOpRoleBinding", state::entityOperatorUserOpRoleBinding)
+                .reads(Key.EO_MODEL).writes(Key.EO_USER_OPERATOR_ROLE_BINDING);
+        graph.step("entityOperatorTopicOpAncillaryCm", state::entityOperatorTopicOpAncillaryCm)
+                .reads(Key.EO_MODEL).writes(Key.EO_TOPIC_OPERATOR_ANCILLARY_CM);
+        graph.step("entityOperatorUserOpAncillaryCm", state::entityOperatorUserOpAncillaryCm)
+                .reads(Key.EO_MODEL).writes(Key.EO_USER_OPERATOR_ANCILLARY_CM);
+        graph.step("entityOperatorSecret", state::entityOperatorSecret)
+                .reads(Key.EO_MODEL, Key.CAS).writes(Key.EO_SECRET);
+        graph.step("entityOperatorDeployment", state::entityOperatorDeployment)
+                .reads(Key.EO_MODEL, Key.CAS, Key.EO_SERVICE_ACCOUNT, Key.EO_TOPIC_OPERATOR_ROLE_BINDING, Key.EO_USER_OPERATOR_ROLE_BINDING,
+                        Key.EO_TOPIC_OPERATOR_ANCILLARY_CM, Key.EO_USER_OPERATOR_ANCILLARY_CM, Key.EO_SECRET,
+                        Key.KAFKA_SERVICE_READY, Key.KAFKA_HEADLESS_SERVICE_READY)
+                .writes(Key.EO_DEPLOYMENT);
     }
 
     ReconciliationState createReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
@@ -352,7 +540,9 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         private ConfigMap userOperatorMetricsAndLogsConfigMap;
         private Secret oldCoSecret;
 
-        /* test */ Set<String> fsResizingRestartRequest = new HashSet<>();
+        /* test */ Set<String> fsResizingRestartRequest = ConcurrentHashMap.newKeySet();
+
+        /* test */ AtomicInteger skippedWrites = new AtomicInteger();
 
         ReconciliationState(Reconciliation reconciliation, Kafka kafkaAssembly) {
             this.reconciliation = reconciliation;
@@ -1047,15 +1237,34 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
             return fut;
         }
 
+        /**
+         * Counts the reconcile results (including those within a {@code CompositeFuture})
+         * for which no write was needed because the resource was already in the desired state.
+         */
+        private void countSkippedWrites(Object result) {
+            if (result instanceof ReconcileResult.Noop && ((ReconcileResult.Noop<?>) result).isWriteSkipped()) {
+                skippedWrites.incrementAndGet();
+            } else if (result instanceof CompositeFuture) {
+                CompositeFuture composite = (CompositeFuture) result;
+                for (int i = 0; i < composite.size(); i++) {
+                    countSkippedWrites(composite.resultAt(i));
+                }
+            }
+        }
+
         Future<ReconciliationState> withZkDiff(Future<ReconcileResult<StatefulSet>> r) {
             return r.map(rr -> {
+                countSkippedWrites(rr);
                 this.zkDiffs = rr;
                 return this;
             });
         }
 
         Future<ReconciliationState> withVoid(Future<?> r) {
-            return r.map(this);
+            return r.map(result -> {
+                countSkippedWrites(result);
+                return this;
+            });
         }
 
         Future<ReconciliationState> zookeeperServiceAccount() {
@@ -1173,6 +1382,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         Future<ReconciliationState> withZkAncillaryCmChanged(boolean onlyMetricsSettingChanged, Future<ReconcileResult<ConfigMap>> r) {
             return r.map(rr -> {
+                countSkippedWrites(rr);
                 if (onlyMetricsSettingChanged) {
                     log.debug("Only metrics setting changed - not triggering rolling update");
                     this.zkAncillaryCmChange = false;
@@ -1220,6 +1430,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         Future<ReconciliationState> withKafkaDiff(Future<ReconcileResult<StatefulSet>> r) {
             return r.map(rr -> {
+                countSkippedWrites(rr);
                 this.kafkaDiffs = rr;
                 return this;
             });
@@ -1227,6 +1438,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
 
         Future<ReconciliationState> withKafkaAncillaryCmChanged(boolean onlyMetricsSettingChanged, Future<ReconcileResult<ConfigMap>> r) {
             return r.map(rr -> {
+                countSkippedWrites(rr);
                 if (onlyMetricsSettingChanged) {
                     log.debug("Only metrics setting changed - not triggering rolling update");
                     this.kafkaAncillaryCmChange = false;
@@ -1694,7 +1906,7 @@ public class KafkaAssemblyOperator extends AbstractAssemblyOperator<KubernetesCl
         }
 
         Future<ReconciliationState> kafkaNetPolicy() {
-            return withVoid(networkPolicyOperator.reconcile(namespace, KafkaCluster.policyName(name), kafkaCluster.generateNetworkPolicy()));
+            return withVoid(networkPolicyOperator.reconcile(namespace, KafkaCluster.policyName(name), kafkaCluster.generateNetworkPolicy(pfa.isNamespaceAndPodSelectorNetworkPolicySupported())));
         }
 
         Future<ReconciliationState> kafkaPodDisruptionBudget() {
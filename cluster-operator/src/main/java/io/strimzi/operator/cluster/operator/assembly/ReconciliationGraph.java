@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.strimzi.operator.common.OperatorMetrics;
+import io.strimzi.operator.common.Reconciliation;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * <p>The steps of a reconciliation, executed with as much concurrency as their declared inputs and outputs allow.</p>
+ *
+ * <p>Each step declares the keys which it {@linkplain Step#reads(Object[]) reads} and
+ * {@linkplain Step#writes(Object[]) writes}. A key stands for some mutable state (for example a field of the
+ * reconciliation state) or for some resources in the cluster. Steps are declared in the order in which they would be
+ * executed sequentially and their dependencies are derived from that order:</p>
+ * <ul>
+ *     <li>A step which reads a key is started after the last earlier step which writes the key has completed.</li>
+ *     <li>A step which writes a key is started after the last earlier step which writes the key, and every
+ *     earlier step which reads it since, have completed.</li>
+ * </ul>
+ * <p>So the outcome, as far as the declared keys are concerned, is the same as that of the sequential execution.</p>
+ *
+ * <p>Once a step has failed no further steps are started. The execution fails with the cause of the first failure
+ * once the steps which were already running have completed.</p>
+ *
+ * <p>The start and completion time of every step is recorded, the duration of each step is recorded in the
+ * {@link OperatorMetrics}, and when debug logging is enabled the timings and the critical path of the execution
+ * are logged.</p>
+ *
+ * @param <K> The type of the keys.
+ */
+public class ReconciliationGraph<K> {
+
+    private static final Logger log = LogManager.getLogger(ReconciliationGraph.class.getName());
+
+    private final Reconciliation reconciliation;
+    private final List<Step> steps = new ArrayList<>();
+
+    private long startNanos;
+    private int running;
+    private int completed;
+    private Throwable failure;
+
+    public ReconciliationGraph(Reconciliation reconciliation) {
+        this.reconciliation = reconciliation;
+    }
+
+    /**
+     * A step of the reconciliation.
+     */
+    public class Step {
+        private final String name;
+        private final Supplier<Future<?>> action;
+        private final Set<K> reads = new LinkedHashSet<>();
+        private final Set<K> writes = new LinkedHashSet<>();
+        private final Set<Step> dependencies = new LinkedHashSet<>();
+        private final List<Step> dependants = new ArrayList<>();
+        private int pending;
+        private long startNanos = -1;
+        private long endNanos = -1;
+
+        private Step(String name, Supplier<Future<?>> action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        /**
+         * Declares keys which are read by this step.
+         * @param keys The keys.
+         * @return This step.
+         */
+        @SafeVarargs
+        public final Step reads(K... keys) {
+            Collections.addAll(reads, keys);
+            return this;
+        }
+
+        /**
+         * Declares keys which are written by this step.
+         * @param keys The keys.
+         * @return This step.
+         */
+        @SafeVarargs
+        public final Step writes(K... keys) {
+            Collections.addAll(writes, keys);
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The steps which have to complete before this step can be started.
+         */
+        public Set<Step> getDependencies() {
+            return Collections.unmodifiableSet(dependencies);
+        }
+
+        /**
+         * @return Whether this step was started.
+         */
+        public boolean isStarted() {
+            return startNanos >= 0;
+        }
+
+        /**
+         * @return The time between the start of the execution and the start of this step, in milliseconds.
+         */
+        public long getStartMs() {
+            return TimeUnit.NANOSECONDS.toMillis(startNanos - ReconciliationGraph.this.startNanos);
+        }
+
+        /**
+         * @return How long this step took, in milliseconds.
+         */
+        public long getDurationMs() {
+            return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Adds a step to this graph.
+     * @param name The name of the step.
+     * @param action Starts the step, returning a future which completes with the step.
+     * @return The step, on which the keys which it reads and writes should be declared.
+     */
+    public Step step(String name, Supplier<Future<?>> action) {
+        Step step = new Step(name, action);
+        steps.add(step);
+        return step;
+    }
+
+    /**
+     * @return The steps in this graph, in the order in which they were added.
+     */
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Executes the steps of this graph.
+     * @return A future which completes when all the steps have completed,
+     * or fails when one of them fails.
+     */
+    public Future<Void> execute() {
+        Future<Void> result = Future.future();
+        resolveDependencies();
+        List<Step> ready = new ArrayList<>();
+        synchronized (this) {
+            startNanos = System.nanoTime();
+            for (Step step : steps) {
+                if (step.pending == 0) {
+                    ready.add(step);
+                }
+            }
+            running = ready.size();
+        }
+        if (steps.isEmpty()) {
+            result.complete();
+        }
+        for (Step step : ready) {
+            start(step, result);
+        }
+        return result;
+    }
+
+    private void resolveDependencies() {
+        Map<K, Step> lastWriter = new HashMap<>();
+        Map<K, List<Step>> readersSinceWrite = new HashMap<>();
+        for (Step step : steps) {
+            for (K key : step.reads) {
+                Step writer = lastWriter.get(key);
+                if (writer != null) {
+                    step.dependencies.add(writer);
+                }
+            }
+            for (K key : step.writes) {
+                Step writer = lastWriter.get(key);
+                if (writer != null) {
+                    step.dependencies.add(writer);
+                }
+                step.dependencies.addAll(readersSinceWrite.getOrDefault(key, Collections.emptyList()));
+            }
+            step.dependencies.remove(step);
+            for (K key : step.reads) {
+                readersSinceWrite.computeIfAbsent(key, k -> new ArrayList<>()).add(step);
+            }
+            for (K key : step.writes) {
+                lastWriter.put(key, step);
+                readersSinceWrite.remove(key);
+            }
+            step.pending = step.dependencies.size();
+            for (Step dependency : step.dependencies) {
+                dependency.dependants.add(step);
+            }
+        }
+    }
+
+    private void start(Step step, Future<Void> result) {
+        log.trace("{}: Starting step {}", reconciliation, step);
+        Future<?> future;
+        synchronized (this) {
+            step.startNanos = System.nanoTime();
+        }
+        try {
+            future = step.action.get();
+        } catch (Throwable t) {
+            future = Future.failedFuture(t);
+        }
+        future.setHandler(ar -> completed(step, ar, result));
+    }
+
+    private void completed(Step step, AsyncResult<?> ar, Future<Void> result) {
+        List<Step> ready = new ArrayList<>();
+        boolean done;
+        synchronized (this) {
+            step.endNanos = System.nanoTime();
+            OperatorMetrics.stepCompleted(reconciliation.type().toString(), step.name, step.endNanos - step.startNanos);
+            running--;
+            completed++;
+            if (ar.failed()) {
+                log.debug("{}: Step {} failed", reconciliation, step, ar.cause());
+                if (failure == null) {
+                    failure = ar.cause();
+                }
+            }
+            if (failure == null) {
+                for (Step dependant : step.dependants) {
+                    if (--dependant.pending == 0) {
+                        ready.add(dependant);
+                    }
+                }
+                running += ready.size();
+            }
+            done = running == 0;
+        }
+        if (done) {
+            logTimings();
+            if (failure == null) {
+                result.complete();
+            } else {
+                result.fail(failure);
+            }
+        } else {
+            for (Step dependant : ready) {
+                start(dependant, result);
+            }
+        }
+    }
+
+    /**
+     * The critical path of the execution: the chain of steps, each of which was the last dependency of the next
+     * to complete, ending with the step which completed last.
+     * @return The steps on the critical path, in execution order.
+     */
+    public synchronized List<Step> criticalPath() {
+        Step last = null;
+        for (Step step : steps) {
+            if (step.endNanos >= 0 && (last == null || step.endNanos > last.endNanos)) {
+                last = step;
+            }
+        }
+        List<Step> path = new ArrayList<>();
+        Set<Step> seen = new HashSet<>();
+        while (last != null && seen.add(last)) {
+            path.add(0, last);
+            Step gating = null;
+            for (Step dependency : last.dependencies) {
+                if (gating == null || dependency.endNanos > gating.endNanos) {
+                    gating = dependency;
+                }
+            }
+            last = gating;
+        }
+        return path;
+    }
+
+    private synchronized void logTimings() {
+        if (log.isDebugEnabled()) {
+            long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            for (Step step : steps) {
+                if (step.isStarted()) {
+                    log.debug("{}: Step {} started at {}ms and took {}ms", reconciliation, step, step.getStartMs(), step.getDurationMs());
+                }
+            }
+            log.debug("{}: {} of {} steps completed in {}ms, critical path: {}", reconciliation, completed, steps.size(), totalMs,
+                    criticalPath().stream().map(step -> step + " (" + step.getDurationMs() + "ms)").collect(Collectors.joining(" -> ")));
+        }
+    }
+}
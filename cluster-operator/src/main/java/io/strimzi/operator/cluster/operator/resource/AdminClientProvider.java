@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import org.apache.kafka.clients.admin.AdminClient;
+
+/**
+ * Creates the {@link AdminClient}s which the cluster operator uses to talk to the Kafka clusters it manages.
+ */
+public interface AdminClientProvider {
+
+    /**
+     * Create an AdminClient which connects to the given {@code bootstrapHostnames} over TLS,
+     * trusting the cluster CA and authenticating with the certificate of the cluster operator.
+     * This may block.
+     * @param bootstrapHostnames The bootstrap servers (<em>&lt;host&gt;</em>:<em>&lt;port&gt;</em>).
+     * @param clusterCaCertSecret The Secret holding the cluster CA certificate(s).
+     * @param coKeySecret The Secret holding the certificate and key of the cluster operator.
+     * @return The AdminClient.
+     */
+    AdminClient createAdminClient(String bootstrapHostnames, Secret clusterCaCertSecret, Secret coKeySecret);
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.strimzi.certs.CertAndKey;
+import io.strimzi.operator.cluster.model.Ca;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.config.SslConfigs;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Creates AdminClients which connect to the replication listener of the brokers,
+ * using PKCS#12 key and trust stores built from the given Secrets.
+ * The stores only exist on disk while the AdminClient is being created.
+ */
+public class DefaultAdminClientProvider implements AdminClientProvider {
+
+    private static final String PKCS12 = "PKCS12";
+
+    @Override
+    public AdminClient createAdminClient(String bootstrapHostnames, Secret clusterCaCertSecret, Secret coKeySecret) {
+        char[] password = password();
+        File truststore = null;
+        File keystore = null;
+        try {
+            truststore = store("truststore", trustStore(clusterCaCertSecret, password), password);
+            keystore = store("keystore", keyStore(coKeySecret, password), password);
+
+            Properties p = new Properties();
+            p.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapHostnames);
+            p.setProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SSL");
+            p.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, truststore.getAbsolutePath());
+            p.setProperty(SslConfigs.SSL_TRUSTSTORE_TYPE_CONFIG, PKCS12);
+            p.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, new String(password));
+            p.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, keystore.getAbsolutePath());
+            p.setProperty(SslConfigs.SSL_KEYSTORE_TYPE_CONFIG, PKCS12);
+            p.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, new String(password));
+            p.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, new String(password));
+            return AdminClient.create(p);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException("Could not create the key or trust store for connecting to " + bootstrapHostnames, e);
+        } finally {
+            delete(truststore);
+            delete(keystore);
+        }
+    }
+
+    private static char[] password() {
+        byte[] bytes = new byte[24];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes).toCharArray();
+    }
+
+    /** A trust store holding the certificates in the {@code .crt} entries of the given Secret. */
+    /*test*/ static KeyStore trustStore(Secret clusterCaCertSecret, char[] password) throws IOException, GeneralSecurityException {
+        CertificateFactory x509 = CertificateFactory.getInstance("X.509");
+        KeyStore trustStore = KeyStore.getInstance(PKCS12);
+        trustStore.load(null, password);
+        for (Map.Entry<String, String> entry : clusterCaCertSecret.getData().entrySet()) {
+            if (entry.getKey().endsWith(".crt")) {
+                Certificate cert = x509.generateCertificate(new ByteArrayInputStream(Base64.getDecoder().decode(entry.getValue())));
+                trustStore.setCertificateEntry(entry.getKey(), cert);
+            }
+        }
+        return trustStore;
+    }
+
+    /** A key store holding the certificate and (PKCS#8) key of the cluster operator. */
+    /*test*/ static KeyStore keyStore(Secret coKeySecret, char[] password) throws IOException, GeneralSecurityException {
+        CertAndKey certAndKey = Ca.asCertAndKey(coKeySecret, "cluster-operator.key", "cluster-operator.crt");
+        if (certAndKey == null) {
+            throw new RuntimeException("Secret " + coKeySecret.getMetadata().getNamespace() + "/"
+                    + coKeySecret.getMetadata().getName() + " has no data");
+        }
+        CertificateFactory x509 = CertificateFactory.getInstance("X.509");
+        List<Certificate> chain = new ArrayList<>(x509.generateCertificates(new ByteArrayInputStream(certAndKey.cert())));
+        PrivateKey key = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pemContent(certAndKey.key())));
+        KeyStore keyStore = KeyStore.getInstance(PKCS12);
+        keyStore.load(null, password);
+        keyStore.setKeyEntry("cluster-operator", key, password, chain.toArray(new Certificate[0]));
+        return keyStore;
+    }
+
+    /** The DER content of the first PEM block in the given bytes. */
+    private static byte[] pemContent(byte[] pem) {
+        String s = new String(pem, StandardCharsets.US_ASCII);
+        int begin = s.indexOf("-----BEGIN ");
+        int end = s.indexOf("-----END ");
+        if (begin == -1 || end == -1) {
+            throw new IllegalArgumentException("Key is not in PEM format");
+        }
+        String body = s.substring(s.indexOf('\n', begin) + 1, end);
+        return Base64.getMimeDecoder().decode(body);
+    }
+
+    private static File store(String prefix, KeyStore keyStore, char[] password) throws IOException, GeneralSecurityException {
+        File file = File.createTempFile(prefix, ".p12");
+        file.deleteOnExit();
+        try (OutputStream os = new FileOutputStream(file)) {
+            keyStore.store(os, password);
+        }
+        return file;
+    }
+
+    private static void delete(File file) {
+        if (file != null && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,595 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.internal.readiness.Readiness;
+import io.strimzi.operator.common.Util;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeConfigsOptions;
+import org.apache.kafka.clients.admin.DescribeTopicsOptions;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * <p>Restarts the pods of a Kafka StatefulSet, by default one at a time, keeping the partitions of the cluster available:</p>
+ * <ul>
+ *     <li>A broker is not restarted while a partition whose ISR it belongs to has no more than
+ *     {@code min.insync.replicas} in-sync replicas, because {@code acks=all} producers to that partition
+ *     would fail while the broker was down.</li>
+ *     <li>After a broker has been restarted the roll waits until the broker has rejoined the ISR
+ *     of all its partitions, rather than just until its pod is ready.</li>
+ *     <li>Brokers whose pods are not ready, or which are not in the ISR of any of their partitions, are restarted
+ *     first, since restarting them can't make any partition less available, and until they have been restarted
+ *     they may be what keeps the other brokers from being restarted.</li>
+ *     <li>The active controller is restarted last, so that the controller moves only once.</li>
+ * </ul>
+ * <p>When {@code maxParallelRestarts} is greater than 1, up to that many brokers in the same rack
+ * (as given by their {@code broker.rack}) are restarted together, as long as no partition has more than one
+ * replica among them and no partition would be left with fewer than {@code min.insync.replicas} in-sync replicas.
+ * With replicas spread across racks by rack awareness this lets a rack be rolled at a time.</p>
+ * <p>The roller describes the cluster using an AdminClient. If the cluster cannot be described
+ * (for example because none of the brokers are running) the pods are restarted in order, those which are not ready first,
+ * waiting just for the readiness of each, so that a broken cluster can still be rolled to a fixed configuration.</p>
+ */
+class KafkaRoller {
+
+    private static final Logger log = LogManager.getLogger(KafkaRoller.class);
+
+    static final int ADMIN_TIMEOUT_MS = 10_000;
+    static final int NO_CONTROLLER = -1;
+
+    private final Vertx vertx;
+    private final PodOperator podOperations;
+    private final long pollingIntervalMs;
+    private final long operationTimeoutMs;
+    private final Supplier<AdminClient> adminClientSupplier;
+    private final Function<Pod, Future<Void>> podRestarter;
+    private final int maxParallelRestarts;
+
+    /**
+     * A description of the cluster: the active controller, the racks of the brokers,
+     * and the brokers which are not in the ISR of any of their partitions.
+     */
+    static class ClusterDescription {
+        final int controller;
+        final Map<Integer, String> racks;
+        final Set<Integer> notInAnyIsr;
+
+        ClusterDescription(int controller, Map<Integer, String> racks, Set<Integer> notInAnyIsr) {
+            this.controller = controller;
+            this.racks = racks;
+            this.notInAnyIsr = notInAnyIsr;
+        }
+    }
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param podOperations For getting the pods and waiting for their readiness.
+     * @param pollingIntervalMs The interval between checks of the state of the cluster.
+     * @param operationTimeoutMs The timeout for each of the waits of the roll.
+     * @param adminClientSupplier Creates the AdminClient for describing the cluster. This may block.
+     * @param podRestarter Restarts the given pod, returning a Future which completes when the pod has been recreated.
+     */
+    KafkaRoller(Vertx vertx, PodOperator podOperations, long pollingIntervalMs, long operationTimeoutMs,
+                Supplier<AdminClient> adminClientSupplier, Function<Pod, Future<Void>> podRestarter) {
+        this(vertx, podOperations, pollingIntervalMs, operationTimeoutMs, adminClientSupplier, podRestarter, 1);
+    }
+
+    /**
+     * Constructor
+     * @param vertx The Vertx instance.
+     * @param podOperations For getting the pods and waiting for their readiness.
+     * @param pollingIntervalMs The interval between checks of the state of the cluster.
+     * @param operationTimeoutMs The timeout for each of the waits of the roll.
+     * @param adminClientSupplier Creates the AdminClient for describing the cluster. This may block.
+     * @param podRestarter Restarts the given pod, returning a Future which completes when the pod has been recreated.
+     * @param maxParallelRestarts The maximum number of brokers of the same rack to restart at the same time.
+     */
+    KafkaRoller(Vertx vertx, PodOperator podOperations, long pollingIntervalMs, long operationTimeoutMs,
+                Supplier<AdminClient> adminClientSupplier, Function<Pod, Future<Void>> podRestarter, int maxParallelRestarts) {
+        this.vertx = vertx;
+        this.podOperations = podOperations;
+        this.pollingIntervalMs = pollingIntervalMs;
+        this.operationTimeoutMs = operationTimeoutMs;
+        this.adminClientSupplier = adminClientSupplier;
+        this.podRestarter = podRestarter;
+        this.maxParallelRestarts = maxParallelRestarts;
+    }
+
+    /**
+     * Asynchronously restart the pods of the given StatefulSet for which {@code podRestart} returns true.
+     * @param ss The StatefulSet.
+     * @param podRestart Function to test whether a given pod needs to be restarted.
+     * @return A future which completes when the pods have been restarted, and all the pods are ready.
+     */
+    Future<Void> rollingRestart(StatefulSet ss, Predicate<Pod> podRestart) {
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        int replicas = ss.getSpec().getReplicas();
+        log.debug("Considering rolling update of {}/{}", namespace, name);
+        List<Future> podFutures = new ArrayList<>(replicas);
+        for (int i = 0; i < replicas; i++) {
+            podFutures.add(podOperations.getAsync(namespace, name + "-" + i));
+        }
+        return CompositeFuture.join(podFutures).compose(pods -> {
+            TreeMap<Integer, Pod> toRestart = new TreeMap<>();
+            for (int i = 0; i < replicas; i++) {
+                Pod pod = pods.resultAt(i);
+                if (podRestart.test(pod)) {
+                    toRestart.put(i, pod);
+                } else {
+                    log.debug("Rolling update of {}/{}: pod {} no need to roll", namespace, name, name + "-" + i);
+                }
+            }
+            Future<Void> rolled;
+            if (toRestart.isEmpty()) {
+                rolled = Future.succeededFuture();
+            } else {
+                int numPods = toRestart.size();
+                long start = System.nanoTime();
+                AtomicInteger batches = new AtomicInteger();
+                rolled = adminClient(namespace, name).compose(adminClient -> {
+                    Future<Void> result = restartNext(namespace, name, adminClient, toRestart, batches);
+                    return result.otherwiseEmpty().compose(ignored -> {
+                        if (adminClient != null) {
+                            closeAdminClient(adminClient);
+                        }
+                        if (result.succeeded()) {
+                            log.info("Rolling update of {}/{}: restarted {} pods in {} batches in {}s", namespace, name,
+                                    numPods, batches.get(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+                        }
+                        return result;
+                    });
+                });
+            }
+            return rolled.compose(ignored -> {
+                Future<Void> ready = Future.succeededFuture();
+                for (int i = 0; i < replicas; i++) {
+                    String podName = name + "-" + i;
+                    ready = ready.compose(ignored2 -> podOperations.readiness(namespace, podName, pollingIntervalMs, operationTimeoutMs));
+                }
+                return ready;
+            });
+        });
+    }
+
+    private Future<AdminClient> adminClient(String namespace, String name) {
+        Future<AdminClient> result = Future.future();
+        vertx.<AdminClient>executeBlocking(future -> future.complete(adminClientSupplier.get()), true, ar -> {
+            if (ar.succeeded()) {
+                result.complete(ar.result());
+            } else {
+                log.warn("Rolling update of {}/{}: could not create an AdminClient, pods will be restarted without checking partition availability",
+                        namespace, name, ar.cause());
+                result.complete(null);
+            }
+        });
+        return result;
+    }
+
+    private void closeAdminClient(AdminClient adminClient) {
+        Future<Void> closed = Future.future();
+        vertx.executeBlocking(future -> {
+            adminClient.close(Duration.ofMillis(ADMIN_TIMEOUT_MS));
+            future.complete();
+        }, false, closed);
+        closed.setHandler(ar -> {
+            if (ar.failed()) {
+                log.debug("Ignoring error closing AdminClient", ar.cause());
+            }
+        });
+    }
+
+    /**
+     * Restart the next batch of the given pods, which starts with the lowest-numbered of those which are not ready
+     * or not in any ISR, or else with the lowest-numbered one, unless that is the controller, then restart the rest.
+     */
+    private Future<Void> restartNext(String namespace, String name, AdminClient adminClient, TreeMap<Integer, Pod> toRestart,
+                                     AtomicInteger batches) {
+        if (toRestart.isEmpty()) {
+            return Future.succeededFuture();
+        }
+        return describeCluster(namespace, name, adminClient).compose(cluster -> {
+            // When the cluster can't be described, don't try to check the availability of its partitions
+            AdminClient ac = cluster == null ? null : adminClient;
+            Integer controller = cluster == null ? null : cluster.controller;
+            Set<Integer> unhealthy = new HashSet<>();
+            if (cluster != null) {
+                unhealthy.addAll(cluster.notInAnyIsr);
+            }
+            for (Map.Entry<Integer, Pod> entry : toRestart.entrySet()) {
+                if (entry.getValue() == null || !Readiness.isPodReady(entry.getValue())) {
+                    unhealthy.add(entry.getKey());
+                }
+            }
+            List<Integer> candidates = candidates(toRestart.keySet(), controller,
+                    cluster == null ? emptyMap() : cluster.racks, unhealthy, maxParallelRestarts);
+            if (controller != null && candidates.get(0).equals(controller)) {
+                log.debug("Rolling update of {}/{}: restarting controller {} last", namespace, name, controller);
+            } else if (unhealthy.contains(candidates.get(0))) {
+                log.info("Rolling update of {}/{}: restarting broker {} first because its pod is not ready or it is not in any ISR",
+                        namespace, name, candidates.get(0));
+            }
+            return restartBrokers(namespace, name, ac, candidates, toRestart)
+                    .compose(restarted -> {
+                        restarted.forEach(toRestart::remove);
+                        batches.incrementAndGet();
+                        return restartNext(namespace, name, adminClient, toRestart, batches);
+                    });
+        });
+    }
+
+    /**
+     * A future which completes with the description of the cluster, or null if the cluster cannot be described.
+     * The controller is {@link #NO_CONTROLLER} if there is none. The racks are only described if brokers may be
+     * restarted in parallel. If the topics can't be described no brokers are known to be out of the ISRs.
+     */
+    private Future<ClusterDescription> describeCluster(String namespace, String name, AdminClient adminClient) {
+        if (adminClient == null) {
+            return Future.succeededFuture(null);
+        }
+        Future<ClusterDescription> result = Future.future();
+        vertx.executeBlocking(future -> {
+            try {
+                DescribeClusterResult cluster = adminClient.describeCluster(new DescribeClusterOptions().timeoutMs(ADMIN_TIMEOUT_MS));
+                Node controller = cluster.controller().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                Map<Integer, String> racks = new HashMap<>();
+                if (maxParallelRestarts > 1) {
+                    for (Node node : cluster.nodes().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                        if (node.hasRack()) {
+                            racks.put(node.id(), node.rack());
+                        }
+                    }
+                }
+                Set<Integer> notInAnyIsr;
+                try {
+                    notInAnyIsr = notInAnyIsr(describeTopics(adminClient));
+                } catch (RuntimeException e) {
+                    log.debug("Rolling update of {}/{}: could not describe the topics to find the brokers not in any ISR", namespace, name, e);
+                    notInAnyIsr = emptySet();
+                }
+                future.complete(new ClusterDescription(controller == null || controller.isEmpty() ? NO_CONTROLLER : controller.id(),
+                        racks, notInAnyIsr));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.fail(e);
+            } catch (ExecutionException | TimeoutException e) {
+                future.fail(e);
+            }
+        }, true, result);
+        return result.otherwise(error -> {
+            log.warn("Rolling update of {}/{}: could not describe the Kafka cluster, the next pod will be restarted without checking partition availability",
+                    namespace, name, error);
+            return null;
+        });
+    }
+
+    /**
+     * Restart the first of the given candidates, together with as many of the other candidates as can be restarted
+     * at the same time without making partitions unavailable.
+     * @return A future which completes with the restarted brokers, once they have rejoined the ISRs.
+     */
+    private Future<List<Integer>> restartBrokers(String namespace, String name, AdminClient adminClient,
+                                                 List<Integer> candidates, Map<Integer, Pod> pods) {
+        int first = candidates.get(0);
+        String firstPodName = name + "-" + first;
+        Future<List<Integer>> canRestart;
+        if (adminClient == null) {
+            canRestart = Future.succeededFuture(singletonList(first));
+        } else {
+            AtomicReference<List<Integer>> batch = new AtomicReference<>();
+            AtomicReference<List<TopicPartition>> wouldBeUnderMinIsr = new AtomicReference<>();
+            canRestart = Util.waitFor(vertx, "restart of pod " + namespace + "/" + firstPodName + " to keep partitions available",
+                pollingIntervalMs, operationTimeoutMs, () -> {
+                    Collection<TopicDescription> topics = describeTopics(adminClient);
+                    Map<String, Integer> minIsrs = minIsrs(adminClient, topics);
+                    List<Integer> brokers = batch(candidates, topics, minIsrs);
+                    batch.set(brokers);
+                    if (brokers.isEmpty()) {
+                        List<TopicPartition> partitions = wouldBeUnderMinIsr(first, topics, minIsrs);
+                        wouldBeUnderMinIsr.set(partitions);
+                        log.info("Rolling update of {}/{}: deferring restart of pod {} because partitions {} would be under {}",
+                                namespace, name, firstPodName, partitions, TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG);
+                    }
+                    return !brokers.isEmpty();
+                }).map(ignored -> batch.get())
+                .recover(error -> Future.failedFuture(new RuntimeException("Pod " + namespace + "/" + firstPodName
+                        + " cannot be restarted because partitions " + wouldBeUnderMinIsr.get() + " would be under "
+                        + TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, error)));
+        }
+        return canRestart.compose(brokers -> {
+            if (brokers.size() > 1) {
+                log.info("Rolling update of {}/{}: restarting brokers {} in parallel", namespace, name, brokers);
+            }
+            List<Future> restarts = new ArrayList<>(brokers.size());
+            for (int podId : brokers) {
+                String podName = name + "-" + podId;
+                restarts.add(podRestarter.apply(pods.get(podId)).compose(ignored -> {
+                    log.debug("Rolling update of {}/{}: wait for pod {} readiness", namespace, name, podName);
+                    return podOperations.readiness(namespace, podName, pollingIntervalMs, operationTimeoutMs);
+                }));
+            }
+            return CompositeFuture.join(restarts)
+                .compose(ignored -> {
+                    if (adminClient == null) {
+                        return Future.succeededFuture();
+                    }
+                    log.debug("Rolling update of {}/{}: wait for brokers {} to rejoin the ISRs", namespace, name, brokers);
+                    return Util.waitFor(vertx, "brokers " + brokers + " of " + namespace + "/" + name + " to rejoin the ISRs",
+                        pollingIntervalMs, operationTimeoutMs, () -> {
+                            Collection<TopicDescription> topics = describeTopics(adminClient);
+                            boolean inSync = true;
+                            for (int brokerId : brokers) {
+                                List<TopicPartition> partitions = notInSync(brokerId, topics);
+                                if (!partitions.isEmpty()) {
+                                    log.debug("Rolling update of {}/{}: broker {} is not in the ISR of partitions {}",
+                                            namespace, name, brokerId, partitions);
+                                    inSync = false;
+                                }
+                            }
+                            return inSync;
+                        });
+                })
+                .map(ignored -> brokers);
+        });
+    }
+
+    private static Collection<TopicDescription> describeTopics(AdminClient adminClient) {
+        try {
+            Set<String> topics = adminClient.listTopics(new ListTopicsOptions().listInternal(true).timeoutMs(ADMIN_TIMEOUT_MS))
+                    .names().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return adminClient.describeTopics(topics, new DescribeTopicsOptions().timeoutMs(ADMIN_TIMEOUT_MS))
+                    .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).values();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Could not describe the topics", e);
+        }
+    }
+
+    /** The effective {@code min.insync.replicas} of each topic. */
+    private static Map<String, Integer> minIsrs(AdminClient adminClient, Collection<TopicDescription> topics) {
+        try {
+            List<ConfigResource> resources = topics.stream()
+                    .map(topic -> new ConfigResource(ConfigResource.Type.TOPIC, topic.name()))
+                    .collect(toList());
+            Map<ConfigResource, Config> configs = adminClient.describeConfigs(resources, new DescribeConfigsOptions().timeoutMs(ADMIN_TIMEOUT_MS))
+                    .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Map<String, Integer> result = new HashMap<>(configs.size());
+            for (Map.Entry<ConfigResource, Config> entry : configs.entrySet()) {
+                ConfigEntry minIsr = entry.getValue().get(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG);
+                if (minIsr != null && minIsr.value() != null) {
+                    result.put(entry.getKey().name(), Integer.parseInt(minIsr.value()));
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Could not describe the topic configs", e);
+        }
+    }
+
+    /**
+     * The brokers which may be restarted together next: the first of the brokers to restart which isn't the controller,
+     * followed by the other brokers to restart which are in the same rack, up to {@code maxParallelRestarts} in all.
+     * Unhealthy brokers come first, then the others, each in order of their ids.
+     * The controller is only a candidate once it's the last broker to restart.
+     * @param toRestart The brokers to restart.
+     * @param controller The active controller, or null if it isn't known.
+     * @param racks The rack of each broker. Brokers which are missing have no rack.
+     * @param unhealthy The brokers whose pods are not ready or which are not in any ISR.
+     * @param maxParallelRestarts The maximum number of candidates.
+     * @return The candidates.
+     */
+    static List<Integer> candidates(Collection<Integer> toRestart, Integer controller, Map<Integer, String> racks,
+                                    Collection<Integer> unhealthy, int maxParallelRestarts) {
+        List<Integer> brokers = toRestart.stream()
+                .filter(id -> !id.equals(controller))
+                .sorted(Comparator.<Integer, Boolean>comparing(id -> !unhealthy.contains(id)).thenComparing(Comparator.naturalOrder()))
+                .collect(toList());
+        if (brokers.isEmpty()) {
+            return new ArrayList<>(toRestart);
+        }
+        List<Integer> result = new ArrayList<>();
+        result.add(brokers.get(0));
+        String rack = racks.get(brokers.get(0));
+        if (rack != null) {
+            for (Integer id : brokers.subList(1, brokers.size())) {
+                if (result.size() >= maxParallelRestarts) {
+                    break;
+                }
+                if (rack.equals(racks.get(id))) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The brokers to restart together: the first of the candidates, if it can be restarted without any partition
+     * going under {@code min.insync.replicas}, and those of the following candidates which can also be restarted with
+     * it without a partition going under {@code min.insync.replicas} or losing more than one replica.
+     * @param candidates The candidates.
+     * @param topics The topics.
+     * @param minIsrs The {@code min.insync.replicas} of each topic. Topics which are missing default to 1.
+     * @return The brokers, which are empty if the first candidate cannot be restarted yet.
+     */
+    static List<Integer> batch(List<Integer> candidates, Collection<TopicDescription> topics, Map<String, Integer> minIsrs) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer candidate : candidates) {
+            List<Integer> brokers = new ArrayList<>(result);
+            brokers.add(candidate);
+            if (wouldBeUnderMinIsr(brokers, topics, minIsrs).isEmpty()
+                    && withSeveralReplicas(brokers, topics).isEmpty()) {
+                result = brokers;
+            } else if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The partitions which would have fewer than {@code min.insync.replicas} in-sync replicas if the given broker
+     * was restarted. Partitions with no more replicas than {@code min.insync.replicas} are ignored, since restarting
+     * any of their brokers affects them however the brokers are restarted.
+     * @param brokerId The broker.
+     * @param topics The topics.
+     * @param minIsrs The {@code min.insync.replicas} of each topic. Topics which are missing default to 1.
+     * @return The partitions.
+     */
+    static List<TopicPartition> wouldBeUnderMinIsr(int brokerId, Collection<TopicDescription> topics, Map<String, Integer> minIsrs) {
+        return wouldBeUnderMinIsr(singleton(brokerId), topics, minIsrs);
+    }
+
+    /**
+     * The partitions which would have fewer than {@code min.insync.replicas} in-sync replicas if the given brokers
+     * were restarted together. Partitions with no more replicas than {@code min.insync.replicas} are ignored.
+     * @param brokerIds The brokers.
+     * @param topics The topics.
+     * @param minIsrs The {@code min.insync.replicas} of each topic. Topics which are missing default to 1.
+     * @return The partitions.
+     */
+    static List<TopicPartition> wouldBeUnderMinIsr(Collection<Integer> brokerIds, Collection<TopicDescription> topics, Map<String, Integer> minIsrs) {
+        List<TopicPartition> result = new ArrayList<>();
+        for (TopicDescription topic : topics) {
+            int minIsr = minIsrs.getOrDefault(topic.name(), 1);
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                if (partition.replicas().size() > minIsr) {
+                    int remainingIsr = partition.isr().size() - count(partition.isr(), brokerIds);
+                    if (remainingIsr < partition.isr().size() && remainingIsr < minIsr) {
+                        result.add(new TopicPartition(topic.name(), partition.partition()));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The partitions which have more than one replica on the given brokers.
+     * @param brokerIds The brokers.
+     * @param topics The topics.
+     * @return The partitions.
+     */
+    static List<TopicPartition> withSeveralReplicas(Collection<Integer> brokerIds, Collection<TopicDescription> topics) {
+        List<TopicPartition> result = new ArrayList<>();
+        for (TopicDescription topic : topics) {
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                if (count(partition.replicas(), brokerIds) > 1) {
+                    result.add(new TopicPartition(topic.name(), partition.partition()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The partitions which have a replica on the given broker which is not in the ISR.
+     * @param brokerId The broker.
+     * @param topics The topics.
+     * @return The partitions.
+     */
+    static List<TopicPartition> notInSync(int brokerId, Collection<TopicDescription> topics) {
+        List<TopicPartition> result = new ArrayList<>();
+        for (TopicDescription topic : topics) {
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                if (contains(partition.replicas(), brokerId) && !contains(partition.isr(), brokerId)) {
+                    result.add(new TopicPartition(topic.name(), partition.partition()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The brokers which have replicas, but are not in the ISR of any of them,
+     * for example because they are failing to start.
+     * @param topics The topics.
+     * @return The brokers.
+     */
+    static Set<Integer> notInAnyIsr(Collection<TopicDescription> topics) {
+        Set<Integer> withReplicas = new HashSet<>();
+        Set<Integer> inIsr = new HashSet<>();
+        for (TopicDescription topic : topics) {
+            for (TopicPartitionInfo partition : topic.partitions()) {
+                for (Node node : partition.replicas()) {
+                    withReplicas.add(node.id());
+                }
+                for (Node node : partition.isr()) {
+                    inIsr.add(node.id());
+                }
+            }
+        }
+        withReplicas.removeAll(inIsr);
+        return withReplicas;
+    }
+
+    private static int count(List<Node> nodes, Collection<Integer> brokerIds) {
+        int result = 0;
+        for (Node node : nodes) {
+            if (brokerIds.contains(node.id())) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static boolean contains(List<Node> nodes, int brokerId) {
+        for (Node node : nodes) {
+            if (node.id() == brokerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
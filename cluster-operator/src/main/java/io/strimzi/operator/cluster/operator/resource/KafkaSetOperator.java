@@ -4,11 +4,50 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.api.kafka.model.KafkaResources;
+import io.strimzi.operator.cluster.ClusterOperator;
+import io.strimzi.operator.cluster.model.KafkaCluster;
+import io.strimzi.operator.cluster.model.KafkaConfigurationDiff;
+import io.strimzi.operator.common.Annotations;
+import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.strimzi.operator.common.operator.resource.ReconcileResult;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AlterConfigsOptions;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeConfigsOptions;
+import org.apache.kafka.common.config.ConfigResource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_CONFIGURATION;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+
 /**
  * Specialization of {@link StatefulSetOperator} for StatefulSets of Kafka brokers
  */
@@ -16,6 +55,39 @@ public class KafkaSetOperator extends StatefulSetOperator {
 
     private static final Logger log = LogManager.getLogger(KafkaSetOperator.class);
 
+    /**
+     * Annotation on the Kafka StatefulSet with the maximum number of brokers in the same rack
+     * which may be restarted at the same time during rolling updates. By default brokers are restarted one at a time.
+     */
+    public static final String ANNO_STRIMZI_IO_MAX_PARALLEL_RESTARTS = Annotations.STRIMZI_DOMAIN + "/max-parallel-restarts";
+
+    /**
+     * Annotation on the Kafka StatefulSet with the (comma separated) options of {@code spec.kafka.config}
+     * which the operator has set as cluster-wide dynamic broker defaults.
+     * Dynamic defaults take precedence over the static configuration of the brokers,
+     * so while any are set, changes to them can't be applied by rolling the brokers.
+     */
+    public static final String ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS = Annotations.STRIMZI_DOMAIN + "/dynamic-broker-defaults";
+
+    /**
+     * The outcome of updating the cluster-wide dynamic broker defaults.
+     */
+    /*test*/ enum DefaultsUpdate {
+        /** The defaults match the desired configuration. */
+        APPLIED,
+        /** The desired defaults couldn't be set, but all the defaults set from {@code spec.kafka.config} have been removed. */
+        REMOVED,
+        /** The defaults couldn't be read, so they have not been changed. */
+        UNCHANGED,
+        /** The defaults couldn't be set, and might still include defaults set from {@code spec.kafka.config}. */
+        FAILED
+    }
+
+    private static final ConfigResource DEFAULTS = new ConfigResource(ConfigResource.Type.BROKER, "");
+
+    private final SecretOperator secretOperations;
+    private final AdminClientProvider adminClientProvider;
+
     /**
      * Constructor
      *
@@ -24,7 +96,225 @@ public class KafkaSetOperator extends StatefulSetOperator {
      * @param operationTimeoutMs The timeout.
      */
     public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs) {
-        super(vertx, client, operationTimeoutMs);
+        this(vertx, client, operationTimeoutMs, new PodOperator(vertx, client), new PvcOperator(vertx, client),
+                new SecretOperator(vertx, client), new DefaultAdminClientProvider());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param vertx  The Vertx instance
+     * @param client The Kubernetes client
+     * @param operationTimeoutMs The timeout.
+     * @param podOperator The Pod operator.
+     * @param pvcOperator The PVC operator.
+     * @param secretOperator The Secret operator, for getting the certificates for connecting to the brokers.
+     * @param adminClientProvider Creates the AdminClients for connecting to the brokers.
+     */
+    public KafkaSetOperator(Vertx vertx, KubernetesClient client, long operationTimeoutMs,
+                            PodOperator podOperator, PvcOperator pvcOperator,
+                            SecretOperator secretOperator, AdminClientProvider adminClientProvider) {
+        super(vertx, client, operationTimeoutMs, podOperator, pvcOperator);
+        this.secretOperations = secretOperator;
+        this.adminClientProvider = adminClientProvider;
+    }
+
+    /**
+     * Rolls the brokers using a {@link KafkaRoller}, so that the partitions remain available
+     * and the active controller is restarted last. Brokers in the same rack are restarted in parallel
+     * when the StatefulSet has the {@link #ANNO_STRIMZI_IO_MAX_PARALLEL_RESTARTS} annotation.
+     */
+    @Override
+    public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart) {
+        int maxParallelRestarts = Annotations.positiveIntAnnotation(ss, ANNO_STRIMZI_IO_MAX_PARALLEL_RESTARTS, 1);
+        KafkaRoller roller = new KafkaRoller(vertx, podOperations, 1_000, operationTimeoutMs,
+            () -> adminClient(ss), pod -> restartPod(ss, pod), maxParallelRestarts);
+        return roller.rollingRestart(ss, podRestart);
+    }
+
+    /**
+     * Create an AdminClient for the cluster of the given StatefulSet, connected to the replication listener
+     * using the certificate of the cluster operator. This blocks.
+     */
+    private AdminClient adminClient(StatefulSet ss) {
+        String namespace = ss.getMetadata().getNamespace();
+        String cluster = ss.getMetadata().getLabels().get(Labels.STRIMZI_CLUSTER_LABEL);
+        Secret clusterCaCertSecret = secretOperations.get(namespace, KafkaResources.clusterCaCertificateSecretName(cluster));
+        Secret coKeySecret = secretOperations.get(namespace, ClusterOperator.secretName(cluster));
+        if (clusterCaCertSecret == null || coKeySecret == null) {
+            throw new RuntimeException("The Secrets for connecting to the brokers of " + namespace + "/" + cluster + " do not exist");
+        }
+        String bootstrap = KafkaCluster.serviceName(cluster) + "." + namespace + ".svc:" + KafkaCluster.REPLICATION_PORT;
+        return adminClientProvider.createAdminClient(bootstrap, clusterCaCertSecret, coKeySecret);
+    }
+
+    /**
+     * When the only change which needs the brokers to be rolled is to options of {@code spec.kafka.config}
+     * which Kafka can change dynamically, applies those options as cluster-wide broker defaults
+     * through the Admin API and doesn't increment the generation, so the brokers are not rolled.
+     * If the options cannot be applied, the defaults set from {@code spec.kafka.config} are removed
+     * and the brokers are rolled, so that the static configuration takes effect.
+     * If even that is not possible, the StatefulSet is not patched and the reconciliation fails, to be retried.
+     */
+    @Override
+    protected Future<ReconcileResult<StatefulSet>> internalPatch(String namespace, String name, StatefulSet current, StatefulSet desired) {
+        Set<String> dynamicDefaults = dynamicDefaults(current);
+        setDynamicDefaults(desired, dynamicDefaults);
+        StatefulSetDiff diff = new StatefulSetDiff(current, desired);
+        boolean incrementGeneration = shouldIncrementGeneration(diff);
+        KafkaConfigurationDiff configDiff = new KafkaConfigurationDiff(current, desired);
+        if (configDiff.isEmpty()) {
+            return internalPatch(namespace, name, current, desired, diff, incrementGeneration);
+        }
+        boolean onlyDynamicConfigChanged = incrementGeneration && !configDiff.requiresRestart()
+                && !shouldIncrementGeneration(new StatefulSetDiff(withoutConfiguration(current), withoutConfiguration(desired)));
+        Set<String> managed = new TreeSet<>(dynamicDefaults);
+        managed.addAll(configDiff.clusterWideOptions());
+        return updateClusterWideDefaults(current, configDiff, managed).compose(outcome -> {
+            switch (outcome) {
+                case APPLIED:
+                    setDynamicDefaults(desired, configDiff.desiredClusterWideOptions());
+                    if (onlyDynamicConfigChanged) {
+                        log.info("{} {}/{}: broker config changes {} have been applied dynamically, no need for rolling update",
+                                resourceKind, namespace, name, configDiff.changes().keySet());
+                        return internalPatch(namespace, name, current, desired, diff, false);
+                    }
+                    break;
+                case REMOVED:
+                    setDynamicDefaults(desired, emptySet());
+                    break;
+                case UNCHANGED:
+                    if (!dynamicDefaults.isEmpty()) {
+                        return Future.failedFuture(new RuntimeException("The cluster-wide broker defaults " + dynamicDefaults
+                                + " of " + namespace + "/" + name + " could not be updated, and would override the configuration of rolled brokers"));
+                    }
+                    break;
+                default:
+                    return Future.failedFuture(new RuntimeException("The cluster-wide broker defaults " + managed
+                            + " of " + namespace + "/" + name + " could not be updated or removed, and would override the configuration of rolled brokers"));
+            }
+            return internalPatch(namespace, name, current, desired, diff, incrementGeneration);
+        });
+    }
+
+    /**
+     * @return The options which the operator has set as cluster-wide dynamic defaults,
+     * according to the {@link #ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS} annotation of the given StatefulSet.
+     */
+    /*test*/ static Set<String> dynamicDefaults(StatefulSet ss) {
+        String options = Annotations.stringAnnotation(ss, ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS, "");
+        return options.isEmpty() ? emptySet() : new TreeSet<>(asList(options.split(",")));
+    }
+
+    private static void setDynamicDefaults(StatefulSet ss, Set<String> options) {
+        if (options.isEmpty()) {
+            if (ss.getMetadata().getAnnotations() != null) {
+                ss.getMetadata().getAnnotations().remove(ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS);
+            }
+        } else {
+            Annotations.annotations(ss).put(ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS, String.join(",", new TreeSet<>(options)));
+        }
+    }
+
+    /**
+     * A copy of the given StatefulSet without the {@code KAFKA_CONFIGURATION} of the Kafka container.
+     */
+    /*test*/ static StatefulSet withoutConfiguration(StatefulSet ss) {
+        StatefulSet copy = new StatefulSetBuilder(ss).build();
+        for (Container container : copy.getSpec().getTemplate().getSpec().getContainers()) {
+            if ("kafka".equals(container.getName()) && container.getEnv() != null) {
+                container.setEnv(container.getEnv().stream()
+                        .filter(env -> !ENV_VAR_KAFKA_CONFIGURATION.equals(env.getName()))
+                        .collect(toList()));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Update the cluster-wide dynamic broker defaults of the cluster of the given StatefulSet to match
+     * the cluster-wide options of the desired configuration.
+     * If that fails, the given managed options are removed from the defaults instead.
+     * @return A future which completes with the outcome.
+     */
+    private Future<DefaultsUpdate> updateClusterWideDefaults(StatefulSet ss, KafkaConfigurationDiff configDiff, Set<String> managed) {
+        String namespace = ss.getMetadata().getNamespace();
+        String name = ss.getMetadata().getName();
+        Future<DefaultsUpdate> result = Future.future();
+        vertx.executeBlocking(future -> {
+            AdminClient adminClient = adminClient(ss);
+            try {
+                Map<String, String> currentDefaults;
+                try {
+                    currentDefaults = describeDefaults(adminClient);
+                } catch (ExecutionException | TimeoutException | RuntimeException e) {
+                    log.warn("{} {}/{}: could not read the cluster-wide broker defaults", resourceKind, namespace, name, e);
+                    future.complete(DefaultsUpdate.UNCHANGED);
+                    return;
+                }
+                try {
+                    Map<String, String> desiredDefaults = configDiff.clusterWideDefaults(currentDefaults);
+                    if (!desiredDefaults.equals(currentDefaults)) {
+                        log.debug("Changing cluster-wide broker defaults from {} to {}", currentDefaults, desiredDefaults);
+                        alterDefaults(adminClient, desiredDefaults);
+                    }
+                    future.complete(DefaultsUpdate.APPLIED);
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("{} {}/{}: could not update the cluster-wide broker defaults, removing the defaults {} so that the brokers can be rolled",
+                            resourceKind, namespace, name, managed, e);
+                    Map<String, String> remainingDefaults = new HashMap<>(currentDefaults);
+                    remainingDefaults.keySet().removeAll(managed);
+                    try {
+                        alterDefaults(adminClient, remainingDefaults);
+                        future.complete(DefaultsUpdate.REMOVED);
+                    } catch (ExecutionException | TimeoutException e2) {
+                        log.warn("{} {}/{}: could not remove the cluster-wide broker defaults {}", resourceKind, namespace, name, managed, e2);
+                        future.complete(DefaultsUpdate.FAILED);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.fail(e);
+            } finally {
+                adminClient.close(Duration.ofMillis(KafkaRoller.ADMIN_TIMEOUT_MS));
+            }
+        }, true, result);
+        return result.otherwise(error -> {
+            log.warn("{} {}/{}: could not update the cluster-wide broker defaults", resourceKind, namespace, name, error);
+            // If we were interrupted part way through an alter we can't tell whether the defaults changed
+            return error instanceof InterruptedException ? DefaultsUpdate.FAILED : DefaultsUpdate.UNCHANGED;
+        });
+    }
+
+    /**
+     * @return The cluster-wide dynamic broker defaults.
+     * @throws RuntimeException If the value of any default is sensitive, and so can't be read.
+     */
+    private static Map<String, String> describeDefaults(AdminClient adminClient) throws InterruptedException, ExecutionException, TimeoutException {
+        Config config = adminClient.describeConfigs(singleton(DEFAULTS), new DescribeConfigsOptions().timeoutMs(KafkaRoller.ADMIN_TIMEOUT_MS))
+                .all().get(KafkaRoller.ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).get(DEFAULTS);
+        Map<String, String> defaults = new HashMap<>();
+        for (ConfigEntry entry : config.entries()) {
+            if (entry.source() == ConfigEntry.ConfigSource.DYNAMIC_DEFAULT_BROKER_CONFIG) {
+                if (entry.value() == null) {
+                    // Altering the defaults replaces all of them, and we can't put back a value we can't read
+                    throw new RuntimeException("The value of the cluster-wide default " + entry.name() + " is sensitive");
+                }
+                defaults.put(entry.name(), entry.value());
+            }
+        }
+        return defaults;
+    }
+
+    /**
+     * Replace all the cluster-wide dynamic broker defaults with the given ones.
+     */
+    private static void alterDefaults(AdminClient adminClient, Map<String, String> defaults) throws InterruptedException, ExecutionException, TimeoutException {
+        Config config = new Config(defaults.entrySet().stream()
+                .map(entry -> new ConfigEntry(entry.getKey(), entry.getValue()))
+                .collect(toList()));
+        adminClient.alterConfigs(singletonMap(DEFAULTS, config), new AlterConfigsOptions().timeoutMs(KafkaRoller.ADMIN_TIMEOUT_MS))
+                .all().get(KafkaRoller.ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -154,4 +154,24 @@ public class ResourceOperatorSupplier {
         this.kafkaBridgeOperator = kafkaBridgeOperator;
         this.storageClassOperations = storageClassOperator;
     }
+
+    /**
+     * Synchronously starts caching the resources which are read on every reconciliation
+     * of the resources in the given {@code namespace}.
+     * @param namespace The namespace, or {@link io.strimzi.operator.common.operator.resource.AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     */
+    public void enableCaches(String namespace) {
+        secretOperations.enableCache(namespace);
+        serviceOperations.enableCache(namespace);
+        configMapOperations.enableCache(namespace);
+        serviceAccountOperations.enableCache(namespace);
+        roleBindingOperations.enableCache(namespace);
+        networkPolicyOperator.enableCache(namespace);
+        podDisruptionBudgetOperator.enableCache(namespace);
+        deploymentOperations.enableCache(namespace);
+        ingressOperations.enableCache(namespace);
+        if (routeOperations != null) {
+            routeOperations.enableCache(namespace);
+        }
+    }
 }
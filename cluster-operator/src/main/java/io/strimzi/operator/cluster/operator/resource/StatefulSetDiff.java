@@ -7,51 +7,69 @@ package io.strimzi.operator.cluster.operator.resource;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
-import io.fabric8.zjsonpatch.JsonDiff;
+import io.strimzi.operator.common.operator.resource.AbstractResourceDiff;
+import io.strimzi.operator.common.operator.resource.PathTrie;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
 
 public class StatefulSetDiff extends AbstractResourceDiff {
 
     private static final Logger log = LogManager.getLogger(StatefulSetDiff.class.getName());
 
-    private static final Pattern IGNORABLE_PATHS = Pattern.compile(
-        "^(/spec/revisionHistoryLimit"
-        + "|/spec/template/metadata/annotations/strimzi.io~1generation"
-        + "|/spec/template/spec/initContainers/[0-9]+/resources"
-        + "|/spec/template/spec/initContainers/[0-9]+/terminationMessagePath"
-        + "|/spec/template/spec/initContainers/[0-9]+/terminationMessagePolicy"
-        + "|/spec/template/spec/initContainers/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion"
-        + "|/spec/template/spec/containers/[0-9]+/resources"
-        + "|/spec/template/spec/containers/[0-9]+/env/[0-9]+/valueFrom/fieldRef/apiVersion"
-        + "|/spec/template/spec/containers/[0-9]+/livenessProbe/failureThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/livenessProbe/periodSeconds"
-        + "|/spec/template/spec/containers/[0-9]+/livenessProbe/successThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/readinessProbe/failureThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/readinessProbe/periodSeconds"
-        + "|/spec/template/spec/containers/[0-9]+/readinessProbe/successThreshold"
-        + "|/spec/template/spec/containers/[0-9]+/terminationMessagePath"
-        + "|/spec/template/spec/containers/[0-9]+/terminationMessagePolicy"
-        + "|/spec/template/spec/dnsPolicy"
-        + "|/spec/template/spec/restartPolicy"
-        + "|/spec/template/spec/schedulerName"
-        + "|/spec/template/spec/securityContext"
-        + "|/spec/template/spec/terminationGracePeriodSeconds"
-        + "|/spec/template/spec/volumes/[0-9]+/configMap/defaultMode"
-        + "|/spec/template/spec/volumes/[0-9]+/secret/defaultMode"
-        + "|/spec/volumeClaimTemplates/[0-9]+/status"
-        + "|/spec/volumeClaimTemplates/[0-9]+/spec/volumeMode"
-        + "|/spec/volumeClaimTemplates/[0-9]+/spec/dataSource"
-        + "|/spec/template/spec/serviceAccount"
-        + "|/status)$");
-
-    private static final Pattern RESOURCE_PATH = Pattern.compile("^/spec/template/spec/(?:initContainers|containers)/[0-9]+/resources/(?:limits|requests)/(memory|cpu)$");
-    private static final Pattern VOLUME_SIZE = Pattern.compile("^/spec/volumeClaimTemplates/[0-9]+/spec/resources/.*$");
+    /**
+     * How a difference at a path is treated.
+     */
+    private enum Category {
+        /** The difference is ignored. */
+        IGNORABLE,
+        /** The difference is ignored unless the CPU quantities differ. */
+        CPU,
+        /** The difference is ignored unless the memory quantities differ. */
+        MEMORY,
+        /** The difference is a change to the size of a persistent volume claim. */
+        VOLUME_SIZE
+    }
+
+    private static final PathTrie<Category> PATHS = PathTrie.of(Category.IGNORABLE,
+            "/spec/revisionHistoryLimit",
+            "/spec/template/metadata/annotations/strimzi.io~1generation",
+            "/spec/template/spec/initContainers/*/resources",
+            "/spec/template/spec/initContainers/*/terminationMessagePath",
+            "/spec/template/spec/initContainers/*/terminationMessagePolicy",
+            "/spec/template/spec/initContainers/*/env/*/valueFrom/fieldRef/apiVersion",
+            "/spec/template/spec/containers/*/resources",
+            "/spec/template/spec/containers/*/env/*/valueFrom/fieldRef/apiVersion",
+            "/spec/template/spec/containers/*/livenessProbe/failureThreshold",
+            "/spec/template/spec/containers/*/livenessProbe/periodSeconds",
+            "/spec/template/spec/containers/*/livenessProbe/successThreshold",
+            "/spec/template/spec/containers/*/readinessProbe/failureThreshold",
+            "/spec/template/spec/containers/*/readinessProbe/periodSeconds",
+            "/spec/template/spec/containers/*/readinessProbe/successThreshold",
+            "/spec/template/spec/containers/*/terminationMessagePath",
+            "/spec/template/spec/containers/*/terminationMessagePolicy",
+            "/spec/template/spec/dnsPolicy",
+            "/spec/template/spec/restartPolicy",
+            "/spec/template/spec/schedulerName",
+            "/spec/template/spec/securityContext",
+            "/spec/template/spec/terminationGracePeriodSeconds",
+            "/spec/template/spec/volumes/*/configMap/defaultMode",
+            "/spec/template/spec/volumes/*/secret/defaultMode",
+            "/spec/volumeClaimTemplates/*/status",
+            "/spec/volumeClaimTemplates/*/spec/volumeMode",
+            "/spec/volumeClaimTemplates/*/spec/dataSource",
+            "/spec/template/spec/serviceAccount",
+            "/status")
+            .put("/spec/template/spec/initContainers/*/resources/limits/cpu", Category.CPU)
+            .put("/spec/template/spec/initContainers/*/resources/requests/cpu", Category.CPU)
+            .put("/spec/template/spec/containers/*/resources/limits/cpu", Category.CPU)
+            .put("/spec/template/spec/containers/*/resources/requests/cpu", Category.CPU)
+            .put("/spec/template/spec/initContainers/*/resources/limits/memory", Category.MEMORY)
+            .put("/spec/template/spec/initContainers/*/resources/requests/memory", Category.MEMORY)
+            .put("/spec/template/spec/containers/*/resources/limits/memory", Category.MEMORY)
+            .put("/spec/template/spec/containers/*/resources/requests/memory", Category.MEMORY)
+            .put("/spec/volumeClaimTemplates/*/spec/resources/**", Category.VOLUME_SIZE);
 
     private static boolean equalsOrPrefix(String path, String pathValue) {
         return pathValue.equals(path)
@@ -68,64 +86,55 @@ public class StatefulSetDiff extends AbstractResourceDiff {
     public StatefulSetDiff(StatefulSet current, StatefulSet desired) {
         JsonNode source = patchMapper().valueToTree(current);
         JsonNode target = patchMapper().valueToTree(desired);
-        JsonNode diff = JsonDiff.asJson(source, target);
-        int num = 0;
-        boolean changesVolumeClaimTemplate = false;
-        boolean changesVolumeSize = false;
-        boolean changesSpecTemplate = false;
-        boolean changesLabels = false;
-        boolean changesSpecReplicas = false;
-        for (JsonNode d : diff) {
-            String pathValue = d.get("path").asText();
-            if (IGNORABLE_PATHS.matcher(pathValue).matches()) {
-                ObjectMeta md = current.getMetadata();
-                log.debug("StatefulSet {}/{} ignoring diff {}", md.getNamespace(), md.getName(), d);
-                continue;
-            }
-            Matcher resourceMatchers = RESOURCE_PATH.matcher(pathValue);
-            if (resourceMatchers.matches()) {
-                if ("replace".equals(d.path("op").asText())) {
-                    boolean same = compareMemoryAndCpuResources(source, target, pathValue, resourceMatchers);
-                    if (same) {
-                        ObjectMeta md = current.getMetadata();
-                        log.debug("StatefulSet {}/{} ignoring diff {}", md.getNamespace(), md.getName(), d);
-                        continue;
-                    }
-                }
-            }
-            if (log.isDebugEnabled()) {
-                ObjectMeta md = current.getMetadata();
-                log.debug("StatefulSet {}/{} differs: {}", md.getNamespace(), md.getName(), d);
-                log.debug("Current StatefulSet path {} has value {}", pathValue, lookupPath(source, pathValue));
-                log.debug("Desired StatefulSet path {} has value {}", pathValue, lookupPath(target, pathValue));
+        Differences differences = new Differences(current.getMetadata());
+        diff(source, target, PATHS, Category.IGNORABLE, differences);
+        this.isEmpty = differences.num == 0;
+        this.changesLabels = differences.changesLabels;
+        this.changesSpecReplicas = differences.changesSpecReplicas;
+        this.changesSpecTemplate = differences.changesSpecTemplate;
+        this.changesVolumeClaimTemplate = differences.changesVolumeClaimTemplate;
+        this.changesVolumeSize = differences.changesVolumeSize;
+    }
+
+    private static class Differences implements DiffHandler<Category> {
+        private final ObjectMeta md;
+        private int num = 0;
+        private boolean changesVolumeClaimTemplate = false;
+        private boolean changesVolumeSize = false;
+        private boolean changesSpecTemplate = false;
+        private boolean changesLabels = false;
+        private boolean changesSpecReplicas = false;
+
+        Differences(ObjectMeta md) {
+            this.md = md;
+        }
+
+        @Override
+        public void difference(String pathValue, Category category, JsonNode source, JsonNode target) {
+            if ((category == Category.CPU || category == Category.MEMORY)
+                    && compareMemoryAndCpuResources(source, target, category)) {
+                log.debug("StatefulSet {}/{} ignoring diff at {}: {} -> {}", md.getNamespace(), md.getName(), pathValue, source, target);
+                return;
             }
+            log.debug("StatefulSet {}/{} differs at {}: {} -> {}", md.getNamespace(), md.getName(), pathValue, source, target);
 
             num++;
             // Any volume claim template changes apart from size change should trigger rolling update
             // Size changes should not trigger rolling update. Therefore we need to separate these two in the diff.
-            changesVolumeClaimTemplate |= equalsOrPrefix("/spec/volumeClaimTemplates", pathValue) && !VOLUME_SIZE.matcher(pathValue).matches();
-            changesVolumeSize |= VOLUME_SIZE.matcher(pathValue).matches();
+            changesVolumeClaimTemplate |= equalsOrPrefix("/spec/volumeClaimTemplates", pathValue) && category != Category.VOLUME_SIZE;
+            changesVolumeSize |= category == Category.VOLUME_SIZE;
             // Change changes to /spec/template/spec, except to imagePullPolicy, which gets changed
             // by k8s
             changesSpecTemplate |= equalsOrPrefix("/spec/template", pathValue);
             changesLabels |= equalsOrPrefix("/metadata/labels", pathValue);
             changesSpecReplicas |= equalsOrPrefix("/spec/replicas", pathValue);
         }
-        this.isEmpty = num == 0;
-        this.changesLabels = changesLabels;
-        this.changesSpecReplicas = changesSpecReplicas;
-        this.changesSpecTemplate = changesSpecTemplate;
-        this.changesVolumeClaimTemplate = changesVolumeClaimTemplate;
-        this.changesVolumeSize = changesVolumeSize;
     }
 
-    boolean compareMemoryAndCpuResources(JsonNode source, JsonNode target, String pathValue, Matcher resourceMatchers) {
-        JsonNode s = lookupPath(source, pathValue);
-        JsonNode t = lookupPath(target, pathValue);
-        String group = resourceMatchers.group(1);
+    private static boolean compareMemoryAndCpuResources(JsonNode s, JsonNode t, Category category) {
         if (!s.isMissingNode()
             && !t.isMissingNode()) {
-            if ("cpu".equals(group)) {
+            if (category == Category.CPU) {
                 // Ignore single millicpu differences as they could be due to rounding error
                 if (Math.abs(Quantities.parseCpuAsMilliCpus(s.asText()) - Quantities.parseCpuAsMilliCpus(t.asText())) < 1) {
                     return true;
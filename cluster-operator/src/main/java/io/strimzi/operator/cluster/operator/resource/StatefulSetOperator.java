@@ -69,7 +69,7 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * Asynchronously perform a rolling update of all the pods in the StatefulSet identified by the given
      * {@code namespace} and {@code name}, returning a Future that will complete when the rolling update
      * is complete. Starting with pod 0, each pod will be deleted and re-created automatically by the ReplicaSet,
-     * once the pod has been recreated then given {@code isReady} function will be polled until it returns true,
+     * once the pod has been recreated it is watched until it is ready,
      * before the process proceeds with the pod with the next higher number.
      * @param ss The StatefulSet
      * @param podRestart Function to test whether a given pod needs to be restarted.
@@ -124,7 +124,7 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
      * @param pod The pod to be restarted
      * @return a Future which completes when the Pod has been recreated
      */
-    private Future<Void> restartPod(StatefulSet ss, Pod pod) {
+    protected Future<Void> restartPod(StatefulSet ss, Pod pod) {
         long pollingIntervalMs = 1_000;
         long timeoutMs = operationTimeoutMs;
         String namespace = ss.getMetadata().getNamespace();
@@ -140,9 +140,9 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
         log.debug("Rolling update of {}/{}: Waiting for pod {} to be deleted", namespace, name, podName);
         Future<Void> podReconcileFuture =
             podOperations.reconcile(namespace, podName, null).compose(ignore -> {
-                Future<Void> del = podOperations.waitFor(namespace, name, pollingIntervalMs, timeoutMs, (ignore1, ignore2) -> {
-                    // predicate - changed generation means pod has been updated
-                    String newUid = getPodUid(podOperations.get(namespace, podName));
+                Future<Void> del = podOperations.watchUntil(namespace, podName, pollingIntervalMs, timeoutMs, newPod -> {
+                    // predicate - changed uid means pod has been recreated
+                    String newUid = getPodUid(newPod);
                     boolean done = !deleted.equals(newUid);
                     if (done) {
                         log.debug("Rolling pod {} finished", podName);
@@ -266,8 +266,22 @@ public abstract class StatefulSetOperator extends AbstractScalableResourceOperat
     @Override
     protected Future<ReconcileResult<StatefulSet>> internalPatch(String namespace, String name, StatefulSet current, StatefulSet desired) {
         StatefulSetDiff diff = new StatefulSetDiff(current, desired);
+        return internalPatch(namespace, name, current, desired, diff, shouldIncrementGeneration(diff));
+    }
 
-        if (shouldIncrementGeneration(diff)) {
+    /**
+     * Patch the StatefulSet, without cascading to dependent resources.
+     * @param namespace The namespace of the StatefulSet.
+     * @param name The name of the StatefulSet.
+     * @param current The current StatefulSet.
+     * @param desired The desired StatefulSet.
+     * @param diff The diff of the current and desired StatefulSets.
+     * @param incrementGeneration Whether to increment the {@code strimzi.io/generation}, so that the pods get rolled.
+     * @return A future which completes when the StatefulSet has been patched.
+     */
+    protected Future<ReconcileResult<StatefulSet>> internalPatch(String namespace, String name, StatefulSet current, StatefulSet desired,
+                                                                 StatefulSetDiff diff, boolean incrementGeneration) {
+        if (incrementGeneration) {
             incrementGeneration(current, desired);
         } else {
             setGeneration(desired, getSsGeneration(current));
@@ -11,12 +11,14 @@ import io.strimzi.certs.CertAndKey;
 import io.strimzi.operator.cluster.model.Ca;
 import io.strimzi.operator.cluster.model.ZookeeperCluster;
 import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.PemKeyCertOptions;
@@ -28,8 +30,10 @@ import java.io.ByteArrayInputStream;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,7 +41,10 @@ import java.util.regex.Pattern;
 import static java.lang.Integer.parseInt;
 
 /**
- * Helper class for finding the leader of a ZK cluster
+ * Helper class for finding the leader of a ZK cluster.
+ * The pods are probed concurrently, using a NetClient for each cluster which is reused
+ * until the Secrets holding its certificates change or the cluster is {@linkplain #evict(String, String) deleted}.
+ * A NetClient which is no longer reused is closed once the searches which are using it have completed.
  */
 public class ZookeeperLeaderFinder {
 
@@ -50,6 +57,26 @@ public class ZookeeperLeaderFinder {
     private final Vertx vertx;
     final SecretOperator secretOperator;
     private final Supplier<BackOff> backOffSupplier;
+    // guarded by this
+    private final Map<String, CachedNetClient> netClients = new HashMap<>();
+
+    /**
+     * A NetClient configured with the certificates of the given versions of the Secrets.
+     */
+    private static class CachedNetClient {
+        final String secretVersions;
+        final NetClient netClient;
+        // The following fields are guarded by the ZookeeperLeaderFinder
+        /** The number of searches using the NetClient. */
+        int searches;
+        /** Whether the NetClient should be closed once it is no longer used by any search. */
+        boolean retired;
+
+        CachedNetClient(String secretVersions, NetClient netClient) {
+            this.secretVersions = secretVersions;
+            this.netClient = netClient;
+        }
+    }
 
     public ZookeeperLeaderFinder(Vertx vertx, SecretOperator secretOperator, Supplier<BackOff> backOffSupplier) {
         this.vertx = vertx;
@@ -66,6 +93,14 @@ public class ZookeeperLeaderFinder {
                 .setPemTrustOptions(trustOptions(clusterCaCertificateSecret));
     }
 
+    /**
+     * Create a NetClient which authenticates using the CO certificate in the given Secret
+     * and trusts the cluster CA certificates in the other given Secret.
+     */
+    protected NetClient createNetClient(Secret coCertKeySecret, Secret clusterCaCertificateSecret) {
+        return vertx.createNetClient(clientOptions(coCertKeySecret, clusterCaCertificateSecret));
+    }
+
     private CertificateFactory x509Factory() {
         CertificateFactory x509;
         try {
@@ -142,28 +177,106 @@ public class ZookeeperLeaderFinder {
             if (clusterCaCertificateSecret  == null) {
                 return Future.failedFuture(missingSecretFuture(namespace, clusterCaSecretName));
             }
+            String secretVersions = secretVersions(coKeySecret, clusterCaCertificateSecret);
+            CachedNetClient netClient;
             try {
-                NetClientOptions netClientOptions = clientOptions(coKeySecret, clusterCaCertificateSecret);
-                return zookeeperLeader(cluster, namespace, pods, netClientOptions);
+                netClient = acquireNetClient(key(namespace, cluster), secretVersions, coKeySecret, clusterCaCertificateSecret);
             } catch (Throwable e) {
                 return Future.failedFuture(e);
             }
+            long startNanos = System.nanoTime();
+            Future<Integer> leader = zookeeperLeader(cluster, namespace, pods, netClient.netClient);
+            Future<Integer> result = Future.future();
+            leader.setHandler(ar -> {
+                OperatorMetrics.zookeeperLeaderSearched(startNanos, ar.succeeded() && ar.result() != UNKNOWN_LEADER);
+                releaseNetClient(netClient);
+                result.handle(ar);
+            });
+            return result;
         });
 
     }
 
+    /**
+     * The resourceVersions of the given Secrets, or null if either Secret doesn't have one.
+     */
+    private static String secretVersions(Secret coKeySecret, Secret clusterCaCertificateSecret) {
+        String coKeyVersion = coKeySecret.getMetadata() != null ? coKeySecret.getMetadata().getResourceVersion() : null;
+        String clusterCaVersion = clusterCaCertificateSecret.getMetadata() != null ? clusterCaCertificateSecret.getMetadata().getResourceVersion() : null;
+        return coKeyVersion == null || clusterCaVersion == null ? null : coKeyVersion + "/" + clusterCaVersion;
+    }
+
+    private static String key(String namespace, String cluster) {
+        return namespace + "/" + cluster;
+    }
+
+    /**
+     * A NetClient for connecting to the Zookeeper nodes of the given cluster, for use by a search
+     * which must {@linkplain #releaseNetClient(CachedNetClient) release} it once it has completed.
+     * The NetClient is reused for as long as the given resourceVersions of the Secrets stay the same,
+     * so the certificates are only parsed and validated when they change.
+     * When {@code secretVersions} is null the NetClient is not cached, and is closed once it is released.
+     */
+    private synchronized CachedNetClient acquireNetClient(String cluster, String secretVersions, Secret coKeySecret, Secret clusterCaCertificateSecret) {
+        CachedNetClient client = secretVersions != null ? netClients.get(cluster) : null;
+        if (client == null || !client.secretVersions.equals(secretVersions)) {
+            client = new CachedNetClient(secretVersions, createNetClient(coKeySecret, clusterCaCertificateSecret));
+            if (secretVersions != null) {
+                CachedNetClient previous = netClients.put(cluster, client);
+                if (previous != null) {
+                    log.debug("Certificates for connecting to Zookeeper of {} have changed", cluster);
+                    retire(previous);
+                }
+            } else {
+                client.retired = true;
+            }
+        }
+        client.searches++;
+        return client;
+    }
+
+    private synchronized void releaseNetClient(CachedNetClient client) {
+        client.searches--;
+        closeIfUnused(client);
+    }
+
+    /**
+     * Forget the NetClient for connecting to the Zookeeper nodes of the given cluster, because the cluster has been deleted.
+     * The NetClient is closed once the searches which are using it have completed.
+     * @param namespace The namespace of the cluster.
+     * @param cluster The name of the cluster.
+     */
+    public synchronized void evict(String namespace, String cluster) {
+        CachedNetClient client = netClients.remove(key(namespace, cluster));
+        if (client != null) {
+            log.debug("Forgetting the client for connecting to Zookeeper of {}/{}", namespace, cluster);
+            retire(client);
+        }
+    }
+
+    private void retire(CachedNetClient client) {
+        client.retired = true;
+        closeIfUnused(client);
+    }
+
+    private static void closeIfUnused(CachedNetClient client) {
+        if (client.retired && client.searches == 0) {
+            client.netClient.close();
+        }
+    }
+
     private RuntimeException missingSecretFuture(String namespace, String secretName) {
         return new RuntimeException("Secret " + namespace + "/" + secretName + " does not exist");
     }
 
     private Future<Integer> zookeeperLeader(String cluster, String namespace, List<Pod> pods,
-                                            NetClientOptions netClientOptions) {
+                                            NetClient netClient) {
         Future<Integer> result = Future.future();
         BackOff backOff = backOffSupplier.get();
         Handler<Long> handler = new Handler<Long>() {
             @Override
             public void handle(Long tid) {
-                zookeeperLeader(pods, netClientOptions).setHandler(leader -> {
+                zookeeperLeader(pods, netClient).setHandler(leader -> {
                     if (leader.succeeded()) {
                         if (leader.result() != UNKNOWN_LEADER) {
                             result.complete(leader.result());
@@ -205,94 +318,98 @@ public class ZookeeperLeaderFinder {
     }
 
     /**
-     * Synchronously find the leader by testing each pod in the given list
-     * using {@link #isLeader(Pod, NetClientOptions)}.
+     * Find the leader by testing all the pods in the given list concurrently
+     * using {@link #isLeader(Pod, NetClient)}. The returned Future completes as soon as a pod is found
+     * to be the leader, without waiting for the other pods to respond.
      */
-    private Future<Integer> zookeeperLeader(List<Pod> pods, NetClientOptions netClientOptions) {
+    private Future<Integer> zookeeperLeader(List<Pod> pods, NetClient netClient) {
+        Future<Integer> result = Future.future();
+        AtomicInteger remaining = new AtomicInteger(pods.size());
         try {
-            Future<Integer> f = Future.succeededFuture(UNKNOWN_LEADER);
             for (int i = 0; i < pods.size(); i++) {
                 final int podNum = i;
                 Pod pod = pods.get(i);
                 String podName = pod.getMetadata().getName();
-                f = f.compose(leader -> {
-                    if (leader == UNKNOWN_LEADER) {
-                        log.debug("Checker whether {} is leader", podName);
-                        return isLeader(pod, netClientOptions).map(isLeader -> {
-                            if (isLeader != null && isLeader) {
-                                log.info("Pod {} is leader", podName);
-                                return podNum;
-                            } else {
-                                log.info("Pod {} is not a leader", podName);
-                                return UNKNOWN_LEADER;
-                            }
-                        });
+                log.debug("Checking whether {} is leader", podName);
+                isLeader(pod, netClient).setHandler(isLeader -> {
+                    if (isLeader.succeeded() && Boolean.TRUE.equals(isLeader.result())) {
+                        log.info("Pod {} is leader", podName);
+                        result.tryComplete(podNum);
                     } else {
-                        return Future.succeededFuture(leader);
+                        log.info("Pod {} is not a leader", podName);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        result.tryComplete(UNKNOWN_LEADER);
                     }
                 });
             }
-            return f;
         } catch (Throwable t) {
-            return Future.failedFuture(t);
+            result.tryFail(t);
         }
+        return result;
     }
 
     /**
      * Returns whether the given pod is the zookeeper leader.
      */
-    protected Future<Boolean> isLeader(Pod pod, NetClientOptions netClientOptions) {
+    protected Future<Boolean> isLeader(Pod pod, NetClient netClient) {
 
         Future<Boolean> future = Future.future();
         String host = host(pod);
         int port = port(pod);
+        long startNanos = System.nanoTime();
         log.debug("Connecting to zookeeper on {}:{}", host, port);
-        vertx.createNetClient(netClientOptions)
-            .connect(port, host, ar -> {
-                if (ar.failed()) {
-                    log.warn("ZK {}:{}: failed to connect to zookeeper:", host, port, ar.cause().getMessage());
-                    future.fail(ar.cause());
-                } else {
-                    log.debug("ZK {}:{}: connected", host, port);
-                    NetSocket socket = ar.result();
-                    socket.exceptionHandler(ex -> {
-                        if (!future.tryFail(ex)) {
-                            log.debug("ZK {}:{}: Ignoring error, since leader status of pod {} is already known: {}",
-                                    host, port, pod.getMetadata().getName(), ex);
-                        }
-                    });
-                    StringBuilder sb = new StringBuilder();
-                    // We could use socket idle timeout, but this times out even if the server just responds
-                    // very slowly
-                    long timerId = vertx.setTimer(10_000, tid -> {
-                        log.debug("ZK {}:{}: Timeout waiting for Zookeeper {} to close socket",
-                                host, port, socket.remoteAddress());
-                        socket.close();
-                    });
-                    socket.closeHandler(v -> {
-                        vertx.cancelTimer(timerId);
-                        Matcher matcher = LEADER_MODE_PATTERN.matcher(sb);
-                        boolean isLeader = matcher.find();
-                        log.debug("ZK {}:{}: {} leader", host, port, isLeader ? "is" : "is not");
-                        if (!future.tryComplete(isLeader)) {
-                            log.debug("ZK {}:{}: Ignoring leader result: Future is already complete",
-                                    host, port);
-                        }
-                    });
-                    log.debug("ZK {}:{}: upgrading to TLS", host, port);
-                    socket.handler(buffer -> {
-                        log.trace("buffer: {}", buffer);
-                        sb.append(buffer.toString());
-                    });
-                    log.debug("ZK {}:{}: sending stat", host, port);
-                    socket.write("stat");
-                }
-
-            });
-        return future.recover(error -> {
-            log.debug("ZK {}:{}: Error trying to determine whether leader ({}) => not leader", host, port, error);
-            return Future.succeededFuture(Boolean.FALSE);
+        netClient.connect(port, host, ar -> {
+            if (ar.failed()) {
+                log.warn("ZK {}:{}: failed to connect to zookeeper:", host, port, ar.cause().getMessage());
+                future.fail(ar.cause());
+            } else {
+                log.debug("ZK {}:{}: connected", host, port);
+                NetSocket socket = ar.result();
+                socket.exceptionHandler(ex -> {
+                    if (!future.tryFail(ex)) {
+                        log.debug("ZK {}:{}: Ignoring error, since leader status of pod {} is already known: {}",
+                                host, port, pod.getMetadata().getName(), ex);
+                    }
+                });
+                StringBuilder sb = new StringBuilder();
+                // We could use socket idle timeout, but this times out even if the server just responds
+                // very slowly
+                long timerId = vertx.setTimer(10_000, tid -> {
+                    log.debug("ZK {}:{}: Timeout waiting for Zookeeper {} to close socket",
+                            host, port, socket.remoteAddress());
+                    socket.close();
+                });
+                socket.closeHandler(v -> {
+                    vertx.cancelTimer(timerId);
+                    Matcher matcher = LEADER_MODE_PATTERN.matcher(sb);
+                    boolean isLeader = matcher.find();
+                    log.debug("ZK {}:{}: {} leader", host, port, isLeader ? "is" : "is not");
+                    if (!future.tryComplete(isLeader)) {
+                        log.debug("ZK {}:{}: Ignoring leader result: Future is already complete",
+                                host, port);
+                    }
+                });
+                log.debug("ZK {}:{}: upgrading to TLS", host, port);
+                socket.handler(buffer -> {
+                    log.trace("buffer: {}", buffer);
+                    sb.append(buffer.toString());
+                });
+                log.debug("ZK {}:{}: sending stat", host, port);
+                socket.write("stat");
+            }
         });
+        Future<Boolean> result = Future.future();
+        future.setHandler(isLeader -> {
+            OperatorMetrics.zookeeperLeaderProbed(startNanos, isLeader.failed() ? null : isLeader.result());
+            if (isLeader.succeeded()) {
+                result.complete(isLeader.result());
+            } else {
+                log.debug("ZK {}:{}: Error trying to determine whether leader ({}) => not leader", host, port, isLeader.cause());
+                result.complete(Boolean.FALSE);
+            }
+        });
+        return result;
     }
 
     /** The hostname for connecting to zookeeper in the given pod. */
@@ -83,6 +83,16 @@ public class ZookeeperSetOperator extends StatefulSetOperator {
                 ClusterOperator.secretName(cluster)));
     }
 
+    /**
+     * Release the resources held for finding the Zookeeper leader of the given cluster, which has been deleted.
+     *
+     * @param namespace The namespace of the cluster.
+     * @param cluster The name of the cluster.
+     */
+    public void clusterDeleted(String namespace, String cluster) {
+        leaderFinder.evict(namespace, cluster);
+    }
+
     public Future<Void> maybeRollingUpdate(StatefulSet ss, Predicate<Pod> podRestart, Secret coKeySecret) {
         String namespace = ss.getMetadata().getNamespace();
         String name = ss.getMetadata().getName();
@@ -5,6 +5,8 @@
 package io.strimzi.operator.cluster;
 
 import io.fabric8.kubernetes.api.model.LocalObjectReferenceBuilder;
+import io.strimzi.certs.CertManagerType;
+import io.strimzi.certs.KeyType;
 import io.strimzi.operator.cluster.model.ImagePullPolicy;
 import io.strimzi.operator.cluster.model.KafkaVersion;
 import io.strimzi.operator.common.InvalidConfigurationException;
@@ -49,7 +51,7 @@ public class ClusterOperatorConfigTest {
     @Test
     public void testReconciliationInterval() {
 
-        ClusterOperatorConfig config = new ClusterOperatorConfig(singleton("namespace"), 60_000, 30_000, false, new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap()), null, null);
+        ClusterOperatorConfig config = new ClusterOperatorConfig(singleton("namespace"), 60_000, 30_000, false, new KafkaVersion.Lookup(emptyMap(), emptyMap(), emptyMap(), emptyMap()), null, null, false, 1, CertManagerType.OPENSSL, KeyType.RSA_2048, 0);
 
         assertEquals(singleton("namespace"), config.getNamespaces());
         assertEquals(60_000, config.getReconciliationIntervalMs());
@@ -77,6 +79,82 @@ public class ClusterOperatorConfigTest {
         assertEquals(singleton("namespace"), config.getNamespaces());
         assertEquals(ClusterOperatorConfig.DEFAULT_FULL_RECONCILIATION_INTERVAL_MS, config.getReconciliationIntervalMs());
         assertEquals(ClusterOperatorConfig.DEFAULT_OPERATION_TIMEOUT_MS, config.getOperationTimeoutMs());
+        assertEquals(ClusterOperatorConfig.DEFAULT_RESOURCE_CACHE_ENABLED, config.isResourceCacheEnabled());
+        assertEquals(ClusterOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS, config.getMaxConcurrentReconciliations());
+        assertEquals(ClusterOperatorConfig.DEFAULT_CERT_MANAGER, config.getCertManager());
+        assertEquals(ClusterOperatorConfig.DEFAULT_KEY_TYPE, config.getKeyType());
+        assertEquals(ClusterOperatorConfig.DEFAULT_KEY_PAIR_POOL_SIZE, config.getKeyPairPoolSize());
+    }
+
+    @Test
+    public void testResourceCacheEnabled() {
+
+        Map<String, String> envVars = new HashMap<>(2);
+        envVars.put(ClusterOperatorConfig.STRIMZI_NAMESPACE, "namespace");
+        envVars.put(ClusterOperatorConfig.STRIMZI_RESOURCE_CACHE_ENABLED, "true");
+
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+
+        assertTrue(config.isResourceCacheEnabled());
+    }
+
+    @Test
+    public void testMaxConcurrentReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "3");
+
+        assertEquals(3, ClusterOperatorConfig.fromMap(envVars).getMaxConcurrentReconciliations());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidMaxConcurrentReconciliations() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_MAX_CONCURRENT_RECONCILIATIONS, "0");
+
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testCertManager() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_CERT_MANAGER, "jca");
+
+        assertEquals(CertManagerType.JCA, ClusterOperatorConfig.fromMap(envVars).getCertManager());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidCertManager() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_CERT_MANAGER, "gnutls");
+
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testKeyPairPool() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_KEY_TYPE, "rsa:4096");
+        envVars.put(ClusterOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE, "20");
+
+        ClusterOperatorConfig config = ClusterOperatorConfig.fromMap(envVars);
+        assertEquals(KeyType.forValue("rsa:4096"), config.getKeyType());
+        assertEquals(20, config.getKeyPairPoolSize());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidKeyType() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_KEY_TYPE, "ec:256");
+
+        ClusterOperatorConfig.fromMap(envVars);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testNegativeKeyPairPoolSize() {
+        Map<String, String> envVars = new HashMap<>(ClusterOperatorConfigTest.envVars);
+        envVars.put(ClusterOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE, "-1");
+
+        ClusterOperatorConfig.fromMap(envVars);
     }
 
     @Test
@@ -76,7 +76,7 @@ import io.strimzi.operator.common.operator.resource.StorageClassOperator;
 import io.strimzi.test.TestUtils;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
-import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.PemKeyCertOptions;
 import io.vertx.core.net.PemTrustOptions;
 
@@ -521,10 +521,15 @@ public class ResourceUtils {
         return new ZookeeperLeaderFinder(vertx, new SecretOperator(vertx, client),
             () -> new BackOff(5_000, 2, 4)) {
             @Override
-            protected Future<Boolean> isLeader(Pod pod, NetClientOptions options) {
+            protected Future<Boolean> isLeader(Pod pod, NetClient netClient) {
                 return Future.succeededFuture(true);
             }
 
+            @Override
+            protected NetClient createNetClient(Secret coCertKeySecret, Secret clusterCaCertificateSecret) {
+                return vertx.createNetClient();
+            }
+
             @Override
             protected PemTrustOptions trustOptions(Secret s) {
                 return new PemTrustOptions();
@@ -594,7 +599,12 @@ public class ResourceUtils {
                 false,
                 versions,
                 null,
-                null);
+                null,
+                false,
+                ClusterOperatorConfig.DEFAULT_MAX_CONCURRENT_RECONCILIATIONS,
+                ClusterOperatorConfig.DEFAULT_CERT_MANAGER,
+                ClusterOperatorConfig.DEFAULT_KEY_TYPE,
+                ClusterOperatorConfig.DEFAULT_KEY_PAIR_POOL_SIZE);
 
         return config;
     }
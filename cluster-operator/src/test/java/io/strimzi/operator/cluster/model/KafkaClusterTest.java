@@ -1176,7 +1176,7 @@ public class KafkaClusterTest {
         KafkaCluster k = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS);
 
         // Check Network Policies
-        NetworkPolicy np = k.generateNetworkPolicy();
+        NetworkPolicy np = k.generateNetworkPolicy(true);
 
         List<NetworkPolicyIngressRule> rules = np.getSpec().getIngress().stream().filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.CLIENT_PORT))).collect(Collectors.toList());
         assertEquals(1, rules.size());
@@ -1213,7 +1213,7 @@ public class KafkaClusterTest {
         KafkaCluster k = KafkaCluster.fromCrd(kafkaAssembly, VERSIONS);
 
         // Check Network Policies
-        NetworkPolicy np = k.generateNetworkPolicy();
+        NetworkPolicy np = k.generateNetworkPolicy(true);
 
         List<NetworkPolicyIngressRule> rules = np.getSpec().getIngress().stream().filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.CLIENT_PORT))).collect(Collectors.toList());
         assertEquals(1, rules.size());
@@ -1228,6 +1228,22 @@ public class KafkaClusterTest {
         assertEquals(0, rules.get(0).getFrom().size());
     }
 
+    @Test
+    public void testReplicationPortNetworkPolicy() {
+        KafkaCluster k = KafkaCluster.fromCrd(ResourceUtils.createKafkaCluster(namespace, cluster, replicas,
+                image, healthDelay, healthTimeout, metricsCm, configuration, emptyMap()), VERSIONS);
+
+        // The cluster operator can only be allowed in when namespace selectors are supported
+        List<NetworkPolicyIngressRule> rules = k.generateNetworkPolicy(true).getSpec().getIngress().stream().filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.REPLICATION_PORT))).collect(Collectors.toList());
+        assertEquals(1, rules.size());
+        assertEquals(3, rules.get(0).getFrom().size());
+        assertEquals("cluster-operator", rules.get(0).getFrom().get(2).getPodSelector().getMatchLabels().get(Labels.STRIMZI_KIND_LABEL));
+
+        rules = k.generateNetworkPolicy(false).getSpec().getIngress().stream().filter(ing -> ing.getPorts().get(0).getPort().equals(new IntOrString(KafkaCluster.REPLICATION_PORT))).collect(Collectors.toList());
+        assertEquals(1, rules.size());
+        assertEquals(2, rules.get(0).getFrom().size());
+    }
+
     @Test
     public void testGracePeriod() {
         Kafka kafkaAssembly = new KafkaBuilder(ResourceUtils.createKafkaCluster(namespace, cluster, replicas,
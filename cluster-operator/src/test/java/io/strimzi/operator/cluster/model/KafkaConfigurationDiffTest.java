@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.model;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaConfigurationDiffTest {
+
+    private static KafkaConfigurationDiff diff(String current, String desired) {
+        return new KafkaConfigurationDiff(KafkaConfiguration.unvalidated(current), KafkaConfiguration.unvalidated(desired));
+    }
+
+    @Test
+    public void testScope() {
+        assertEquals(KafkaConfigurationDiff.Scope.CLUSTER_WIDE, KafkaConfigurationDiff.scope("log.retention.ms"));
+        assertEquals(KafkaConfigurationDiff.Scope.CLUSTER_WIDE, KafkaConfigurationDiff.scope("num.io.threads"));
+        assertEquals(KafkaConfigurationDiff.Scope.PER_BROKER, KafkaConfigurationDiff.scope("ssl.cipher.suites"));
+        assertEquals(KafkaConfigurationDiff.Scope.PER_BROKER, KafkaConfigurationDiff.scope("listener.name.tls.ssl.protocol"));
+        assertEquals(KafkaConfigurationDiff.Scope.READ_ONLY, KafkaConfigurationDiff.scope("log.retention.hours"));
+        assertEquals(KafkaConfigurationDiff.Scope.READ_ONLY, KafkaConfigurationDiff.scope("inter.broker.protocol.version"));
+    }
+
+    @Test
+    public void testNoChanges() {
+        KafkaConfigurationDiff diff = diff("log.retention.ms=1000\nnum.io.threads=8\n", "num.io.threads=8\nlog.retention.ms=1000\n");
+        assertTrue(diff.isEmpty());
+        assertFalse(diff.requiresRestart());
+    }
+
+    @Test
+    public void testClusterWideChangeDoesNotRequireRestart() {
+        KafkaConfigurationDiff diff = diff("log.retention.ms=1000\n", "log.retention.ms=2000\nnum.io.threads=16\n");
+        assertFalse(diff.isEmpty());
+        assertEquals(2, diff.changes().size());
+        assertFalse(diff.requiresRestart());
+    }
+
+    @Test
+    public void testReadOnlyOrPerBrokerChangeRequiresRestart() {
+        assertTrue(diff("log.retention.ms=1000\n", "log.retention.ms=2000\nauto.create.topics.enable=false\n").requiresRestart());
+        assertTrue(diff("", "ssl.cipher.suites=TLS_AES_256_GCM_SHA384\n").requiresRestart());
+    }
+
+    @Test
+    public void testRemovedClusterWideOptionRequiresRestart() {
+        assertTrue(diff("log.retention.ms=1000\nnum.io.threads=16\n", "num.io.threads=16\n").requiresRestart());
+    }
+
+    @Test
+    public void testClusterWideDefaults() {
+        KafkaConfigurationDiff diff = diff("log.retention.ms=1000\nnum.io.threads=16\nauto.create.topics.enable=false\n",
+                "num.io.threads=8\nmin.insync.replicas=2\nauto.create.topics.enable=false\n");
+
+        Map<String, String> currentDefaults = new HashMap<>();
+        currentDefaults.put("log.retention.ms", "1000");
+        currentDefaults.put("num.io.threads", "16");
+        // Set outside of the operator, so it is kept
+        currentDefaults.put("log.cleaner.threads", "2");
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("num.io.threads", "8");
+        expected.put("min.insync.replicas", "2");
+        expected.put("log.cleaner.threads", "2");
+        assertEquals(expected, diff.clusterWideDefaults(currentDefaults));
+        // The given defaults are not modified
+        assertEquals(3, currentDefaults.size());
+    }
+}
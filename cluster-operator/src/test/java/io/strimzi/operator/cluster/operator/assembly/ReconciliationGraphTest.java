@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.assembly;
+
+import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.model.ResourceType;
+import io.vertx.core.Future;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReconciliationGraphTest {
+
+    private final Reconciliation reconciliation = new Reconciliation("test", ResourceType.KAFKA, "namespace", "name");
+
+    private final List<String> started = new ArrayList<>();
+
+    private Future<Void> start(String name, Future<Void> future) {
+        started.add(name);
+        return future;
+    }
+
+    private Future<Void> future(String name) {
+        return start(name, Future.future());
+    }
+
+    private Future<Void> done(String name) {
+        return start(name, Future.succeededFuture());
+    }
+
+    @Test
+    public void testIndependentStepsRunConcurrently() {
+        ReconciliationGraph<String> graph = new ReconciliationGraph<>(reconciliation);
+        Future<Void> a = Future.future();
+        Future<Void> b = Future.future();
+        graph.step("a", () -> start("a", a)).writes("x");
+        graph.step("b", () -> start("b", b)).writes("y");
+
+        Future<Void> result = graph.execute();
+        assertEquals(asList("a", "b"), started);
+        b.complete();
+        assertFalse(result.isComplete());
+        a.complete();
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testReaderWaitsForWriter() {
+        ReconciliationGraph<String> graph = new ReconciliationGraph<>(reconciliation);
+        Future<Void> writer = Future.future();
+        graph.step("writer", () -> start("writer", writer)).writes("x");
+        ReconciliationGraph<String>.Step reader1 = graph.step("reader1", () -> done("reader1")).reads("x");
+        graph.step("reader2", () -> done("reader2")).reads("x");
+
+        Future<Void> result = graph.execute();
+        assertEquals(asList("writer"), started);
+        writer.complete();
+        assertEquals(asList("writer", "reader1", "reader2"), started);
+        assertTrue(result.succeeded());
+        assertEquals(asList("writer"), reader1.getDependencies().stream().map(ReconciliationGraph.Step::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testWriterWaitsForEarlierReadersAndWriters() {
+        ReconciliationGraph<String> graph = new ReconciliationGraph<>(reconciliation);
+        Future<Void> reader = Future.future();
+        Future<Void> writer = Future.future();
+        graph.step("reader", () -> start("reader", reader)).reads("x");
+        graph.step("writer", () -> start("writer", writer)).writes("x");
+        graph.step("rewriter", () -> done("rewriter")).writes("x");
+
+        Future<Void> result = graph.execute();
+        assertEquals(asList("reader"), started);
+        reader.complete();
+        assertEquals(asList("reader", "writer"), started);
+        writer.complete();
+        assertEquals(asList("reader", "writer", "rewriter"), started);
+        assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testFailureStopsFurtherStepsAfterRunningStepsComplete() {
+        ReconciliationGraph<String> graph = new ReconciliationGraph<>(reconciliation);
+        RuntimeException cause = new RuntimeException("failed");
+        Future<Void> slow = Future.future();
+        graph.step("slow", () -> start("slow", slow)).writes("y");
+        graph.step("failing", () -> start("failing", Future.failedFuture(cause))).writes("x");
+        graph.step("dependant", () -> future("dependant")).reads("x");
+        graph.step("independent", () -> future("independent")).reads("y");
+
+        Future<Void> result = graph.execute();
+        assertEquals(asList("slow", "failing"), started);
+        assertFalse(result.isComplete());
+        slow.complete();
+        assertEquals(asList("slow", "failing"), started);
+        assertTrue(result.failed());
+        assertSame(cause, result.cause());
+    }
+
+    @Test
+    public void testThrowingStepFails() {
+        ReconciliationGraph<String> graph = new ReconciliationGraph<>(reconciliation);
+        RuntimeException cause = new RuntimeException("thrown");
+        graph.step("throwing", () -> {
+            throw cause;
+        }).writes("x");
+        graph.step("dependant", () -> future("dependant")).reads("x");
+
+        Future<Void> result = graph.execute();
+        assertTrue(result.failed());
+        assertSame(cause, result.cause());
+        assertTrue(started.isEmpty());
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        assertTrue(new ReconciliationGraph<String>(reconciliation).execute().succeeded());
+    }
+
+    @Test
+    public void testCriticalPath() throws InterruptedException {
+        ReconciliationGraph<String> graph = new ReconciliationGraph<>(reconciliation);
+        Future<Void> a = Future.future();
+        Future<Void> b = Future.future();
+        Future<Void> c = Future.future();
+        graph.step("a", () -> a).writes("x");
+        graph.step("b", () -> b).writes("y");
+        graph.step("c", () -> c).reads("x", "y");
+
+        Future<Void> result = graph.execute();
+        a.complete();
+        Thread.sleep(2);
+        b.complete();
+        c.complete();
+        assertTrue(result.succeeded());
+        // b completed after a, so it gated c
+        assertEquals(asList("b", "c"), graph.criticalPath().stream().map(ReconciliationGraph.Step::getName).collect(Collectors.toList()));
+        for (ReconciliationGraph<String>.Step step : graph.getSteps()) {
+            assertTrue(step.isStarted());
+            assertTrue(step.getDurationMs() >= 0);
+        }
+    }
+}
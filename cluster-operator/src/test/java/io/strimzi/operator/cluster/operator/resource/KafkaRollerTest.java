@@ -0,0 +1,409 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.cluster.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeConfigsOptions;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsOptions;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListTopicsOptions;
+import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.function.Function.identity;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class KafkaRollerTest {
+
+    private static final String NAMESPACE = "ns";
+    private static final String NAME = "my-cluster-kafka";
+
+    private Vertx vertx = Vertx.vertx();
+
+    @After
+    public void teardown() {
+        vertx.close();
+    }
+
+    private static StatefulSet statefulSet() {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withNamespace(NAMESPACE)
+                    .withName(NAME)
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(3)
+                .endSpec()
+                .build();
+    }
+
+    private static PodOperator podOperator() {
+        PodOperator podOperator = mock(PodOperator.class);
+        when(podOperator.getAsync(anyString(), anyString())).thenAnswer(invocation ->
+                Future.succeededFuture(new PodBuilder().withNewMetadata().withName(invocation.getArgument(1)).endMetadata().build()));
+        when(podOperator.readiness(anyString(), anyString(), anyLong(), anyLong())).thenReturn(Future.succeededFuture());
+        return podOperator;
+    }
+
+    /**
+     * A PodOperator whose pods are all ready, except for those with the given names.
+     */
+    private static PodOperator readyPodOperator(String... unready) {
+        PodOperator podOperator = podOperator();
+        when(podOperator.getAsync(anyString(), anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(1);
+            Pod pod = new PodBuilder()
+                    .withNewMetadata()
+                        .withName(name)
+                    .endMetadata()
+                    .withNewStatus()
+                        .addNewCondition()
+                            .withType("Ready")
+                            .withStatus(asList(unready).contains(name) ? "False" : "True")
+                        .endCondition()
+                    .endStatus()
+                    .build();
+            return Future.succeededFuture(pod);
+        });
+        return podOperator;
+    }
+
+    private static List<Node> nodes(int... ids) {
+        List<Node> nodes = new ArrayList<>();
+        for (int id : ids) {
+            nodes.add(new Node(id, "broker-" + id, 9091));
+        }
+        return nodes;
+    }
+
+    private static StatefulSet statefulSet(int replicas) {
+        return new StatefulSetBuilder(statefulSet())
+                .editSpec()
+                    .withReplicas(replicas)
+                .endSpec()
+                .build();
+    }
+
+    private static TopicDescription topic(List<Node> replicas, List<Node> isr) {
+        return topic("my-topic", replicas, isr);
+    }
+
+    /**
+     * An AdminClient for a cluster with the given controller and a single topic
+     * with the given {@code min.insync.replicas}, whose description is given by {@code topic}.
+     */
+    private static AdminClient adminClient(int controller, int minIsr, Supplier<TopicDescription> topic) {
+        return adminClient(controller, minIsr, emptyList(), () -> singletonList(topic.get()));
+    }
+
+    /**
+     * An AdminClient for a cluster with the given controller and brokers, and topics
+     * with the given {@code min.insync.replicas}, whose descriptions are given by {@code topics}.
+     */
+    private static AdminClient adminClient(int controller, int minIsr, List<Node> brokers, Supplier<List<TopicDescription>> topics) {
+        AdminClient ac = mock(AdminClient.class);
+
+        DescribeClusterResult clusterResult = mock(DescribeClusterResult.class);
+        when(clusterResult.controller()).thenReturn(KafkaFuture.completedFuture(nodes(controller).get(0)));
+        when(clusterResult.nodes()).thenReturn(KafkaFuture.completedFuture(brokers));
+        when(ac.describeCluster(any(DescribeClusterOptions.class))).thenReturn(clusterResult);
+
+        ListTopicsResult listResult = mock(ListTopicsResult.class);
+        when(listResult.names()).thenAnswer(invocation -> KafkaFuture.completedFuture(
+                topics.get().stream().map(TopicDescription::name).collect(Collectors.toSet())));
+        when(ac.listTopics(any(ListTopicsOptions.class))).thenReturn(listResult);
+
+        DescribeTopicsResult describeResult = mock(DescribeTopicsResult.class);
+        when(describeResult.all()).thenAnswer(invocation -> KafkaFuture.completedFuture(
+                topics.get().stream().collect(Collectors.toMap(TopicDescription::name, identity()))));
+        when(ac.describeTopics(anyCollection(), any(DescribeTopicsOptions.class))).thenReturn(describeResult);
+
+        DescribeConfigsResult configsResult = mock(DescribeConfigsResult.class);
+        when(configsResult.all()).thenAnswer(invocation -> KafkaFuture.completedFuture(topics.get().stream().collect(Collectors.toMap(
+            topic -> new ConfigResource(ConfigResource.Type.TOPIC, topic.name()),
+            topic -> new Config(singletonList(new ConfigEntry(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, String.valueOf(minIsr))))))));
+        when(ac.describeConfigs(anyCollection(), any(DescribeConfigsOptions.class))).thenReturn(configsResult);
+        return ac;
+    }
+
+    private static List<Node> rackedNodes(String... racks) {
+        List<Node> nodes = new ArrayList<>();
+        for (int id = 0; id < racks.length; id++) {
+            nodes.add(new Node(id, "broker-" + id, 9091, racks[id]));
+        }
+        return nodes;
+    }
+
+    private static TopicDescription topic(String name, List<Node> replicas) {
+        return topic(name, replicas, replicas);
+    }
+
+    private static TopicDescription topic(String name, List<Node> replicas, List<Node> isr) {
+        return new TopicDescription(name, false,
+                singletonList(new TopicPartitionInfo(0, isr.isEmpty() ? null : isr.get(0), replicas, isr)));
+    }
+
+    private KafkaRoller roller(Supplier<AdminClient> adminClient, List<String> restarted, Runnable onRestart) {
+        return new KafkaRoller(vertx, podOperator(), 10, 1_000, adminClient, pod -> {
+            synchronized (restarted) {
+                restarted.add(pod.getMetadata().getName());
+            }
+            onRestart.run();
+            return Future.succeededFuture();
+        });
+    }
+
+    @Test
+    public void testControllerIsRestartedLast(TestContext context) {
+        List<String> restarted = new ArrayList<>();
+        TopicDescription healthy = topic(nodes(0, 1, 2), nodes(0, 1, 2));
+        KafkaRoller roller = roller(() -> adminClient(1, 2, () -> healthy), restarted, () -> { });
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(), pod -> true).setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(asList(NAME + "-0", NAME + "-2", NAME + "-1"), restarted);
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testBrokerIsNotRestartedWhenPartitionsWouldBeUnderMinIsr(TestContext context) {
+        List<String> restarted = new ArrayList<>();
+        TopicDescription underReplicated = topic(nodes(0, 1, 2), nodes(0, 1));
+        KafkaRoller roller = roller(() -> adminClient(1, 2, () -> underReplicated), restarted, () -> { });
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(), pod -> pod.getMetadata().getName().equals(NAME + "-0"))
+                .setHandler(context.asyncAssertFailure(e -> {
+                    context.assertTrue(e.getMessage().contains("my-topic-0"), e.getMessage());
+                    context.assertTrue(restarted.isEmpty());
+                    async.complete();
+                }));
+    }
+
+    @Test
+    public void testRollWaitsForBrokerToRejoinIsr(TestContext context) {
+        List<String> restarted = new ArrayList<>();
+        AtomicReference<TopicDescription> current = new AtomicReference<>(topic(nodes(0, 1, 2), nodes(0, 1, 2)));
+        AtomicInteger describesUntilInSync = new AtomicInteger();
+        Supplier<TopicDescription> topic = () -> {
+            if (describesUntilInSync.get() > 0 && describesUntilInSync.decrementAndGet() == 0) {
+                current.set(topic(nodes(0, 1, 2), nodes(0, 1, 2)));
+            }
+            return current.get();
+        };
+        KafkaRoller roller = roller(() -> adminClient(2, 1, topic), restarted, () -> {
+            // The restarted broker drops out of the ISR for a few describes
+            current.set(topic(nodes(0, 1, 2), nodes(1, 2)));
+            describesUntilInSync.set(3);
+        });
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(), pod -> pod.getMetadata().getName().equals(NAME + "-0"))
+                .setHandler(context.asyncAssertSuccess(v -> {
+                    context.assertEquals(singletonList(NAME + "-0"), restarted);
+                    context.assertEquals(0, describesUntilInSync.get());
+                    context.assertEquals(3, current.get().partitions().get(0).isr().size());
+                    async.complete();
+                }));
+    }
+
+    @Test
+    public void testPodsAreRestartedInOrderWhenClusterCannotBeDescribed(TestContext context) {
+        List<String> restarted = new ArrayList<>();
+        KafkaRoller roller = roller(() -> {
+            throw new RuntimeException("No secrets");
+        }, restarted, () -> { });
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(), pod -> true).setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(asList(NAME + "-0", NAME + "-1", NAME + "-2"), restarted);
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testBrokerNotInAnyIsrIsRestartedFirst(TestContext context) {
+        // Broker 2 is crash-looping, so it has dropped out of the ISR, which is at min.insync.replicas.
+        // Restarting 0 first would leave the partition under min.insync.replicas
+        List<String> restarted = new ArrayList<>();
+        AtomicReference<TopicDescription> current = new AtomicReference<>(topic(nodes(0, 1, 2), nodes(0, 1)));
+        KafkaRoller roller = new KafkaRoller(vertx, readyPodOperator(), 10, 1_000, () -> adminClient(1, 2, current::get), pod -> {
+            restarted.add(pod.getMetadata().getName());
+            // Once restarted with a fixed configuration broker 2 rejoins the ISR
+            current.set(topic(nodes(0, 1, 2), nodes(0, 1, 2)));
+            return Future.succeededFuture();
+        });
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(), pod -> true).setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(asList(NAME + "-2", NAME + "-0", NAME + "-1"), restarted);
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testUnreadyPodIsRestartedFirst(TestContext context) {
+        List<String> restarted = new ArrayList<>();
+        KafkaRoller roller = new KafkaRoller(vertx, readyPodOperator(NAME + "-1"), 10, 1_000, () -> {
+            throw new RuntimeException("No brokers");
+        }, pod -> {
+            restarted.add(pod.getMetadata().getName());
+            return Future.succeededFuture();
+        });
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(), pod -> true).setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(asList(NAME + "-1", NAME + "-0", NAME + "-2"), restarted);
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testBrokersOfSameRackAreRestartedInParallel(TestContext context) {
+        // Six brokers in three racks, with each partition having a replica in each rack
+        List<Node> brokers = rackedNodes("a", "b", "c", "a", "b", "c");
+        List<TopicDescription> topics = asList(
+                topic("t0", asList(brokers.get(0), brokers.get(1), brokers.get(2))),
+                topic("t1", asList(brokers.get(3), brokers.get(4), brokers.get(5))),
+                topic("t2", asList(brokers.get(0), brokers.get(4), brokers.get(2))));
+        List<String> restarted = new ArrayList<>();
+        KafkaRoller roller = new KafkaRoller(vertx, podOperator(), 10, 1_000, () -> adminClient(5, 2, brokers, () -> topics), pod -> {
+            synchronized (restarted) {
+                restarted.add(pod.getMetadata().getName());
+            }
+            return Future.succeededFuture();
+        }, 2);
+        Async async = context.async();
+        roller.rollingRestart(statefulSet(6), pod -> true).setHandler(context.asyncAssertSuccess(v -> {
+            context.assertEquals(6, restarted.size());
+            // The controller (5) is restarted last, on its own
+            context.assertEquals(NAME + "-5", restarted.get(5));
+            context.assertEquals(new HashSet<>(asList(NAME + "-0", NAME + "-3")), new HashSet<>(restarted.subList(0, 2)));
+            context.assertEquals(new HashSet<>(asList(NAME + "-1", NAME + "-4")), new HashSet<>(restarted.subList(2, 4)));
+            context.assertEquals(NAME + "-2", restarted.get(4));
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testCandidates() {
+        Map<Integer, String> racks = new HashMap<>();
+        racks.put(0, "a");
+        racks.put(1, "b");
+        racks.put(2, "a");
+        racks.put(3, "a");
+        racks.put(4, "b");
+        // Brokers in the rack of the first broker to restart, which isn't the controller
+        assertEquals(asList(1, 4), KafkaRoller.candidates(asList(0, 1, 2, 3, 4), 0, racks, emptySet(), 3));
+        assertEquals(asList(0, 2), KafkaRoller.candidates(asList(0, 1, 2, 3, 4), 1, racks, emptySet(), 2));
+        // Without racks, or with no parallelism, there's a single candidate
+        assertEquals(singletonList(0), KafkaRoller.candidates(asList(0, 1, 2, 3, 4), 1, emptyMap(), emptySet(), 3));
+        assertEquals(singletonList(0), KafkaRoller.candidates(asList(0, 1, 2, 3, 4), 1, racks, emptySet(), 1));
+        // The controller is last
+        assertEquals(singletonList(1), KafkaRoller.candidates(singletonList(1), 1, racks, emptySet(), 3));
+        // Unhealthy brokers are first, followed by the healthy brokers in the same rack
+        assertEquals(asList(3, 0, 2), KafkaRoller.candidates(asList(0, 1, 2, 3, 4), 1, racks, singleton(3), 3));
+        assertEquals(asList(4, 1), KafkaRoller.candidates(asList(0, 1, 2, 3, 4), 0, racks, asList(4, 0), 3));
+    }
+
+    @Test
+    public void testNotInAnyIsr() {
+        assertEquals(singleton(2), KafkaRoller.notInAnyIsr(asList(
+                topic("t0", nodes(0, 1, 2), nodes(0, 1)),
+                topic("t1", nodes(1, 2, 3), nodes(1, 3)))));
+        assertEquals(emptySet(), KafkaRoller.notInAnyIsr(singletonList(topic(nodes(0, 1, 2), nodes(0, 1, 2)))));
+    }
+
+    @Test
+    public void testBatch() {
+        List<Node> brokers = rackedNodes("a", "b", "c", "a", "b", "c");
+        // 0 and 3 share a partition, 0 and 2 don't
+        List<TopicDescription> topics = asList(
+                topic("t0", asList(brokers.get(0), brokers.get(3), brokers.get(1))),
+                topic("t1", asList(brokers.get(1), brokers.get(4), brokers.get(5))));
+        assertEquals(asList(0, 2), KafkaRoller.batch(asList(0, 3, 2), topics, singletonMap("t0", 1)));
+        // Restarting 1 and 4 together would leave t1 under min.insync.replicas, and they share a partition
+        assertEquals(singletonList(1), KafkaRoller.batch(asList(1, 4), topics, singletonMap("t1", 2)));
+        // The first candidate would leave t0 under min.insync.replicas
+        List<TopicDescription> underReplicated = singletonList(new TopicDescription("t0", false, singletonList(
+                new TopicPartitionInfo(0, brokers.get(0), asList(brokers.get(0), brokers.get(1), brokers.get(2)), asList(brokers.get(0), brokers.get(1))))));
+        assertEquals(emptyList(), KafkaRoller.batch(asList(0, 3), underReplicated, singletonMap("t0", 2)));
+    }
+
+    @Test
+    public void testWithSeveralReplicas() {
+        List<Node> brokers = nodes(0, 1, 2, 3);
+        List<TopicDescription> topics = singletonList(topic("t0", asList(brokers.get(0), brokers.get(1), brokers.get(2))));
+        assertEquals(singletonList(new TopicPartition("t0", 0)), KafkaRoller.withSeveralReplicas(asList(0, 1), topics));
+        assertEquals(emptyList(), KafkaRoller.withSeveralReplicas(asList(0, 3), topics));
+    }
+
+    @Test
+    public void testWouldBeUnderMinIsr() {
+        // Broker 0 is in the ISR, which would shrink below min.insync.replicas
+        assertEquals(singletonList(new TopicPartition("my-topic", 0)),
+                KafkaRoller.wouldBeUnderMinIsr(0, singletonList(topic(nodes(0, 1, 2), nodes(0, 1))), singletonMap("my-topic", 2)));
+        // Broker 2 isn't in the ISR, so restarting it doesn't change it
+        assertEquals(emptyList(),
+                KafkaRoller.wouldBeUnderMinIsr(2, singletonList(topic(nodes(0, 1, 2), nodes(0, 1))), singletonMap("my-topic", 2)));
+        // There's slack in the ISR
+        assertEquals(emptyList(),
+                KafkaRoller.wouldBeUnderMinIsr(0, singletonList(topic(nodes(0, 1, 2), nodes(0, 1, 2))), singletonMap("my-topic", 2)));
+        // Partitions with no more replicas than min.insync.replicas can't be kept available anyway
+        assertEquals(emptyList(),
+                KafkaRoller.wouldBeUnderMinIsr(0, singletonList(topic(nodes(0), nodes(0))), emptyMap()));
+    }
+
+    @Test
+    public void testNotInSync() {
+        assertEquals(singletonList(new TopicPartition("my-topic", 0)),
+                KafkaRoller.notInSync(0, singletonList(topic(nodes(0, 1, 2), nodes(1, 2)))));
+        assertEquals(emptyList(),
+                KafkaRoller.notInSync(0, singletonList(topic(nodes(1, 2), nodes(1, 2)))));
+    }
+}
@@ -4,29 +4,82 @@
  */
 package io.strimzi.operator.cluster.operator.resource;
 
+import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.strimzi.api.kafka.model.InlineLogging;
 import io.strimzi.api.kafka.model.Kafka;
 import io.strimzi.api.kafka.model.KafkaBuilder;
 import io.strimzi.operator.cluster.ResourceUtils;
 import io.strimzi.operator.cluster.model.KafkaCluster;
 import io.strimzi.operator.cluster.model.KafkaVersion;
+import io.strimzi.operator.common.operator.resource.PodOperator;
+import io.strimzi.operator.common.operator.resource.PvcOperator;
+import io.strimzi.operator.common.operator.resource.ReconcileResult;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AlterConfigsOptions;
+import org.apache.kafka.clients.admin.AlterConfigsResult;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeConfigsOptions;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.InvalidRequestException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.AfterClass;
 import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.strimzi.operator.cluster.model.AbstractModel.containerEnvVars;
 import static io.strimzi.operator.cluster.model.KafkaCluster.ENV_VAR_KAFKA_ZOOKEEPER_CONNECT;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toMap;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+@RunWith(VertxUnitRunner.class)
 public class KafkaSetOperatorTest {
 
+    private static final ConfigResource DEFAULTS = new ConfigResource(ConfigResource.Type.BROKER, "");
+
+    private static Vertx vertx;
+
+    @BeforeClass
+    public static void beforeClass() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        vertx.close();
+    }
 
     public static final InlineLogging KAFKA_LOG_CONFIG = new InlineLogging();
     public static final InlineLogging ZOOKEEPER_LOG_CONFIG = new InlineLogging();
@@ -129,4 +182,142 @@ public class KafkaSetOperatorTest {
                 "foo", null));
         assertTrue(KafkaSetOperator.needsRollingUpdate(diff()));
     }
+
+    private static StatefulSet withConfiguration(StatefulSet ss, String configuration) {
+        for (Container container : ss.getSpec().getTemplate().getSpec().getContainers()) {
+            if ("kafka".equals(container.getName())) {
+                container.getEnv().removeIf(env -> KafkaCluster.ENV_VAR_KAFKA_CONFIGURATION.equals(env.getName()));
+                container.getEnv().add(new EnvVar(KafkaCluster.ENV_VAR_KAFKA_CONFIGURATION, configuration, null));
+            }
+        }
+        return ss;
+    }
+
+    private static StatefulSet withDynamicDefaults(StatefulSet ss, String options) {
+        Map<String, String> annotations = new HashMap<>();
+        if (ss.getMetadata().getAnnotations() != null) {
+            annotations.putAll(ss.getMetadata().getAnnotations());
+        }
+        annotations.put(KafkaSetOperator.ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS, options);
+        ss.getMetadata().setAnnotations(annotations);
+        return ss;
+    }
+
+    private static KafkaFuture<Void> failed() {
+        KafkaFutureImpl<Void> future = new KafkaFutureImpl<>();
+        future.completeExceptionally(new InvalidRequestException("Invalid value"));
+        return future;
+    }
+
+    /**
+     * An AdminClient whose cluster-wide dynamic defaults are the given entries,
+     * and whose alterConfigs calls complete with the given results in turn.
+     */
+    @SafeVarargs
+    private static AdminClient adminClient(List<ConfigEntry> defaults, KafkaFuture<Void> alterResult, KafkaFuture<Void>... moreAlterResults) {
+        AdminClient adminClient = mock(AdminClient.class);
+        Config config = new Config(defaults);
+        DescribeConfigsResult describeResult = mock(DescribeConfigsResult.class);
+        when(describeResult.all()).thenReturn(KafkaFuture.completedFuture(singletonMap(DEFAULTS, config)));
+        when(adminClient.describeConfigs(any(), any(DescribeConfigsOptions.class))).thenReturn(describeResult);
+        AlterConfigsResult alterConfigsResult = mock(AlterConfigsResult.class);
+        when(alterConfigsResult.all()).thenReturn(alterResult, moreAlterResults);
+        when(adminClient.alterConfigs(any(), any(AlterConfigsOptions.class))).thenReturn(alterConfigsResult);
+        return adminClient;
+    }
+
+    /**
+     * A cluster-wide dynamic default, whose value is sensitive if it is null.
+     * A mock, because the constructor which takes the source of the entry isn't public.
+     */
+    private static ConfigEntry dynamicDefault(String name, String value) {
+        ConfigEntry entry = mock(ConfigEntry.class);
+        when(entry.name()).thenReturn(name);
+        when(entry.value()).thenReturn(value);
+        when(entry.isSensitive()).thenReturn(value == null);
+        when(entry.source()).thenReturn(ConfigEntry.ConfigSource.DYNAMIC_DEFAULT_BROKER_CONFIG);
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> alteredDefaults(AdminClient adminClient, int times) {
+        ArgumentCaptor<Map<ConfigResource, Config>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(adminClient, times(times)).alterConfigs(captor.capture(), any(AlterConfigsOptions.class));
+        return captor.getValue().get(DEFAULTS).entries().stream().collect(toMap(ConfigEntry::name, ConfigEntry::value));
+    }
+
+    /**
+     * A KafkaSetOperator which records, rather than performs, the patches it would make.
+     */
+    private static KafkaSetOperator operator(AdminClient adminClient, List<Boolean> generationIncrements, List<StatefulSet> patched) {
+        SecretOperator secretOperator = mock(SecretOperator.class);
+        when(secretOperator.get(anyString(), anyString())).thenReturn(new Secret());
+        return new KafkaSetOperator(vertx, mock(KubernetesClient.class), 60_000L,
+                mock(PodOperator.class), mock(PvcOperator.class), secretOperator, (bootstrap, caCert, coKey) -> adminClient) {
+            @Override
+            protected Future<ReconcileResult<StatefulSet>> internalPatch(String namespace, String name, StatefulSet current, StatefulSet desired,
+                                                                         StatefulSetDiff diff, boolean incrementGeneration) {
+                generationIncrements.add(incrementGeneration);
+                patched.add(desired);
+                return Future.succeededFuture(ReconcileResult.patched(desired));
+            }
+        };
+    }
+
+    @Test
+    public void testDynamicConfigChangeIsAppliedWithoutRolling(TestContext context) {
+        AdminClient adminClient = adminClient(emptyList(), KafkaFuture.completedFuture(null));
+        List<Boolean> increments = new ArrayList<>();
+        List<StatefulSet> patched = new ArrayList<>();
+        withConfiguration(a, "num.io.threads=8");
+        withConfiguration(b, "num.io.threads=16");
+        operator(adminClient, increments, patched).internalPatch("test", a.getMetadata().getName(), a, b)
+            .setHandler(context.asyncAssertSuccess(result -> {
+                context.assertEquals(singletonList(false), increments);
+                context.assertEquals(singletonMap("num.io.threads", "16"), alteredDefaults(adminClient, 1));
+                context.assertEquals("num.io.threads",
+                        patched.get(0).getMetadata().getAnnotations().get(KafkaSetOperator.ANNO_STRIMZI_IO_DYNAMIC_BROKER_DEFAULTS));
+            }));
+    }
+
+    @Test
+    public void testRejectedDynamicConfigChangeRemovesDefaultsAndRolls(TestContext context) {
+        // An earlier reconciliation set num.io.threads=16 dynamically, and the brokers reject going to 64
+        AdminClient adminClient = adminClient(asList(dynamicDefault("num.io.threads", "16"), dynamicDefault("log.retention.bytes", "1000")),
+                failed(), KafkaFuture.completedFuture(null));
+        List<Boolean> increments = new ArrayList<>();
+        List<StatefulSet> patched = new ArrayList<>();
+        withDynamicDefaults(withConfiguration(a, "num.io.threads=16"), "num.io.threads");
+        withConfiguration(b, "num.io.threads=64");
+        operator(adminClient, increments, patched).internalPatch("test", a.getMetadata().getName(), a, b)
+            .setHandler(context.asyncAssertSuccess(result -> {
+                context.assertEquals(singletonList(true), increments);
+                // The default set by the operator is removed, so the static configuration takes effect once rolled
+                context.assertEquals(singletonMap("log.retention.bytes", "1000"), alteredDefaults(adminClient, 2));
+                context.assertTrue(KafkaSetOperator.dynamicDefaults(patched.get(0)).isEmpty());
+            }));
+    }
+
+    @Test
+    public void testSensitiveDefaultIsNotAltered(TestContext context) {
+        AdminClient adminClient = adminClient(singletonList(dynamicDefault("ssl.keystore.password", null)), KafkaFuture.completedFuture(null));
+        List<Boolean> increments = new ArrayList<>();
+        withConfiguration(a, "num.io.threads=8");
+        withConfiguration(b, "num.io.threads=16");
+        operator(adminClient, increments, new ArrayList<>()).internalPatch("test", a.getMetadata().getName(), a, b)
+            .setHandler(context.asyncAssertSuccess(result -> {
+                verify(adminClient, never()).alterConfigs(any(), any(AlterConfigsOptions.class));
+                context.assertEquals(singletonList(true), increments);
+            }));
+    }
+
+    @Test
+    public void testNotPatchedWhenManagedDefaultsCannotBeRemoved(TestContext context) {
+        AdminClient adminClient = adminClient(singletonList(dynamicDefault("num.io.threads", "16")), failed(), failed());
+        List<Boolean> increments = new ArrayList<>();
+        withDynamicDefaults(withConfiguration(a, "num.io.threads=16"), "num.io.threads");
+        withConfiguration(b, "num.io.threads=64");
+        operator(adminClient, increments, new ArrayList<>()).internalPatch("test", a.getMetadata().getName(), a, b)
+            .setHandler(context.asyncAssertFailure(e -> context.assertTrue(increments.isEmpty())));
+    }
 }
@@ -5,6 +5,8 @@
 package io.strimzi.operator.cluster.operator.resource;
 
 import io.fabric8.kubernetes.api.model.ConfigMapVolumeSourceBuilder;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.EnvVarBuilder;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
@@ -14,6 +16,7 @@ import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
 import org.junit.Test;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -245,4 +248,39 @@ public class StatefulSetDiffTest {
         assertTrue(new StatefulSetDiff(ss1, ss2).changesVolumeClaimTemplates());
         assertFalse(new StatefulSetDiff(ss1, ss2).changesVolumeSize());
     }
+
+    private StatefulSet withContainer(String terminationMessagePath, EnvVar... env) {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withNamespace("test")
+                    .withName("foo")
+                .endMetadata()
+                .withNewSpec()
+                    .withNewTemplate()
+                        .withNewSpec()
+                            .addNewContainer()
+                                .withName("kafka")
+                                .withTerminationMessagePath(terminationMessagePath)
+                                .withEnv(asList(env))
+                            .endContainer()
+                        .endSpec()
+                    .endTemplate()
+                .endSpec()
+                .build();
+    }
+
+    @Test
+    public void testContainerChanges() {
+        EnvVar a = new EnvVarBuilder().withName("A").withValue("a").build();
+        EnvVar b = new EnvVarBuilder().withName("B").withValue("b").build();
+        EnvVar c = new EnvVarBuilder().withName("C").withValue("c").build();
+
+        assertTrue(new StatefulSetDiff(withContainer("/dev/termination-log", a, b), withContainer(null, a, b)).isEmpty());
+
+        StatefulSetDiff diff = new StatefulSetDiff(withContainer("/dev/termination-log", a, b), withContainer(null, c, a, b));
+        assertFalse(diff.isEmpty());
+        assertTrue(diff.changesSpecTemplate());
+        assertFalse(diff.changesLabels());
+        assertFalse(diff.changesVolumeClaimTemplates());
+    }
 }
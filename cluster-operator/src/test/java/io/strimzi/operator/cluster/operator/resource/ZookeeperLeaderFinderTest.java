@@ -17,6 +17,7 @@ import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetServer;
 import io.vertx.core.net.NetServerOptions;
@@ -47,6 +48,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(VertxUnitRunner.class)
@@ -66,6 +69,7 @@ public class ZookeeperLeaderFinderTest {
 
     class TestingZookeeperLeaderFinder extends ZookeeperLeaderFinder {
         private final int[] ports;
+        private final AtomicInteger clientOptionsCalls = new AtomicInteger();
 
         public TestingZookeeperLeaderFinder(Supplier<BackOff> backOffSupplier, int[] ports) {
             super(vertx, mock, backOffSupplier);
@@ -74,6 +78,7 @@ public class ZookeeperLeaderFinderTest {
 
         @Override
         NetClientOptions clientOptions(Secret coCertKeySecret, Secret clusterCaCertificateSecret) {
+            clientOptionsCalls.incrementAndGet();
             return new NetClientOptions()
                     .setKeyCertOptions(coCertificate.keyCertOptions())
                     .setTrustOptions(zkCertificate.trustOptions())
@@ -100,6 +105,7 @@ public class ZookeeperLeaderFinderTest {
         private final Function<Integer, Boolean> isLeader;
         private final AtomicInteger attempts = new AtomicInteger();
         private final NetServer netServer;
+        private volatile boolean responsive = true;
 
         FakeZk(int id, Function<Integer, Boolean> isLeader) {
             this.id = id;
@@ -125,7 +131,10 @@ public class ZookeeperLeaderFinderTest {
                     StringBuffer sb = new StringBuffer();
                     socket.handler(buf -> {
                         sb.append(buf.toString());
-                        if (sb.toString().startsWith("stat")) {
+                        if (!responsive) {
+                            attempts.getAndIncrement();
+                            log.debug("ZK {}: not responding", id);
+                        } else if (sb.toString().startsWith("stat")) {
                             socket.write("vesvsebserb\n");
                             int attempt = attempts.getAndIncrement();
                             if (isLeader.apply(attempt)) {
@@ -186,6 +195,16 @@ public class ZookeeperLeaderFinderTest {
         return new Secret();
     }
 
+    Secret coKeySecret(String resourceVersion) {
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withName(ClusterOperator.secretName(CLUSTER))
+                    .withNamespace(NAMESPACE)
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+
     @Test
     public void test0Pods() {
         ZookeeperLeaderFinder finder = new ZookeeperLeaderFinder(vertx, null, this::backoff);
@@ -381,8 +400,11 @@ public class ZookeeperLeaderFinderTest {
                     if (ar.succeeded()) {
                         context.assertEquals(leader, ar.result());
                         for (FakeZk zk : zks) {
-                            context.assertEquals(succeedOnAttempt + 1, zk.attempts.get(),
-                                    "Unexpected number of attempts for node " + zk.id);
+                            // The leader is found without waiting for the probes of the other nodes
+                            int attempts = zk.attempts.get();
+                            context.assertTrue(zk.id == leader ? attempts == succeedOnAttempt + 1
+                                            : attempts == succeedOnAttempt || attempts == succeedOnAttempt + 1,
+                                    "Unexpected number of attempts " + attempts + " for node " + zk.id);
                         }
                     } else {
                         ar.cause().printStackTrace();
@@ -428,13 +450,135 @@ public class ZookeeperLeaderFinderTest {
                     context.assertTrue(asyncResult.succeeded());
                     context.assertEquals(leader, asyncResult.result());
                     for (FakeZk zk : zks) {
-                        context.assertEquals(1, zk.attempts.get(),
-                                "Unexpected number of attempts for node " + zk.id);
+                        // The leader is found without waiting for the probes of the other nodes
+                        int attempts = zk.attempts.get();
+                        context.assertTrue(zk.id == leader ? attempts == 1 : attempts <= 1,
+                                "Unexpected number of attempts " + attempts + " for node " + zk.id);
                     }
                     a.complete();
                 });
     }
 
+    @Test
+    public void testLeaderFoundWithoutWaitingForUnresponsiveNode(TestContext context) {
+        int leader = 2;
+        when(mock.getAsync(eq(NAMESPACE), eq(KafkaResources.clusterCaCertificateSecretName(CLUSTER))))
+                .thenAnswer(i -> Future.succeededFuture(
+                        new SecretBuilder()
+                                .withNewMetadata()
+                                .withName(KafkaResources.clusterCaCertificateSecretName(CLUSTER))
+                                .withNamespace(NAMESPACE)
+                                .endMetadata()
+                                .withData(map(Ca.CA_CRT, "notacert"))
+                                .build()));
+
+        int[] ports = startMockZks(context, 3, (id, attempt) -> id == leader);
+        // Node 0 accepts the connection but never responds, so probing it would take the whole timeout
+        zks.get(0).responsive = false;
+
+        ZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+
+        Async a = context.async();
+        long start = System.currentTimeMillis();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, asList(getPod(0), getPod(1), getPod(2)), coKeySecret())
+                .setHandler(context.asyncAssertSuccess(result -> {
+                    context.assertEquals(leader, result);
+                    long elapsed = System.currentTimeMillis() - start;
+                    context.assertTrue(elapsed < 5_000, "Finding the leader took " + elapsed + "ms");
+                    a.complete();
+                }));
+    }
+
+    @Test
+    public void testNetClientIsReusedUntilSecretsChange(TestContext context) {
+        int leader = 1;
+        when(mock.getAsync(eq(NAMESPACE), eq(KafkaResources.clusterCaCertificateSecretName(CLUSTER))))
+                .thenAnswer(i -> Future.succeededFuture(
+                        new SecretBuilder()
+                                .withNewMetadata()
+                                .withName(KafkaResources.clusterCaCertificateSecretName(CLUSTER))
+                                .withNamespace(NAMESPACE)
+                                .withResourceVersion("1")
+                                .endMetadata()
+                                .withData(map(Ca.CA_CRT, "notacert"))
+                                .build()));
+
+        int[] ports = startMockZks(context, 2, (id, attempt) -> id == leader);
+
+        TestingZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, ports);
+        List<Pod> pods = asList(getPod(0), getPod(1));
+
+        Async a = context.async();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret("1"))
+            .compose(result -> {
+                context.assertEquals(leader, result);
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret("1"));
+            })
+            .compose(result -> {
+                context.assertEquals(leader, result);
+                context.assertEquals(1, finder.clientOptionsCalls.get());
+                return finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret("2"));
+            })
+            .setHandler(context.asyncAssertSuccess(result -> {
+                context.assertEquals(leader, result);
+                context.assertEquals(2, finder.clientOptionsCalls.get());
+                a.complete();
+            }));
+    }
+
+    @Test
+    public void testReplacedNetClientIsClosedOnceItsSearchesComplete(TestContext context) {
+        when(mock.getAsync(eq(NAMESPACE), eq(KafkaResources.clusterCaCertificateSecretName(CLUSTER))))
+                .thenAnswer(i -> Future.succeededFuture(
+                        new SecretBuilder()
+                                .withNewMetadata()
+                                .withName(KafkaResources.clusterCaCertificateSecretName(CLUSTER))
+                                .withNamespace(NAMESPACE)
+                                .withResourceVersion("1")
+                                .endMetadata()
+                                .withData(map(Ca.CA_CRT, "notacert"))
+                                .build()));
+        List<NetClient> clients = new ArrayList<>();
+        List<Future<Boolean>> probes = new ArrayList<>();
+        ZookeeperLeaderFinder finder = new TestingZookeeperLeaderFinder(this::backoff, new int[0]) {
+            @Override
+            protected NetClient createNetClient(Secret coCertKeySecret, Secret clusterCaCertificateSecret) {
+                NetClient client = mock(NetClient.class);
+                clients.add(client);
+                return client;
+            }
+
+            @Override
+            protected Future<Boolean> isLeader(Pod pod, NetClient netClient) {
+                Future<Boolean> probe = Future.future();
+                probes.add(probe);
+                return probe;
+            }
+        };
+        List<Pod> pods = asList(getPod(0), getPod(1));
+
+        Future<Integer> first = finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret("1"));
+        // The Secrets change while the first search is in progress
+        Future<Integer> second = finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret("2"));
+        context.assertEquals(2, clients.size());
+        probes.get(2).complete(true);
+        probes.get(3).complete(false);
+        context.assertEquals(0, second.result());
+        verify(clients.get(0), never()).close();
+
+        probes.get(0).complete(false);
+        probes.get(1).complete(true);
+        context.assertEquals(1, first.result());
+        verify(clients.get(0)).close();
+        verify(clients.get(1), never()).close();
+
+        // Once the cluster is deleted its client is closed, and a new one is created for a new cluster of the same name
+        finder.evict(NAMESPACE, CLUSTER);
+        verify(clients.get(1)).close();
+        finder.findZookeeperLeader(CLUSTER, NAMESPACE, pods, coKeySecret("2"));
+        context.assertEquals(3, clients.size());
+    }
+
     Pod getPod(int id) {
         return new PodBuilder().withNewMetadata().withName("my-cluster-kafka-" + id).endMetadata().build();
     }
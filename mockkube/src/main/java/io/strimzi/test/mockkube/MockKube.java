@@ -25,6 +25,7 @@ import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
 import io.fabric8.kubernetes.api.model.PersistentVolumeClaimList;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodStatusBuilder;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretList;
@@ -581,6 +582,27 @@ public class MockKube {
                 mockDelete(resourceName, resource);
                 mockIsReady(resourceName, resource);
             }
+
+            /**
+             * Pods are reported as ready (consistently with {@link #mockIsReady(String, Resource)}), so that
+             * waiting for their readiness based on their status also succeeds.
+             */
+            @Override
+            protected OngoingStubbing<Pod> mockGet(String resourceName, PodResource<Pod, DoneablePod> resource) {
+                return when(resource.get()).thenAnswer(i -> {
+                    Pod pod = copyResource(podDb.get(resourceName));
+                    if (pod != null && pod.getStatus() == null) {
+                        pod.setStatus(new PodStatusBuilder()
+                                .addNewCondition()
+                                    .withType("Ready")
+                                    .withStatus("True")
+                                .endCondition()
+                                .build());
+                    }
+                    LOGGER.debug("{} {} get {}", resourceType, resourceName, pod);
+                    return pod;
+                });
+            }
         }.build();
     }
 
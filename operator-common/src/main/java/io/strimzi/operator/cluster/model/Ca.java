@@ -18,9 +18,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
@@ -179,6 +177,11 @@ public abstract class Ca {
     private RenewalType renewalType;
     private boolean caCertsRemoved;
     private final CertificateExpirationPolicy policy;
+    // The decoded current CA cert and key, and the base64 data they were decoded from
+    private String decodedCaCertSource;
+    private byte[] decodedCaCert;
+    private String decodedCaKeySource;
+    private byte[] decodedCaKey;
 
     public Ca(CertManager certManager, String commonName,
               String caCertSecretName, Secret caCertSecret,
@@ -197,12 +200,6 @@ public abstract class Ca {
         this.renewalType = RenewalType.NOOP;
     }
 
-    private static void delete(File brokerCsrFile) {
-        if (!brokerCsrFile.delete()) {
-            log.warn("{} cannot be deleted", brokerCsrFile.getName());
-        }
-    }
-
     /**
      * Returns the given {@code cert} and {@code key} values from the given {@code Secret} as a {@code CertAndKey},
      * or null if the given {@code secret} is null.
@@ -232,15 +229,10 @@ public abstract class Ca {
         }
     }
 
-    private CertAndKey generateSignedCert(Subject subject,
-                                            File csrFile, File keyFile, File certFile) throws IOException {
+    private CertAndKey generateSignedCert(Subject subject) throws IOException {
         log.debug("Generating certificate {} with SAN {}, signed by CA {}", subject, subject.subjectAltNames(), this);
 
-        certManager.generateCsr(keyFile, csrFile, subject);
-        certManager.generateCert(csrFile, currentCaKey(), currentCaCertBytes(),
-                certFile, subject, validityDays);
-
-        return new CertAndKey(Files.readAllBytes(keyFile.toPath()), Files.readAllBytes(certFile.toPath()));
+        return certManager.generateSignedCert(subject, currentCaKey(), currentCaCertBytes(), validityDays);
     }
 
     /**
@@ -261,10 +253,6 @@ public abstract class Ca {
      * @throws IOException If the cert could not be generated.
      */
     public CertAndKey generateSignedCert(String commonName, String organization) throws IOException {
-        File csrFile = File.createTempFile("tls", "csr");
-        File keyFile = File.createTempFile("tls", "key");
-        File certFile = File.createTempFile("tls", "cert");
-
         Subject subject = new Subject();
 
         if (organization != null) {
@@ -273,13 +261,7 @@ public abstract class Ca {
 
         subject.setCommonName(commonName);
 
-        CertAndKey result = generateSignedCert(subject,
-                csrFile, keyFile, certFile);
-
-        delete(csrFile);
-        delete(keyFile);
-        delete(certFile);
-        return result;
+        return generateSignedCert(subject);
     }
 
     /**
@@ -293,10 +275,6 @@ public abstract class Ca {
            Function<Integer, String> podNameFn) throws IOException {
         int replicasInSecret = secret == null || this.certRenewed() ? 0 : secret.getData().size() / 2;
 
-        File brokerCsrFile = File.createTempFile("tls", "broker-csr");
-        File brokerKeyFile = File.createTempFile("tls", "broker-key");
-        File brokerCertFile = File.createTempFile("tls", "broker-cert");
-
         Map<String, CertAndKey> certs = new HashMap<>();
         // copying the minimum number of certificates already existing in the secret
         // scale up -> it will copy all certificates
@@ -327,8 +305,7 @@ public abstract class Ca {
 
                 log.debug("Alternate subjects do not match. Certificate needs to be refreshed for pod {}.", podName);
 
-                CertAndKey k = generateSignedCert(subject,
-                        brokerCsrFile, brokerKeyFile, brokerCertFile);
+                CertAndKey k = generateSignedCert(subject);
                 certs.put(podName, k);
             }
         }
@@ -339,13 +316,9 @@ public abstract class Ca {
         for (int i = replicasInSecret; i < replicas; i++) {
             String podName = podNameFn.apply(i);
             log.debug("Certificate for {} to generate", podName);
-            CertAndKey k = generateSignedCert(subjectFn.apply(i),
-                    brokerCsrFile, brokerKeyFile, brokerCertFile);
+            CertAndKey k = generateSignedCert(subjectFn.apply(i));
             certs.put(podName, k);
         }
-        delete(brokerCsrFile);
-        delete(brokerKeyFile);
-        delete(brokerCertFile);
 
         return certs;
     }
@@ -577,9 +550,13 @@ public abstract class Ca {
     /**
      * @return The current CA certificate as bytes.
      */
-    public byte[] currentCaCertBytes() {
-        Base64.Decoder decoder = Base64.getDecoder();
-        return decoder.decode(caCertSecret().getData().get(CA_CRT));
+    public synchronized byte[] currentCaCertBytes() {
+        String data = caCertSecret().getData().get(CA_CRT);
+        if (!data.equals(decodedCaCertSource)) {
+            decodedCaCert = Base64.getDecoder().decode(data);
+            decodedCaCertSource = data;
+        }
+        return decodedCaCert.clone();
     }
 
     /**
@@ -592,9 +569,13 @@ public abstract class Ca {
     /**
      * @return The current CA key as bytes.
      */
-    public byte[] currentCaKey() {
-        Base64.Decoder decoder = Base64.getDecoder();
-        return decoder.decode(caKeySecret().getData().get(CA_KEY));
+    public synchronized byte[] currentCaKey() {
+        String data = caKeySecret().getData().get(CA_KEY);
+        if (!data.equals(decodedCaKeySource)) {
+            decodedCaKey = Base64.getDecoder().decode(data);
+            decodedCaKeySource = data;
+        }
+        return decodedCaKey.clone();
     }
 
     /**
@@ -702,20 +683,9 @@ public abstract class Ca {
     private void generateCaKeyAndCert(Subject subject, Map<String, String> keyData, Map<String, String> certData) {
         try {
             log.debug("Generating CA with subject={}", subject);
-            File keyFile = File.createTempFile("tls", subject.commonName() + "-key");
-            try {
-                File certFile = File.createTempFile("tls", subject.commonName() + "-cert");
-                try {
-                    certManager.generateSelfSignedCert(keyFile, certFile, subject, validityDays);
-                    CertAndKey ca = new CertAndKey(Files.readAllBytes(keyFile.toPath()), Files.readAllBytes(certFile.toPath()));
-                    certData.put(CA_CRT, ca.certAsBase64String());
-                    keyData.put(CA_KEY, ca.keyAsBase64String());
-                } finally {
-                    delete(certFile);
-                }
-            } finally {
-                delete(keyFile);
-            }
+            CertAndKey ca = certManager.generateSelfSignedCert(subject, validityDays);
+            certData.put(CA_CRT, ca.certAsBase64String());
+            keyData.put(CA_KEY, ca.keyAsBase64String());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -727,20 +697,8 @@ public abstract class Ca {
 
             Base64.Decoder decoder = Base64.getDecoder();
             byte[] bytes = decoder.decode(caKeySecret.getData().get(CA_KEY));
-            File keyFile = File.createTempFile("tls", subject.commonName() + "-key");
-            try {
-                Files.write(keyFile.toPath(), bytes);
-                File certFile = File.createTempFile("tls", subject.commonName() + "-cert");
-                try {
-                    certManager.renewSelfSignedCert(keyFile, certFile, subject, validityDays);
-                    CertAndKey ca = new CertAndKey(bytes, Files.readAllBytes(certFile.toPath()));
-                    certData.put(CA_CRT, ca.certAsBase64String());
-                } finally {
-                    delete(certFile);
-                }
-            } finally {
-                delete(keyFile);
-            }
+            CertAndKey ca = certManager.renewSelfSignedCert(bytes, subject, validityDays);
+            certData.put(CA_CRT, ca.certAsBase64String());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
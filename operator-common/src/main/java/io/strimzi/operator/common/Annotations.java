@@ -7,6 +7,8 @@ package io.strimzi.operator.common;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,6 +18,8 @@ import static java.lang.Integer.parseInt;
 
 public class Annotations {
 
+    private static final Logger LOGGER = LogManager.getLogger(Annotations.class);
+
     public static final String STRIMZI_DOMAIN = "strimzi.io";
 
     public static final String ANNO_DEP_KUBE_IO_REVISION = "deployment.kubernetes.io/revision";
@@ -49,6 +53,35 @@ public class Annotations {
         return str != null ? parseInt(str) : defaultValue;
     }
 
+    /**
+     * Like {@link #intAnnotation(HasMetadata, String, int, String...)}, but for annotations which users set by hand:
+     * a value which is not a positive integer is logged and the {@code defaultValue} is used instead.
+     *
+     * @param resource The annotated resource.
+     * @param annotation The annotation.
+     * @param defaultValue The value to use when the annotation is missing or invalid.
+     * @param deprecatedAnnotations Deprecated names of the annotation, checked when it is missing.
+     * @return The value of the annotation.
+     */
+    public static int positiveIntAnnotation(HasMetadata resource, String annotation, int defaultValue, String... deprecatedAnnotations) {
+        ObjectMeta metadata = resource.getMetadata();
+        String str = annotation(annotation, null, metadata, deprecatedAnnotations);
+        if (str == null) {
+            return defaultValue;
+        }
+        try {
+            int value = parseInt(str.trim());
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        LOGGER.warn("{} {} in namespace {} has invalid value {} for annotation {}, which must be a positive integer; using {}",
+                resource.getKind(), metadata.getName(), metadata.getNamespace(), str, annotation, defaultValue);
+        return defaultValue;
+    }
+
     public static String stringAnnotation(HasMetadata resource, String annotation, String defaultValue, String... deprecatedAnnotations) {
         ObjectMeta metadata = resource.getMetadata();
         String str = annotation(annotation, null, metadata, deprecatedAnnotations);
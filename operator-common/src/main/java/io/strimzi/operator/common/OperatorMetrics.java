@@ -0,0 +1,255 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.strimzi.certs.KeyPairPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.vertx.core.http.HttpServerRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>The metrics of an operator, exposed in the Prometheus format on the {@value #METRICS_PATH} path of
+ * the operator's health server (see {@link #handle(HttpServerRequest)}).</p>
+ *
+ * <p>The following metrics are collected:</p>
+ * <ul>
+ *     <li>{@code strimzi_reconciliations_total}, the number of reconciliations by resource kind and outcome
+ *     ({@code success}, {@code failure} or {@code locked}, when the lock for the resource could not be acquired),</li>
+ *     <li>{@code strimzi_reconciliation_duration_seconds}, a histogram of the duration of reconciliations
+ *     by resource kind and outcome,</li>
+ *     <li>{@code strimzi_reconciliation_step_duration_seconds}, a histogram of the duration of the steps
+ *     of reconciliations by resource kind and step,</li>
+ *     <li>{@code strimzi_reconciliation_lock_wait_seconds}, a histogram of the time spent waiting for the lock
+ *     for a resource by resource kind and whether the lock was acquired,</li>
+ *     <li>{@code strimzi_kubernetes_api_requests_total}, the number of Kubernetes API requests
+ *     by verb, resource kind and status (the HTTP status code, {@code OK}, or {@code error} when there was no response),</li>
+ *     <li>{@code strimzi_worker_pool_queued_tasks}, the number of tasks waiting for a thread of a worker pool,</li>
+ *     <li>{@code strimzi_work_queue_wait_seconds}, a histogram of the time spent by tasks waiting to be started
+ *     by queue,</li>
+ *     <li>{@code strimzi_key_pair_pool_available_key_pairs} and {@code strimzi_key_pair_pool_capacity_key_pairs},
+ *     the number of pre-generated key pairs held by, and the capacity of, the key pair pool by key type,</li>
+ *     <li>{@code strimzi_key_pair_pool_fallbacks_total}, the number of key pairs which were generated on demand
+ *     because the key pair pool was empty, by key type,</li>
+ *     <li>{@code strimzi_zookeeper_leader_probe_duration_seconds}, a histogram of the duration of the probes
+ *     of Zookeeper nodes for whether they are the leader by result ({@code leader}, {@code not_leader} or {@code error}),</li>
+ *     <li>{@code strimzi_zookeeper_leader_search_duration_seconds}, a histogram of the time taken to find
+ *     the leader of a Zookeeper ensemble, including retries, by whether it was found.</li>
+ * </ul>
+ *
+ * <p>The metrics are held in a single registry for the whole JVM.</p>
+ */
+public final class OperatorMetrics {
+
+    public static final String METRICS_PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+    public static final String OUTCOME_LOCKED = "locked";
+
+    private static final String PREFIX = "strimzi.";
+
+    private static final PrometheusMeterRegistry REGISTRY = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    private static final Map<String, AtomicInteger> QUEUED_TASKS = new ConcurrentHashMap<>();
+
+    private OperatorMetrics() {
+    }
+
+    /**
+     * @return The registry holding the operator metrics.
+     */
+    public static MeterRegistry registry() {
+        return REGISTRY;
+    }
+
+    /**
+     * @return The metrics, in the Prometheus text format.
+     */
+    public static String scrape() {
+        return REGISTRY.scrape();
+    }
+
+    /**
+     * Responds to the given request of a health server with the metrics if it is for {@value #METRICS_PATH}.
+     * @param request The request.
+     * @return true if the request was handled.
+     */
+    public static boolean handle(HttpServerRequest request) {
+        if (METRICS_PATH.equals(request.path())) {
+            request.response()
+                    .setStatusCode(200)
+                    .putHeader("Content-Type", CONTENT_TYPE)
+                    .end(scrape());
+            return true;
+        }
+        return false;
+    }
+
+    private static Timer timer(String name, String description, String... tags) {
+        return Timer.builder(PREFIX + name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(REGISTRY);
+    }
+
+    /**
+     * Records the completion of a reconciliation.
+     * @param kind The kind of the reconciled resource.
+     * @param startNanos The {@link System#nanoTime()} when the reconciliation started.
+     * @param succeeded Whether the reconciliation succeeded.
+     */
+    public static void reconciliationCompleted(String kind, long startNanos, boolean succeeded) {
+        String outcome = succeeded ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        Counter.builder(PREFIX + "reconciliations")
+                .description("The number of reconciliations")
+                .tags("kind", kind, "outcome", outcome)
+                .register(REGISTRY)
+                .increment();
+        timer("reconciliation.duration", "The duration of reconciliations", "kind", kind, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a reconciliation which did not happen because the lock for the resource could not be acquired.
+     * @param kind The kind of the resource.
+     */
+    public static void reconciliationLockedOut(String kind) {
+        Counter.builder(PREFIX + "reconciliations")
+                .description("The number of reconciliations")
+                .tags("kind", kind, "outcome", OUTCOME_LOCKED)
+                .register(REGISTRY)
+                .increment();
+    }
+
+    /**
+     * Records the time spent waiting for the lock for a resource.
+     * @param kind The kind of the resource.
+     * @param startNanos The {@link System#nanoTime()} when the lock was requested.
+     * @param acquired Whether the lock was acquired.
+     */
+    public static void lockWaited(String kind, long startNanos, boolean acquired) {
+        timer("reconciliation.lock.wait", "The time spent waiting for the lock for a resource",
+                "kind", kind, "acquired", String.valueOf(acquired))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the completion of a step of a reconciliation.
+     * @param kind The kind of the reconciled resource.
+     * @param step The name of the step.
+     * @param durationNanos The duration of the step, in nanoseconds.
+     */
+    public static void stepCompleted(String kind, String step, long durationNanos) {
+        timer("reconciliation.step.duration", "The duration of the steps of reconciliations", "kind", kind, "step", step)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a request to the Kubernetes API.
+     * @param verb The verb of the request (for example {@code get} or {@code patch}).
+     * @param kind The kind of the resource.
+     * @param error The error with which the request failed, or null if it succeeded.
+     */
+    public static void apiRequest(String verb, String kind, Throwable error) {
+        String status;
+        if (error == null) {
+            status = "OK";
+        } else if (error instanceof KubernetesClientException && ((KubernetesClientException) error).getCode() > 0) {
+            status = String.valueOf(((KubernetesClientException) error).getCode());
+        } else {
+            status = "error";
+        }
+        Counter.builder(PREFIX + "kubernetes.api.requests")
+                .description("The number of requests to the Kubernetes API")
+                .tags("verb", verb, "kind", kind, "status", status)
+                .register(REGISTRY)
+                .increment();
+    }
+
+    /**
+     * @param pool The name of the worker pool.
+     * @return The number of tasks waiting for a thread of the given worker pool,
+     * which should be incremented when a task is submitted and decremented when it starts.
+     */
+    public static AtomicInteger queuedTasks(String pool) {
+        return QUEUED_TASKS.computeIfAbsent(pool, p -> {
+            AtomicInteger queued = new AtomicInteger();
+            Gauge.builder(PREFIX + "worker.pool.queued.tasks", queued, AtomicInteger::get)
+                    .description("The number of tasks waiting for a thread of a worker pool")
+                    .tags("pool", p)
+                    .register(REGISTRY);
+            return queued;
+        });
+    }
+
+    /**
+     * Records the time spent by a task waiting in a queue before being started.
+     * @param queue The name of the queue.
+     * @param submittedNanos The {@link System#nanoTime()} when the task was submitted.
+     */
+    public static void queueWaited(String queue, long submittedNanos) {
+        timer("work.queue.wait", "The time spent by tasks waiting to be started", "queue", queue)
+                .record(System.nanoTime() - submittedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers the metrics of the given key pair pool.
+     * @param pool The key pair pool.
+     */
+    public static void keyPairPool(KeyPairPool pool) {
+        String keyType = pool.keyType().toValue();
+        Gauge.builder(PREFIX + "key.pair.pool.available", pool, KeyPairPool::available)
+                .description("The number of pre-generated key pairs in the key pair pool")
+                .baseUnit("key_pairs")
+                .tags("key_type", keyType)
+                .register(REGISTRY);
+        Gauge.builder(PREFIX + "key.pair.pool.capacity", pool, KeyPairPool::capacity)
+                .description("The maximum number of pre-generated key pairs in the key pair pool")
+                .baseUnit("key_pairs")
+                .tags("key_type", keyType)
+                .register(REGISTRY);
+        FunctionCounter.builder(PREFIX + "key.pair.pool.fallbacks", pool, KeyPairPool::fallbacks)
+                .description("The number of key pairs generated on demand because the key pair pool was empty")
+                .tags("key_type", keyType)
+                .register(REGISTRY);
+    }
+
+    /**
+     * Records the completion of a probe of a Zookeeper node for whether it is the leader.
+     * @param startNanos The {@link System#nanoTime()} when the probe started.
+     * @param isLeader Whether the node is the leader, or null if the probe failed.
+     */
+    public static void zookeeperLeaderProbed(long startNanos, Boolean isLeader) {
+        String result = isLeader == null ? "error" : isLeader ? "leader" : "not_leader";
+        timer("zookeeper.leader.probe.duration", "The duration of the probes of Zookeeper nodes for whether they are the leader",
+                "result", result)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the completion of a search for the leader of a Zookeeper ensemble.
+     * @param startNanos The {@link System#nanoTime()} when the search started.
+     * @param found Whether the leader was found.
+     */
+    public static void zookeeperLeaderSearched(long startNanos, boolean found) {
+        timer("zookeeper.leader.search.duration", "The time taken to find the leader of a Zookeeper ensemble",
+                "found", String.valueOf(found))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -4,6 +4,10 @@
  */
 package io.strimzi.operator.common;
 
+import io.strimzi.certs.CertManager;
+import io.strimzi.certs.CertManagerType;
+import io.strimzi.certs.KeyPairPool;
+import io.strimzi.certs.KeyType;
 import io.strimzi.operator.common.operator.resource.TimeoutException;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -72,4 +76,26 @@ public class Util {
 
         return fut;
     }
+
+    /**
+     * Creates the certificate manager of an operator, with a pool of key pairs generated in advance
+     * if the given {@code type} supports one and {@code keyPairPoolSize} is positive.
+     * @param type The type of certificate manager.
+     * @param keyType The type of the keys to generate.
+     * @param keyPairPoolSize The number of key pairs to generate in advance.
+     * @return The certificate manager.
+     */
+    public static CertManager createCertManager(CertManagerType type, KeyType keyType, int keyPairPoolSize) {
+        if (keyPairPoolSize > 0 && !type.usesKeyPairPool()) {
+            LOGGER.warn("The {} certificate manager does not use a key pair pool, ignoring the configured pool size of {}",
+                    type.toValue(), keyPairPoolSize);
+            keyPairPoolSize = 0;
+        }
+        KeyPairPool keyPairs = new KeyPairPool(keyType, keyPairPoolSize);
+        if (keyPairPoolSize > 0) {
+            LOGGER.info("Generating up to {} {} key pairs in advance", keyPairPoolSize, keyType);
+            OperatorMetrics.keyPairPool(keyPairs);
+        }
+        return type.create(keyPairs);
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>A queue of work (typically reconciliations) keyed by the resource which the work is about,
+ * for example by its {@link io.strimzi.operator.common.model.NamespaceAndName}.</p>
+ *
+ * <ul>
+ *     <li>Work which is {@linkplain #enqueue(Object, Supplier) enqueued} for a key which already has work pending
+ *     replaces the pending work, so a burst of events for a resource results in a single run.</li>
+ *     <li>At most one piece of work runs for each key at a time. Work enqueued for a key while work for it is running
+ *     is run once the running work has completed.</li>
+ *     <li>At most {@code maxConcurrency} pieces of work run at a time across all keys.
+ *     Further work waits in the order in which its key was first enqueued.</li>
+ *     <li>Work which fails is retried after the delays given by a {@link BackOff}, unless newer work is enqueued
+ *     for the key meanwhile, in which case that work is run instead, immediately.
+ *     When the back-off is exhausted the work is given up on.</li>
+ * </ul>
+ *
+ * <p>The number of keys waiting to run is available as the
+ * {@code strimzi_worker_pool_queued_tasks} metric with the name of the queue as the pool.</p>
+ *
+ * @param <K> The type of the keys.
+ */
+public class WorkQueue<K> {
+
+    private static final Logger log = LogManager.getLogger(WorkQueue.class);
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    private final Vertx vertx;
+    private final String name;
+    private final int maxConcurrency;
+    private final Supplier<BackOff> backOffSupplier;
+    private final AtomicInteger queuedMetric;
+
+    private final Map<K, Entry> entries = new HashMap<>();
+    private final Deque<Entry> ready = new ArrayDeque<>();
+    private int running;
+
+    private class Entry {
+        private final K key;
+        /** The work to run next, or null. */
+        private Supplier<Future<Void>> work;
+        /** Futures to complete with the outcome of the next run. */
+        private List<Future<Void>> waiters = new ArrayList<>();
+        private boolean queued;
+        private boolean running;
+        private BackOff backOff;
+        private long retryTimerId = -1;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * @param vertx The Vertx instance.
+     * @param name The name of the queue, used for logging and metrics.
+     * @param maxConcurrency The maximum number of pieces of work to run at a time.
+     * @param backOffSupplier Supplies the back-off to use for retrying work for a key which has failed.
+     */
+    public WorkQueue(Vertx vertx, String name, int maxConcurrency, Supplier<BackOff> backOffSupplier) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.vertx = vertx;
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.backOffSupplier = backOffSupplier;
+        this.queuedMetric = OperatorMetrics.queuedTasks(name);
+    }
+
+    /**
+     * Enqueues work for the given key.
+     * @param key The key.
+     * @param work Starts the work, returning a future which completes when the work has completed.
+     * @return A future which completes with the outcome of the first run for the key which starts after this call
+     * (that is, with the outcome of this work, or of work enqueued later for the same key which replaced it).
+     */
+    public Future<Void> enqueue(K key, Supplier<Future<Void>> work) {
+        Future<Void> result = Future.future();
+        synchronized (this) {
+            Entry entry = entries.computeIfAbsent(key, Entry::new);
+            if (entry.work != null) {
+                log.debug("{}: Coalescing work for {} with pending work", name, key);
+            }
+            entry.work = work;
+            entry.waiters.add(result);
+            if (entry.retryTimerId != -1) {
+                log.debug("{}: Cancelling retry of work for {} in favour of newer work", name, key);
+                vertx.cancelTimer(entry.retryTimerId);
+                entry.retryTimerId = -1;
+            }
+            if (!entry.running) {
+                queue(entry);
+            }
+        }
+        dispatch();
+        return result;
+    }
+
+    /**
+     * @return The number of keys which have work waiting to be run.
+     */
+    public synchronized int queued() {
+        return ready.size();
+    }
+
+    /**
+     * @return The number of pieces of work which are running.
+     */
+    public synchronized int running() {
+        return running;
+    }
+
+    private void queue(Entry entry) {
+        if (!entry.queued) {
+            entry.queued = true;
+            ready.add(entry);
+            queuedMetric.set(ready.size());
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Entry entry;
+            Supplier<Future<Void>> work;
+            List<Future<Void>> waiters;
+            synchronized (this) {
+                if (running >= maxConcurrency || ready.isEmpty()) {
+                    return;
+                }
+                entry = ready.poll();
+                queuedMetric.set(ready.size());
+                entry.queued = false;
+                entry.running = true;
+                running++;
+                work = entry.work;
+                waiters = entry.waiters;
+                entry.work = null;
+                entry.waiters = new ArrayList<>();
+            }
+            log.debug("{}: Running work for {}", name, entry.key);
+            Future<Void> future;
+            try {
+                future = work.get();
+            } catch (Throwable t) {
+                future = Future.failedFuture(t);
+            }
+            future.setHandler(ar -> completed(entry, work, waiters, ar));
+        }
+    }
+
+    private void completed(Entry entry, Supplier<Future<Void>> work, List<Future<Void>> waiters, AsyncResult<Void> ar) {
+        synchronized (this) {
+            running--;
+            entry.running = false;
+            if (ar.succeeded()) {
+                entry.backOff = null;
+            }
+            if (entry.work != null) {
+                // More work arrived while running
+                queue(entry);
+            } else if (ar.failed()) {
+                if (entry.backOff == null) {
+                    entry.backOff = backOffSupplier.get();
+                    // The first delay of a BackOff is always zero
+                    entry.backOff.delayMs();
+                }
+                if (entry.backOff.done()) {
+                    log.info("{}: Giving up retrying work for {} after {} attempts", name, entry.key, entry.backOff.maxAttempts());
+                    entries.remove(entry.key);
+                } else {
+                    long delayMs = entry.backOff.delayMs();
+                    log.debug("{}: Work for {} failed, retrying in {}ms", name, entry.key, delayMs);
+                    entry.work = work;
+                    entry.retryTimerId = vertx.setTimer(delayMs, timerId -> {
+                        synchronized (this) {
+                            if (entry.retryTimerId != timerId) {
+                                return;
+                            }
+                            entry.retryTimerId = -1;
+                            queue(entry);
+                        }
+                        dispatch();
+                    });
+                }
+            } else {
+                entries.remove(entry.key);
+            }
+        }
+        for (Future<Void> waiter : waiters) {
+            waiter.handle(ar);
+        }
+        dispatch();
+    }
+}
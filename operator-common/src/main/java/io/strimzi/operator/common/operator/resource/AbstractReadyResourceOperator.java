@@ -8,11 +8,19 @@ import io.fabric8.kubernetes.api.model.Doneable;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.kubernetes.client.internal.readiness.Readiness;
+import io.strimzi.operator.common.Util;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
 /**
  * Specializes {@link AbstractResourceOperator} for resources which also have a notion
  * of being "ready".
@@ -44,6 +52,139 @@ public abstract class AbstractReadyResourceOperator<C extends KubernetesClient,
         return waitFor(namespace, name, pollIntervalMs, timeoutMs, this::isReady);
     }
 
+    /**
+     * Asynchronously waits for the resource with the given {@code namespace} and {@code name} to satisfy the given
+     * {@code predicate}. The predicate is tested with the current state of the resource (null if it doesn't exist)
+     * and then each time a watch reports that the resource has changed, so the returned future completes as soon as
+     * the change happens. If the watch cannot be opened, or is closed before the predicate is satisfied,
+     * this falls back to polling the resource every {@code pollIntervalMs}.
+     *
+     * @param namespace The namespace.
+     * @param name The resource name.
+     * @param pollIntervalMs The poll interval in milliseconds, used only when the resource cannot be watched.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @param predicate The predicate.
+     * @return A future which completes when the predicate is satisfied, or fails with a {@link TimeoutException}.
+     */
+    public Future<Void> watchUntil(String namespace, String name, long pollIntervalMs, long timeoutMs, Predicate<T> predicate) {
+        return new WatchedWait(namespace, name, pollIntervalMs, timeoutMs, predicate).start();
+    }
+
+    /**
+     * A wait for a resource to satisfy a predicate, driven by a watch on the resource.
+     */
+    private class WatchedWait implements Watcher<T> {
+        private final String namespace;
+        private final String name;
+        private final long pollIntervalMs;
+        private final long timeoutMs;
+        private final Predicate<T> predicate;
+        private final String logContext;
+        private final Context context = vertx.getOrCreateContext();
+        private final Future<Void> result = Future.future();
+        private final AtomicBoolean done = new AtomicBoolean(false);
+        private final AtomicBoolean polling = new AtomicBoolean(false);
+        private final long deadline;
+        private long timerId;
+        private volatile Watch watch;
+
+        WatchedWait(String namespace, String name, long pollIntervalMs, long timeoutMs, Predicate<T> predicate) {
+            this.namespace = namespace;
+            this.name = name;
+            this.pollIntervalMs = pollIntervalMs;
+            this.timeoutMs = timeoutMs;
+            this.predicate = predicate;
+            this.logContext = String.format("%s resource %s in namespace %s", resourceKind, name, namespace);
+            this.deadline = System.currentTimeMillis() + timeoutMs;
+        }
+
+        Future<Void> start() {
+            log.debug("Watching {} until it is ready", logContext);
+            timerId = vertx.setTimer(Math.max(timeoutMs, 1), id -> {
+                String exceptionMessage = String.format("Exceeded timeout of %dms while waiting for %s to be ready", timeoutMs, logContext);
+                log.error(exceptionMessage);
+                finish(new TimeoutException(exceptionMessage));
+            });
+            vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Boolean>executeBlocking(
+                future -> {
+                    try {
+                        Watch w = operation().inNamespace(namespace).withName(name).watch(this);
+                        if (w == null) {
+                            throw new IllegalStateException("No watch was returned");
+                        }
+                        watch = w;
+                        if (done.get()) {
+                            w.close();
+                        }
+                        // Test the current state only once the watch is open, so that no change can be missed
+                        future.complete(predicate.test(get(namespace, name)));
+                    } catch (Throwable e) {
+                        future.fail(e);
+                    }
+                }, true,
+                res -> {
+                    if (res.failed()) {
+                        log.debug("Could not watch {}, falling back to polling", logContext, res.cause());
+                        poll();
+                    } else if (res.result()) {
+                        finish(null);
+                    }
+                });
+            return result;
+        }
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (done.get() || action == Action.ERROR) {
+                return;
+            }
+            try {
+                if (predicate.test(action == Action.DELETED ? null : resource)) {
+                    context.runOnContext(v -> finish(null));
+                }
+            } catch (Throwable e) {
+                log.warn("Caught exception while testing whether {} is ready", logContext, e);
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (!done.get()) {
+                log.debug("Watch on {} closed, falling back to polling", logContext, cause);
+                context.runOnContext(v -> poll());
+            }
+        }
+
+        private void poll() {
+            if (done.get() || !polling.compareAndSet(false, true)) {
+                return;
+            }
+            Util.waitFor(vertx, logContext, pollIntervalMs, Math.max(deadline - System.currentTimeMillis(), 0),
+                () -> done.get() || predicate.test(get(namespace, name)))
+                .setHandler(res -> finish(res.failed() ? res.cause() : null));
+        }
+
+        private void finish(Throwable failure) {
+            if (done.compareAndSet(false, true)) {
+                vertx.cancelTimer(timerId);
+                Watch w = watch;
+                if (w != null) {
+                    vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+                        future -> {
+                            w.close();
+                            future.complete();
+                        }, false, ignored -> { });
+                }
+                if (failure == null) {
+                    log.debug("{} is ready", logContext);
+                    result.complete();
+                } else {
+                    result.fail(failure);
+                }
+            }
+        }
+    }
+
     /**
      * Check if a resource is in the Ready state.
      *
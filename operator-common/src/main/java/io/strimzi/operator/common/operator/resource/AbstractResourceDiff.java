@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public abstract class AbstractResourceDiff {
+    protected JsonNode lookupPath(JsonNode source, String path) {
+        JsonNode s = source;
+        for (String component : path.substring(1).split("/")) {
+            if (s.isArray()) {
+                try {
+                    s = s.path(Integer.parseInt(component));
+                } catch (NumberFormatException e) {
+                    return MissingNode.getInstance();
+                }
+            } else {
+                s = s.path(component);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Returns whether the Diff is empty or not.
+     *
+     * @return whether the Diff is empty or not.
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * Receives the differences found by {@link #diff(JsonNode, JsonNode, PathTrie, Object, DiffHandler)}.
+     * @param <V> The type of the categories of the paths.
+     */
+    @FunctionalInterface
+    protected interface DiffHandler<V> {
+        /**
+         * Called for each difference, at the path where a JSON patch would have an operation.
+         * @param path The JSON pointer path of the difference.
+         * @param category The value of the pattern matching the path, or null if no pattern matches it.
+         * @param source The value in the source, or a {@link MissingNode} if the target adds the path.
+         * @param target The value in the target, or a {@link MissingNode} if the target removes the path.
+         */
+        void difference(String path, V category, JsonNode source, JsonNode target);
+    }
+
+    /**
+     * <p>Find the differences between the given trees, at the same paths as the operations of the JSON patch
+     * which {@code JsonDiff.asJson(source, target)} would generate
+     * (except that a value which is moved within an array is reported as a remove and an add),
+     * and pass each of them to the given handler, together with the category of its path.</p>
+     *
+     * <p>This is done in a single walk of the trees, without building the patch.
+     * Differences whose path has the {@code ignorable} category are not passed to the handler,
+     * and subtrees in which every path is ignorable are not walked at all.</p>
+     *
+     * @param source The source tree.
+     * @param target The target tree.
+     * @param paths The categories of the paths.
+     * @param ignorable The category of the paths whose differences should be ignored.
+     * @param handler The handler.
+     * @param <V> The type of the categories.
+     */
+    protected static <V> void diff(JsonNode source, JsonNode target, PathTrie<V> paths, V ignorable, DiffHandler<V> handler) {
+        new Walker<>(ignorable, handler).diff(paths.root(), source, target);
+    }
+
+    private static final class Walker<V> {
+        private final V ignorable;
+        private final DiffHandler<V> handler;
+        /** The segments of the current path: Strings for object fields and Integers for array indices. */
+        private final List<Object> path = new ArrayList<>();
+
+        Walker(V ignorable, DiffHandler<V> handler) {
+            this.ignorable = ignorable;
+            this.handler = handler;
+        }
+
+        void diff(PathTrie.Node<V> node, JsonNode source, JsonNode target) {
+            if (source.isObject() && target.isObject()) {
+                if (!isIgnorableBelow(node)) {
+                    diffObjects(node, source, target);
+                }
+            } else if (source.isArray() && target.isArray()) {
+                if (!isIgnorableBelow(node)) {
+                    diffArrays(node, source, target);
+                }
+            } else if (!source.equals(target)) {
+                difference(node, source, target);
+            }
+        }
+
+        private boolean isIgnorableBelow(PathTrie.Node<V> node) {
+            return node != null && ignorable.equals(node.descendantsValue());
+        }
+
+        private void diffObjects(PathTrie.Node<V> node, JsonNode source, JsonNode target) {
+            Iterator<String> fields = source.fieldNames();
+            while (fields.hasNext()) {
+                String field = fields.next();
+                path.add(field);
+                PathTrie.Node<V> child = node == null ? null : node.child(field);
+                JsonNode targetValue = target.get(field);
+                if (targetValue == null) {
+                    difference(child, source.get(field), MissingNode.getInstance());
+                } else {
+                    diff(child, source.get(field), targetValue);
+                }
+                path.remove(path.size() - 1);
+            }
+            fields = target.fieldNames();
+            while (fields.hasNext()) {
+                String field = fields.next();
+                if (!source.has(field)) {
+                    path.add(field);
+                    difference(node == null ? null : node.child(field), MissingNode.getInstance(), target.get(field));
+                    path.remove(path.size() - 1);
+                }
+            }
+        }
+
+        /**
+         * Pairs up the elements of the arrays like JsonDiff does: The elements of a longest common subsequence
+         * are unchanged. Between consecutive elements of it, the remaining source and target elements are
+         * compared pairwise, and any left over are removed from the source or added from the target.
+         * The indices are those of the array as the patch is applied, so removals don't advance them.
+         */
+        private void diffArrays(PathTrie.Node<V> node, JsonNode source, JsonNode target) {
+            int[] matches = longestCommonSubsequence(source, target);
+            int srcIdx = 0;
+            int targetIdx = 0;
+            int pos = 0;
+            for (int m = 0; m <= matches.length; m += 2) {
+                int srcEnd = m < matches.length ? matches[m] : source.size();
+                int targetEnd = m < matches.length ? matches[m + 1] : target.size();
+                for (; srcIdx < srcEnd && targetIdx < targetEnd; srcIdx++, targetIdx++, pos++) {
+                    path.add(pos);
+                    diff(node == null ? null : node.child(pos), source.get(srcIdx), target.get(targetIdx));
+                    path.remove(path.size() - 1);
+                }
+                for (; targetIdx < targetEnd; targetIdx++, pos++) {
+                    path.add(pos);
+                    difference(node == null ? null : node.child(pos), MissingNode.getInstance(), target.get(targetIdx));
+                    path.remove(path.size() - 1);
+                }
+                for (; srcIdx < srcEnd; srcIdx++) {
+                    path.add(pos);
+                    difference(node == null ? null : node.child(pos), source.get(srcIdx), MissingNode.getInstance());
+                    path.remove(path.size() - 1);
+                }
+                // Skip over the common element
+                srcIdx++;
+                targetIdx++;
+                pos++;
+            }
+        }
+
+        private void difference(PathTrie.Node<V> node, JsonNode source, JsonNode target) {
+            V category = node == null ? null : node.value();
+            if (!ignorable.equals(category)) {
+                handler.difference(pathString(), category, source, target);
+            }
+        }
+
+        private String pathString() {
+            StringBuilder sb = new StringBuilder();
+            for (Object segment : path) {
+                sb.append('/');
+                if (segment instanceof String) {
+                    sb.append(PathTrie.escape((String) segment));
+                } else {
+                    sb.append(segment);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * @return The indices of the elements of a longest common subsequence of the given arrays,
+     * as consecutive (source index, target index) pairs.
+     */
+    static int[] longestCommonSubsequence(JsonNode source, JsonNode target) {
+        int srcSize = source.size();
+        int targetSize = target.size();
+        // Most arrays are unchanged, or change only at one end, so trim the common prefix and suffix
+        int prefix = 0;
+        while (prefix < srcSize && prefix < targetSize
+                && source.get(prefix).equals(target.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < srcSize - prefix && suffix < targetSize - prefix
+                && source.get(srcSize - 1 - suffix).equals(target.get(targetSize - 1 - suffix))) {
+            suffix++;
+        }
+        int m = srcSize - prefix - suffix;
+        int n = targetSize - prefix - suffix;
+        // lengths[i][j] is the length of the LCS of the middle of the source from i and the middle of the target from j
+        int[][] lengths = new int[m + 1][n + 1];
+        for (int i = m - 1; i >= 0; i--) {
+            for (int j = n - 1; j >= 0; j--) {
+                if (source.get(prefix + i).equals(target.get(prefix + j))) {
+                    lengths[i][j] = lengths[i + 1][j + 1] + 1;
+                } else {
+                    lengths[i][j] = Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+                }
+            }
+        }
+        int[] result = new int[2 * (prefix + lengths[0][0] + suffix)];
+        int r = 0;
+        for (int k = 0; k < prefix; k++) {
+            result[r++] = k;
+            result[r++] = k;
+        }
+        for (int i = 0, j = 0; i < m && j < n;) {
+            if (source.get(prefix + i).equals(target.get(prefix + j))) {
+                result[r++] = prefix + i;
+                result[r++] = prefix + j;
+                i++;
+                j++;
+            } else if (lengths[i + 1][j] >= lengths[i][j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        for (int k = suffix; k > 0; k--) {
+            result[r++] = srcSize - k;
+            result[r++] = targetSize - k;
+        }
+        return result;
+    }
+}
@@ -7,15 +7,19 @@ package io.strimzi.operator.common.operator.resource;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListMultiDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.Util;
 import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,7 +27,10 @@ import org.apache.logging.log4j.Logger;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
+import java.util.function.Supplier;
 
 /**
  * Abstract resource creation, for a generic resource type {@code R}.
@@ -42,6 +49,13 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     protected final Vertx vertx;
     protected final C client;
     protected final String resourceKind;
+    private final ConcurrentHashMap<String, ResourceCache<T>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * The label of the resources which are {@linkplain #enableCache(String) cached}.
+     * The resources which the operators create all have it, other resources in the namespace aren't cached.
+     */
+    public static final String CACHE_SCOPE_LABEL = Labels.STRIMZI_CLUSTER_LABEL;
 
     /**
      * Constructor.
@@ -57,6 +71,47 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected abstract MixedOperation<T, L, D, R> operation();
 
+    /**
+     * Synchronously lists the resources in the given {@code namespace} which have the {@value #CACHE_SCOPE_LABEL} label
+     * and starts watching them, so that subsequent reads of those resources are served from a local cache
+     * for as long as the watch is running. Reads of other resources still go to the API server.
+     * Calling this method for a namespace which is already cached has no effect.
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     */
+    // unchecked due to L extends KubernetesResourceList/*<T>*/,
+    // deprecation because watching from a resourceVersion is only possible via Watchable.watch(String, Watcher)
+    @SuppressWarnings({"unchecked", "deprecation"})
+    public void enableCache(String namespace) {
+        caches.computeIfAbsent(namespace, ns -> {
+            ResourceCache<T> cache;
+            if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(ns)) {
+                cache = new ResourceCache<>(vertx, resourceKind,
+                    () -> (KubernetesResourceList<T>) operation().inAnyNamespace().withLabel(CACHE_SCOPE_LABEL).list(),
+                    (resourceVersion, watcher) -> operation().inAnyNamespace().withLabel(CACHE_SCOPE_LABEL).watch(resourceVersion, watcher),
+                    CACHE_SCOPE_LABEL);
+            } else {
+                cache = new ResourceCache<>(vertx, resourceKind,
+                    () -> (KubernetesResourceList<T>) operation().inNamespace(ns).withLabel(CACHE_SCOPE_LABEL).list(),
+                    (resourceVersion, watcher) -> operation().inNamespace(ns).withLabel(CACHE_SCOPE_LABEL).watch(resourceVersion, watcher),
+                    CACHE_SCOPE_LABEL);
+            }
+            cache.start();
+            log.info("Caching {} resources in namespace {}", resourceKind, ns);
+            return cache;
+        });
+    }
+
+    /**
+     * @return The synced cache covering the given {@code namespace}, or null if reads must go to the API server.
+     */
+    private ResourceCache<T> cache(String namespace) {
+        ResourceCache<T> cache = caches.get(namespace);
+        if (cache == null && !AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)) {
+            cache = caches.get(AbstractWatchableResourceOperator.ANY_NAMESPACE);
+        }
+        return cache != null && cache.isSynced() ? cache : null;
+    }
+
     /**
      * Asynchronously create or update the given {@code resource} depending on whether it already exists,
      * returning a future for the outcome.
@@ -87,22 +142,50 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
 
         Future<ReconcileResult<T>> fut = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+        executeBlocking("kubernetes-ops-pool",
             future -> {
-                T current = operation().inNamespace(namespace).withName(name).get();
+                ResourceCache<T> cache = cache(namespace);
+                T current = current(cache, namespace, name, desired);
                 if (desired != null) {
+                    Future<ReconcileResult<T>> result;
                     if (current == null) {
                         log.debug("{} {}/{} does not exist, creating it", resourceKind, namespace, name);
-                        internalCreate(namespace, name, desired).setHandler(future);
+                        result = internalCreate(namespace, name, desired);
+                        if (cache != null) {
+                            // The cache can lag behind the API server, so the resource might have been created meanwhile
+                            result = result.recover(error -> {
+                                T live = isStatus(error, 409) ? request("get", () -> operation().inNamespace(namespace).withName(name).get()) : null;
+                                return live != null ? internalPatch(namespace, name, live, desired) : Future.failedFuture(error);
+                            });
+                        }
                     } else {
                         log.debug("{} {}/{} already exists, patching it", resourceKind, namespace, name);
-                        internalPatch(namespace, name, current, desired).setHandler(future);
+                        result = internalPatch(namespace, name, current, desired);
+                        if (cache != null) {
+                            // ... or deleted meanwhile
+                            result = result.recover(error -> isStatus(error, 404)
+                                    ? internalCreate(namespace, name, desired) : Future.failedFuture(error));
+                        }
                     }
+                    if (cache != null) {
+                        result = result.map(reconcileResult -> {
+                            cache.update(reconcileResult.resource());
+                            return reconcileResult;
+                        });
+                    }
+                    result.setHandler(future);
                 } else {
                     if (current != null) {
                         // Deletion is desired
                         log.debug("{} {}/{} exist, deleting it", resourceKind, namespace, name);
-                        internalDelete(namespace, name).setHandler(future);
+                        Future<ReconcileResult<T>> result = internalDelete(namespace, name);
+                        if (cache != null) {
+                            result = result.map(reconcileResult -> {
+                                cache.remove(namespace, name);
+                                return reconcileResult;
+                            });
+                        }
+                        result.setHandler(future);
                     } else {
                         log.debug("{} {}/{} does not exist, noop", resourceKind, namespace, name);
                         future.complete(ReconcileResult.noop(null));
@@ -116,6 +199,45 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         return fut;
     }
 
+    /**
+     * Executes the given blocking {@code task} on the worker pool with the given name,
+     * keeping track of the number of tasks which are waiting for a thread of the pool.
+     */
+    private <X> void executeBlocking(String pool, Handler<Future<X>> task, boolean ordered, Handler<AsyncResult<X>> resultHandler) {
+        AtomicInteger queued = OperatorMetrics.queuedTasks(pool);
+        queued.incrementAndGet();
+        vertx.createSharedWorkerExecutor(pool).executeBlocking(
+            future -> {
+                queued.decrementAndGet();
+                task.handle(future);
+            },
+            ordered,
+            resultHandler
+        );
+    }
+
+    /**
+     * Synchronously performs the given request to the Kubernetes API, recording it in the {@link OperatorMetrics}.
+     * @param verb The verb of the request.
+     * @param request The request.
+     * @param <X> The type of the result.
+     * @return The result of the request.
+     */
+    protected <X> X request(String verb, Supplier<X> request) {
+        try {
+            X result = request.get();
+            OperatorMetrics.apiRequest(verb, resourceKind, null);
+            return result;
+        } catch (RuntimeException e) {
+            OperatorMetrics.apiRequest(verb, resourceKind, e);
+            throw e;
+        }
+    }
+
+    private static boolean isStatus(Throwable error, int code) {
+        return error instanceof KubernetesClientException && ((KubernetesClientException) error).getCode() == code;
+    }
+
     /**
      * Deletes the resource with the given namespace and name and completes the given future accordingly.
      * This method will do a cascading delete.
@@ -141,7 +263,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected Future<ReconcileResult<T>> internalDelete(String namespace, String name, boolean cascading) {
         try {
-            operation().inNamespace(namespace).withName(name).cascading(cascading).delete();
+            request("delete", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).delete());
             log.debug("{} {} in namespace {} has been deleted", resourceKind, name, namespace);
             return Future.succeededFuture(ReconcileResult.deleted());
         } catch (Exception e) {
@@ -160,7 +282,10 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     protected Future<ReconcileResult<T>> internalPatch(String namespace, String name, T current, T desired, boolean cascading) {
         try {
-            T result = operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired);
+            if (isUnchanged(namespace, name, current, desired)) {
+                return Future.succeededFuture(ReconcileResult.unchanged(current));
+            }
+            T result = request("patch", () -> operation().inNamespace(namespace).withName(name).cascading(cascading).patch(desired));
             log.debug("{} {} in namespace {} has been patched", resourceKind, name, namespace);
             return Future.succeededFuture(wasChanged(current, result) ? ReconcileResult.patched(result) : ReconcileResult.noop(result));
         } catch (Exception e) {
@@ -169,6 +294,28 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
     }
 
+    /**
+     * Paths which are set or defaulted by Kubernetes for this kind of resource, and so should not be
+     * considered when deciding whether a resource needs to be patched.
+     * @return The ignorable paths, as returned by {@link ResourceDiff#ignorablePaths(String...)},
+     * or null if there are none beyond {@link ResourceDiff#DEFAULT_IGNORABLE_PATHS}.
+     */
+    protected PathTrie<Boolean> ignorablePaths() {
+        return null;
+    }
+
+    /**
+     * @return true if patching the {@code current} resource with the {@code desired} one would not change it,
+     * in which case the PATCH need not be sent.
+     */
+    protected boolean isUnchanged(String namespace, String name, T current, T desired) {
+        if (new ResourceDiff(resourceKind, current, desired, ignorablePaths()).isEmpty()) {
+            log.debug("{} {} in namespace {} has not been patched because resources are equal", resourceKind, name, namespace);
+            return true;
+        }
+        return false;
+    }
+
     protected boolean wasChanged(T oldVersion, T newVersion) {
         if (oldVersion != null
                 && oldVersion.getMetadata() != null
@@ -187,7 +334,7 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
     @SuppressWarnings("unchecked")
     protected Future<ReconcileResult<T>> internalCreate(String namespace, String name, T desired) {
         try {
-            ReconcileResult<T> result = ReconcileResult.created(operation().inNamespace(namespace).withName(name).create(desired));
+            ReconcileResult<T> result = ReconcileResult.created(request("create", () -> operation().inNamespace(namespace).withName(name).create(desired)));
             log.debug("{} {} in namespace {} has been created", resourceKind, name, namespace);
             return Future.succeededFuture(result);
         } catch (Exception e) {
@@ -196,14 +343,37 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
         }
     }
 
+    /**
+     * @return The current resource with the given {@code namespace} and {@code name}, from the given cache,
+     * unless it isn't there and the {@code desired} resource is outside the scope of the cache.
+     */
+    private T current(ResourceCache<T> cache, String namespace, String name, T desired) {
+        T current = cache != null ? cache.get(namespace, name) : null;
+        if (current == null && (cache == null || !cache.covers(desired != null ? desired.getMetadata().getLabels() : null))) {
+            current = request("get", () -> operation().inNamespace(namespace).withName(name).get());
+        }
+        return current;
+    }
+
     /**
      * Synchronously gets the resource with the given {@code name} in the given {@code namespace}.
+     * The resource is read from the cache if one is {@linkplain #enableCache(String) enabled} for the namespace
+     * and holds it, and from the API server otherwise, since the resource might be outside the scope of the cache.
      * @param namespace The namespace.
      * @param name The name.
      * @return The resource, or null if it doesn't exist.
      */
     public T get(String namespace, String name) {
-        return operation().inNamespace(namespace).withName(name).get();
+        T resource = getCached(namespace, name);
+        if (resource != null) {
+            return resource;
+        }
+        return request("get", () -> operation().inNamespace(namespace).withName(name).get());
+    }
+
+    private T getCached(String namespace, String name) {
+        ResourceCache<T> cache = cache(namespace);
+        return cache != null ? cache.get(namespace, name) : null;
     }
 
     /**
@@ -213,8 +383,12 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return A Future for the result.
      */
     public Future<T> getAsync(String namespace, String name) {
+        T cached = getCached(namespace, name);
+        if (cached != null) {
+            return Future.succeededFuture(cached);
+        }
         Future<T> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        executeBlocking("kubernetes-ops-tool",
             future -> {
                 T resource = get(namespace, name);
                 future.complete(resource);
@@ -225,13 +399,18 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
     /**
      * Synchronously list the resources in the given {@code namespace} with the given {@code selector}.
+     * The resources are read from the cache if one is {@linkplain #enableCache(String) enabled} for the namespace
+     * and the selector is within its scope.
      * @param namespace The namespace.
      * @param selector The selector.
      * @return A list of matching resources.
      */
     @SuppressWarnings("unchecked")
     public List<T> list(String namespace, Labels selector) {
-        if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
+        ResourceCache<T> cache = cache(namespace);
+        if (cache != null && cache.covers(selector != null ? selector.toMap() : null)) {
+            return cache.list(namespace, selector);
+        } else if (AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace))  {
             return listInAnyNamespace(selector);
         } else {
             return listInNamespace(namespace, selector);
@@ -244,13 +423,13 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
-            return operation.withLabels(labels)
+            return request("list", () -> operation.withLabels(labels)
                     .list()
-                    .getItems();
+                    .getItems());
         } else {
-            return operation
+            return request("list", () -> operation
                     .list()
-                    .getItems();
+                    .getItems());
         }
     }
 
@@ -260,13 +439,13 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
 
         if (selector != null) {
             Map<String, String> labels = selector.toMap();
-            return tldrNonNamespaceOperation.withLabels(labels)
+            return request("list", () -> tldrNonNamespaceOperation.withLabels(labels)
                     .list()
-                    .getItems();
+                    .getItems());
         } else {
-            return tldrNonNamespaceOperation
+            return request("list", () -> tldrNonNamespaceOperation
                     .list()
-                    .getItems();
+                    .getItems());
         }
     }
 
@@ -278,8 +457,12 @@ public abstract class AbstractResourceOperator<C extends KubernetesClient, T ext
      * @return A Future with a list of matching resources.
      */
     public Future<List<T>> listAsync(String namespace, Labels selector) {
+        ResourceCache<T> cache = cache(namespace);
+        if (cache != null && cache.covers(selector != null ? selector.toMap() : null)) {
+            return Future.succeededFuture(cache.list(namespace, selector));
+        }
         Future<List<T>> result = Future.future();
-        vertx.createSharedWorkerExecutor("kubernetes-ops-tool").executeBlocking(
+        executeBlocking("kubernetes-ops-tool",
             future -> {
                 List<T> resources;
 
@@ -16,11 +16,27 @@ import io.strimzi.operator.common.model.Labels;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+
 /**
  * Operations for {@code Deployment}s.
  */
 public class DeploymentOperator extends AbstractScalableResourceOperator<KubernetesClient, Deployment, DeploymentList, DoneableDeployment, RollableScalableResource<Deployment, DoneableDeployment>> {
 
+    private static final PathTrie<Boolean> IGNORABLE_PATHS = ResourceDiff.ignorablePaths(
+        "/metadata/annotations/deployment.kubernetes.io~1revision",
+        "/spec/progressDeadlineSeconds",
+        "/spec/revisionHistoryLimit",
+        "/spec/template/metadata/creationTimestamp",
+        "/spec/template/spec/containers/*/env/*/valueFrom/fieldRef/apiVersion",
+        "/spec/template/spec/containers/*/terminationMessagePath",
+        "/spec/template/spec/containers/*/terminationMessagePolicy",
+        "/spec/template/spec/dnsPolicy",
+        "/spec/template/spec/restartPolicy",
+        "/spec/template/spec/schedulerName",
+        "/spec/template/spec/serviceAccount",
+        "/spec/template/spec/volumes/*/configMap/defaultMode",
+        "/spec/template/spec/volumes/*/secret/defaultMode");
+
     private final PodOperator podOperations;
 
     /**
@@ -42,6 +58,11 @@ public class DeploymentOperator extends AbstractScalableResourceOperator<Kuberne
         return client.apps().deployments();
     }
 
+    @Override
+    protected PathTrie<Boolean> ignorablePaths() {
+        return IGNORABLE_PATHS;
+    }
+
     @Override
     protected Integer currentScale(String namespace, String name) {
         Deployment deployment = get(namespace, name);
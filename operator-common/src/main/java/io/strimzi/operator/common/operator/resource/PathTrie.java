@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>A set of patterns of JSON pointer paths (as used in JSON patch), each mapped to a value,
+ * which can be matched one path segment at a time while walking a JSON tree.</p>
+ *
+ * <p>Patterns are paths, such as {@code /metadata/annotations/strimzi.io~1generation}, whose segments may also be
+ * {@code *}, which matches any single segment (such as an array index), or a final {@code **}, which matches
+ * any (non-empty) sequence of segments. So {@code /status} and {@code /status/**} together match
+ * {@code /status} and everything under it.</p>
+ *
+ * <p>When several patterns match a path the most specific wins, segment by segment:
+ * a literal segment is preferred over {@code *}, which is preferred over {@code **}.</p>
+ *
+ * @param <V> The type of the values.
+ */
+public class PathTrie<V> {
+
+    private final Node<V> root = new Node<>();
+
+    /**
+     * A node of the trie, which is reached by matching the segments of a path from the root.
+     * @param <V> The type of the values.
+     */
+    static final class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>(4);
+        private Node<V> anySegment;
+        private Node<V> anyDescendant;
+        private V value;
+
+        /**
+         * @param segment The next (unescaped) segment of the path.
+         * @return The node matching the path extended with the given segment, or null if no pattern matches it or its descendants.
+         */
+        Node<V> child(String segment) {
+            Node<V> child = children.get(segment);
+            if (child != null) {
+                return child;
+            }
+            return anySegment != null ? anySegment : anyDescendant;
+        }
+
+        /**
+         * @param index The next segment of the path, an array index.
+         * @return The node matching the path extended with the given index, or null if no pattern matches it or its descendants.
+         */
+        Node<V> child(int index) {
+            if (!children.isEmpty()) {
+                return child(Integer.toString(index));
+            }
+            return anySegment != null ? anySegment : anyDescendant;
+        }
+
+        /**
+         * @return The value of the pattern matching the path of this node exactly, or null.
+         */
+        V value() {
+            return value;
+        }
+
+        /**
+         * @return The value which all the paths under this node (but not the node itself) have,
+         * or null if they don't all have the same value.
+         */
+        V descendantsValue() {
+            return children.isEmpty() && anySegment == null && anyDescendant != null ? anyDescendant.value : null;
+        }
+    }
+
+    /**
+     * Create a trie mapping each of the given patterns to the given value.
+     * @param value The value.
+     * @param patterns The patterns.
+     * @param <V> The type of the value.
+     * @return The trie.
+     */
+    public static <V> PathTrie<V> of(V value, String... patterns) {
+        PathTrie<V> trie = new PathTrie<>();
+        for (String pattern : patterns) {
+            trie.put(pattern, value);
+        }
+        return trie;
+    }
+
+    /**
+     * Map the given pattern to the given value.
+     * @param pattern The pattern.
+     * @param value The value.
+     * @return This trie.
+     */
+    public PathTrie<V> put(String pattern, V value) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Pattern " + pattern + " does not start with /");
+        }
+        String[] segments = pattern.substring(1).split("/", -1);
+        Node<V> node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("** is not the last segment of pattern " + pattern);
+                }
+                if (node.anyDescendant == null) {
+                    node.anyDescendant = new Node<>();
+                    // Any further segments are also matched by **
+                    node.anyDescendant.anyDescendant = node.anyDescendant;
+                }
+                node = node.anyDescendant;
+            } else if ("*".equals(segment)) {
+                if (node.anySegment == null) {
+                    node.anySegment = new Node<>();
+                }
+                node = node.anySegment;
+            } else {
+                node = node.children.computeIfAbsent(unescape(segment), s -> new Node<>());
+            }
+        }
+        node.value = value;
+        return this;
+    }
+
+    /**
+     * @return The node matching the empty path.
+     */
+    Node<V> root() {
+        return root;
+    }
+
+    /**
+     * @param path A JSON pointer path.
+     * @return The value of the most specific pattern matching the given path, or null if none matches it.
+     */
+    public V get(String path) {
+        Node<V> node = root;
+        if (!path.isEmpty()) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                node = node.child(unescape(segment));
+                if (node == null) {
+                    return null;
+                }
+            }
+        }
+        return node.value();
+    }
+
+    /**
+     * @param segment A segment of a JSON pointer.
+     * @return The segment with {@code ~1} and {@code ~0} unescaped.
+     */
+    static String unescape(String segment) {
+        return segment.indexOf('~') == -1 ? segment : segment.replace("~1", "/").replace("~0", "~");
+    }
+
+    /**
+     * @param segment A segment of a path.
+     * @return The segment with {@code ~} and {@code /} escaped for use in a JSON pointer.
+     */
+    static String escape(String segment) {
+        return segment.indexOf('~') == -1 && segment.indexOf('/') == -1 ? segment : segment.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -12,6 +12,8 @@ import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.internal.readiness.Readiness;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
 /**
@@ -33,6 +35,21 @@ public class PodOperator extends AbstractReadyResourceOperator<KubernetesClient,
         return client.pods();
     }
 
+    /**
+     * Asynchronously waits for the pod to be ready, using a watch on the pod rather than polling
+     * (see {@link #watchUntil(String, String, long, long, java.util.function.Predicate)}).
+     *
+     * @param namespace The namespace.
+     * @param name The pod name.
+     * @param pollIntervalMs The poll interval in milliseconds, used only when the pod cannot be watched.
+     * @param timeoutMs The timeout, in milliseconds.
+     * @return A future which completes when the pod is ready.
+     */
+    @Override
+    public Future<Void> readiness(String namespace, String name, long pollIntervalMs, long timeoutMs) {
+        return watchUntil(namespace, name, pollIntervalMs, timeoutMs, pod -> pod != null && Readiness.isPodReady(pod));
+    }
+
     /**
      * Watch the pod identified by the given {@code namespace} and {@code name} using the given {@code watcher}.
      * @param namespace The namespace
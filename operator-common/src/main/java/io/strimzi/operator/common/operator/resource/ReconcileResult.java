@@ -15,8 +15,18 @@ public abstract class ReconcileResult<R> {
     };
 
     public static class Noop<R> extends ReconcileResult<R> {
-        private Noop(R resource) {
+        private final boolean writeSkipped;
+
+        private Noop(R resource, boolean writeSkipped) {
             super(resource);
+            this.writeSkipped = writeSkipped;
+        }
+
+        /**
+         * @return true if the resource already matched the desired state, so no request was sent to modify it.
+         */
+        public boolean isWriteSkipped() {
+            return writeSkipped;
         }
 
         @Override
@@ -86,7 +96,18 @@ public abstract class ReconcileResult<R> {
      * @param <P> The type of resource.
      */
     public static final <P> ReconcileResult<P> noop(P resource) {
-        return new Noop<>(resource);
+        return new Noop<>(resource, false);
+    }
+
+    /**
+     * Return a reconciliation result that indicates the resource was not modified
+     * because it already matched the desired state, so no write request was made.
+     * @return a reconciliation result that indicates the resource was not modified.
+     * @param resource The unmodified resource.
+     * @param <P> The type of resource.
+     */
+    public static final <P> ReconcileResult<P> unchanged(P resource) {
+        return new Noop<>(resource, true);
     }
 
     private final R resource;
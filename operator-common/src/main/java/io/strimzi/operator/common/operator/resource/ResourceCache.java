@@ -0,0 +1,371 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A local store of the resources of a single kind in a single namespace (or in all namespaces),
+ * kept up to date by a list followed by a watch from the resourceVersion of that list.
+ * The cache may be scoped to the resources with a given label, in which case it only answers for those:
+ * callers must read other resources from the API server.
+ * Resources are indexed by namespace/name and by the value of their {@code strimzi.io/cluster} label.
+ * Updates (from the watch or from our own writes) are only applied if they are not older than the
+ * cached resource, according to their resourceVersion.
+ * While the watch is not running the cache is not {@linkplain #isSynced() synced} and callers should
+ * fall back to reading from the API server. When the watch closes the cache is resynced, retrying with an
+ * exponential back-off until the list and watch succeed or the cache is closed.
+ *
+ * @param <T> The Kubernetes resource type.
+ */
+public class ResourceCache<T extends HasMetadata> implements Watcher<T> {
+
+    private static final Logger log = LogManager.getLogger(ResourceCache.class);
+
+    private static final long MAX_RESYNC_DELAY_MS = 60_000;
+
+    private final Vertx vertx;
+    private final String resourceKind;
+    private final Supplier<KubernetesResourceList<T>> lister;
+    private final BiFunction<String, Watcher<T>, Watch> watcher;
+    private final String scopeLabel;
+
+    private final ConcurrentHashMap<String, T> resources = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> byCluster = new ConcurrentHashMap<>();
+
+    private volatile boolean synced = false;
+    private volatile boolean closed = false;
+    private volatile Watch watch;
+
+    /** The delay before the first retry of a failed resync, doubled for each further retry. */
+    /*test*/ long resyncDelayMs = 1_000;
+
+    /**
+     * Constructor.
+     * @param vertx The vertx instance.
+     * @param resourceKind The kind of Kubernetes resource (used for logging).
+     * @param lister Lists the resources to be cached.
+     * @param watcher Watches the resources to be cached, starting from the given resourceVersion.
+     */
+    public ResourceCache(Vertx vertx, String resourceKind,
+                         Supplier<KubernetesResourceList<T>> lister,
+                         BiFunction<String, Watcher<T>, Watch> watcher) {
+        this(vertx, resourceKind, lister, watcher, null);
+    }
+
+    /**
+     * Constructor.
+     * @param vertx The vertx instance.
+     * @param resourceKind The kind of Kubernetes resource (used for logging).
+     * @param lister Lists the resources to be cached, which must all have the {@code scopeLabel}.
+     * @param watcher Watches the resources to be cached, starting from the given resourceVersion.
+     * @param scopeLabel The label which the resources to be cached have, or null if the cache isn't scoped by a label.
+     */
+    public ResourceCache(Vertx vertx, String resourceKind,
+                         Supplier<KubernetesResourceList<T>> lister,
+                         BiFunction<String, Watcher<T>, Watch> watcher,
+                         String scopeLabel) {
+        this.vertx = vertx;
+        this.resourceKind = resourceKind;
+        this.lister = lister;
+        this.watcher = watcher;
+        this.scopeLabel = scopeLabel;
+    }
+
+    /**
+     * Synchronously populate the cache with a list and then start watching for changes.
+     */
+    public synchronized void start() {
+        if (closed) {
+            return;
+        }
+        KubernetesResourceList<T> list = lister.get();
+        resources.clear();
+        byCluster.clear();
+        for (T resource : list.getItems()) {
+            put(resource);
+        }
+        String resourceVersion = list.getMetadata() != null ? list.getMetadata().getResourceVersion() : null;
+        log.debug("Listed {} {} resources at resourceVersion {}", list.getItems().size(), resourceKind, resourceVersion);
+        watch = watcher.apply(resourceVersion, this);
+        synced = true;
+    }
+
+    /**
+     * Stop watching and empty the cache.
+     */
+    public synchronized void close() {
+        closed = true;
+        synced = false;
+        Watch watch = this.watch;
+        if (watch != null) {
+            watch.close();
+        }
+        resources.clear();
+        byCluster.clear();
+    }
+
+    /**
+     * @return Whether the cache is up to date with the watch and can be used for reads.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * @param labels The labels of a resource, or a selector, or null if they are unknown.
+     * @return Whether all the resources with the given labels are in the scope of the cache,
+     * so that the cache holds them if they exist.
+     */
+    public boolean covers(Map<String, String> labels) {
+        return scopeLabel == null || labels != null && labels.containsKey(scopeLabel);
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                update(resource);
+                break;
+            case DELETED:
+                remove(resource);
+                break;
+            case ERROR:
+                log.warn("Error event for {} resource {}", resourceKind, key(resource));
+                break;
+        }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        synced = false;
+        if (closed) {
+            return;
+        }
+        log.info("Watch for {} resources closed, resyncing", resourceKind, cause);
+        resync(resyncDelayMs);
+    }
+
+    private void resync(long retryDelayMs) {
+        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").executeBlocking(
+            future -> {
+                start();
+                future.complete();
+            },
+            true,
+            res -> {
+                if (res.failed() && !closed) {
+                    log.error("Failed to resync {} resources, retrying in {}ms; until then reads will go to the API server",
+                            resourceKind, retryDelayMs, res.cause());
+                    vertx.setTimer(retryDelayMs, timerId -> {
+                        if (!closed) {
+                            resync(Math.min(2 * retryDelayMs, MAX_RESYNC_DELAY_MS));
+                        }
+                    });
+                }
+            });
+    }
+
+    /**
+     * Update the cache with the given resource (for example as returned by a create or patch),
+     * unless the cache already holds a newer version of it.
+     * A resource outside the scope of the cache is removed from it instead.
+     * @param resource The resource.
+     */
+    public void update(T resource) {
+        if (resource == null || resource.getMetadata() == null) {
+            return;
+        }
+        if (!covers(resource.getMetadata().getLabels())) {
+            remove(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+            return;
+        }
+        String key = key(resource);
+        T current = resources.get(key);
+        if (current != null && isOlder(resource, current)) {
+            log.trace("Ignoring stale {} {} at resourceVersion {}", resourceKind, key, resource.getMetadata().getResourceVersion());
+            return;
+        }
+        put(resource);
+    }
+
+    /**
+     * Remove the given resource from the cache, unless the cache already holds a newer version of it.
+     * @param resource The resource.
+     */
+    public void remove(T resource) {
+        String key = key(resource);
+        T current = resources.get(key);
+        if (current != null && isOlder(resource, current)) {
+            return;
+        }
+        remove(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+    }
+
+    /**
+     * Remove the resource with the given namespace and name from the cache.
+     * @param namespace The namespace.
+     * @param name The name.
+     */
+    public void remove(String namespace, String name) {
+        String key = key(namespace, name);
+        T removed = resources.remove(key);
+        if (removed != null) {
+            String cluster = cluster(removed);
+            if (cluster != null) {
+                Set<String> keys = byCluster.get(clusterKey(namespace, cluster));
+                if (keys != null) {
+                    keys.remove(key);
+                }
+            }
+        }
+    }
+
+    private void put(T resource) {
+        String key = key(resource);
+        T previous = resources.put(key, resource);
+        String previousCluster = previous != null ? cluster(previous) : null;
+        String cluster = cluster(resource);
+        if (previousCluster != null && !previousCluster.equals(cluster)) {
+            Set<String> keys = byCluster.get(clusterKey(resource.getMetadata().getNamespace(), previousCluster));
+            if (keys != null) {
+                keys.remove(key);
+            }
+        }
+        if (cluster != null) {
+            byCluster.computeIfAbsent(clusterKey(resource.getMetadata().getNamespace(), cluster),
+                k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    /**
+     * Get a copy of the cached resource with the given namespace and name.
+     * @param namespace The namespace.
+     * @param name The name.
+     * @return A copy of the resource, or null if it is not in the cache.
+     */
+    public T get(String namespace, String name) {
+        return copy(resources.get(key(namespace, name)));
+    }
+
+    /**
+     * List copies of the cached resources in the given namespace which match the given selector.
+     * @param namespace The namespace, or {@link AbstractWatchableResourceOperator#ANY_NAMESPACE}.
+     * @param selector The selector, may be null.
+     * @return The matching resources.
+     */
+    public List<T> list(String namespace, Labels selector) {
+        Map<String, String> labels = selector != null ? selector.toMap() : Collections.emptyMap();
+        String cluster = labels.get(Labels.STRIMZI_CLUSTER_LABEL);
+        Collection<T> candidates;
+        if (cluster != null && !AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)) {
+            Set<String> keys = byCluster.getOrDefault(clusterKey(namespace, cluster), Collections.emptySet());
+            candidates = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                T resource = resources.get(key);
+                if (resource != null) {
+                    candidates.add(resource);
+                }
+            }
+        } else {
+            candidates = resources.values();
+        }
+        List<T> result = new ArrayList<>();
+        for (T resource : candidates) {
+            if ((AbstractWatchableResourceOperator.ANY_NAMESPACE.equals(namespace)
+                        || namespace.equals(resource.getMetadata().getNamespace()))
+                    && matches(resource, labels)) {
+                result.add(copy(resource));
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(HasMetadata resource, Map<String, String> selector) {
+        if (selector.isEmpty()) {
+            return true;
+        }
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        if (labels == null) {
+            return false;
+        }
+        for (Map.Entry<String, String> entry : selector.entrySet()) {
+            if (!entry.getValue().equals(labels.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Callers are free to modify the resources they get, so we hand out copies.
+     */
+    @SuppressWarnings("unchecked")
+    private T copy(T resource) {
+        if (resource == null) {
+            return null;
+        }
+        try {
+            return (T) Serialization.jsonMapper().readValue(Serialization.jsonMapper().writeValueAsBytes(resource), resource.getClass());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return true if the resourceVersion of {@code candidate} is known to be older than that of {@code existing}.
+     */
+    static boolean isOlder(HasMetadata candidate, HasMetadata existing) {
+        String candidateVersion = candidate.getMetadata().getResourceVersion();
+        String existingVersion = existing.getMetadata().getResourceVersion();
+        if (candidateVersion == null || existingVersion == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(candidateVersion) < Long.parseLong(existingVersion);
+        } catch (NumberFormatException e) {
+            // resourceVersions are opaque, so if we can't compare them we assume the candidate is newer
+            return false;
+        }
+    }
+
+    private static String cluster(HasMetadata resource) {
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        return labels != null ? labels.get(Labels.STRIMZI_CLUSTER_LABEL) : null;
+    }
+
+    private static String key(HasMetadata resource) {
+        return key(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+    }
+
+    private static String key(String namespace, String name) {
+        return namespace + "/" + name;
+    }
+
+    private static String clusterKey(String namespace, String cluster) {
+        return namespace + "/" + cluster;
+    }
+}
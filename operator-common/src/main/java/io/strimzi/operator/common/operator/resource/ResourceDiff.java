@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import static io.fabric8.kubernetes.client.internal.PatchUtils.patchMapper;
+
+/**
+ * The difference between the current and desired state of a resource, as it would be sent in a PATCH,
+ * ignoring the paths which are managed by Kubernetes rather than by us.
+ */
+public class ResourceDiff extends AbstractResourceDiff {
+
+    private static final Logger log = LogManager.getLogger(ResourceDiff.class.getName());
+
+    private static final String[] DEFAULT_PATTERNS = {
+        "/metadata/creationTimestamp",
+        "/metadata/generation",
+        "/metadata/resourceVersion",
+        "/metadata/selfLink",
+        "/metadata/uid",
+        "/status",
+        "/status/**"
+    };
+
+    /**
+     * Paths which are set by the API server for every kind of resource.
+     */
+    public static final PathTrie<Boolean> DEFAULT_IGNORABLE_PATHS = ignorablePaths();
+
+    private final boolean isEmpty;
+
+    /**
+     * Constructor.
+     * @param resourceKind The kind of the resource (used for logging).
+     * @param current The current resource.
+     * @param desired The desired resource.
+     * @param ignorablePaths The paths which are ignored, as returned by {@link #ignorablePaths(String...)},
+     *                       or null to ignore just the {@link #DEFAULT_IGNORABLE_PATHS}.
+     */
+    public ResourceDiff(String resourceKind, HasMetadata current, HasMetadata desired, PathTrie<Boolean> ignorablePaths) {
+        JsonNode source = patchMapper().valueToTree(current);
+        JsonNode target = patchMapper().valueToTree(desired);
+        int[] num = {0};
+        diff(source, target, ignorablePaths != null ? ignorablePaths : DEFAULT_IGNORABLE_PATHS, Boolean.TRUE,
+            (path, category, s, t) -> {
+                log.debug("{} {}/{} differs at {}: {} -> {}", resourceKind, current.getMetadata().getNamespace(), current.getMetadata().getName(), path, s, t);
+                num[0]++;
+            });
+        this.isEmpty = num[0] == 0;
+    }
+
+    /**
+     * @param patterns The {@linkplain PathTrie patterns} of paths which are ignored in addition to
+     *                 {@link #DEFAULT_IGNORABLE_PATHS}.
+     * @return The ignorable paths, for passing to the constructor.
+     */
+    public static PathTrie<Boolean> ignorablePaths(String... patterns) {
+        PathTrie<Boolean> trie = PathTrie.of(Boolean.TRUE, DEFAULT_PATTERNS);
+        for (String pattern : patterns) {
+            trie.put(pattern, Boolean.TRUE);
+        }
+        return trie;
+    }
+
+    /**
+     * Returns whether the Diff is empty or not
+     *
+     * @return true when patching the current resource with the desired one would not change it
+     */
+    @Override
+    public boolean isEmpty() {
+        return isEmpty;
+    }
+}
@@ -12,11 +12,15 @@ import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.vertx.core.Vertx;
 
+
 /**
  * Operations for {@code Secret}s.
  */
 public class SecretOperator extends AbstractResourceOperator<KubernetesClient, Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> {
 
+    private static final PathTrie<Boolean> IGNORABLE_PATHS = ResourceDiff.ignorablePaths(
+        "/type");
+
     /**
      * Constructor
      * @param vertx The Vertx instance
@@ -30,4 +34,9 @@ public class SecretOperator extends AbstractResourceOperator<KubernetesClient, S
     protected MixedOperation<Secret, SecretList, DoneableSecret, Resource<Secret, DoneableSecret>> operation() {
         return client.secrets();
     }
+
+    @Override
+    protected PathTrie<Boolean> ignorablePaths() {
+        return IGNORABLE_PATHS;
+    }
 }
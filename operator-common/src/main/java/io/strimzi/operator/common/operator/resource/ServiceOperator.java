@@ -14,11 +14,16 @@ import io.fabric8.kubernetes.client.dsl.ServiceResource;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
+
 /**
  * Operations for {@code Service}s.
  */
 public class ServiceOperator extends AbstractResourceOperator<KubernetesClient, Service, ServiceList, DoneableService, ServiceResource<Service, DoneableService>> {
 
+    private static final PathTrie<Boolean> IGNORABLE_PATHS = ResourceDiff.ignorablePaths(
+        "/spec/clusterIP",
+        "/spec/sessionAffinity");
+
     private final EndpointOperator endpointOperations;
     /**
      * Constructor
@@ -35,6 +40,11 @@ public class ServiceOperator extends AbstractResourceOperator<KubernetesClient,
         return client.services();
     }
 
+    @Override
+    protected PathTrie<Boolean> ignorablePaths() {
+        return IGNORABLE_PATHS;
+    }
+
     /**
      * Patches the resource with the given namespace and name to match the given desired resource
      * and completes the given future accordingly.
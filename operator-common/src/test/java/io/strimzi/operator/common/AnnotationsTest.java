@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AnnotationsTest {
+
+    private static ConfigMap withAnnotation(String value) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("my-map")
+                    .withNamespace("my-namespace")
+                    .addToAnnotations("strimzi.io/my-annotation", value)
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    public void testPositiveIntAnnotation() {
+        assertEquals(3, Annotations.positiveIntAnnotation(withAnnotation("3"), "strimzi.io/my-annotation", 1));
+        assertEquals(3, Annotations.positiveIntAnnotation(withAnnotation(" 3 "), "strimzi.io/my-annotation", 1));
+        assertEquals(1, Annotations.positiveIntAnnotation(new ConfigMapBuilder().withNewMetadata().endMetadata().build(), "strimzi.io/my-annotation", 1));
+        assertEquals(5, Annotations.positiveIntAnnotation(withAnnotation("5"), "strimzi.io/other", 1, "strimzi.io/my-annotation"));
+    }
+
+    @Test
+    public void testPositiveIntAnnotationWithInvalidValue() {
+        for (String value : new String[] {"0", "-2", "three", "", "2.5", "99999999999"}) {
+            assertEquals(value, 1, Annotations.positiveIntAnnotation(withAnnotation(value), "strimzi.io/my-annotation", 1));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.strimzi.certs.KeyPairPool;
+import io.strimzi.certs.KeyType;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class OperatorMetricsTest {
+
+    private static double count(String name, String... tags) {
+        Counter counter = OperatorMetrics.registry().find(name).tags(tags).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static long timerCount(String name, String... tags) {
+        Timer timer = OperatorMetrics.registry().find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    public void testApiRequestsAreCountedByStatus() {
+        double ok = count("strimzi.kubernetes.api.requests", "verb", "get", "kind", "TestKind", "status", "OK");
+        double notFound = count("strimzi.kubernetes.api.requests", "verb", "get", "kind", "TestKind", "status", "404");
+        double error = count("strimzi.kubernetes.api.requests", "verb", "get", "kind", "TestKind", "status", "error");
+
+        OperatorMetrics.apiRequest("get", "TestKind", null);
+        OperatorMetrics.apiRequest("get", "TestKind", new KubernetesClientException("Not found", 404, null));
+        OperatorMetrics.apiRequest("get", "TestKind", new RuntimeException());
+
+        assertEquals(ok + 1, count("strimzi.kubernetes.api.requests", "verb", "get", "kind", "TestKind", "status", "OK"), 0);
+        assertEquals(notFound + 1, count("strimzi.kubernetes.api.requests", "verb", "get", "kind", "TestKind", "status", "404"), 0);
+        assertEquals(error + 1, count("strimzi.kubernetes.api.requests", "verb", "get", "kind", "TestKind", "status", "error"), 0);
+    }
+
+    @Test
+    public void testReconciliationsAreCountedAndTimedByOutcome() {
+        double success = count("strimzi.reconciliations", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_SUCCESS);
+        double failure = count("strimzi.reconciliations", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_FAILURE);
+        double locked = count("strimzi.reconciliations", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_LOCKED);
+        long timed = timerCount("strimzi.reconciliation.duration", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_SUCCESS);
+
+        OperatorMetrics.reconciliationCompleted("TestKind", System.nanoTime(), true);
+        OperatorMetrics.reconciliationCompleted("TestKind", System.nanoTime(), false);
+        OperatorMetrics.reconciliationLockedOut("TestKind");
+
+        assertEquals(success + 1, count("strimzi.reconciliations", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_SUCCESS), 0);
+        assertEquals(failure + 1, count("strimzi.reconciliations", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_FAILURE), 0);
+        assertEquals(locked + 1, count("strimzi.reconciliations", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_LOCKED), 0);
+        assertEquals(timed + 1, timerCount("strimzi.reconciliation.duration", "kind", "TestKind", "outcome", OperatorMetrics.OUTCOME_SUCCESS));
+    }
+
+    @Test
+    public void testQueuedTasksGauge() {
+        AtomicInteger queued = OperatorMetrics.queuedTasks("test-pool");
+        assertSame(queued, OperatorMetrics.queuedTasks("test-pool"));
+        queued.set(3);
+        assertEquals(3, OperatorMetrics.registry().find("strimzi.worker.pool.queued.tasks").tags("pool", "test-pool").gauge().value(), 0);
+        queued.set(0);
+    }
+
+    @Test
+    public void testKeyPairPoolMetrics() throws Exception {
+        try (KeyPairPool pool = new KeyPairPool(KeyType.forValue("rsa:3072"), 1)) {
+            pool.close();
+            OperatorMetrics.keyPairPool(pool);
+            pool.take();
+
+            assertEquals(0, OperatorMetrics.registry().find("strimzi.key.pair.pool.available").tags("key_type", "rsa:3072").gauge().value(), 0);
+            assertEquals(1, OperatorMetrics.registry().find("strimzi.key.pair.pool.capacity").tags("key_type", "rsa:3072").gauge().value(), 0);
+            assertThat(OperatorMetrics.scrape(), containsString("strimzi_key_pair_pool_fallbacks_total{key_type=\"rsa:3072\",} 1.0"));
+        }
+    }
+
+    @Test
+    public void testZookeeperLeaderProbesAreTimedByResult() {
+        long leader = timerCount("strimzi.zookeeper.leader.probe.duration", "result", "leader");
+        long notLeader = timerCount("strimzi.zookeeper.leader.probe.duration", "result", "not_leader");
+        long error = timerCount("strimzi.zookeeper.leader.probe.duration", "result", "error");
+        long found = timerCount("strimzi.zookeeper.leader.search.duration", "found", "true");
+
+        OperatorMetrics.zookeeperLeaderProbed(System.nanoTime(), true);
+        OperatorMetrics.zookeeperLeaderProbed(System.nanoTime(), false);
+        OperatorMetrics.zookeeperLeaderProbed(System.nanoTime(), null);
+        OperatorMetrics.zookeeperLeaderSearched(System.nanoTime(), true);
+
+        assertEquals(leader + 1, timerCount("strimzi.zookeeper.leader.probe.duration", "result", "leader"));
+        assertEquals(notLeader + 1, timerCount("strimzi.zookeeper.leader.probe.duration", "result", "not_leader"));
+        assertEquals(error + 1, timerCount("strimzi.zookeeper.leader.probe.duration", "result", "error"));
+        assertEquals(found + 1, timerCount("strimzi.zookeeper.leader.search.duration", "found", "true"));
+    }
+
+    @Test
+    public void testScrape() {
+        OperatorMetrics.stepCompleted("TestKind", "test-step", 1_000_000L);
+        OperatorMetrics.lockWaited("TestKind", System.nanoTime(), true);
+
+        String scraped = OperatorMetrics.scrape();
+        assertThat(scraped, containsString("strimzi_reconciliation_step_duration_seconds_bucket{kind=\"TestKind\",step=\"test-step\""));
+        assertThat(scraped, containsString("strimzi_reconciliation_lock_wait_seconds_count{acquired=\"true\",kind=\"TestKind\",}"));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+
+@RunWith(VertxUnitRunner.class)
+public class WorkQueueTest {
+
+    private Vertx vertx;
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void after() {
+        vertx.close();
+    }
+
+    private WorkQueue<String> queue(int maxConcurrency) {
+        return new WorkQueue<>(vertx, "test-queue", maxConcurrency, () -> new BackOff(10, 2, 3));
+    }
+
+    private Future<Void> start(String name, Future<Void> future) {
+        started.add(name);
+        return future;
+    }
+
+    @Test
+    public void testPendingWorkIsCoalesced(TestContext context) {
+        WorkQueue<String> queue = queue(1);
+        Future<Void> blocker = Future.future();
+        queue.enqueue("a", () -> start("a1", blocker));
+        Future<Void> b1 = queue.enqueue("b", () -> start("b1", Future.succeededFuture()));
+        Future<Void> b2 = queue.enqueue("b", () -> start("b2", Future.succeededFuture()));
+        context.assertEquals(asList("a1"), started);
+        context.assertEquals(1, queue.queued());
+
+        blocker.complete();
+        context.assertEquals(asList("a1", "b2"), started);
+        context.assertTrue(b1.succeeded());
+        context.assertTrue(b2.succeeded());
+        context.assertEquals(0, queue.running());
+    }
+
+    @Test
+    public void testAtMostOneRunPerKeyWithOneFollowUp(TestContext context) {
+        WorkQueue<String> queue = queue(10);
+        List<Future<Void>> runs = new ArrayList<>();
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue("a", () -> {
+                Future<Void> run = Future.future();
+                runs.add(run);
+                return start("a" + count.incrementAndGet(), run);
+            });
+        }
+        context.assertEquals(asList("a1"), started);
+
+        runs.get(0).complete();
+        context.assertEquals(asList("a1", "a2"), started);
+        runs.get(1).complete();
+        context.assertEquals(asList("a1", "a2"), started);
+        context.assertEquals(0, queue.running());
+    }
+
+    @Test
+    public void testConcurrencyLimit(TestContext context) {
+        WorkQueue<String> queue = queue(2);
+        Future<Void> a = Future.future();
+        Future<Void> b = Future.future();
+        queue.enqueue("a", () -> start("a", a));
+        queue.enqueue("b", () -> start("b", b));
+        queue.enqueue("c", () -> start("c", Future.future()));
+        context.assertEquals(asList("a", "b"), started);
+        context.assertEquals(2, queue.running());
+
+        b.complete();
+        context.assertEquals(asList("a", "b", "c"), started);
+    }
+
+    @Test
+    public void testFailedWorkIsRetriedWithBackOff(TestContext context) {
+        WorkQueue<String> queue = queue(1);
+        Async async = context.async();
+        AtomicInteger attempts = new AtomicInteger();
+        queue.enqueue("a", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                return Future.failedFuture(new RuntimeException("Test exception"));
+            }
+            async.complete();
+            return Future.succeededFuture();
+        }).setHandler(ar -> context.assertTrue(ar.failed()));
+    }
+
+    @Test
+    public void testRetriesAreGivenUp(TestContext context) {
+        WorkQueue<String> queue = queue(1);
+        Async async = context.async();
+        AtomicInteger attempts = new AtomicInteger();
+        queue.enqueue("a", () -> {
+            attempts.incrementAndGet();
+            return Future.failedFuture(new RuntimeException("Test exception"));
+        });
+        // BackOff(10, 2, 3) gives 2 retries, after 10ms and 20ms
+        vertx.setTimer(500, id -> {
+            context.assertEquals(3, attempts.get());
+            context.assertEquals(0, queue.queued());
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testNewWorkReplacesRetry(TestContext context) {
+        WorkQueue<String> queue = new WorkQueue<>(vertx, "test-queue", 1, () -> new BackOff(60_000, 2, 3));
+        queue.enqueue("a", () -> start("failing", Future.failedFuture(new RuntimeException("Test exception"))));
+        Future<Void> result = queue.enqueue("a", () -> start("newer", Future.succeededFuture()));
+        context.assertEquals(asList("failing", "newer"), started);
+        context.assertTrue(result.succeeded());
+    }
+
+    @Test
+    public void testThrowingWorkFails(TestContext context) {
+        WorkQueue<String> queue = queue(1);
+        RuntimeException cause = new RuntimeException("Test exception");
+        Future<Void> result = queue.enqueue("a", () -> {
+            throw cause;
+        });
+        context.assertTrue(result.failed());
+        context.assertEquals(cause, result.cause());
+        context.assertEquals(0, queue.running());
+    }
+}
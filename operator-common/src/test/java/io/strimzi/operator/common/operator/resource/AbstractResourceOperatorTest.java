@@ -21,6 +21,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -64,6 +65,16 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
      */
     protected abstract T resource();
 
+    /**
+     * Get a (new) test resource which differs from {@link #resource()},
+     * so that reconciling it with {@link #resource()} requires a patch.
+     */
+    protected T modifiedResource() {
+        T resource = resource();
+        resource.getMetadata().setAnnotations(singletonMap("modified", "true"));
+        return resource;
+    }
+
     /**
      * Configure the given {@code mockClient} to return the given {@code op}
      * that's appropriate for the kind of resource being tests.
@@ -86,7 +97,7 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
     public void createWhenExistsIsAPatch(TestContext context, boolean cascade) {
         T resource = resource();
         Resource mockResource = mock(resourceType());
-        when(mockResource.get()).thenReturn(resource);
+        when(mockResource.get()).thenReturn(modifiedResource());
         when(mockResource.cascading(cascade)).thenReturn(mockResource);
 
         NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
@@ -117,6 +128,38 @@ public abstract class AbstractResourceOperatorTest<C extends KubernetesClient, T
         });
     }
 
+    @Test
+    public void createWhenExistsAndUnchangedIsNotPatched(TestContext context) {
+        T resource = resource();
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenReturn(resource);
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(resource.getMetadata().getName()))).thenReturn(mockResource);
+
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(matches(resource.getMetadata().getNamespace()))).thenReturn(mockNameable);
+
+        C mockClient = mock(clientType());
+        mocker(mockClient, mockCms);
+
+        AbstractResourceOperator<C, T, L, D, R> op = createResourceOperations(vertx, mockClient);
+
+        Async async = context.async();
+        op.createOrUpdate(resource).setHandler(ar -> {
+            if (!ar.succeeded()) {
+                ar.cause().printStackTrace();
+            }
+            assertTrue(ar.succeeded());
+            assertTrue(ar.result() instanceof ReconcileResult.Noop);
+            verify(mockResource).get();
+            verify(mockResource, never()).patch(any());
+            verify(mockResource, never()).create(any());
+            verify(mockResource, never()).delete();
+            async.complete();
+        });
+    }
+
     @Test
     public void existenceCheckThrows(TestContext context) {
         T resource = resource();
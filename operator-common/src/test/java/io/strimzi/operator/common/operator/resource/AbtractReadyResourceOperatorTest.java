@@ -8,6 +8,9 @@ import io.fabric8.kubernetes.api.model.Doneable;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
@@ -18,11 +21,15 @@ import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.junit.Test;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
@@ -213,4 +220,89 @@ public abstract class AbtractReadyResourceOperatorTest<C extends KubernetesClien
             async.complete();
         });
     }
+
+    private final Predicate<T> isModified = r -> r != null && r.getMetadata().getAnnotations() != null
+            && r.getMetadata().getAnnotations().containsKey("modified");
+
+    @SuppressWarnings("unchecked")
+    private Resource watchableResource(AtomicReference<T> current, CompletableFuture<Watcher<T>> watcher, Watch watch) {
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).then(invocation -> current.get());
+        when(mockResource.watch(any(Watcher.class))).then(invocation -> {
+            watcher.complete(invocation.getArgument(0));
+            return watch;
+        });
+        return mockResource;
+    }
+
+    private AbstractReadyResourceOperator<C, T, L, D, R> operator(Resource mockResource) {
+        T resource = resource();
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(resource.getMetadata().getName()))).thenReturn(mockResource);
+
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(matches(resource.getMetadata().getNamespace()))).thenReturn(mockNameable);
+
+        C mockClient = mock(clientType());
+        mocker(mockClient, mockCms);
+        return createResourceOperations(vertx, mockClient);
+    }
+
+    @Test
+    public void watchUntilSatisfiedImmediately(TestContext context) {
+        Watch watch = mock(Watch.class);
+        Resource mockResource = watchableResource(new AtomicReference<>(modifiedResource()), new CompletableFuture<>(), watch);
+
+        Async async = context.async();
+        operator(mockResource).watchUntil(NAMESPACE, RESOURCE_NAME, 20, 5_000, isModified).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            vertx.setTimer(100, id -> {
+                verify(watch).close();
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void watchUntilCompletesOnWatchEvent(TestContext context) throws Exception {
+        CompletableFuture<Watcher<T>> watcher = new CompletableFuture<>();
+        Resource mockResource = watchableResource(new AtomicReference<>(resource()), watcher, mock(Watch.class));
+
+        Async async = context.async();
+        // Polling would take longer than the timeout, so only the watch event can complete the wait
+        operator(mockResource).watchUntil(NAMESPACE, RESOURCE_NAME, 60_000, 5_000, isModified).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            async.complete();
+        });
+        watcher.get().eventReceived(Watcher.Action.MODIFIED, modifiedResource());
+    }
+
+    @Test
+    public void watchUntilFallsBackToPollingWhenWatchCloses(TestContext context) throws Exception {
+        CompletableFuture<Watcher<T>> watcher = new CompletableFuture<>();
+        AtomicReference<T> current = new AtomicReference<>(resource());
+        Resource mockResource = watchableResource(current, watcher, mock(Watch.class));
+        AbstractReadyResourceOperator<C, T, L, D, R> op = operator(mockResource);
+
+        Async async = context.async();
+        op.watchUntil(NAMESPACE, RESOURCE_NAME, 20, 5_000, isModified).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            verify(mockResource, atLeastOnce()).get();
+            async.complete();
+        });
+        watcher.get().onClose(new KubernetesClientException("Watch closed"));
+        current.set(modifiedResource());
+    }
+
+    @Test
+    public void watchUntilTimesOut(TestContext context) {
+        Resource mockResource = watchableResource(new AtomicReference<>(resource()), new CompletableFuture<>(), mock(Watch.class));
+
+        Async async = context.async();
+        operator(mockResource).watchUntil(NAMESPACE, RESOURCE_NAME, 20, 100, isModified).setHandler(ar -> {
+            context.assertTrue(ar.failed());
+            context.assertTrue(ar.cause() instanceof TimeoutException);
+            async.complete();
+        });
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PathTrieTest {
+
+    private final PathTrie<String> trie = PathTrie.of("ignore",
+            "/status",
+            "/status/**",
+            "/metadata/annotations/strimzi.io~1generation",
+            "/spec/containers/*/resources")
+            .put("/spec/containers/*/resources/limits/cpu", "cpu")
+            .put("/spec/volumes/*/size/**", "size");
+
+    @Test
+    public void testGet() {
+        assertEquals("ignore", trie.get("/status"));
+        assertEquals("ignore", trie.get("/status/conditions/0/type"));
+        assertEquals("ignore", trie.get("/metadata/annotations/strimzi.io~1generation"));
+        assertEquals("ignore", trie.get("/spec/containers/2/resources"));
+        assertEquals("cpu", trie.get("/spec/containers/2/resources/limits/cpu"));
+        assertEquals("size", trie.get("/spec/volumes/0/size/storage"));
+        assertEquals("size", trie.get("/spec/volumes/0/size/requests/storage"));
+
+        assertNull(trie.get(""));
+        assertNull(trie.get("/spec"));
+        assertNull(trie.get("/metadata/annotations/strimzi.io/generation"));
+        assertNull(trie.get("/spec/containers/2/resources/limits"));
+        assertNull(trie.get("/spec/containers/2/image"));
+        assertNull(trie.get("/spec/volumes/0/size"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRelativePatternRejected() {
+        new PathTrie<String>().put("status", "x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInnerAnyDescendantRejected() {
+        new PathTrie<String>().put("/spec/**/status", "x");
+    }
+
+    private static class Recorder extends AbstractResourceDiff {
+        private final List<String> differences = new ArrayList<>();
+
+        Recorder(String source, String target, PathTrie<String> paths) throws IOException {
+            ObjectMapper mapper = new ObjectMapper();
+            diff(mapper.readTree(source), mapper.readTree(target), paths, "ignore",
+                (path, category, s, t) -> differences.add(path + " " + category + " " + text(s) + " " + text(t)));
+        }
+
+        private static String text(JsonNode node) {
+            return node.isMissingNode() ? "-" : node.toString();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return differences.isEmpty();
+        }
+    }
+
+    private List<String> diff(String source, String target) throws IOException {
+        return new Recorder(source.replace('\'', '"'), target.replace('\'', '"'), trie).differences;
+    }
+
+    @Test
+    public void testObjectDiff() throws IOException {
+        assertEquals(emptyList(), diff("{'a':{'b':1,'c':[1,2]}}", "{'a':{'c':[1,2],'b':1}}"));
+        assertEquals(asList("/a/b null 1 2", "/a/c null [1] -", "/a/d null - {}"),
+                diff("{'a':{'b':1,'c':[1]}}", "{'a':{'b':2,'d':{}}}"));
+        assertEquals(asList("/a null {} []"), diff("{'a':{}}", "{'a':[]}"));
+        assertEquals(asList("/x~1y null 1 2"), diff("{'x/y':1}", "{'x/y':2}"));
+    }
+
+    @Test
+    public void testArrayDiff() throws IOException {
+        // Insertions and removals are reported once, not as a change to every following element
+        assertEquals(asList("/a/1 null - 4"), diff("{'a':[1,2,3]}", "{'a':[1,4,2,3]}"));
+        assertEquals(asList("/a/0 null 1 -"), diff("{'a':[1,2,3]}", "{'a':[2,3]}"));
+        assertEquals(asList("/a/0 null 1 9", "/a/2 null 3 8", "/a/3 null - 7"),
+                diff("{'a':[1,2,3,4]}", "{'a':[9,2,8,7,4]}"));
+        // Changed elements are compared recursively
+        assertEquals(asList("/a/1/b null 2 3"), diff("{'a':[{'b':1},{'b':2}]}", "{'a':[{'b':1},{'b':3}]}"));
+    }
+
+    @Test
+    public void testCategories() throws IOException {
+        assertEquals(emptyList(), diff(
+                "{'status':{'conditions':[1]},'metadata':{'annotations':{'strimzi.io/generation':'1'}}}",
+                "{'status':{'conditions':[2]},'metadata':{'annotations':{'strimzi.io/generation':'2'}}}"));
+        assertEquals(emptyList(), diff("{'spec':{'containers':[{}]}}", "{'spec':{'containers':[{'resources':{}}]}}"));
+        assertEquals(asList("/spec/containers/0/resources/limits/cpu cpu \"1\" \"2\""),
+                diff("{'spec':{'containers':[{'resources':{'limits':{'cpu':'1'}}}]}}",
+                        "{'spec':{'containers':[{'resources':{'limits':{'cpu':'2'}}}]}}"));
+        assertEquals(asList("/spec/volumes/1/size/storage size 1 2"),
+                diff("{'spec':{'volumes':[{},{'size':{'storage':1}}]}}",
+                        "{'spec':{'volumes':[{},{'size':{'storage':2}}]}}"));
+    }
+
+    @Test
+    public void testLongestCommonSubsequence() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode source = mapper.readTree("[1,2,3,4,5]");
+        assertArrayEquals(new int[] {0, 0, 1, 1, 2, 2, 3, 3, 4, 4},
+                AbstractResourceDiff.longestCommonSubsequence(source, source));
+        assertArrayEquals(new int[] {0, 0, 2, 1, 3, 3, 4, 4},
+                AbstractResourceDiff.longestCommonSubsequence(source, mapper.readTree("[1,3,9,4,5]")));
+        assertArrayEquals(new int[0],
+                AbstractResourceDiff.longestCommonSubsequence(source, mapper.readTree("[]")));
+    }
+}
@@ -69,7 +69,7 @@ public class PodDisruptionBudgetOperatorTest extends AbstractResourceOperatorTes
     public void createWhenExistsIsAPatch(TestContext context, boolean cascade) {
         PodDisruptionBudget resource = resource();
         Resource mockResource = mock(resourceType());
-        when(mockResource.get()).thenReturn(resource);
+        when(mockResource.get()).thenReturn(modifiedResource());
         when(mockResource.cascading(cascade)).thenReturn(mockResource);
 
         NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
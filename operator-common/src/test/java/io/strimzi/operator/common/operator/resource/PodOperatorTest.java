@@ -11,20 +11,30 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.PodResource;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.openshift.client.server.mock.OpenShiftServer;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PodOperatorTest extends
@@ -84,6 +94,97 @@ public class PodOperatorTest extends
         });
     }
 
+    private Pod pod(boolean ready) {
+        return new PodBuilder(resource())
+                .withNewStatus()
+                    .addNewCondition()
+                        .withType("Ready")
+                        .withStatus(ready ? "True" : "False")
+                    .endCondition()
+                .endStatus()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private PodOperator watchedPodOperator(Resource mockResource) {
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(RESOURCE_NAME))).thenReturn(mockResource);
+
+        MixedOperation mockPods = mock(MixedOperation.class);
+        when(mockPods.inNamespace(matches(NAMESPACE))).thenReturn(mockNameable);
+
+        KubernetesClient mockClient = mock(KubernetesClient.class);
+        mocker(mockClient, mockPods);
+        return createResourceOperations(vertx, mockClient);
+    }
+
+    /**
+     * Pod readiness is determined from the pods reported by a watch, rather than by polling {@code isReady()}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void waitUntilReadySuccessful(TestContext context, int unreadyCount) {
+        CompletableFuture<Watcher<Pod>> watcher = new CompletableFuture<>();
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenReturn(pod(false));
+        when(mockResource.watch(any(Watcher.class))).then(invocation -> {
+            watcher.complete(invocation.getArgument(0));
+            return mock(Watch.class);
+        });
+
+        Async async = context.async();
+        Future<Void> fut = watchedPodOperator(mockResource).readiness(NAMESPACE, RESOURCE_NAME, 60_000, 5_000);
+        fut.setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            verify(mockResource, never()).isReady();
+            async.complete();
+        });
+        try {
+            for (int i = 0; i < unreadyCount; i++) {
+                watcher.get().eventReceived(Watcher.Action.MODIFIED, pod(false));
+            }
+            context.assertFalse(fut.isComplete());
+            watcher.get().eventReceived(Watcher.Action.MODIFIED, pod(true));
+        } catch (Exception e) {
+            context.fail(e);
+        }
+    }
+
+    @Override
+    @Test
+    @SuppressWarnings("unchecked")
+    public void waitUntilReadyUnsuccessful(TestContext context) {
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenReturn(pod(false));
+        when(mockResource.watch(any(Watcher.class))).thenReturn(mock(Watch.class));
+
+        Async async = context.async();
+        watchedPodOperator(mockResource).readiness(NAMESPACE, RESOURCE_NAME, 20, 100).setHandler(ar -> {
+            context.assertTrue(ar.failed());
+            context.assertTrue(ar.cause() instanceof TimeoutException);
+            verify(mockResource, never()).isReady();
+            async.complete();
+        });
+    }
+
+    /**
+     * When the pod cannot be watched its readiness is polled instead.
+     */
+    @Override
+    @Test
+    @SuppressWarnings("unchecked")
+    public void waitUntilReadyThrows(TestContext context) {
+        Resource mockResource = mock(resourceType());
+        when(mockResource.get()).thenReturn(pod(false), pod(true));
+        when(mockResource.watch(any(Watcher.class))).thenThrow(new RuntimeException("This is a test exception"));
+
+        Async async = context.async();
+        watchedPodOperator(mockResource).readiness(NAMESPACE, RESOURCE_NAME, 20, 5_000).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            async.complete();
+        });
+    }
+
     @Override
     protected Class clientType() {
         return KubernetesClient.class;
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.ConfigMapListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.strimzi.operator.common.model.Labels;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(VertxUnitRunner.class)
+public class ResourceCacheTest {
+
+    private static final String NAMESPACE = "test";
+
+    private static Vertx vertx;
+
+    @BeforeClass
+    public static void before() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterClass
+    public static void after() {
+        vertx.close();
+    }
+
+    private static ConfigMap configMap(String name, String cluster, String resourceVersion) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(NAMESPACE)
+                    .withResourceVersion(resourceVersion)
+                    .withLabels(singletonMap(Labels.STRIMZI_CLUSTER_LABEL, cluster))
+                .endMetadata()
+                .withData(singletonMap("version", resourceVersion))
+                .build();
+    }
+
+    private static ConfigMapList list(String resourceVersion, ConfigMap... items) {
+        return new ConfigMapListBuilder()
+                .withNewMetadata()
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .withItems(items)
+                .build();
+    }
+
+    @Test
+    public void testStartListsThenWatchesFromListVersion() {
+        AtomicInteger watches = new AtomicInteger();
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> list("10", configMap("a", "my-cluster", "5")),
+            (resourceVersion, watcher) -> {
+                assertEquals("10", resourceVersion);
+                watches.incrementAndGet();
+                return mock(Watch.class);
+            });
+        assertFalse(cache.isSynced());
+        cache.start();
+        assertTrue(cache.isSynced());
+        assertEquals(1, watches.get());
+        assertEquals("5", cache.get(NAMESPACE, "a").getMetadata().getResourceVersion());
+        assertNull(cache.get(NAMESPACE, "b"));
+    }
+
+    @Test
+    public void testGetReturnsCopy() {
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> list("10", configMap("a", "my-cluster", "5")),
+            (resourceVersion, watcher) -> mock(Watch.class));
+        cache.start();
+        cache.get(NAMESPACE, "a").getData().put("version", "changed");
+        assertEquals("5", cache.get(NAMESPACE, "a").getData().get("version"));
+    }
+
+    @Test
+    public void testListBySelector() {
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> list("10", configMap("a", "my-cluster", "5"), configMap("b", "other-cluster", "6"), configMap("c", "my-cluster", "7")),
+            (resourceVersion, watcher) -> mock(Watch.class));
+        cache.start();
+        assertEquals(3, cache.list(NAMESPACE, null).size());
+        assertEquals(3, cache.list(AbstractWatchableResourceOperator.ANY_NAMESPACE, null).size());
+        assertEquals(0, cache.list("other", null).size());
+        List<ConfigMap> mine = cache.list(NAMESPACE, Labels.forCluster("my-cluster"));
+        assertEquals(2, mine.size());
+        // Relabelling moves the resource between clusters
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("a", "other-cluster", "8"));
+        assertEquals(1, cache.list(NAMESPACE, Labels.forCluster("my-cluster")).size());
+        assertEquals(2, cache.list(NAMESPACE, Labels.forCluster("other-cluster")).size());
+    }
+
+    @Test
+    public void testScopedCache() {
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> list("10", configMap("a", "my-cluster", "5")),
+            (resourceVersion, watcher) -> mock(Watch.class),
+            Labels.STRIMZI_CLUSTER_LABEL);
+        cache.start();
+        assertTrue(cache.covers(Labels.forCluster("my-cluster").toMap()));
+        assertFalse(cache.covers(null));
+        assertFalse(cache.covers(Labels.forKind("Kafka").toMap()));
+        // Removing the label takes the resource out of the scope, and so out of the cache
+        ConfigMap unlabelled = configMap("a", "my-cluster", "6");
+        unlabelled.getMetadata().setLabels(null);
+        cache.update(unlabelled);
+        assertNull(cache.get(NAMESPACE, "a"));
+    }
+
+    @Test
+    public void testUnscopedCacheCoversEverything() {
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> list("10"),
+            (resourceVersion, watcher) -> mock(Watch.class));
+        assertTrue(cache.covers(null));
+    }
+
+    @Test
+    public void testStaleUpdatesAreIgnored() {
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> list("10", configMap("a", "my-cluster", "5")),
+            (resourceVersion, watcher) -> mock(Watch.class));
+        cache.start();
+        cache.update(configMap("a", "my-cluster", "12"));
+        cache.eventReceived(Watcher.Action.MODIFIED, configMap("a", "my-cluster", "11"));
+        assertEquals("12", cache.get(NAMESPACE, "a").getMetadata().getResourceVersion());
+        cache.eventReceived(Watcher.Action.DELETED, configMap("a", "my-cluster", "11"));
+        assertEquals("12", cache.get(NAMESPACE, "a").getMetadata().getResourceVersion());
+        cache.eventReceived(Watcher.Action.DELETED, configMap("a", "my-cluster", "13"));
+        assertNull(cache.get(NAMESPACE, "a"));
+        assertEquals(0, cache.list(NAMESPACE, Labels.forCluster("my-cluster")).size());
+    }
+
+    @Test
+    public void testResyncAfterWatchCloses(TestContext context) throws InterruptedException {
+        AtomicInteger lists = new AtomicInteger();
+        Async async = context.async();
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> lists.incrementAndGet() == 1 ? list("10", configMap("a", "my-cluster", "5")) : list("20", configMap("b", "my-cluster", "15")),
+            (resourceVersion, watcher) -> {
+                if ("20".equals(resourceVersion)) {
+                    async.complete();
+                }
+                return mock(Watch.class);
+            });
+        cache.start();
+        cache.onClose(new KubernetesClientException("Gone"));
+        async.await();
+        // synced is set once the watch has been started
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!cache.isSynced() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        context.assertTrue(cache.isSynced());
+        context.assertNull(cache.get(NAMESPACE, "a"));
+        context.assertNotNull(cache.get(NAMESPACE, "b"));
+    }
+
+    @Test
+    public void testResyncIsRetriedUntilItSucceeds(TestContext context) throws InterruptedException {
+        AtomicInteger lists = new AtomicInteger();
+        Async async = context.async();
+        ResourceCache<ConfigMap> cache = new ResourceCache<>(vertx, "ConfigMap",
+            () -> {
+                int attempt = lists.incrementAndGet();
+                if (attempt == 1) {
+                    return list("10", configMap("a", "my-cluster", "5"));
+                } else if (attempt < 4) {
+                    throw new KubernetesClientException("Forbidden");
+                }
+                return list("20", configMap("b", "my-cluster", "15"));
+            },
+            (resourceVersion, watcher) -> {
+                if ("20".equals(resourceVersion)) {
+                    async.complete();
+                }
+                return mock(Watch.class);
+            });
+        cache.resyncDelayMs = 10;
+        cache.start();
+        cache.onClose(new KubernetesClientException("Gone"));
+        async.await();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!cache.isSynced() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        context.assertTrue(cache.isSynced());
+        context.assertEquals(4, lists.get());
+        context.assertNotNull(cache.get(NAMESPACE, "b"));
+    }
+
+    /**
+     * A client whose ConfigMaps are the given {@code cached} ones, as listed with the scope label of the caches,
+     * and whose operations on the ConfigMap with the given {@code name} are those of {@code mockResource}.
+     */
+    @SuppressWarnings("unchecked")
+    private static KubernetesClient mockClient(String name, Resource mockResource, ConfigMap... cached) {
+        NonNamespaceOperation mockLabelled = mock(NonNamespaceOperation.class);
+        when(mockLabelled.list()).thenReturn(list("10", cached));
+        when(mockLabelled.watch(anyString(), any(Watcher.class))).thenReturn(mock(Watch.class));
+
+        NonNamespaceOperation mockNameable = mock(NonNamespaceOperation.class);
+        when(mockNameable.withName(matches(name))).thenReturn(mockResource);
+        when(mockNameable.withLabel(AbstractResourceOperator.CACHE_SCOPE_LABEL)).thenReturn(mockLabelled);
+
+        MixedOperation mockCms = mock(MixedOperation.class);
+        when(mockCms.inNamespace(matches(NAMESPACE))).thenReturn(mockNameable);
+
+        KubernetesClient mockClient = mock(KubernetesClient.class);
+        when(mockClient.configMaps()).thenReturn(mockCms);
+        return mockClient;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCachedReconcileDoesNotGet(TestContext context) {
+        ConfigMap current = configMap("a", "my-cluster", "5");
+        ConfigMap patched = configMap("a", "my-cluster", "6");
+        ConfigMap desired = configMap("a", "my-cluster", null);
+        desired.setData(singletonMap("version", "desired"));
+
+        Resource mockResource = mock(Resource.class);
+        when(mockResource.cascading(true)).thenReturn(mockResource);
+        when(mockResource.patch(any())).thenReturn(patched);
+
+        ConfigMapOperator op = new ConfigMapOperator(vertx, mockClient("a", mockResource, current));
+        op.enableCache(NAMESPACE);
+
+        op.reconcile(NAMESPACE, "a", desired).setHandler(context.asyncAssertSuccess(result -> {
+            verify(mockResource, never()).get();
+            verify(mockResource).patch(any());
+            // the patched resource was written through to the cache
+            context.assertEquals("6", op.get(NAMESPACE, "a").getMetadata().getResourceVersion());
+            verify(mockResource, never()).get();
+        }));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetOutsideTheScopeGoesToTheApiServer() {
+        ConfigMap unlabelled = configMap("user-config", "my-cluster", "5");
+        unlabelled.getMetadata().setLabels(null);
+
+        Resource mockResource = mock(Resource.class);
+        when(mockResource.get()).thenReturn(unlabelled);
+
+        ConfigMapOperator op = new ConfigMapOperator(vertx, mockClient("user-config", mockResource, configMap("a", "my-cluster", "5")));
+        op.enableCache(NAMESPACE);
+
+        assertEquals("5", op.get(NAMESPACE, "user-config").getMetadata().getResourceVersion());
+        verify(mockResource).get();
+        // Listing by a selector without the scope label also goes to the API server
+        assertEquals(1, op.list(NAMESPACE, Labels.forCluster("my-cluster")).size());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.common.operator.resource;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import org.junit.Test;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ResourceDiffTest {
+
+    private Secret secret(String data) {
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withName("my-secret")
+                    .withNamespace("test")
+                    .withLabels(singletonMap("foo", "bar"))
+                .endMetadata()
+                .withData(singletonMap("key", data))
+                .build();
+    }
+
+    private Service service(int port) {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                    .withName("my-service")
+                    .withNamespace("test")
+                .endMetadata()
+                .withNewSpec()
+                    .withType("ClusterIP")
+                    .addNewPort()
+                        .withName("client")
+                        .withPort(port)
+                        .withProtocol("TCP")
+                    .endPort()
+                .endSpec()
+                .build();
+    }
+
+    @Test
+    public void testServerManagedMetadataIsIgnored() {
+        Secret current = new SecretBuilder(secret("AAAA"))
+                .editMetadata()
+                    .withResourceVersion("1234")
+                    .withUid("c5bd7ec0-cc1d-11e9-9d0e-42010a840025")
+                    .withCreationTimestamp("2019-08-31T09:00:00Z")
+                    .withSelfLink("/api/v1/namespaces/test/secrets/my-secret")
+                .endMetadata()
+                .build();
+        assertTrue(new ResourceDiff("Secret", current, secret("AAAA"), null).isEmpty());
+    }
+
+    @Test
+    public void testDataChangeIsNotIgnored() {
+        assertFalse(new ResourceDiff("Secret", secret("AAAA"), secret("BBBB"), null).isEmpty());
+    }
+
+    @Test
+    public void testLabelRemovalIsNotIgnored() {
+        Secret desired = new SecretBuilder(secret("AAAA")).editMetadata().withLabels(null).endMetadata().build();
+        assertFalse(new ResourceDiff("Secret", secret("AAAA"), desired, null).isEmpty());
+    }
+
+    @Test
+    public void testKindSpecificPathsAreIgnored() {
+        Service current = new ServiceBuilder(service(9092))
+                .editSpec()
+                    .withClusterIP("10.0.0.1")
+                    .withSessionAffinity("None")
+                .endSpec()
+                .build();
+        PathTrie<Boolean> ignorable = ResourceDiff.ignorablePaths("/spec/clusterIP", "/spec/sessionAffinity");
+        assertFalse(new ResourceDiff("Service", current, service(9092), null).isEmpty());
+        assertTrue(new ResourceDiff("Service", current, service(9092), ignorable).isEmpty());
+        assertFalse(new ResourceDiff("Service", current, service(9093), ignorable).isEmpty());
+    }
+}
@@ -5,6 +5,8 @@
 package io.strimzi.operator.topic;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -18,10 +20,13 @@ import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 
 /**
  * Partial implementation of {@link Kafka} omitting those methods which imply a partition assignment.
@@ -48,188 +53,86 @@ public abstract class BaseKafkaImpl implements Kafka {
         this.stopped = true;
     }
 
-    abstract class Work implements Runnable, Handler<Void> {
-        @Override
-        public void run() {
-            if (!stopped && !complete()) {
-                vertx.runOnContext(this);
-            }
-        }
-
-        @Override
-        public void handle(Void v) {
-            run();
-        }
-
-        protected abstract boolean complete();
-    }
-
-    /** Some work that depends on a single future */
-    class UniWork<T> extends Work {
-        private final KafkaFuture<T> future;
-        private final Handler<AsyncResult<T>> handler;
-        private final String name;
-
-        public UniWork(String name, KafkaFuture<T> future, Handler<AsyncResult<T>> handler) {
-            if (future == null) {
-                throw new NullPointerException();
-            }
-            if (handler == null) {
-                throw new NullPointerException();
-            }
-            this.future = future;
-            this.handler = handler;
-            this.name = name;
-        }
-
-        @Override
-        protected boolean complete() {
-            if (this.future.isDone()) {
-                LOGGER.trace("Future {} of work {} is done", future, this);
-                try {
-                    try {
-                        T result = this.future.get();
-                        LOGGER.debug("Future {} has result {}", future, result);
-                        this.handler.handle(Future.succeededFuture(result));
-                        LOGGER.debug("Handler for work {} executed ok", this);
-                    } catch (ExecutionException e) {
-                        LOGGER.debug("Future {} threw {}", future, e.toString());
-                        this.handler.handle(Future.failedFuture(e.getCause()));
-                    } catch (InterruptedException e) {
-                        LOGGER.debug("Future {} threw {}", future, e.toString());
-                        this.handler.handle(Future.failedFuture(e));
-                    }
-                } catch (OperatorException e) {
-                    // TODO handler threw, but I have no context for creating a k8s error event
-                    LOGGER.trace("Handler for work {} threw {}", this, e.toString());
-                    e.printStackTrace();
-                }
-                return true;
-            } else {
-                if (LOGGER.isTraceEnabled()) {
-                    LOGGER.trace("Future {} is not done", future);
-                }
-                return false;
-            }
-        }
-
-        @Override
-        public String toString() {
-            return name + System.identityHashCode(this);
+    /**
+     * Adapt the given {@code KafkaFuture} to a Vert.x {@code Future} which is completed on the context
+     * of the caller when the {@code KafkaFuture} completes.
+     * Completion is driven by {@link KafkaFuture#whenComplete(KafkaFuture.BiConsumer)},
+     * so no event loop time is consumed while the request is in flight.
+     * If the {@code KafkaFuture} fails the returned future will be failed with the KafkaException
+     * (not an ExecutionException).
+     */
+    protected <T> Future<T> mapFuture(KafkaFuture<T> kafkaFuture) {
+        if (kafkaFuture == null) {
+            throw new NullPointerException();
         }
-    }
-
-    /** Some work that depends on two futures */
-    class MetadataWork extends Work {
-        private final KafkaFuture<TopicDescription> descFuture;
-        private final KafkaFuture<Config> configFuture;
-        private final Handler<AsyncResult<TopicMetadata>> handler;
-        private boolean handled = false;
-
-        public MetadataWork(KafkaFuture<TopicDescription> descFuture,
-                            KafkaFuture<Config> configFuture, Handler<AsyncResult<TopicMetadata>> handler) {
-            if (descFuture == null) {
-                throw new NullPointerException();
-            }
-            if (configFuture == null) {
-                throw new NullPointerException();
+        Context context = vertx.getOrCreateContext();
+        Future<T> result = Future.future();
+        kafkaFuture.whenComplete((value, error) -> {
+            if (stopped) {
+                LOGGER.debug("Ignoring completion of future {} because we are stopped", kafkaFuture);
+                return;
             }
-            if (handler == null) {
-                throw new NullPointerException();
-            }
-            this.descFuture = descFuture;
-            this.configFuture = configFuture;
-            this.handler = handler;
-        }
-
-
-        private <T> T result(KafkaFuture<T> future) {
-            T result;
-            try {
-                result = future.get();
-                LOGGER.trace("Future {} has result {}", future, result);
-            } catch (ExecutionException e) {
-                LOGGER.debug("Future {} threw {}", future, e.toString());
-                if (e.getCause() instanceof UnknownTopicOrPartitionException) {
-                    result = null;
+            context.runOnContext(ignored -> {
+                if (error != null) {
+                    LOGGER.debug("Future {} threw {}", kafkaFuture, error.toString());
+                    result.fail(error);
                 } else {
-                    if (!handled) {
-                        handler.handle(Future.failedFuture(e.getCause()));
-                    }
-                    handled = true;
-                    return null;
-                }
-            } catch (InterruptedException e) {
-                LOGGER.debug("Future {} threw {}", future, e.toString());
-                if (!handled) {
-                    handler.handle(Future.failedFuture(e));
+                    LOGGER.trace("Future {} has result {}", kafkaFuture, value);
+                    result.complete(value);
                 }
-                handled = true;
-                return null;
-            }
-            return result;
-        }
+            });
+        });
+        return result;
+    }
 
-        @Override
-        protected boolean complete() {
-            if (this.descFuture.isDone()
-                    && this.configFuture.isDone()) {
-                final TopicDescription desc = result(this.descFuture);
-                final Config config = result(this.configFuture);
-                if (!handled) {
-                    TopicMetadata metadata;
-                    if (desc != null && config != null) {
-                        metadata = new TopicMetadata(desc, config);
-                    } else {
-                        metadata = null;
-                    }
-                    this.handler.handle(Future.succeededFuture(metadata));
-                    this.handled = true;
-                    LOGGER.trace("Handler for work {} executed ok", this);
-                } else {
-                }
-                return handled;
+    /**
+     * Adapt the given {@code KafkaFuture} as {@link #mapFuture(KafkaFuture)}, but
+     * complete with null if it failed with an {@code UnknownTopicOrPartitionException}.
+     */
+    private <T> Future<T> mapFutureNullIfUnknownTopic(KafkaFuture<T> kafkaFuture) {
+        return mapFuture(kafkaFuture).recover(error -> {
+            if (error instanceof UnknownTopicOrPartitionException) {
+                return Future.succeededFuture();
             } else {
-                if (!this.descFuture.isDone())
-                    LOGGER.trace("Description future {} is not done", descFuture);
-                if (!this.configFuture.isDone())
-                    LOGGER.trace("Config future {} is not done", configFuture);
-                return false;
+                return Future.failedFuture(error);
             }
-        }
+        });
     }
 
     /**
-     * Queue a future and callback. The callback will be invoked (on a separate thread)
-     * when the future is ready.
+     * Complete the given handler with the result of the given {@code KafkaFuture}.
+     * The handler is invoked on the context of the caller.
      */
-    protected void queueWork(Work work) {
-        LOGGER.trace("Queuing work {} for immediate execution", work);
-        vertx.runOnContext(work);
+    protected <T> void handleFuture(String name, KafkaFuture<T> kafkaFuture, Handler<AsyncResult<T>> handler) {
+        if (handler == null) {
+            throw new NullPointerException();
+        }
+        LOGGER.trace("Awaiting completion of {} future {}", name, kafkaFuture);
+        mapFuture(kafkaFuture).setHandler(handler);
     }
 
     /**
      * Delete a topic via the Kafka AdminClient API, calling the given handler
-     * (in a different thread) with the result.
+     * (on the calling context) with the result.
      */
     @Override
     public void deleteTopic(TopicName topicName, Handler<AsyncResult<Void>> handler) {
         LOGGER.debug("Deleting topic {}", topicName);
         KafkaFuture<Void> future = adminClient.deleteTopics(
                 Collections.singleton(topicName.toString())).values().get(topicName.toString());
-        queueWork(new UniWork<>("deleteTopic", future, handler));
+        handleFuture("deleteTopic", future, handler);
     }
 
     @Override
     public void updateTopicConfig(Topic topic, Handler<AsyncResult<Void>> handler) {
         Map<ConfigResource, Config> configs = TopicSerialization.toTopicConfig(topic);
         KafkaFuture<Void> future = adminClient.alterConfigs(configs).values().get(configs.keySet().iterator().next());
-        queueWork(new UniWork<>("updateTopicConfig", future, handler));
+        handleFuture("updateTopicConfig", future, handler);
     }
 
     /**
      * Get a topic config via the Kafka AdminClient API, calling the given handler
-     * (in a different thread) with the result.
+     * (on the calling context) with the result.
      */
     @Override
     public void topicMetadata(TopicName topicName, Handler<AsyncResult<TopicMetadata>> handler) {
@@ -239,17 +142,68 @@ public abstract class BaseKafkaImpl implements Kafka {
                 Collections.singleton(topicName.toString())).values().get(topicName.toString());
         KafkaFuture<Config> configFuture = adminClient.describeConfigs(
                 Collections.singleton(resource)).values().get(resource);
-        queueWork(new MetadataWork(descriptionFuture,
-            configFuture,
-            result -> handler.handle(result)));
+        Future<TopicDescription> desc = mapFutureNullIfUnknownTopic(descriptionFuture);
+        Future<Config> config = mapFutureNullIfUnknownTopic(configFuture);
+        CompositeFuture.all(desc, config).map(ignored -> {
+            if (desc.result() != null && config.result() != null) {
+                return new TopicMetadata(desc.result(), config.result());
+            } else {
+                return (TopicMetadata) null;
+            }
+        }).setHandler(handler);
+    }
+
+    /**
+     * Get the metadata of several topics via the Kafka AdminClient API, using a single
+     * describeTopics and a single describeConfigs request, calling the given handler
+     * (on the calling context) with the result.
+     */
+    @Override
+    public void topicMetadata(Collection<TopicName> topicNames, Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler) {
+        LOGGER.debug("Getting metadata for {} topics", topicNames.size());
+        List<String> names = new ArrayList<>(topicNames.size());
+        List<ConfigResource> resources = new ArrayList<>(topicNames.size());
+        for (TopicName topicName : topicNames) {
+            names.add(topicName.toString());
+            resources.add(new ConfigResource(ConfigResource.Type.TOPIC, topicName.toString()));
+        }
+        Map<String, KafkaFuture<TopicDescription>> descriptionFutures = adminClient.describeTopics(names).values();
+        Map<ConfigResource, KafkaFuture<Config>> configFutures = adminClient.describeConfigs(resources).values();
+
+        Map<TopicName, Future<TopicDescription>> descs = new HashMap<>(topicNames.size());
+        Map<TopicName, Future<Config>> configs = new HashMap<>(topicNames.size());
+        List<Future> all = new ArrayList<>(2 * topicNames.size());
+        for (int i = 0; i < names.size(); i++) {
+            TopicName topicName = new TopicName(names.get(i));
+            Future<TopicDescription> desc = mapFutureNullIfUnknownTopic(descriptionFutures.get(names.get(i)));
+            Future<Config> config = mapFutureNullIfUnknownTopic(configFutures.get(resources.get(i)));
+            descs.put(topicName, desc);
+            configs.put(topicName, config);
+            all.add(desc);
+            all.add(config);
+        }
+        CompositeFuture.join(all).setHandler(joined -> {
+            Map<TopicName, TopicMetadata> result = new HashMap<>(topicNames.size());
+            for (Map.Entry<TopicName, Future<TopicDescription>> entry : descs.entrySet()) {
+                TopicName topicName = entry.getKey();
+                Future<TopicDescription> desc = entry.getValue();
+                Future<Config> config = configs.get(topicName);
+                if (desc.failed() || config.failed()) {
+                    LOGGER.debug("Failed to get metadata for topic {} in batch", topicName);
+                } else if (desc.result() != null && config.result() != null) {
+                    result.put(topicName, new TopicMetadata(desc.result(), config.result()));
+                } else {
+                    result.put(topicName, null);
+                }
+            }
+            handler.handle(Future.succeededFuture(result));
+        });
     }
 
     @Override
     public void listTopics(Handler<AsyncResult<Set<String>>> handler) {
         LOGGER.debug("Listing topics");
         ListTopicsResult future = adminClient.listTopics();
-        queueWork(new UniWork<>("listTopics", future.names(), handler));
+        handleFuture("listTopics", future.names(), handler);
     }
-
-
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import org.I0Itec.zkclient.exception.ZkNoNodeException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A write-through caching {@link TopicStore} in front of a {@link ZkTopicStore}.
+ * All the topics in the store are loaded once by {@link #load()}. After that reads are
+ * served from memory, with updates made via this store being written through to the delegate.
+ * A children watch on {@link ZkTopicStore#TOPICS_PATH} evicts topics whose znodes are deleted
+ * behind our back.
+ * Only topics which exist are cached: reads of topics which are not in the cache
+ * always go to the delegate.
+ */
+public class CachingTopicStore implements TopicStore {
+
+    private final static Logger LOGGER = LogManager.getLogger(CachingTopicStore.class);
+
+    private final Zk zk;
+    private final TopicStore delegate;
+    private final ConcurrentHashMap<TopicName, Topic> cache = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingTopicStore(Zk zk, TopicStore delegate) {
+        this.zk = zk;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Watch the children of {@link ZkTopicStore#TOPICS_PATH}, then populate the cache
+     * with all the topics currently in the store, reading them in parallel.
+     * @return A future which completes when the cache has been populated.
+     */
+    public Future<Void> load() {
+        return zk.watchChildren(ZkTopicStore.TOPICS_PATH, childrenResult -> {
+            if (childrenResult.failed()) {
+                LOGGER.error("Error on znode {} children", ZkTopicStore.TOPICS_PATH, childrenResult.cause());
+                return;
+            }
+            evictAllBut(childrenResult.result());
+        }).compose(ignored -> {
+            Future<List<String>> children = Future.future();
+            zk.children(ZkTopicStore.TOPICS_PATH, children);
+            return children.recover(error -> {
+                if (error instanceof ZkNoNodeException) {
+                    return Future.succeededFuture(new ArrayList<>(0));
+                }
+                return Future.failedFuture(error);
+            });
+        }).compose(children -> {
+            LOGGER.debug("Loading {} topics from the topic store", children.size());
+            List<Future> reads = new ArrayList<>(children.size());
+            for (String child : children) {
+                TopicName topicName = new TopicName(child);
+                Future<Topic> read = Future.future();
+                delegate.read(topicName, read);
+                reads.add(read.map(topic -> {
+                    if (topic != null) {
+                        cache.putIfAbsent(topicName, topic);
+                    }
+                    return null;
+                }));
+            }
+            return CompositeFuture.all(reads);
+        }).map(ignored -> {
+            LOGGER.info("Loaded {} topics from the topic store", cache.size());
+            return null;
+        });
+    }
+
+    private void evictAllBut(List<String> children) {
+        Set<TopicName> existing = new HashSet<>(children.size());
+        for (String child : children) {
+            existing.add(new TopicName(child));
+        }
+        for (TopicName topicName : cache.keySet()) {
+            if (!existing.contains(topicName)) {
+                LOGGER.debug("Evicting deleted topic {} from the cache", topicName);
+                cache.remove(topicName);
+            }
+        }
+    }
+
+    @Override
+    public void read(TopicName name, Handler<AsyncResult<Topic>> handler) {
+        Topic topic = cache.get(name);
+        if (topic != null) {
+            hits.incrementAndGet();
+            handler.handle(Future.succeededFuture(topic));
+        } else {
+            misses.incrementAndGet();
+            delegate.read(name, result -> {
+                if (result.succeeded() && result.result() != null) {
+                    cache.put(name, result.result());
+                }
+                handler.handle(result);
+            });
+        }
+    }
+
+    @Override
+    public void create(Topic topic, Handler<AsyncResult<Void>> handler) {
+        delegate.create(topic, result -> {
+            if (result.succeeded()) {
+                cache.put(topic.getTopicName(), topic);
+            }
+            handler.handle(result);
+        });
+    }
+
+    @Override
+    public void update(Topic topic, Handler<AsyncResult<Void>> handler) {
+        delegate.update(topic, result -> {
+            if (result.succeeded()) {
+                cache.put(topic.getTopicName(), topic);
+            } else {
+                // We don't know the state of the store, so read it next time
+                cache.remove(topic.getTopicName());
+            }
+            handler.handle(result);
+        });
+    }
+
+    @Override
+    public void delete(TopicName topicName, Handler<AsyncResult<Void>> handler) {
+        delegate.delete(topicName, result -> {
+            cache.remove(topicName);
+            handler.handle(result);
+        });
+    }
+
+    /**
+     * @return The number of reads which were served from the cache.
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of reads which had to go to the delegate store.
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingTopicStore(" + delegate + ")";
+    }
+}
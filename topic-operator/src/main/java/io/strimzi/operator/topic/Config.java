@@ -46,6 +46,19 @@ public class Config {
         }
     };
 
+    /** A Java Boolean, which must be either true or false */
+    private static final Type<? extends Boolean> BOOLEAN = new Type<Boolean>() {
+        @Override
+        Boolean parse(String s) {
+            if ("true".equalsIgnoreCase(s)) {
+                return true;
+            } else if ("false".equalsIgnoreCase(s)) {
+                return false;
+            }
+            throw new IllegalArgumentException("The value must be true or false");
+        }
+    };
+
     /**
      * A time duration.
      */
@@ -95,10 +108,13 @@ public class Config {
     public static final String TC_ZK_CONNECT = "STRIMZI_ZOOKEEPER_CONNECT";
     public static final String TC_ZK_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
     public static final String TC_ZK_CONNECTION_TIMEOUT_MS = "TC_ZK_CONNECTION_TIMEOUT_MS";
+    public static final String TC_ZK_ASYNC_CLIENT = "STRIMZI_ZOOKEEPER_ASYNC_CLIENT";
     public static final String TC_PERIODIC_INTERVAL_MS = "STRIMZI_FULL_RECONCILIATION_INTERVAL_MS";
+    public static final String TC_FULL_SWEEP_INTERVAL_MS = "STRIMZI_FULL_SWEEP_INTERVAL_MS";
     public static final String TC_REASSIGN_THROTTLE = "STRIMZI_REASSIGN_THROTTLE";
-    public static final String TC_REASSIGN_VERIFY_INTERVAL_MS = "STRIMZI_REASSIGN_VERIFY_INTERVAL_MS";
     public static final String TC_TOPIC_METADATA_MAX_ATTEMPTS = "STRIMZI_TOPIC_METADATA_MAX_ATTEMPTS";
+    public static final String TC_TOPIC_METADATA_BATCH_SIZE = "STRIMZI_TOPIC_METADATA_BATCH_SIZE";
+    public static final String TC_MAX_INFLIGHT_RECONCILIATIONS = "STRIMZI_MAX_INFLIGHT_RECONCILIATIONS";
 
     public static final String TC_TLS_ENABLED = "STRIMZI_TLS_ENABLED";
     public static final String TC_TLS_TRUSTSTORE_LOCATION = "STRIMZI_TRUSTSTORE_LOCATION";
@@ -126,21 +142,30 @@ public class Config {
     /** The zookeeper connection timeout. */
     public static final Value<Long> ZOOKEEPER_CONNECTION_TIMEOUT_MS = new Value<>(TC_ZK_CONNECTION_TIMEOUT_MS, DURATION, "20000");
 
+    /** Whether to use the asynchronous API of the ZooKeeper client rather than ZkClient on a worker pool. */
+    public static final Value<Boolean> ZOOKEEPER_ASYNC_CLIENT = new Value<>(TC_ZK_ASYNC_CLIENT, BOOLEAN, "false");
+
     /** The period between full reconciliations. */
     public static final Value<Long> FULL_RECONCILIATION_INTERVAL_MS = new Value<>(TC_PERIODIC_INTERVAL_MS, DURATION, "900000");
 
-    /** The interbroker throttled rate to use when a topic change requires partition reassignment. */
-    public static final Value<Long> REASSIGN_THROTTLE = new Value<>(TC_REASSIGN_THROTTLE, LONG, Long.toString(Long.MAX_VALUE));
-
     /**
-     * The interval between verification executions (as in {@code kafka-reassign-partitions.sh --verify ...})
-     * when a topic change requires partition reassignment.
+     * The minimum period between periodic reconciliations which reconcile every topic.
+     * The other periodic reconciliations only reconcile the topics which changed since they were last reconciled.
      */
-    public static final Value<Long> REASSIGN_VERIFY_INTERVAL_MS = new Value<>(TC_REASSIGN_VERIFY_INTERVAL_MS, DURATION, "120000");
+    public static final Value<Long> FULL_SWEEP_INTERVAL_MS = new Value<>(TC_FULL_SWEEP_INTERVAL_MS, DURATION, "3600000");
+
+    /** The interbroker throttled rate to use when a topic change requires partition reassignment. */
+    public static final Value<Long> REASSIGN_THROTTLE = new Value<>(TC_REASSIGN_THROTTLE, LONG, Long.toString(Long.MAX_VALUE));
 
     /** The maximum number of retries for getting topic metadata from the Kafka cluster */
     public static final Value<Integer> TOPIC_METADATA_MAX_ATTEMPTS = new Value<>(TC_TOPIC_METADATA_MAX_ATTEMPTS, POSITIVE_INTEGER, "6");
 
+    /** The maximum number of topics whose metadata is fetched from the Kafka cluster in a single request during periodic reconciliation */
+    public static final Value<Integer> TOPIC_METADATA_BATCH_SIZE = new Value<>(TC_TOPIC_METADATA_BATCH_SIZE, POSITIVE_INTEGER, "500");
+
+    /** The maximum number of topic reconciliations which run at a time */
+    public static final Value<Integer> MAX_INFLIGHT_RECONCILIATIONS = new Value<>(TC_MAX_INFLIGHT_RECONCILIATIONS, POSITIVE_INTEGER, "50");
+
     /** If the connection with Kafka has to be encrypted by TLS protocol */
     public static final Value<String> TLS_ENABLED = new Value<>(TC_TLS_ENABLED, STRING, "false");
     /** The truststore with CA certificate for Kafka broker/server authentication */
@@ -160,10 +185,13 @@ public class Config {
         addConfigValue(configValues, ZOOKEEPER_CONNECT);
         addConfigValue(configValues, ZOOKEEPER_SESSION_TIMEOUT_MS);
         addConfigValue(configValues, ZOOKEEPER_CONNECTION_TIMEOUT_MS);
+        addConfigValue(configValues, ZOOKEEPER_ASYNC_CLIENT);
         addConfigValue(configValues, FULL_RECONCILIATION_INTERVAL_MS);
+        addConfigValue(configValues, FULL_SWEEP_INTERVAL_MS);
         addConfigValue(configValues, REASSIGN_THROTTLE);
-        addConfigValue(configValues, REASSIGN_VERIFY_INTERVAL_MS);
         addConfigValue(configValues, TOPIC_METADATA_MAX_ATTEMPTS);
+        addConfigValue(configValues, TOPIC_METADATA_BATCH_SIZE);
+        addConfigValue(configValues, MAX_INFLIGHT_RECONCILIATIONS);
         addConfigValue(configValues, TLS_ENABLED);
         addConfigValue(configValues, TLS_TRUSTSTORE_LOCATION);
         addConfigValue(configValues, TLS_TRUSTSTORE_PASSWORD);
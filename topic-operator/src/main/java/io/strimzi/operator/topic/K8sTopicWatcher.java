@@ -52,13 +52,13 @@ class K8sTopicWatcher implements Watcher<KafkaTopic> {
             };
             switch (action) {
                 case ADDED:
-                    topicOperator.onResourceAdded(logContext, kafkaTopic, resultHandler);
+                    topicOperator.enqueueKubeEvent(name, handler -> topicOperator.onResourceAdded(logContext, kafkaTopic, handler), resultHandler);
                     break;
                 case MODIFIED:
-                    topicOperator.onResourceModified(logContext, kafkaTopic, resultHandler);
+                    topicOperator.enqueueKubeEvent(name, handler -> topicOperator.onResourceModified(logContext, kafkaTopic, handler), resultHandler);
                     break;
                 case DELETED:
-                    topicOperator.onResourceDeleted(logContext, kafkaTopic, resultHandler);
+                    topicOperator.enqueueKubeEvent(name, handler -> topicOperator.onResourceDeleted(logContext, kafkaTopic, handler), resultHandler);
                     break;
                 case ERROR:
                     LOGGER.error("Watch received action=ERROR for {} {}", kind, name);
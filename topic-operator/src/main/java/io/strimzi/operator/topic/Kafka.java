@@ -7,6 +7,8 @@ package io.strimzi.operator.topic;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -76,6 +78,18 @@ public interface Kafka {
      */
     void topicMetadata(TopicName topicName, Handler<AsyncResult<TopicMetadata>> handler);
 
+    /**
+     * Asynchronously fetch the metadata of all the given topics in Kafka using
+     * a single request for the descriptions and a single request for the configs.
+     * Invoke the given handler with the result, which maps each topic name to its metadata.
+     * If a topic does not exist the map will contain a null value for it.
+     * If the metadata for a topic could not be fetched the map will not contain that topic,
+     * so the caller can fall back to {@link #topicMetadata(TopicName, Handler)}.
+     * @param topicNames The names of the topics to get the metadata of.
+     * @param handler The result handler.
+     */
+    void topicMetadata(Collection<TopicName> topicNames, Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler);
+
     /**
      * Asynchronously list the topics available in Kafka. Invoke the given
      * handler with the result. If the operation fails the given handler
@@ -19,11 +19,17 @@ public class LogContext {
     private static AtomicInteger ctx = new AtomicInteger();
     private final String base;
     private final String trigger;
+    private final boolean periodic;
     private String resourceVersion;
 
     private LogContext(String trigger) {
+        this(trigger, false);
+    }
+
+    private LogContext(String trigger, boolean periodic) {
         base = ctx.getAndIncrement() + "|" + trigger;
         this.trigger = trigger;
+        this.periodic = periodic;
     }
 
 
@@ -50,13 +56,20 @@ public class LogContext {
     }
 
     static LogContext periodic(String periodicType) {
-        return new LogContext(periodicType);
+        return new LogContext(periodicType, true);
     }
 
     public String trigger() {
         return trigger;
     }
 
+    /**
+     * @return Whether the work was triggered by a periodic reconciliation, rather than by a watch event.
+     */
+    public boolean isPeriodic() {
+        return periodic;
+    }
+
     @Override
     public String toString() {
         if (resourceVersion == null) {
@@ -4,10 +4,6 @@
  */
 package io.strimzi.operator.topic;
 
-import com.fasterxml.jackson.core.JsonEncoding;
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator;
-import io.strimzi.operator.common.process.ProcessHelper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -16,29 +12,24 @@ import io.vertx.core.Vertx;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * An implementation of {@link Kafka} which leave partition assignment decisions to the Kafka operator.
@@ -47,16 +38,21 @@ import java.util.regex.Pattern;
  */
 public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
 
-    private static final Pattern REASSIGN_FAILED = Pattern.compile("Reassignment of partition .* failed");
-    private static final Pattern REASSIGN_COMPLETE = Pattern.compile("Reassignment of partition .* completed successfully");
-    private static final Pattern REASSIGN_INPROGRESS = Pattern.compile("Reassignment of partition .* is still in progress");
-
     private final static Logger LOGGER = LogManager.getLogger(OperatorAssignedKafkaImpl.class);
-    private final Config config;
+    private final ZkPartitionReassigner reassigner;
 
-    public OperatorAssignedKafkaImpl(AdminClient adminClient, Vertx vertx, Config config) {
+    /**
+     * Create an instance which changes replication factors using the given {@code reassigner}.
+     */
+    OperatorAssignedKafkaImpl(AdminClient adminClient, Vertx vertx, ZkPartitionReassigner reassigner) {
         super(adminClient, vertx);
-        this.config = config;
+        this.reassigner = Objects.requireNonNull(reassigner);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        reassigner.stop();
     }
 
     @Override
@@ -64,12 +60,12 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
         final NewPartitions newPartitions = NewPartitions.increaseTo(topic.getNumPartitions());
         final Map<String, NewPartitions> request = Collections.singletonMap(topic.getTopicName().toString(), newPartitions);
         KafkaFuture<Void> future = adminClient.createPartitions(request).values().get(topic.getTopicName().toString());
-        queueWork(new UniWork<>("increasePartitions", future, handler));
+        handleFuture("increasePartitions", future, handler);
     }
 
     /**
      * Create a new topic via the Kafka AdminClient API, calling the given handler
-     * (in a different thread) with the result.
+     * (on the calling context) with the result.
      */
     @Override
     public void createTopic(Topic topic, Handler<AsyncResult<Void>> handler) {
@@ -78,7 +74,7 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
         LOGGER.debug("Creating topic {}", newTopic);
         KafkaFuture<Void> future = adminClient.createTopics(
                 Collections.singleton(newTopic)).values().get(newTopic.name());
-        queueWork(new UniWork<>("createTopic", future, handler));
+        handleFuture("createTopic", future, handler);
     }
 
     @Override
@@ -86,268 +82,66 @@ public class OperatorAssignedKafkaImpl extends BaseKafkaImpl {
 
         LOGGER.info("Changing replication factor of topic {} to {}", topic.getTopicName(), topic.getNumReplicas());
 
-        final String zookeeper = config.get(Config.ZOOKEEPER_CONNECT);
-        Future<File> generateFuture = Future.future();
-
-        // generate a reassignment
-        vertx.executeBlocking(fut -> {
-            try {
-                LOGGER.debug("Generating reassignment json for topic {}", topic.getTopicName());
-                String reassignment = generateReassignment(topic, zookeeper);
-                LOGGER.debug("Reassignment json for topic {}: {}", topic.getTopicName(), reassignment);
-                File reassignmentJsonFile = ProcessHelper.createTmpFile("-reassignment.json");
-                try (Writer w = new OutputStreamWriter(new FileOutputStream(reassignmentJsonFile), StandardCharsets.UTF_8)) {
-                    w.write(reassignment);
-                }
-                fut.complete(reassignmentJsonFile);
-            } catch (Exception e) {
-                fut.fail(e);
-            }
-        },
-            generateFuture);
-
-        Future<File> executeFuture = Future.future();
-
-        generateFuture.compose(reassignmentJsonFile -> {
-            // execute the reassignment
-            vertx.executeBlocking(fut -> {
-                final Long throttle = config.get(Config.REASSIGN_THROTTLE);
-                try {
-                    LOGGER.debug("Starting reassignment for topic {} with throttle {}", topic.getTopicName(), throttle);
-                    executeReassignment(reassignmentJsonFile, zookeeper, throttle);
-                    fut.complete(reassignmentJsonFile);
-                } catch (Exception e) {
-                    fut.fail(e);
-                }
-            },
-                executeFuture);
-        }, executeFuture);
-
-        Future<Void> periodicFuture = Future.future();
-        Future<Void> reassignmentFinishedFuture = Future.future();
-
-        executeFuture.compose(reassignmentJsonFile -> {
-            // Poll repeatedly, calling --verify to remove the throttle
-            long timeout = 10_000;
-            long first = System.currentTimeMillis();
-            final Long periodMs = config.get(Config.REASSIGN_VERIFY_INTERVAL_MS);
-            LOGGER.debug("Verifying reassignment every {} seconds", TimeUnit.SECONDS.convert(periodMs, TimeUnit.MILLISECONDS));
-            vertx.setPeriodic(periodMs, timerId ->
-                vertx.<Boolean>executeBlocking(fut -> {
-                    LOGGER.debug(String.format("Verifying reassignment for topic {} (timer id=%s)", topic.getTopicName(), timerId));
-
-                    final Long throttle = config.get(Config.REASSIGN_THROTTLE);
-                    final boolean reassignmentComplete;
-                    try {
-                        reassignmentComplete = verifyReassignment(reassignmentJsonFile, zookeeper, throttle);
-                    } catch (Exception e) {
-                        fut.fail(e);
-                        return;
-                    }
-                    fut.complete(reassignmentComplete);
-                },
-                    ar -> {
-                        if (ar.succeeded()) {
-                            if (ar.result()) {
-                                LOGGER.info("Reassignment complete");
-                                ProcessHelper.delete(reassignmentJsonFile);
-                                LOGGER.debug("Cancelling timer " + timerId);
-                                vertx.cancelTimer(timerId);
-                                reassignmentFinishedFuture.complete();
-                            } else if (System.currentTimeMillis() - first > timeout) {
-                                LOGGER.error("Reassignment timed out");
-                                ProcessHelper.delete(reassignmentJsonFile);
-                                LOGGER.debug("Cancelling timer " + timerId);
-                                vertx.cancelTimer(timerId);
-                                reassignmentFinishedFuture.fail("Timeout");
-                            }
-                        } else {
-                            //reassignmentFinishedFuture.fail(ar.cause());
-                            LOGGER.error("Error while verifying reassignment", ar.cause());
-                        }
-                    }
-                )
-            );
-            periodicFuture.complete();
-        },
-            periodicFuture);
-
-
-        CompositeFuture.all(periodicFuture, reassignmentFinishedFuture).map((Void) null).setHandler(handler);
-
-        // TODO The algorithm should really be more like this:
-        // 1. Use the cmdline tool to generate an assignment
-        // 2. Set the throttles
-        // 3. Update the reassign_partitions znode
-        // 4. Watch for changes or deletion of reassign_partitions
-        //    a. Update the throttles
-        //    b. complete the handler
-        // Doing this is much better because means we don't have to batch reassignments
-        // and also means we need less state for reassignment
-        // though we aren't relieved of the statefullness wrt removing throttles :-(
-    }
-
-
-
-    private static class VerifyLineParser implements Function<String, Void> {
-        int complete = 0;
-        int inProgress = 0;
-
-        @Override
-        public Void apply(String line) {
-            if (line.contains("Partitions reassignment failed due to")
-                    || REASSIGN_FAILED.matcher(line).matches()) {
-                throw new OperatorException("Reassigment failed: " + line);
-            } else if (REASSIGN_COMPLETE.matcher(line).matches()) {
-                complete++;
-            } else if (REASSIGN_INPROGRESS.matcher(line).matches()) {
-                inProgress++;
-            }
-            return null;
-        }
-    }
-
-    private <T> T forEachLineStdout(ProcessHelper.ProcessResult pr, Function<String, T> fn) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                // Use platform default charset, on assumption that
-                // the ReassignPartitionsCommand will output in that
-                new FileInputStream(pr.standardOutput()), Charset.defaultCharset()))) {
-            String line = reader.readLine();
-            while (line != null) {
-                LOGGER.debug("Process {}: stdout: {}", pr, line);
-                T result = fn.apply(line);
-                if (result != null) {
-                    return result;
-                }
-                line = reader.readLine();
+        String name = topic.getTopicName().toString();
+        Future<TopicDescription> descriptionFuture = mapFuture(adminClient.describeTopics(Collections.singleton(name)).values().get(name));
+        Future<Collection<Node>> nodesFuture = mapFuture(adminClient.describeCluster().nodes());
+        CompositeFuture.all(descriptionFuture, nodesFuture).compose(ignored -> {
+            Map<Integer, List<Integer>> current = new TreeMap<>();
+            for (TopicPartitionInfo partition : descriptionFuture.result().partitions()) {
+                current.put(partition.partition(), partition.replicas().stream().map(Node::id).collect(Collectors.toList()));
             }
-            return null;
-        }
+            Map<Integer, List<Integer>> proposed = proposeAssignment(topic.getTopicName(), current, topic.getNumReplicas(), nodesFuture.result());
+            LOGGER.debug("Reassignment for topic {}: {}", topic.getTopicName(), proposed);
+            return reassigner.reassign(topic.getTopicName(), current, proposed);
+        }).setHandler(handler);
     }
 
-    private boolean verifyReassignment(File reassignmentJsonFile, String zookeeper, Long throttle) throws IOException, InterruptedException {
-        List<String> verifyArgs = new ArrayList<>();
-        addJavaArgs(verifyArgs);
-        // command args
-        verifyArgs.add("--zookeeper");
-        verifyArgs.add(zookeeper);
-        if (throttle != null) {
-            verifyArgs.add("--throttle");
-            verifyArgs.add(Long.toString(throttle));
-        }
-        verifyArgs.add("--reassignment-json-file");
-        verifyArgs.add(reassignmentJsonFile.toString());
-        verifyArgs.add("--verify");
-        VerifyLineParser verifyLineParser = new VerifyLineParser();
-        forEachLineStdout(ProcessHelper.executeSubprocess(verifyArgs),
-                verifyLineParser);
-        return verifyLineParser.inProgress == 0;
-    }
-
-    private void executeReassignment(File reassignmentJsonFile, String zookeeper, Long throttle) throws IOException, InterruptedException {
-        List<String> executeArgs = new ArrayList<>();
-        addJavaArgs(executeArgs);
-        executeArgs.add("--zookeeper");
-        executeArgs.add(zookeeper);
-        if (throttle != null) {
-            executeArgs.add("--throttle");
-            executeArgs.add(Long.toString(throttle));
-        }
-        executeArgs.add("--reassignment-json-file");
-        executeArgs.add(reassignmentJsonFile.toString());
-        executeArgs.add("--execute");
-
-        if (!forEachLineStdout(ProcessHelper.executeSubprocess(executeArgs), line -> {
-            if (line.contains("Partitions reassignment failed due to")
-                    || line.contains("There is an existing assignment running")
-                    || line.contains("Failed to reassign partitions")) {
-                throw new TransientOperatorException("Reassigment failed: " + line);
-            } else if (line.contains("Successfully started reassignment of partitions.")) {
-                return true;
-            } else {
-                return null;
-            }
-        })) {
-            throw new TransientOperatorException("Reassignment execution neither failed nor finished");
+    /**
+     * Propose replicas for each partition of a topic with the given {@code replicationFactor}, moving as few replicas as possible.
+     * A partition which has too many replicas keeps its first ones, and so its preferred leader.
+     * A partition which has too few replicas gets replicas on the brokers in racks which it doesn't use yet,
+     * and then on the brokers with the fewest replicas of the topic.
+     * @param topicName The topic.
+     * @param current The current replicas of each partition.
+     * @param replicationFactor The replication factor.
+     * @param brokers The brokers in the cluster.
+     * @return The proposed replicas of each partition.
+     */
+    static Map<Integer, List<Integer>> proposeAssignment(TopicName topicName, Map<Integer, List<Integer>> current,
+                                                         int replicationFactor, Collection<Node> brokers) {
+        if (replicationFactor > brokers.size()) {
+            throw new InvalidTopicException(null, "Replication factor " + replicationFactor + " of topic " + topicName
+                    + " is larger than the number of brokers, " + brokers.size());
         }
-    }
-
-    private String generateReassignment(Topic topic, String zookeeper) throws IOException, InterruptedException, ExecutionException {
-        JsonFactory factory = new JsonFactory();
-
-        File topicsToMove = ProcessHelper.createTmpFile("-topics-to-move.json");
-
-        try (JsonGenerator gen = factory.createGenerator(topicsToMove, JsonEncoding.UTF8)) {
-            gen.writeStartObject();
-            gen.writeNumberField("version", 1);
-            gen.writeArrayFieldStart("topics");
-            gen.writeStartObject();
-            gen.writeStringField("topic", topic.getTopicName().toString());
-            gen.writeEndObject();
-            gen.writeEndArray();
-            gen.writeEndObject();
-            gen.flush();
+        Map<Integer, String> racks = new HashMap<>(brokers.size());
+        Map<Integer, Integer> load = new TreeMap<>();
+        for (Node broker : brokers) {
+            racks.put(broker.id(), broker.rack());
+            load.put(broker.id(), 0);
         }
-        List<String> executeArgs = new ArrayList<>();
-        addJavaArgs(executeArgs);
-        executeArgs.add("--zookeeper");
-        executeArgs.add(zookeeper);
-        executeArgs.add("--topics-to-move-json-file");
-        executeArgs.add(topicsToMove.toString());
-        executeArgs.add("--broker-list");
-        executeArgs.add(brokerList());
-        executeArgs.add("--generate");
-
-        final ProcessHelper.ProcessResult processResult = ProcessHelper.executeSubprocess(executeArgs);
-        ProcessHelper.delete(topicsToMove);
-        String json = forEachLineStdout(processResult, new ReassignmentLineParser());
-        return json;
-
-    }
-
-    /** Use the AdminClient to get a comma-separated list of the broker ids in the Kafka cluster */
-    private String brokerList() throws InterruptedException, ExecutionException {
-        StringBuilder sb = new StringBuilder();
-        for (Node node: adminClient.describeCluster().nodes().get()) {
-            if (sb.length() != 0) {
-                sb.append(",");
+        for (List<Integer> replicas : current.values()) {
+            for (Integer replica : replicas) {
+                load.computeIfPresent(replica, (id, count) -> count + 1);
             }
-            sb.append(node.id());
         }
-        return sb.toString();
-    }
-
-    protected void addJavaArgs(List<String> verifyArgs) {
-        // protected access only for testing purposes
-
-        // use the same java executable that's executing this code
-        verifyArgs.add(System.getProperty("java.home") + "/bin/java");
-        // use the same classpath as we have
-        verifyArgs.add("-cp");
-        verifyArgs.add(System.getProperty("java.class.path"));
-        // main
-        verifyArgs.add("kafka.admin.ReassignPartitionsCommand");
-    }
-
-
-
-    private static class ReassignmentLineParser implements Function<String, String> {
-        boolean returnLine = false;
-
-        @Override
-        public String apply(String line) {
-            if (line.contains("Partitions reassignment failed due to")) {
-                throw new TransientOperatorException("Reassignment failed: " + line);
-            }
-            if (returnLine) {
-                return line;
+        Map<Integer, List<Integer>> proposed = new TreeMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : current.entrySet()) {
+            List<Integer> replicas = new ArrayList<>(entry.getValue());
+            while (replicas.size() > replicationFactor) {
+                load.computeIfPresent(replicas.remove(replicas.size() - 1), (id, count) -> count - 1);
             }
-            if (line.contains("Proposed partition reassignment configuration")) {
-                // Return the line following this one, since that's the JSON representation of the reassignment
-                returnLine = true;
+            while (replicas.size() < replicationFactor) {
+                Set<String> usedRacks = replicas.stream().map(racks::get).filter(Objects::nonNull).collect(Collectors.toSet());
+                Integer broker = load.keySet().stream()
+                        .filter(id -> !replicas.contains(id))
+                        .min(Comparator.<Integer, Boolean>comparing(id -> usedRacks.contains(racks.get(id)))
+                                .thenComparing(load::get))
+                        .orElseThrow(IllegalStateException::new);
+                replicas.add(broker);
+                load.compute(broker, (id, count) -> count + 1);
             }
-            return null;
+            proposed.put(entry.getKey(), replicas);
         }
+        return proposed;
     }
 }
-
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.operator.common.OperatorMetrics;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>Limits the number of topic reconciliations which run at a time, so that a reconciliation of all the topics
+ * doesn't send a request for every topic to Kafka, Zookeeper and Kubernetes at once.</p>
+ *
+ * <p>Work waits in one of two {@linkplain Lane lanes}, in the order in which it was submitted.
+ * Work triggered by watch events runs ahead of the work of periodic reconciliations,
+ * except that every {@value #PERIODIC_SHARE}th piece of work started is taken from the periodic lane
+ * if it has work waiting, so that periodic reconciliations still progress under a steady stream of events.</p>
+ *
+ * <p>The number of pieces of work waiting in each lane is available as the {@code strimzi_worker_pool_queued_tasks}
+ * metric, and the time they waited as the {@code strimzi_work_queue_wait_seconds} metric.</p>
+ */
+class ReconciliationScheduler {
+
+    private final static Logger LOGGER = LogManager.getLogger(ReconciliationScheduler.class);
+
+    static final int PERIODIC_SHARE = 5;
+
+    enum Lane {
+        EVENTS("topic-reconciliations-events"),
+        PERIODIC("topic-reconciliations-periodic");
+
+        private final String metricName;
+
+        Lane(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private class Work<T> {
+        private final Lane lane;
+        private final Supplier<Future<T>> supplier;
+        private final Context context;
+        private final Future<T> result = Future.future();
+        private final long submittedNanos = System.nanoTime();
+
+        private Work(Lane lane, Supplier<Future<T>> supplier, Context context) {
+            this.lane = lane;
+            this.supplier = supplier;
+            this.context = context;
+        }
+
+        private void start() {
+            OperatorMetrics.queueWaited(lane.metricName, submittedNanos);
+            context.runOnContext(ignored -> {
+                Future<T> future;
+                try {
+                    future = supplier.get();
+                } catch (Throwable t) {
+                    future = Future.failedFuture(t);
+                }
+                future.setHandler(ar -> {
+                    completed();
+                    result.handle(ar);
+                });
+            });
+        }
+    }
+
+    private final Vertx vertx;
+    private final int maxInflight;
+    private final Map<Lane, Deque<Work<?>>> lanes = new EnumMap<>(Lane.class);
+    private final Map<Lane, AtomicInteger> queuedMetrics = new EnumMap<>(Lane.class);
+
+    // The following fields are guarded by this
+    private int inflight;
+    /** The number of pieces of work started from the events lane since the last one started from the periodic lane. */
+    private int eventsStarted;
+
+    ReconciliationScheduler(Vertx vertx, int maxInflight) {
+        if (maxInflight <= 0) {
+            throw new IllegalArgumentException("maxInflight must be positive");
+        }
+        this.vertx = vertx;
+        this.maxInflight = maxInflight;
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new ArrayDeque<>());
+            queuedMetrics.put(lane, OperatorMetrics.queuedTasks(lane.metricName));
+        }
+    }
+
+    /**
+     * Submit work to the given lane.
+     * @param lane The lane.
+     * @param work Starts the work, on the context of the caller of this method,
+     *             returning a future which completes when the work has completed.
+     * @param <T> The type of the result of the work.
+     * @return A future which completes with the outcome of the work.
+     */
+    <T> Future<T> submit(Lane lane, Supplier<Future<T>> work) {
+        Work<T> w = new Work<>(lane, work, vertx.getOrCreateContext());
+        synchronized (this) {
+            Deque<Work<?>> queue = lanes.get(lane);
+            queue.add(w);
+            queuedMetrics.get(lane).set(queue.size());
+        }
+        dispatch();
+        return w.result;
+    }
+
+    /**
+     * @return The number of pieces of work waiting in the given lane.
+     */
+    synchronized int queued(Lane lane) {
+        return lanes.get(lane).size();
+    }
+
+    /**
+     * @return The number of pieces of work which are running.
+     */
+    synchronized int inflight() {
+        return inflight;
+    }
+
+    private void completed() {
+        synchronized (this) {
+            inflight--;
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (true) {
+            Work<?> work;
+            synchronized (this) {
+                if (inflight >= maxInflight) {
+                    return;
+                }
+                work = next();
+                if (work == null) {
+                    return;
+                }
+                inflight++;
+            }
+            LOGGER.trace("Starting work from lane {}", work.lane);
+            work.start();
+        }
+    }
+
+    /** Take the next piece of work from the lanes. Called with this held. */
+    private Work<?> next() {
+        Deque<Work<?>> events = lanes.get(Lane.EVENTS);
+        Deque<Work<?>> periodic = lanes.get(Lane.PERIODIC);
+        Lane lane;
+        if (!events.isEmpty() && (periodic.isEmpty() || eventsStarted < PERIODIC_SHARE - 1)) {
+            lane = Lane.EVENTS;
+            eventsStarted = Math.min(eventsStarted + 1, PERIODIC_SHARE);
+        } else if (!periodic.isEmpty()) {
+            lane = Lane.PERIODIC;
+            eventsStarted = 0;
+        } else {
+            return null;
+        }
+        Deque<Work<?>> queue = lanes.get(lane);
+        Work<?> work = queue.poll();
+        queuedMetrics.get(lane).set(queue.size());
+        return work;
+    }
+}
@@ -10,6 +10,7 @@ import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.KafkaTopicList;
 import io.strimzi.api.kafka.model.DoneableKafkaTopic;
 import io.strimzi.api.kafka.model.KafkaTopic;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.topic.zk.Zk;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
@@ -24,6 +25,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class Session extends AbstractVerticle {
 
@@ -140,8 +142,6 @@ public class Session extends AbstractVerticle {
 
         this.adminClient = AdminClient.create(adminClientProps);
         LOGGER.debug("Using AdminClient {}", adminClient);
-        this.kafka = new OperatorAssignedKafkaImpl(adminClient, vertx, config);
-        LOGGER.debug("Using Kafka {}", kafka);
         Labels labels = config.get(Config.LABELS);
 
         String namespace = config.get(Config.NAMESPACE);
@@ -152,6 +152,7 @@ public class Session extends AbstractVerticle {
         Zk.create(vertx, config.get(Config.ZOOKEEPER_CONNECT),
                 this.config.get(Config.ZOOKEEPER_SESSION_TIMEOUT_MS).intValue(),
                 this.config.get(Config.ZOOKEEPER_CONNECTION_TIMEOUT_MS).intValue(),
+                this.config.get(Config.ZOOKEEPER_ASYNC_CLIENT),
             zkResult -> {
                 if (zkResult.failed()) {
                     startupFuture.fail(zkResult.cause());
@@ -160,57 +161,78 @@ public class Session extends AbstractVerticle {
                 this.zk = zkResult.result();
                 LOGGER.debug("Using ZooKeeper {}", zk);
 
-                ZkTopicStore topicStore = new ZkTopicStore(zk);
+                this.kafka = new OperatorAssignedKafkaImpl(adminClient, vertx, new ZkPartitionReassigner(vertx, zk, config));
+                LOGGER.debug("Using Kafka {}", kafka);
+
+                CachingTopicStore topicStore = new CachingTopicStore(zk, new ZkTopicStore(zk));
                 LOGGER.debug("Using TopicStore {}", topicStore);
 
-                this.topicOperator = new TopicOperator(vertx, kafka, k8s, topicStore, labels, namespace, config);
-                LOGGER.debug("Using Operator {}", topicOperator);
+                topicStore.load().setHandler(loadResult -> {
+                    if (loadResult.failed()) {
+                        startupFuture.fail(loadResult.cause());
+                        return;
+                    }
+                    startOperator(topicStore, labels, namespace, startupFuture);
+                });
+            });
+    }
 
-                this.topicConfigsWatcher = new TopicConfigsWatcher(topicOperator);
-                LOGGER.debug("Using TopicConfigsWatcher {}", topicConfigsWatcher);
-                this.topicWatcher = new ZkTopicWatcher(topicOperator);
-                LOGGER.debug("Using TopicWatcher {}", topicWatcher);
-                this.topicsWatcher = new ZkTopicsWatcher(topicOperator, topicConfigsWatcher, topicWatcher);
-                LOGGER.debug("Using TopicsWatcher {}", topicsWatcher);
-                topicsWatcher.start(zk);
+    private void startOperator(CachingTopicStore topicStore, Labels labels, String namespace, Future<Void> startupFuture) {
+        this.topicOperator = new TopicOperator(vertx, kafka, k8s, topicStore, labels, namespace, config);
+        LOGGER.debug("Using Operator {}", topicOperator);
 
-                Future<Void> f = Future.future();
-                Thread resourceThread = new Thread(() -> {
-                    try {
-                        LOGGER.debug("Watching KafkaTopics matching {}", labels.labels());
-                        Session.this.topicWatch = kubeClient.customResources(Crds.topic(), KafkaTopic.class, KafkaTopicList.class, DoneableKafkaTopic.class)
-                                .inNamespace(namespace).withLabels(labels.labels()).watch(new K8sTopicWatcher(topicOperator));
-                        LOGGER.debug("Watching setup");
+        this.topicConfigsWatcher = new TopicConfigsWatcher(topicOperator);
+        LOGGER.debug("Using TopicConfigsWatcher {}", topicConfigsWatcher);
+        this.topicWatcher = new ZkTopicWatcher(topicOperator);
+        LOGGER.debug("Using TopicWatcher {}", topicWatcher);
+        this.topicsWatcher = new ZkTopicsWatcher(topicOperator, topicConfigsWatcher, topicWatcher);
+        LOGGER.debug("Using TopicsWatcher {}", topicsWatcher);
+        topicsWatcher.start(zk);
 
-                        // start the HTTP server for healthchecks
-                        healthServer = this.startHealthServer();
-                        f.complete();
-                    } catch (Throwable t) {
-                        f.fail(t);
-                    }
+        Future<Void> f = Future.future();
+        Thread resourceThread = new Thread(() -> {
+            try {
+                LOGGER.debug("Watching KafkaTopics matching {}", labels.labels());
+                Session.this.topicWatch = kubeClient.customResources(Crds.topic(), KafkaTopic.class, KafkaTopicList.class, DoneableKafkaTopic.class)
+                        .inNamespace(namespace).withLabels(labels.labels()).watch(new K8sTopicWatcher(topicOperator));
+                LOGGER.debug("Watching setup");
 
-                }, "resource-watcher");
-                LOGGER.debug("Starting {}", resourceThread);
-                resourceThread.start();
+                // start the HTTP server for healthchecks
+                healthServer = this.startHealthServer();
+                f.complete();
+            } catch (Throwable t) {
+                f.fail(t);
+            }
 
-                final Long interval = config.get(Config.FULL_RECONCILIATION_INTERVAL_MS);
-                Handler<Long> periodic = new Handler<Long>() {
-                    @Override
-                    public void handle(Long oldTimerId) {
+        }, "resource-watcher");
+        LOGGER.debug("Starting {}", resourceThread);
+        resourceThread.start();
+
+        final Long interval = config.get(Config.FULL_RECONCILIATION_INTERVAL_MS);
+        final long fullSweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.get(Config.FULL_SWEEP_INTERVAL_MS));
+        Handler<Long> periodic = new Handler<Long>() {
+            private long lastFullSweepNanos;
+
+            @Override
+            public void handle(Long oldTimerId) {
+                if (!stopped) {
+                    timerId = null;
+                    boolean fullSweep = oldTimerId == null || System.nanoTime() - lastFullSweepNanos >= fullSweepIntervalNanos;
+                    if (fullSweep) {
+                        lastFullSweepNanos = System.nanoTime();
+                    }
+                    topicOperator.reconcileAllTopics(oldTimerId == null ? "initial " : fullSweep ? "periodic " : "incremental ", !fullSweep).setHandler(result -> {
+                        LOGGER.debug("Topic store cache hits: {}, misses: {}", topicStore.hits(), topicStore.misses());
                         if (!stopped) {
-                            timerId = null;
-                            topicOperator.reconcileAllTopics(oldTimerId == null ? "initial " : "periodic ").setHandler(result -> {
-                                if (!stopped) {
-                                    timerId = vertx.setTimer(interval, this);
-                                }
-                            });
+                            timerId = vertx.setTimer(interval, this);
                         }
-                    }
-                };
-                periodic.handle(null);
-                f.setHandler(startupFuture);
-                LOGGER.info("Started");
-            });
+                    });
+                }
+            }
+        };
+        periodic.handle(null);
+        f.setHandler(startupFuture);
+        LOGGER.info("Started");
     }
 
     /**
@@ -221,6 +243,9 @@ public class Session extends AbstractVerticle {
         return this.vertx.createHttpServer()
                 .requestHandler(request -> {
 
+                    if (OperatorMetrics.handle(request)) {
+                        return;
+                    }
                     if (request.path().equals("/healthy")) {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
@@ -227,7 +227,7 @@ public class Topic {
         result = 31 * result + numPartitions;
         result = 31 * result + numReplicas;
         result = 31 * result + config.hashCode();
-        result = 31 * result + metadata.hashCode();
+        result = 31 * result + (metadata != null ? metadata.hashCode() : 0);
         return result;
     }
 }
@@ -4,27 +4,177 @@
  */
 package io.strimzi.operator.topic;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * ZooKeeper watcher for child znodes of {@code /configs/topics},
+ * ZooKeeper watcher for the config change notifications which Kafka writes as
+ * sequential znodes {@code /config/changes/config_change_<seq>} whenever an entity's config is changed,
  * calling {@link TopicOperator#onTopicConfigChanged(LogContext, TopicName, Handler)}
- * for changed children.
+ * for each notification about a topic.
+ * Notifications are processed in sequence order and the sequence number of the last processed notification
+ * is tracked, so a single children watch covers the configs of all topics.
  */
-class TopicConfigsWatcher extends ZkWatcher {
+class TopicConfigsWatcher {
+
+    private final static Logger LOGGER = LogManager.getLogger(TopicConfigsWatcher.class);
+
+    static final String CONFIG_CHANGES_ZNODE = "/config/changes";
+    static final String CONFIG_CHANGE_PREFIX = "config_change_";
+    private static final String TOPICS_ENTITY_TYPE = "topics";
 
-    private static final String CONFIGS_ZNODE = "/config/topics";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final TopicOperator topicOperator;
+    private volatile ZkWatcher.ZkWatcherState state = ZkWatcher.ZkWatcherState.NOT_STARTED;
+    private volatile Zk zk;
+
+    /** The sequence number of the last notification which has been (or is being) processed. Guarded by this. */
+    private long lastSequence = -1;
+    /** Completes when all the notifications claimed so far have been processed. Guarded by this. */
+    private Future<Void> tail = Future.succeededFuture();
 
     TopicConfigsWatcher(TopicOperator topicOperator) {
-        super(topicOperator, CONFIGS_ZNODE);
+        this.topicOperator = topicOperator;
+    }
+
+    void start(Zk zk) {
+        this.zk = zk;
+        zk.watchChildren(CONFIG_CHANGES_ZNODE, childResult -> {
+            if (state == ZkWatcher.ZkWatcherState.STOPPED) {
+                zk.unwatchChildren(CONFIG_CHANGES_ZNODE);
+                return;
+            }
+            if (childResult.failed()) {
+                LOGGER.error("Error on znode {} children", CONFIG_CHANGES_ZNODE, childResult.cause());
+                return;
+            }
+            if (state == ZkWatcher.ZkWatcherState.STARTED) {
+                processNew(childResult.result());
+            }
+        }).<Void>compose(zk2 -> {
+            zk.children(CONFIG_CHANGES_ZNODE, childResult -> {
+                if (childResult.failed()) {
+                    LOGGER.error("Error on znode {} children", CONFIG_CHANGES_ZNODE, childResult.cause());
+                    return;
+                }
+                // Notifications which predate our start are covered by the initial reconciliation
+                List<Long> sequences = sequences(childResult.result());
+                synchronized (this) {
+                    lastSequence = sequences.isEmpty() ? -1 : sequences.get(sequences.size() - 1);
+                }
+                LOGGER.debug("Starting from config change notification {}", lastSequence);
+                this.state = ZkWatcher.ZkWatcherState.STARTED;
+            });
+            return Future.succeededFuture();
+        });
+    }
+
+    void stop() {
+        this.state = ZkWatcher.ZkWatcherState.STOPPED;
+    }
+
+    boolean started() {
+        return this.state == ZkWatcher.ZkWatcherState.STARTED;
+    }
+
+    /**
+     * Claim the notifications among the given children which have not yet been processed
+     * and process them, in order, once the previously claimed notifications have been processed.
+     */
+    private void processNew(List<String> children) {
+        List<Long> sequences = sequences(children);
+        synchronized (this) {
+            for (Long sequence : sequences) {
+                if (sequence > lastSequence) {
+                    lastSequence = sequence;
+                    tail = tail.compose(ignored -> process(sequence));
+                }
+            }
+        }
+    }
+
+    private Future<Void> process(long sequence) {
+        String path = CONFIG_CHANGES_ZNODE + "/" + CONFIG_CHANGE_PREFIX + String.format("%010d", sequence);
+        Future<Void> result = Future.future();
+        zk.getData(path, dataResult -> {
+            if (dataResult.failed()) {
+                // The notification could have been purged by the brokers before we read it
+                LOGGER.warn("Error reading config change notification {}", path, dataResult.cause());
+            } else {
+                String topicName = topicName(path, dataResult.result());
+                if (topicName != null) {
+                    notifyOperator(topicName);
+                }
+            }
+            result.complete();
+        });
+        return result;
+    }
+
+    /**
+     * @return The name of the topic whose config changed, or null if the notification was not about a topic.
+     */
+    static String topicName(String path, byte[] data) {
+        try {
+            JsonNode root = MAPPER.readTree(data);
+            if (root == null) {
+                return null;
+            }
+            int version = root.path("version").asInt(1);
+            if (version >= 2) {
+                // {"version":2,"entity_path":"topics/my-topic"}
+                String entityPath = root.path("entity_path").asText();
+                int index = entityPath.indexOf('/');
+                if (index > 0 && TOPICS_ENTITY_TYPE.equals(entityPath.substring(0, index))) {
+                    return entityPath.substring(index + 1);
+                }
+            } else {
+                // {"version":1,"entity_type":"topics","entity_name":"my-topic"}
+                if (TOPICS_ENTITY_TYPE.equals(root.path("entity_type").asText())) {
+                    return root.path("entity_name").asText();
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unparseable config change notification {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The sequence numbers of the config change notifications among the given children, in ascending order.
+     */
+    static List<Long> sequences(List<String> children) {
+        List<Long> result = new ArrayList<>(children.size());
+        for (String child : children) {
+            if (child.startsWith(CONFIG_CHANGE_PREFIX)) {
+                try {
+                    result.add(Long.parseLong(child.substring(CONFIG_CHANGE_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Ignoring znode {}/{}", CONFIG_CHANGES_ZNODE, child);
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
     }
 
-    @Override
-    protected void notifyOperator(String child) {
-        LogContext logContext = LogContext.zkWatch(CONFIGS_ZNODE, "=" + child);
-        log.info("{}: Config change {}: topic {}", logContext);
+    private void notifyOperator(String child) {
+        LogContext logContext = LogContext.zkWatch(CONFIG_CHANGES_ZNODE, "=" + child);
+        LOGGER.info("{}: Config change: topic {}", logContext, child);
         topicOperator.onTopicConfigChanged(logContext, new TopicName(child), ar2 -> {
-            log.info("{} Reconciliation result due to topic config change on topic {}: {}", logContext, child, ar2);
+            LOGGER.info("{} Reconciliation result due to topic config change on topic {}: {}", logContext, child, ar2);
         });
     }
 }
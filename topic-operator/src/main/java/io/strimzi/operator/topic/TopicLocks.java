@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.strimzi.api.kafka.model.KafkaTopic;
+import io.strimzi.operator.common.OperatorMetrics;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.Lock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * <p>Runs actions on topics while holding the lock of the topic,
+ * with no more than a given number of actions running at a time.</p>
+ *
+ * <p>An action first waits for the lock of its topic, and only then for its turn in a {@link ReconciliationScheduler},
+ * so that actions waiting for the lock of a busy topic don't take the scheduler's slots
+ * away from the actions on other topics.</p>
+ *
+ * <p>The releases of the locks are counted, so that callers can tell whether the lock of a topic
+ * has been released, and so the topic possibly changed, since some point in time.</p>
+ */
+class TopicLocks {
+
+    private final static Logger LOGGER = LogManager.getLogger(TopicLocks.class);
+
+    static final int LOCK_TIMEOUT_MS = 30 * 1_000;
+
+    private final Vertx vertx;
+    private final ReconciliationScheduler scheduler;
+    /** The number of actions which are waiting for or holding the lock of each topic. */
+    private final ConcurrentHashMap<TopicName, Integer> inflight = new ConcurrentHashMap<>();
+    /** Counts the releases of the locks. Guarded by {@link #lastRelease}. */
+    private long releases;
+    /** The value of {@link #releases} when the lock of each topic was last released. */
+    private final ConcurrentHashMap<TopicName, Long> lastRelease = new ConcurrentHashMap<>();
+
+    TopicLocks(Vertx vertx, int maxInflight) {
+        this.vertx = vertx;
+        this.scheduler = new ReconciliationScheduler(vertx, maxInflight);
+    }
+
+    /**
+     * Run the given {@code action} on the context thread,
+     * immediately if there are currently no other actions with the given {@code key},
+     * or when the other actions with the given {@code key} have completed.
+     * Once it holds the lock the action waits for its turn in the {@link ReconciliationScheduler},
+     * in the periodic lane if the {@code logContext} is periodic.
+     * When the given {@code action} is complete it must complete its argument future,
+     * which will complete the returned future, once the lock has been released.
+     */
+    <T> Future<T> executeWithLockHeld(LogContext logContext, TopicName key, Handler<Future<T>> action) {
+        String lockName = key.toString();
+        Future<T> result = Future.future();
+        BiFunction<TopicName, Integer, Integer> decrement = (topicName, waiters) -> {
+            if (waiters != null) {
+                if (waiters == 1) {
+                    LOGGER.debug("{}: Removing last waiter {}", logContext, action);
+                    return null;
+                } else {
+                    LOGGER.debug("{}: Removing waiter {}, {} waiters left", logContext, action, waiters - 1);
+                    return waiters - 1;
+                }
+            } else {
+                LOGGER.error("{}: Assertion failure. topic {}, action {}", logContext, lockName, action);
+                return null;
+            }
+        };
+        LOGGER.debug("{}: Queuing action {} on topic {}", logContext, action, lockName);
+        inflight.compute(key, (topicName, waiters) -> {
+            if (waiters == null) {
+                LOGGER.debug("{}: Adding first waiter {}", logContext, action);
+                return 1;
+            } else {
+                LOGGER.debug("{}: Adding waiter {}: {}", logContext, action, waiters + 1);
+                return waiters + 1;
+            }
+        });
+        long startNanos = System.nanoTime();
+        vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, ar -> {
+            OperatorMetrics.lockWaited(KafkaTopic.RESOURCE_KIND, startNanos, ar.succeeded());
+            if (ar.succeeded()) {
+                LOGGER.debug("{}: Lock acquired", logContext);
+                ReconciliationScheduler.Lane lane = logContext.isPeriodic() ? ReconciliationScheduler.Lane.PERIODIC : ReconciliationScheduler.Lane.EVENTS;
+                scheduler.<T>submit(lane, () -> {
+                    Future<T> f = Future.future();
+                    LOGGER.debug("{}: Executing action {} on topic {}", logContext, action, lockName);
+                    action.handle(f);
+                    return f;
+                }).setHandler(ar2 -> {
+                    OperatorMetrics.reconciliationCompleted(KafkaTopic.RESOURCE_KIND, startNanos, ar2.succeeded());
+                    // Release the lock before completing, so that whatever the completion triggers sees it released
+                    release(key, ar.result());
+                    LOGGER.debug("{}: Lock released", logContext);
+                    inflight.compute(key, decrement);
+                    LOGGER.debug("{}: Executing handler for action {} on topic {}", logContext, action, lockName);
+                    result.handle(ar2);
+                });
+            } else {
+                LOGGER.warn("{}: Lock not acquired within {}ms: action {} will not be run", logContext, LOCK_TIMEOUT_MS, action);
+                OperatorMetrics.reconciliationLockedOut(KafkaTopic.RESOURCE_KIND);
+                inflight.compute(key, decrement);
+                result.fail("Failed to acquire lock for topic " + lockName + " after " + LOCK_TIMEOUT_MS + "ms. Not executing action " + action);
+            }
+        });
+        return result;
+    }
+
+    private void release(TopicName key, Lock lock) {
+        synchronized (lastRelease) {
+            lastRelease.put(key, ++releases);
+        }
+        lock.release();
+    }
+
+    /**
+     * @return The number of lock releases so far, for passing to {@link #releasedSince(TopicName, long)}.
+     */
+    long releases() {
+        synchronized (lastRelease) {
+            return releases;
+        }
+    }
+
+    /**
+     * @return Whether the lock of the given topic has been released since {@link #releases()} returned the given value.
+     */
+    boolean releasedSince(TopicName key, long releases) {
+        return lastRelease.getOrDefault(key, 0L) > releases;
+    }
+
+    /**
+     * Forget the lock releases of the topics other than the given ones.
+     */
+    void retainReleases(Set<TopicName> topicNames) {
+        lastRelease.keySet().retainAll(topicNames);
+    }
+
+    /**
+     * @return Whether there are any actions waiting for or holding a lock.
+     */
+    boolean isWorkInflight() {
+        LOGGER.debug("Outstanding: {}", inflight);
+        return inflight.size() > 0;
+    }
+}
@@ -9,6 +9,7 @@ import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.strimzi.api.kafka.model.KafkaTopic;
 import io.strimzi.operator.common.BackOff;
 import io.strimzi.operator.common.MaxAttemptsExceededException;
+import io.strimzi.operator.common.WorkQueue;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
@@ -22,13 +23,14 @@ import org.apache.logging.log4j.Logger;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.disjoint;
@@ -45,7 +47,11 @@ class TopicOperator {
     private final String namespace;
     private TopicStore topicStore;
     private final Config config;
-    private final ConcurrentHashMap<TopicName, Integer> inflight = new ConcurrentHashMap<>();
+    private final WorkQueue<String> kubeEventQueue;
+    /** Created on first use, like the other values read from the config. */
+    private TopicLocks topicLocks;
+    /** The fingerprints of the topics as they were when last successfully reconciled by a periodic reconciliation. */
+    private final ConcurrentHashMap<TopicName, TopicFingerprint> fingerprints = new ConcurrentHashMap<>();
 
     enum EventType {
         INFO("Info"),
@@ -363,69 +369,39 @@ class TopicOperator {
         this.topicStore = topicStore;
         this.namespace = namespace;
         this.config = config;
+        this.kubeEventQueue = new WorkQueue<>(vertx, "kafkatopic-events", WorkQueue.DEFAULT_MAX_CONCURRENCY,
+            () -> new BackOff(1_000, 2, 3));
     }
 
     /**
-     * Run the given {@code action} on the context thread,
-     * immediately if there are currently no other actions with the given {@code key},
-     * or when the other actions with the given {@code key} have completed.
-     * When the given {@code action} is complete it must complete its argument future,
-     * which will complete the returned future
+     * Enqueue the handling of a watch event for the KafkaTopic with the given {@code resourceName},
+     * so that events for a resource which is still being handled are coalesced into a single follow-up
+     * and only a bounded number of events are handled at a time.
+     * @param resourceName The name of the KafkaTopic resource.
+     * @param action Handles the event, completing its argument when done.
+     * @param resultHandler The handler for the outcome.
+     */
+    void enqueueKubeEvent(String resourceName, Handler<Handler<AsyncResult<Void>>> action, Handler<AsyncResult<Void>> resultHandler) {
+        kubeEventQueue.enqueue(resourceName, () -> {
+            Future<Void> result = Future.future();
+            action.handle(result);
+            return result;
+        }).setHandler(resultHandler);
+    }
+
+    private synchronized TopicLocks topicLocks() {
+        if (topicLocks == null) {
+            topicLocks = new TopicLocks(vertx, config.get(Config.MAX_INFLIGHT_RECONCILIATIONS));
+        }
+        return topicLocks;
+    }
+
+    /**
+     * Run the given {@code action} while holding the lock of the topic with the given {@code key}.
+     * @see TopicLocks#executeWithLockHeld(LogContext, TopicName, Handler)
      */
     public <T> Future<T> executeWithTopicLockHeld(LogContext logContext, TopicName key, Handler<Future<T>> action) {
-        String lockName = key.toString();
-        int timeoutMs = 30 * 1_000;
-        Future<T> result = Future.future();
-        BiFunction<TopicName, Integer, Integer> decrement = (topicName, waiters) -> {
-            if (waiters != null) {
-                if (waiters == 1) {
-                    LOGGER.debug("{}: Removing last waiter {}", logContext, action);
-                    return null;
-                } else {
-                    LOGGER.debug("{}: Removing waiter {}, {} waiters left", logContext, action, waiters - 1);
-                    return waiters - 1;
-                }
-            } else {
-                LOGGER.error("{}: Assertion failure. topic {}, action {}", logContext, lockName, action);
-                return null;
-            }
-        };
-        LOGGER.debug("{}: Queuing action {} on topic {}", logContext, action, lockName);
-        inflight.compute(key, (topicName, waiters) -> {
-            if (waiters == null) {
-                LOGGER.debug("{}: Adding first waiter {}", logContext, action);
-                return 1;
-            } else {
-                LOGGER.debug("{}: Adding waiter {}: {}", logContext, action, waiters + 1);
-                return waiters + 1;
-            }
-        });
-        vertx.sharedData().getLockWithTimeout(lockName, timeoutMs, ar -> {
-            if (ar.succeeded()) {
-                LOGGER.debug("{}: Lock acquired", logContext);
-                Future<T> f = Future.future();
-                f.setHandler(ar2 -> {
-                    LOGGER.debug("{}: Executing handler for action {} on topic {}", logContext, action, lockName);
-                    try {
-                        result.handle(ar2);
-                    } finally {
-                        ar.result().release();
-                        LOGGER.debug("{}: Lock released", logContext);
-                        inflight.compute(key, decrement);
-                    }
-                });
-                LOGGER.debug("{}: Executing action {} on topic {}", logContext, action, lockName);
-                action.handle(f);
-            } else {
-                LOGGER.warn("{}: Lock not acquired within {}ms: action {} will not be run", logContext, timeoutMs, action);
-                try {
-                    result.handle(Future.failedFuture("Failed to acquire lock for topic " + lockName + " after " + timeoutMs + "ms. Not executing action " + action));
-                } finally {
-                    inflight.compute(key, decrement);
-                }
-            }
-        });
-        return result;
+        return topicLocks().executeWithLockHeld(logContext, key, action);
     }
 
     /**
@@ -988,8 +964,11 @@ class TopicOperator {
     }
 
     public boolean isWorkInflight() {
-        LOGGER.debug("Outstanding: {}", inflight);
-        return inflight.size() > 0;
+        TopicLocks topicLocks;
+        synchronized (this) {
+            topicLocks = this.topicLocks;
+        }
+        return topicLocks != null && topicLocks.isWorkInflight();
     }
 
     /**
@@ -1008,11 +987,62 @@ class TopicOperator {
     }
 
 
+    /**
+     * Identifies the state of a topic in Kubernetes, in Kafka and in the topic store,
+     * using the resourceVersion of the KafkaTopic and hashes of the Kafka and private topics.
+     * An incremental periodic reconciliation skips the topics whose fingerprint is the same as when they were last
+     * reconciled; a hash collision is corrected by the next full reconciliation.
+     */
+    static class TopicFingerprint {
+        private final String resourceVersion;
+        private final int kafkaHash;
+        private final int privateHash;
+
+        private TopicFingerprint(String resourceVersion, int kafkaHash, int privateHash) {
+            this.resourceVersion = resourceVersion;
+            this.kafkaHash = kafkaHash;
+            this.privateHash = privateHash;
+        }
+
+        /**
+         * @return The fingerprint of the given states of a topic, or null if the topic is missing from any of them.
+         */
+        static TopicFingerprint of(KafkaTopic kafkaTopicResource, Topic kafkaTopic, Topic privateTopic) {
+            if (kafkaTopicResource == null || kafkaTopic == null || privateTopic == null) {
+                return null;
+            }
+            return new TopicFingerprint(kafkaTopicResource.getMetadata().getResourceVersion(), kafkaTopic.hashCode(), privateTopic.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TopicFingerprint that = (TopicFingerprint) o;
+            return kafkaHash == that.kafkaHash
+                    && privateHash == that.privateHash
+                    && Objects.equals(resourceVersion, that.resourceVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourceVersion, kafkaHash, privateHash);
+        }
+
+        @Override
+        public String toString() {
+            return "TopicFingerprint(resourceVersion=" + resourceVersion + ",kafkaHash=" + kafkaHash + ",privateHash=" + privateHash + ")";
+        }
+    }
+
     static class ReconcileState {
         private final Set<TopicName> succeeded;
         private final Set<TopicName> undetermined;
         private final Map<TopicName, Throwable> failed;
         private List<KafkaTopic> ktList;
+        /** The KafkaTopics by name, when listed before reconciling the topics in Kafka by an incremental reconciliation. */
+        private Map<ResourceName, KafkaTopic> ktByName;
+        private int unchanged;
 
         public ReconcileState(Set<TopicName> succeeded, Set<TopicName> undetermined, Map<TopicName, Throwable> failed) {
             this.succeeded = succeeded;
@@ -1026,23 +1056,40 @@ class TopicOperator {
     }
 
     Future<?> reconcileAllTopics(String reconciliationType) {
+        return reconcileAllTopics(reconciliationType, false);
+    }
+
+    /**
+     * Reconcile all the topics in Kafka and all the KafkaTopics.
+     * An {@code incremental} reconciliation lists the KafkaTopics first, and then skips the topics in Kafka
+     * whose {@link TopicFingerprint} is the same as when they were last reconciled.
+     * @param reconciliationType The type of reconciliation, for logging.
+     * @param incremental Whether to skip the topics which haven't changed since they were last reconciled.
+     * @return A future which completes when all the topics have been reconciled.
+     */
+    Future<?> reconcileAllTopics(String reconciliationType, boolean incremental) {
         LOGGER.info("Starting {} reconciliation", reconciliationType);
         Future<Set<String>> listFut = Future.future();
         kafka.listTopics(listFut);
         return listFut.recover(ex -> Future.failedFuture(
                 new OperatorException("Error listing existing topics during " + reconciliationType + " reconciliation", ex)
-        )).compose(topicNamesFromKafka ->
-                // Reconcile the topic found in Kafka
-                reconcileFromKafka(reconciliationType, topicNamesFromKafka.stream().map(TopicName::new).collect(Collectors.toList()))
-
-        ).compose(reconcileState -> {
-            Future<List<KafkaTopic>> ktFut = Future.future();
-            // Find all the topics in kube
-            k8s.listMaps(ktFut);
-            return ktFut.recover(ex -> Future.failedFuture(
-                    new OperatorException("Error listing existing KafkaTopics during " + reconciliationType + " reconciliation", ex)
-            )).map(ktList -> {
+        )).compose(topicNamesFromKafka -> {
+            List<TopicName> topicNames = topicNamesFromKafka.stream().map(TopicName::new).collect(Collectors.toList());
+            // Forget the fingerprints and lock releases of deleted topics
+            Set<TopicName> existing = new HashSet<>(topicNames);
+            fingerprints.keySet().retainAll(existing);
+            topicLocks().retainReleases(existing);
+            Future<List<KafkaTopic>> ktFut = incremental ? listKafkaTopics(reconciliationType) : Future.succeededFuture(null);
+            // Reconcile the topic found in Kafka
+            return ktFut.compose(ktList -> reconcileFromKafka(reconciliationType, topicNames, ktList));
+        }).compose(reconcileState -> {
+            // Find all the topics in kube, unless already found
+            Future<List<KafkaTopic>> ktFut = reconcileState.ktList != null ? Future.succeededFuture(reconcileState.ktList) : listKafkaTopics(reconciliationType);
+            return ktFut.map(ktList -> {
                 reconcileState.addKafkaTopics(ktList);
+                if (incremental) {
+                    LOGGER.info("{} reconciliation skipped {} unchanged topics", reconciliationType, reconcileState.unchanged);
+                }
                 return reconcileState;
             });
         }).compose(reconcileState -> {
@@ -1097,10 +1144,21 @@ class TopicOperator {
     }
 
 
+    private Future<List<KafkaTopic>> listKafkaTopics(String reconciliationType) {
+        Future<List<KafkaTopic>> ktFut = Future.future();
+        k8s.listMaps(ktFut);
+        return ktFut.recover(ex -> Future.failedFuture(
+                new OperatorException("Error listing existing KafkaTopics during " + reconciliationType + " reconciliation", ex)
+        ));
+    }
+
     /**
      * Reconcile all the topics in {@code foundFromKafka}, returning a ReconciliationState.
+     * The topics are reconciled in batches of {@link Config#TOPIC_METADATA_BATCH_SIZE},
+     * with the Kafka metadata for each batch being fetched using a single request.
+     * If the KafkaTopics are given, the topics which haven't changed since they were last reconciled are skipped.
      */
-    private Future<ReconcileState> reconcileFromKafka(String reconciliationType, List<TopicName> topicsFromKafka) {
+    private Future<ReconcileState> reconcileFromKafka(String reconciliationType, List<TopicName> topicsFromKafka, List<KafkaTopic> ktList) {
         Set<TopicName> succeeded = new HashSet<>();
         Set<TopicName> undetermined = new HashSet<>();
         Map<TopicName, Throwable> failed = new HashMap<>();
@@ -1108,29 +1166,80 @@ class TopicOperator {
         LOGGER.debug("Reconciling kafka topics {}", topicsFromKafka);
 
         final ReconcileState state = new ReconcileState(succeeded, undetermined, failed);
+        if (ktList != null) {
+            state.addKafkaTopics(ktList);
+            state.ktByName = new HashMap<>(ktList.size());
+            for (KafkaTopic kt : ktList) {
+                state.ktByName.put(new ResourceName(kt), kt);
+            }
+        }
         if (topicsFromKafka.size() > 0) {
+            int batchSize = config.get(Config.TOPIC_METADATA_BATCH_SIZE);
             List<Future<Void>> futures = new ArrayList<>();
-            for (TopicName topicName : topicsFromKafka) {
+            Future<Void> batches = Future.succeededFuture();
+            for (int i = 0; i < topicsFromKafka.size(); i += batchSize) {
+                List<TopicName> batch = topicsFromKafka.subList(i, Math.min(i + batchSize, topicsFromKafka.size()));
+                batches = batches.compose(ignored -> reconcileBatchFromKafka(reconciliationType, batch, state, futures));
+            }
+            return batches.compose(ignored -> join(futures)).map(state);
+        } else {
+            return Future.succeededFuture(state);
+        }
+    }
+
+    /**
+     * Reconcile the given batch of topics in Kafka, adding the future for each topic's reconciliation to the
+     * given {@code futures}.
+     * The metadata of the batch is fetched before the topic locks are taken, so the metadata of a topic whose lock
+     * has been released since then is discarded, and fetched again with the lock held.
+     * @return A future which completes (successfully) once the reconciliation of every topic in the batch
+     * has completed, whether successfully or not.
+     */
+    private Future<Void> reconcileBatchFromKafka(String reconciliationType, List<TopicName> batch,
+                                                 ReconcileState state, List<Future<Void>> futures) {
+        long fetchedAfter = topicLocks().releases();
+        Future<Map<TopicName, TopicMetadata>> metadataFuture = Future.future();
+        kafka.topicMetadata(batch, metadataFuture);
+        return metadataFuture.otherwise(error -> {
+            LOGGER.warn("Error getting metadata for a batch of {} topics during {} reconciliation, " +
+                    "will get metadata for each topic individually", batch.size(), reconciliationType, error);
+            return Collections.emptyMap();
+        }).compose(batchMetadata -> {
+            List<Future<Void>> batchFutures = new ArrayList<>(batch.size());
+            for (TopicName topicName : batch) {
                 LogContext logContext = LogContext.periodic(reconciliationType + "kafka " + topicName);
-                futures.add(executeWithTopicLockHeld(logContext, topicName, new Reconciliation("reconcile-from-kafka") {
+                batchFutures.add(executeWithTopicLockHeld(logContext, topicName, new Reconciliation("reconcile-from-kafka") {
                     @Override
                     public void handle(Future<Void> fut) {
+                        Map<TopicName, TopicMetadata> metadata;
+                        if (topicLocks().releasedSince(topicName, fetchedAfter)) {
+                            LOGGER.debug("{}: Topic {} was reconciled since its metadata was fetched, fetching it again",
+                                    logContext, topicName);
+                            metadata = Collections.emptyMap();
+                        } else {
+                            metadata = batchMetadata;
+                        }
                         getFromTopicStore(topicName).recover(error -> {
-                            failed.put(topicName,
+                            state.failed.put(topicName,
                                     new OperatorException("Error getting KafkaTopic " + topicName + " during "
                                             + reconciliationType + " reconciliation", error));
                             return Future.succeededFuture();
                         }).compose(topic -> {
                             if (topic == null) {
-                                undetermined.add(topicName);
+                                state.undetermined.add(topicName);
+                                return Future.succeededFuture();
+                            } else if (isUnchanged(topicName, topic, state, metadata)) {
+                                LOGGER.debug("{}: Topic {} is unchanged since it was last reconciled", logContext, topicName);
+                                state.unchanged++;
+                                state.succeeded.add(topicName);
                                 return Future.succeededFuture();
                             } else {
                                 LOGGER.debug("{}: Have private topic for topic {} in Kafka", logContext, topicName);
-                                return reconcileWithPrivateTopic(logContext, topicName, topic).otherwise(error -> {
-                                    failed.put(topicName, error);
+                                return reconcileWithPrivateTopic(logContext, topicName, topic, metadata).otherwise(error -> {
+                                    state.failed.put(topicName, error);
                                     return null;
                                 }).map(ignored -> {
-                                    succeeded.add(topicName);
+                                    state.succeeded.add(topicName);
                                     return null;
                                 });
                             }
@@ -1141,12 +1250,29 @@ class TopicOperator {
                     }
                 }));
             }
-            return join(futures).map(state);
-        } else {
-            return Future.succeededFuture(state);
-        }
-
+            futures.addAll(batchFutures);
+            Future<Void> batchDone = Future.future();
+            join(batchFutures).setHandler(ignored -> batchDone.complete());
+            return batchDone;
+        });
+    }
 
+    /**
+     * Returns whether the fingerprint of the given topic, from the KafkaTopics listed by an incremental reconciliation
+     * and the given metadata, is the same as when the topic was last reconciled.
+     */
+    private boolean isUnchanged(TopicName topicName, Topic privateTopic, ReconcileState state, Map<TopicName, TopicMetadata> metadata) {
+        TopicFingerprint last = fingerprints.get(topicName);
+        if (state.ktByName == null || last == null || !metadata.containsKey(topicName)) {
+            return false;
+        }
+        try {
+            return last.equals(TopicFingerprint.of(state.ktByName.get(privateTopic.getResourceName()),
+                    TopicSerialization.fromTopicMetadata(metadata.get(topicName)), privateTopic));
+        } catch (RuntimeException e) {
+            // Let the reconciliation report the problem
+            return false;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -1158,12 +1284,13 @@ class TopicOperator {
     /**
      * Reconcile the given topic which has the given {@code privateTopic} in the topic store.
      */
-    private Future<Void> reconcileWithPrivateTopic(LogContext logContext, TopicName topicName, Topic privateTopic) {
+    private Future<Void> reconcileWithPrivateTopic(LogContext logContext, TopicName topicName, Topic privateTopic,
+                                                   Map<TopicName, TopicMetadata> prefetchedMetadata) {
         Future<KafkaTopic> kubeFuture = Future.future();
         k8s.getFromName(privateTopic.getResourceName(), kubeFuture);
         return kubeFuture
             .compose(kafkaTopicResource -> {
-                return getKafkaAndReconcile(logContext, topicName, privateTopic, kafkaTopicResource);
+                return getKafkaAndReconcile(logContext, topicName, privateTopic, kafkaTopicResource, prefetchedMetadata);
             })
             .recover(error -> {
                 LOGGER.error("{}: Error getting KafkaTopic {} for topic {}",
@@ -1174,20 +1301,36 @@ class TopicOperator {
     }
 
     private Future<Void> getKafkaAndReconcile(LogContext logContext, TopicName topicName, Topic privateTopic, KafkaTopic kafkaTopicResource) {
+        return getKafkaAndReconcile(logContext, topicName, privateTopic, kafkaTopicResource, null);
+    }
+
+    /**
+     * Get the topic metadata from Kafka, or from the given {@code prefetchedMetadata} if it contains the topic,
+     * and reconcile.
+     */
+    private Future<Void> getKafkaAndReconcile(LogContext logContext, TopicName topicName, Topic privateTopic, KafkaTopic kafkaTopicResource,
+                                              Map<TopicName, TopicMetadata> prefetchedMetadata) {
         logContext.withKubeTopic(kafkaTopicResource);
         Future<Void> topicFuture = Future.future();
         try {
             Topic k8sTopic = kafkaTopicResource != null ? TopicSerialization.fromTopicResource(kafkaTopicResource) : null;
-            kafka.topicMetadata(topicName, metadataResult -> {
+            Handler<AsyncResult<TopicMetadata>> metadataHandler = metadataResult -> {
                 if (metadataResult.succeeded()) {
                     TopicMetadata kafkaTopicMeta = metadataResult.result();
                     Topic topicFromKafka = TopicSerialization.fromTopicMetadata(kafkaTopicMeta);
                     reconcile(logContext, kafkaTopicResource, k8sTopic, topicFromKafka, privateTopic, reconcileResult -> {
                         if (reconcileResult.succeeded()) {
                             LOGGER.info("Success reconciling KafkaTopic {}", logTopic(kafkaTopicResource));
+                            TopicFingerprint fingerprint = TopicFingerprint.of(kafkaTopicResource, topicFromKafka, privateTopic);
+                            if (fingerprint != null) {
+                                fingerprints.put(topicName, fingerprint);
+                            } else {
+                                fingerprints.remove(topicName);
+                            }
                             topicFuture.complete();
                         } else {
                             LOGGER.error("Error reconciling KafkaTopic {}", logTopic(kafkaTopicResource), reconcileResult.cause());
+                            fingerprints.remove(topicName);
                             topicFuture.fail(reconcileResult.cause());
                         }
                     });
@@ -1195,7 +1338,12 @@ class TopicOperator {
                     LOGGER.error("Error reconciling KafkaTopic {}", logTopic(kafkaTopicResource), metadataResult.cause());
                     topicFuture.fail(metadataResult.cause());
                 }
-            });
+            };
+            if (prefetchedMetadata != null && prefetchedMetadata.containsKey(topicName)) {
+                metadataHandler.handle(Future.succeededFuture(prefetchedMetadata.get(topicName)));
+            } else {
+                kafka.topicMetadata(topicName, metadataHandler);
+            }
         } catch (InvalidTopicException e) {
             LOGGER.error("Error reconciling KafkaTopic {}: Invalid resource: ", logTopic(kafkaTopicResource), e.getMessage());
             topicFuture.fail(e);
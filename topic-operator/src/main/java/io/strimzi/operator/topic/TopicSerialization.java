@@ -41,6 +41,9 @@ class TopicSerialization {
     public static final String JSON_KEY_REPLICAS = "replicas";
     public static final String JSON_KEY_CONFIG = "config";
 
+    /** ObjectMapper is thread-safe once configured, so share a single instance. */
+    private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+
     @SuppressWarnings("unchecked")
     private static Map<String, String> topicConfigFromTopicConfig(KafkaTopic kafkaTopic) {
         if (kafkaTopic.getSpec().getConfig() != null) {
@@ -282,6 +285,10 @@ class TopicSerialization {
     }
 
     private static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    private static ObjectMapper createObjectMapper() {
         JsonFactory jf = new JsonFactory();
         jf.configure(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION, false);
         return new ObjectMapper(jf);
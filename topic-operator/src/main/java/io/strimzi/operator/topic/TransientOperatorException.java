@@ -31,4 +31,8 @@ public class TransientOperatorException extends OperatorException {
     public TransientOperatorException(String message) {
         super(message);
     }
+
+    public TransientOperatorException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
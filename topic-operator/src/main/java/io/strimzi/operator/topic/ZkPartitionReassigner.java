@@ -0,0 +1,570 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.strimzi.operator.topic.zk.AclBuilder;
+import io.strimzi.operator.topic.zk.Zk;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.I0Itec.zkclient.exception.ZkBadVersionException;
+import org.I0Itec.zkclient.exception.ZkNoNodeException;
+import org.I0Itec.zkclient.exception.ZkNodeExistsException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.data.Stat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reassigns the partitions of topics by writing the {@code /admin/reassign_partitions} znode which the Kafka
+ * controller acts upon, rather than by running {@code kafka-reassign-partitions.sh} in a subprocess.
+ * <ul>
+ *     <li>Reassignments requested while another reassignment is in progress are batched,
+ *     and submitted together once the znode has been deleted.</li>
+ *     <li>Progress is followed by watching the znode, which the controller updates as partitions complete
+ *     and deletes once they all have.</li>
+ *     <li>When a {@link Config#REASSIGN_THROTTLE} is configured, the replication throttles of the topics and brokers
+ *     involved are set before the reassignment is submitted, and removed once it completes.</li>
+ * </ul>
+ */
+class ZkPartitionReassigner {
+
+    private final static Logger LOGGER = LogManager.getLogger(ZkPartitionReassigner.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String ADMIN_ZNODE = "/admin";
+    static final String REASSIGN_PARTITIONS = "reassign_partitions";
+    static final String REASSIGN_PARTITIONS_ZNODE = ADMIN_ZNODE + "/" + REASSIGN_PARTITIONS;
+    private static final String CONFIG_ZNODE = "/config";
+    private static final String TOPICS_ENTITY_TYPE = "topics";
+    private static final String BROKERS_ENTITY_TYPE = "brokers";
+
+    static final String LEADER_THROTTLED_REPLICAS = "leader.replication.throttled.replicas";
+    static final String FOLLOWER_THROTTLED_REPLICAS = "follower.replication.throttled.replicas";
+    static final String LEADER_THROTTLED_RATE = "leader.replication.throttled.rate";
+    static final String FOLLOWER_THROTTLED_RATE = "follower.replication.throttled.rate";
+
+    private final Vertx vertx;
+    private final Zk zk;
+    /** The replication throttle, in bytes per second, or null if reassignments are not throttled. */
+    private final Long throttle;
+
+    // The following fields are guarded by this
+    /** The reassignments waiting to be submitted, by topic. */
+    private final Map<TopicName, Reassignment> pending = new LinkedHashMap<>();
+    /** The reassignments which have been submitted and have not yet completed, by topic. */
+    private final Map<TopicName, Reassignment> inProgress = new HashMap<>();
+    /** The brokers whose replication throttle rates have been set. */
+    private final Set<Integer> throttledBrokers = new HashSet<>();
+    /** Whether a batch of reassignments is being submitted. */
+    private boolean submitting;
+    /** Whether the watches have been set up, or are being set up. */
+    private boolean started;
+    /** Whether the watches have been set up. */
+    private boolean watching;
+    /** The handlers waiting for the watches to be set up. */
+    private final List<Handler<AsyncResult<Void>>> startHandlers = new ArrayList<>();
+
+    private volatile boolean stopped;
+
+    /**
+     * The reassignment of the partitions of a topic.
+     */
+    static class Reassignment {
+        final TopicName topicName;
+        /** The replicas of the partitions which are moved, before the reassignment. */
+        final Map<Integer, List<Integer>> current = new TreeMap<>();
+        /** The replicas of the partitions which are moved, after the reassignment. */
+        final Map<Integer, List<Integer>> proposed = new TreeMap<>();
+        private final Context context;
+        private final Future<Void> future = Future.future();
+
+        Reassignment(TopicName topicName, Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed, Context context) {
+            this.topicName = topicName;
+            this.context = context;
+            for (Map.Entry<Integer, List<Integer>> entry : proposed.entrySet()) {
+                List<Integer> replicas = current.get(entry.getKey());
+                if (!entry.getValue().equals(replicas)) {
+                    this.current.put(entry.getKey(), replicas);
+                    this.proposed.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        /** Complete the reassignment's future on the context of the caller of {@link #reassign(TopicName, Map, Map)}. */
+        void complete(AsyncResult<Void> result) {
+            context.runOnContext(ignored -> future.handle(result));
+        }
+
+        Set<Integer> brokers() {
+            Set<Integer> brokers = new HashSet<>();
+            current.values().forEach(brokers::addAll);
+            proposed.values().forEach(brokers::addAll);
+            return brokers;
+        }
+
+        /** The replicas which are throttled as leaders: the current replicas of the moved partitions. */
+        String leaderThrottledReplicas() {
+            return throttledReplicas(current, null);
+        }
+
+        /** The replicas which are throttled as followers: the new replicas of the moved partitions. */
+        String followerThrottledReplicas() {
+            return throttledReplicas(proposed, current);
+        }
+
+        private static String throttledReplicas(Map<Integer, List<Integer>> replicas, Map<Integer, List<Integer>> excluded) {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<Integer, List<Integer>> entry : replicas.entrySet()) {
+                for (Integer broker : entry.getValue()) {
+                    if (excluded == null || !excluded.get(entry.getKey()).contains(broker)) {
+                        if (sb.length() > 0) {
+                            sb.append(',');
+                        }
+                        sb.append(entry.getKey()).append(':').append(broker);
+                    }
+                }
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return "Reassignment(topicName=" + topicName + ",current=" + current + ",proposed=" + proposed + ")";
+        }
+    }
+
+    ZkPartitionReassigner(Vertx vertx, Zk zk, Config config) {
+        this.vertx = vertx;
+        this.zk = zk;
+        Long throttle = config.get(Config.REASSIGN_THROTTLE);
+        this.throttle = throttle == null || throttle == Long.MAX_VALUE ? null : throttle;
+    }
+
+    /**
+     * Reassign the replicas of the partitions of the given topic from {@code current} to {@code proposed}.
+     * @param topicName The topic.
+     * @param current The current replicas of each partition.
+     * @param proposed The proposed replicas of each partition.
+     * @return A future which completes, on the context of the caller, once the reassignment has completed.
+     */
+    Future<Void> reassign(TopicName topicName, Map<Integer, List<Integer>> current, Map<Integer, List<Integer>> proposed) {
+        Reassignment reassignment = new Reassignment(topicName, current, proposed, vertx.getOrCreateContext());
+        if (reassignment.proposed.isEmpty()) {
+            LOGGER.debug("No partitions of topic {} need to be reassigned", topicName);
+            return Future.succeededFuture();
+        }
+        LOGGER.debug("Queueing {}", reassignment);
+        Reassignment superseded;
+        synchronized (this) {
+            superseded = pending.put(topicName, reassignment);
+        }
+        if (superseded != null) {
+            superseded.complete(Future.failedFuture(new TransientOperatorException("Reassignment of topic " + topicName + " superseded by a later reassignment")));
+        }
+        start(startResult -> {
+            if (startResult.succeeded()) {
+                trySubmit();
+            } else {
+                synchronized (this) {
+                    pending.remove(topicName, reassignment);
+                }
+                reassignment.complete(startResult);
+            }
+        });
+        return reassignment.future;
+    }
+
+    /**
+     * Stop following the reassignments in progress.
+     */
+    void stop() {
+        stopped = true;
+        synchronized (this) {
+            if (started) {
+                zk.unwatchChildren(ADMIN_ZNODE);
+                zk.unwatchData(REASSIGN_PARTITIONS_ZNODE);
+            }
+        }
+    }
+
+    /**
+     * Set up the watches, unless they already have been, calling the given handler once they have.
+     * Each caller gets its own handler: a {@link Future} holds a single handler, so callers can't share one.
+     */
+    private void start(Handler<AsyncResult<Void>> handler) {
+        synchronized (this) {
+            if (!watching) {
+                startHandlers.add(handler);
+                if (!started) {
+                    started = true;
+                    zk.watchChildren(ADMIN_ZNODE, this::onAdminChildren)
+                        .compose(zk2 -> zk.watchData(REASSIGN_PARTITIONS_ZNODE, this::onReassignmentData))
+                        .<Void>map(zk2 -> null)
+                        .setHandler(this::started);
+                }
+                return;
+            }
+        }
+        handler.handle(Future.succeededFuture());
+    }
+
+    private void started(AsyncResult<Void> ar) {
+        List<Handler<AsyncResult<Void>>> handlers;
+        synchronized (this) {
+            if (ar.failed()) {
+                LOGGER.error("Error watching znode {}", REASSIGN_PARTITIONS_ZNODE, ar.cause());
+                started = false;
+            } else {
+                watching = true;
+            }
+            handlers = new ArrayList<>(startHandlers);
+            startHandlers.clear();
+        }
+        handlers.forEach(h -> h.handle(ar));
+    }
+
+    /**
+     * Submit the pending reassignments as a single reassignment, unless a reassignment is already in progress,
+     * adjusting the throttled brokers to the ones involved in the new reassignment.
+     */
+    private void trySubmit() {
+        List<Reassignment> batch;
+        Set<Integer> unthrottle;
+        synchronized (this) {
+            if (stopped || submitting || !inProgress.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            Set<Integer> brokers = brokers(batch);
+            unthrottle = new HashSet<>(throttledBrokers);
+            unthrottle.removeAll(brokers);
+            if (batch.isEmpty() && unthrottle.isEmpty()) {
+                return;
+            }
+            throttledBrokers.removeAll(unthrottle);
+            submitting = true;
+        }
+        Future<Void> unthrottled = setBrokerThrottles(unthrottle, null).recover(error -> {
+            LOGGER.error("Error removing the replication throttles of brokers {}", unthrottle, error);
+            return Future.succeededFuture();
+        });
+        if (batch.isEmpty()) {
+            unthrottled.setHandler(ar -> {
+                synchronized (this) {
+                    submitting = false;
+                }
+                trySubmit();
+            });
+        } else {
+            unthrottled.setHandler(ignored -> submit(batch));
+        }
+    }
+
+    private void submit(List<Reassignment> batch) {
+        List<TopicName> topicNames = batch.stream().map(r -> r.topicName).collect(Collectors.toList());
+        Future<Void> throttled;
+        if (throttle != null) {
+            Set<Integer> brokers = brokers(batch);
+            synchronized (this) {
+                throttledBrokers.addAll(brokers);
+            }
+            List<Future> futures = new ArrayList<>(batch.size() + 1);
+            futures.add(setBrokerThrottles(brokers, throttle));
+            for (Reassignment reassignment : batch) {
+                futures.add(setTopicThrottles(reassignment, true));
+            }
+            throttled = CompositeFuture.all(futures).map((Void) null);
+        } else {
+            throttled = Future.succeededFuture();
+        }
+        Future<Void> created = throttled.compose(ignored -> {
+            Future<Void> result = Future.future();
+            LOGGER.debug("Creating znode {} for the reassignment of topics {}", REASSIGN_PARTITIONS_ZNODE, topicNames);
+            zk.create(REASSIGN_PARTITIONS_ZNODE, reassignmentJson(batch), AclBuilder.PUBLIC, CreateMode.PERSISTENT, result);
+            return result;
+        });
+        created.setHandler(ar -> {
+            if (ar.succeeded()) {
+                LOGGER.info("Started the reassignment of topics {}", topicNames);
+                synchronized (this) {
+                    for (Reassignment reassignment : batch) {
+                        inProgress.put(reassignment.topicName, reassignment);
+                    }
+                    submitting = false;
+                }
+                // Check whether the reassignment has already progressed
+                zk.getData(REASSIGN_PARTITIONS_ZNODE, this::onReassignmentData);
+                zk.children(ADMIN_ZNODE, this::onAdminChildren);
+            } else if (ar.cause() instanceof ZkNodeExistsException) {
+                LOGGER.info("Another reassignment is in progress, the reassignment of topics {} will be started once it completes", topicNames);
+                List<Reassignment> superseded = new ArrayList<>();
+                synchronized (this) {
+                    Map<TopicName, Reassignment> later = new LinkedHashMap<>(pending);
+                    pending.clear();
+                    for (Reassignment reassignment : batch) {
+                        if (later.containsKey(reassignment.topicName)) {
+                            superseded.add(reassignment);
+                        } else {
+                            pending.put(reassignment.topicName, reassignment);
+                        }
+                    }
+                    pending.putAll(later);
+                    submitting = false;
+                }
+                for (Reassignment reassignment : superseded) {
+                    reassignment.complete(Future.failedFuture(new TransientOperatorException("Reassignment of topic " + reassignment.topicName + " superseded by a later reassignment")));
+                }
+                // Check whether the other reassignment has already completed
+                zk.children(ADMIN_ZNODE, this::onAdminChildren);
+            } else {
+                LOGGER.error("Error starting the reassignment of topics {}", topicNames, ar.cause());
+                synchronized (this) {
+                    submitting = false;
+                }
+                for (Reassignment reassignment : batch) {
+                    removeTopicThrottles(reassignment).setHandler(ignored ->
+                            reassignment.complete(Future.failedFuture(new TransientOperatorException("Reassignment of topic " + reassignment.topicName + " failed", ar.cause()))));
+                }
+                trySubmit();
+            }
+        });
+    }
+
+    /**
+     * Called when the children of {@code /admin} change.
+     * The absence of {@code reassign_partitions} means all the reassignments in progress have completed.
+     */
+    private void onAdminChildren(AsyncResult<List<String>> childrenResult) {
+        if (stopped) {
+            return;
+        }
+        if (childrenResult.failed()) {
+            LOGGER.error("Error on znode {} children", ADMIN_ZNODE, childrenResult.cause());
+            return;
+        }
+        List<String> children = childrenResult.result();
+        if (children != null && !children.contains(REASSIGN_PARTITIONS)) {
+            List<Reassignment> completed;
+            synchronized (this) {
+                completed = new ArrayList<>(inProgress.values());
+                inProgress.clear();
+            }
+            completed(completed);
+            trySubmit();
+        }
+    }
+
+    /**
+     * Called when the data of {@code /admin/reassign_partitions} changes.
+     * The reassignment of a topic has completed once none of its partitions are listed.
+     */
+    private void onReassignmentData(AsyncResult<byte[]> dataResult) {
+        if (stopped) {
+            return;
+        }
+        if (dataResult.failed()) {
+            if (!(dataResult.cause() instanceof ZkNoNodeException)) {
+                LOGGER.error("Error on znode {} data", REASSIGN_PARTITIONS_ZNODE, dataResult.cause());
+            }
+            return;
+        }
+        Set<String> listed = new HashSet<>();
+        try {
+            byte[] data = dataResult.result();
+            if (data == null) {
+                return;
+            }
+            for (JsonNode partition : MAPPER.readTree(data).path("partitions")) {
+                listed.add(partition.path("topic").asText());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error parsing znode {} data", REASSIGN_PARTITIONS_ZNODE, e);
+            return;
+        }
+        List<Reassignment> completed = new ArrayList<>();
+        synchronized (this) {
+            inProgress.values().removeIf(reassignment -> {
+                if (!listed.contains(reassignment.topicName.toString())) {
+                    completed.add(reassignment);
+                    return true;
+                }
+                return false;
+            });
+        }
+        completed(completed);
+    }
+
+    private void completed(List<Reassignment> completed) {
+        for (Reassignment reassignment : completed) {
+            LOGGER.info("Reassignment of topic {} complete", reassignment.topicName);
+            removeTopicThrottles(reassignment).setHandler(ignored -> reassignment.complete(Future.succeededFuture()));
+        }
+    }
+
+    private static Set<Integer> brokers(List<Reassignment> batch) {
+        Set<Integer> brokers = new HashSet<>();
+        for (Reassignment reassignment : batch) {
+            brokers.addAll(reassignment.brokers());
+        }
+        return brokers;
+    }
+
+    static byte[] reassignmentJson(List<Reassignment> batch) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("version", 1);
+        ArrayNode partitions = root.putArray("partitions");
+        for (Reassignment reassignment : batch) {
+            for (Map.Entry<Integer, List<Integer>> entry : reassignment.proposed.entrySet()) {
+                ObjectNode partition = partitions.addObject();
+                partition.put("topic", reassignment.topicName.toString());
+                partition.put("partition", entry.getKey());
+                ArrayNode replicas = partition.putArray("replicas");
+                entry.getValue().forEach(replicas::add);
+            }
+        }
+        try {
+            return MAPPER.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Future<Void> setTopicThrottles(Reassignment reassignment, boolean throttled) {
+        Map<String, String> config = new HashMap<>(2);
+        config.put(LEADER_THROTTLED_REPLICAS, throttled ? reassignment.leaderThrottledReplicas() : null);
+        config.put(FOLLOWER_THROTTLED_REPLICAS, throttled ? reassignment.followerThrottledReplicas() : null);
+        return changeEntityConfig(TOPICS_ENTITY_TYPE, reassignment.topicName.toString(), config);
+    }
+
+    private Future<Void> removeTopicThrottles(Reassignment reassignment) {
+        if (throttle == null) {
+            return Future.succeededFuture();
+        }
+        return setTopicThrottles(reassignment, false).recover(error -> {
+            LOGGER.error("Error removing the replication throttles of topic {}", reassignment.topicName, error);
+            return Future.succeededFuture();
+        });
+    }
+
+    /**
+     * Set the replication throttle rates of the given brokers to the given {@code rate}, or remove them if it is null.
+     */
+    private Future<Void> setBrokerThrottles(Set<Integer> brokers, Long rate) {
+        List<Future> futures = new ArrayList<>(brokers.size());
+        for (Integer broker : brokers) {
+            Map<String, String> config = new HashMap<>(2);
+            config.put(LEADER_THROTTLED_RATE, rate != null ? rate.toString() : null);
+            config.put(FOLLOWER_THROTTLED_RATE, rate != null ? rate.toString() : null);
+            futures.add(changeEntityConfig(BROKERS_ENTITY_TYPE, broker.toString(), config));
+        }
+        return CompositeFuture.all(futures).map((Void) null);
+    }
+
+    /**
+     * Change the given configs of the given entity in its {@code /config/<entityType>/<entityName>} znode,
+     * removing those whose value is null, and notify the brokers of the change,
+     * in the same way as the Kafka tools do.
+     * The znode is only written if it has not changed since it was read, otherwise the change is retried,
+     * so that concurrent changes to other configs of the entity (e.g. by the Kafka tools) are not lost.
+     */
+    private Future<Void> changeEntityConfig(String entityType, String entityName, Map<String, String> config) {
+        String path = CONFIG_ZNODE + "/" + entityType + "/" + entityName;
+        Stat stat = new Stat();
+        Future<byte[]> dataFuture = Future.future();
+        zk.getData(path, stat, dataFuture);
+        return dataFuture.recover(error -> {
+            if (error instanceof ZkNoNodeException) {
+                return Future.succeededFuture();
+            } else {
+                return Future.failedFuture(error);
+            }
+        }).compose(data -> {
+            ObjectNode root;
+            byte[] newData;
+            try {
+                if (data != null) {
+                    root = (ObjectNode) MAPPER.readTree(data);
+                } else {
+                    root = MAPPER.createObjectNode();
+                    root.put("version", 1);
+                }
+                ObjectNode configs = root.with("config");
+                boolean changed = false;
+                for (Map.Entry<String, String> entry : config.entrySet()) {
+                    if (entry.getValue() == null) {
+                        changed |= configs.remove(entry.getKey()) != null;
+                    } else if (!entry.getValue().equals(configs.path(entry.getKey()).asText(null))) {
+                        configs.put(entry.getKey(), entry.getValue());
+                        changed = true;
+                    }
+                }
+                if (!changed) {
+                    return Future.succeededFuture();
+                }
+                newData = MAPPER.writeValueAsBytes(root);
+            } catch (IOException | ClassCastException e) {
+                return Future.failedFuture(new OperatorException("Error parsing znode " + path, e));
+            }
+            LOGGER.debug("Changing configs {} of {} {}", config, entityType, entityName);
+            Future<Void> written = Future.future();
+            if (data != null) {
+                zk.setData(path, newData, stat.getVersion(), written);
+            } else {
+                zk.create(path, newData, AclBuilder.PUBLIC, CreateMode.PERSISTENT, written);
+            }
+            Future<Void> result = Future.future();
+            written.setHandler(ar -> {
+                if (ar.succeeded()) {
+                    notifyConfigChange(entityType, entityName).setHandler(result);
+                } else if (ar.cause() instanceof ZkBadVersionException
+                        || ar.cause() instanceof ZkNodeExistsException) {
+                    LOGGER.debug("Znode {} was changed concurrently, retrying the change of configs {}", path, config);
+                    changeEntityConfig(entityType, entityName, config).setHandler(result);
+                } else {
+                    result.fail(ar.cause());
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * Notify the brokers that the configs of the given entity have changed.
+     */
+    private Future<Void> notifyConfigChange(String entityType, String entityName) {
+        ObjectNode notification = MAPPER.createObjectNode();
+        notification.put("version", 2);
+        notification.put("entity_path", entityType + "/" + entityName);
+        Future<Void> notified = Future.future();
+        try {
+            zk.create(TopicConfigsWatcher.CONFIG_CHANGES_ZNODE + "/" + TopicConfigsWatcher.CONFIG_CHANGE_PREFIX,
+                    MAPPER.writeValueAsBytes(notification), AclBuilder.PUBLIC, CreateMode.PERSISTENT_SEQUENTIAL, notified);
+        } catch (IOException e) {
+            notified.fail(e);
+        }
+        return notified;
+    }
+}
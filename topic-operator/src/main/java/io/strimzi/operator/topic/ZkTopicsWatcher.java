@@ -36,8 +36,8 @@ class ZkTopicsWatcher {
      * Constructor
      *
      * @param topicOperator    Operator instance
-     * @param tcw   watcher for the topics config changes
-     * @param tw    watcher for the topics partitions changes
+     * @param tcw   watcher for the topics config changes (a single watcher for all topics)
+     * @param tw    watcher for the topics partitions changes (per topic)
      */
     ZkTopicsWatcher(TopicOperator topicOperator, TopicConfigsWatcher tcw, ZkTopicWatcher tw) {
         this.topicOperator = topicOperator;
@@ -79,7 +79,6 @@ class ZkTopicsWatcher {
             if (!deleted.isEmpty()) {
                 LOGGER.info("Deleted topics: {}", deleted);
                 for (String topicName : deleted) {
-                    tcw.removeChild(topicName);
                     tw.removeChild(topicName);
                     LogContext logContext = LogContext.zkWatch(TOPICS_ZNODE, "-" + topicName);
                     topicOperator.onTopicDeleted(logContext, new TopicName(topicName), ar -> {
@@ -95,7 +94,6 @@ class ZkTopicsWatcher {
             if (!created.isEmpty()) {
                 LOGGER.info("Created topics: {}", created);
                 for (String topicName : created) {
-                    tcw.addChild(topicName);
                     tw.addChild(topicName);
                     LogContext logContext = LogContext.zkWatch(TOPICS_ZNODE, "+" + topicName);
                     topicOperator.onTopicCreated(logContext, new TopicName(topicName), ar -> {
@@ -0,0 +1,493 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic.zk;
+
+import io.strimzi.operator.common.BackOff;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.I0Itec.zkclient.exception.ZkException;
+import org.I0Itec.zkclient.exception.ZkTimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of {@link Zk} using the asynchronous API of the ZooKeeper client.
+ * Unlike {@link ZkImpl}, which makes synchronous {@code ZkClient} calls on a small worker pool,
+ * requests are sent without blocking any thread, so many requests can be in flight on the connection at once,
+ * and their handlers are called on the Vert.x context of the caller.
+ * Failures are reported with the same {@link ZkException} subclasses as {@link ZkImpl}, e.g.
+ * {@link org.I0Itec.zkclient.exception.ZkNoNodeException}.
+ * Like {@code ZkClient}, a new session is established when the session expires,
+ * and the children and data watchers are then reset and called with the current state.
+ */
+public class AsyncZkImpl implements Zk {
+
+    private final static Logger LOGGER = LogManager.getLogger(AsyncZkImpl.class);
+
+    /**
+     * The number of attempts to re-arm a watch whose request failed with a {@linkplain #isRetryable(KeeperException.Code)
+     * retryable} code before the failure is passed to the watcher's handler: about 25s,
+     * by which time the session will have expired if the connection hasn't been re-established.
+     */
+    private static final int WATCH_MAX_ATTEMPTS = 8;
+
+    private final Vertx vertx;
+    private final String zkConnectionString;
+    private final int sessionTimeout;
+    private volatile ZooKeeper zookeeper;
+    private volatile boolean closed = false;
+
+    private final ConcurrentHashMap<String, DataWatcher> dataWatches = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ChildWatcher> childWatches = new ConcurrentHashMap<>();
+
+    /**
+     * Connects to ZooKeeper, waiting for the connection to be established.
+     * @param vertx The Vertx instance.
+     * @param zkConnectionString The ZooKeeper connection string.
+     * @param sessionTimeout The session timeout, in milliseconds.
+     * @param connectionTimeout The maximum time to wait for the connection, in milliseconds.
+     */
+    public AsyncZkImpl(Vertx vertx, String zkConnectionString, int sessionTimeout, int connectionTimeout) {
+        this.vertx = vertx;
+        this.zkConnectionString = zkConnectionString;
+        this.sessionTimeout = sessionTimeout;
+        CountDownLatch connected = new CountDownLatch(1);
+        this.zookeeper = connect(connected);
+        try {
+            if (!connected.await(connectionTimeout, TimeUnit.MILLISECONDS)) {
+                closeQuietly(zookeeper);
+                throw new ZkTimeoutException("Unable to connect to zookeeper server '" + zkConnectionString + "' within timeout: " + connectionTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeQuietly(zookeeper);
+            throw new ZkException(e);
+        }
+    }
+
+    private ZooKeeper connect(CountDownLatch connected) {
+        try {
+            return new ZooKeeper(zkConnectionString, sessionTimeout, event -> {
+                LOGGER.debug("ZooKeeper state {}", event.getState());
+                switch (event.getState()) {
+                    case SyncConnected:
+                        connected.countDown();
+                        break;
+                    case Expired:
+                        reconnect();
+                        break;
+                    default:
+                        break;
+                }
+            });
+        } catch (IOException e) {
+            throw new ZkException("Unable to connect to " + zkConnectionString, e);
+        }
+    }
+
+    /**
+     * Establishes a new session after the session expired, then resets the watches.
+     */
+    private synchronized void reconnect() {
+        if (closed) {
+            return;
+        }
+        LOGGER.warn("ZooKeeper session expired, reconnecting");
+        closeQuietly(zookeeper);
+        CountDownLatch connected = new CountDownLatch(1);
+        zookeeper = connect(connected);
+        Future<Void> reconnected = Future.future();
+        vertx.executeBlocking(f -> {
+            try {
+                connected.await();
+                f.complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                f.fail(e);
+            }
+        }, reconnected);
+        reconnected.setHandler(ar -> {
+            if (ar.succeeded()) {
+                LOGGER.info("Re-established ZooKeeper session, resetting {} data and {} children watches",
+                        dataWatches.size(), childWatches.size());
+                dataWatches.values().forEach(DataWatcher::fetch);
+                childWatches.values().forEach(ChildWatcher::fetch);
+            }
+        });
+    }
+
+    private static void closeQuietly(ZooKeeper zookeeper) {
+        try {
+            zookeeper.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a handler which completes the given {@code handler} on the current Vert.x context.
+     */
+    private <T> Handler<AsyncResult<T>> onContext(Handler<AsyncResult<T>> handler) {
+        Context context = vertx.getOrCreateContext();
+        return result -> context.runOnContext(ignored -> handler.handle(result));
+    }
+
+    /**
+     * Whether a request which failed with the given code may succeed if it is sent again on the same session.
+     * Requests which failed because the session expired are not retried, since the watches are reset
+     * once a new session has been established.
+     */
+    private static boolean isRetryable(KeeperException.Code code) {
+        return code == KeeperException.Code.CONNECTIONLOSS
+                || code == KeeperException.Code.OPERATIONTIMEOUT;
+    }
+
+    private static <T> AsyncResult<T> result(int rc, String path, T value) {
+        KeeperException.Code code = KeeperException.Code.get(rc);
+        if (code == KeeperException.Code.OK) {
+            return Future.succeededFuture(value);
+        } else {
+            return Future.failedFuture(ZkException.create(KeeperException.create(code, path)));
+        }
+    }
+
+    @Override
+    public Zk create(String path, byte[] data, List<ACL> acls, CreateMode createMode, Handler<AsyncResult<Void>> handler) {
+        Handler<AsyncResult<Void>> h = onContext(handler);
+        zookeeper.create(path, data == null ? new byte[0] : data, acls, createMode,
+            (rc, p, ctx, name) -> h.handle(result(rc, p, null)), null);
+        return this;
+    }
+
+    @Override
+    public Zk setData(String path, byte[] data, int version, Handler<AsyncResult<Void>> handler) {
+        Handler<AsyncResult<Void>> h = onContext(handler);
+        zookeeper.setData(path, data, version,
+            (rc, p, ctx, stat) -> h.handle(result(rc, p, null)), null);
+        return this;
+    }
+
+    @Override
+    public Zk disconnect(Handler<AsyncResult<Void>> handler) {
+        closed = true;
+        vertx.executeBlocking(
+            future -> {
+                try {
+                    zookeeper.close();
+                    future.complete();
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            },
+            handler);
+        return this;
+    }
+
+    @Override
+    public Zk getData(String path, Handler<AsyncResult<byte[]>> handler) {
+        Handler<AsyncResult<byte[]>> h = onContext(handler);
+        DataWatcher watcher = dataWatches.get(path);
+        zookeeper.getData(path, watcher,
+            (rc, p, ctx, data, stat) -> h.handle(result(rc, p, data)), null);
+        return this;
+    }
+
+    @Override
+    public Zk getData(String path, Stat stat, Handler<AsyncResult<byte[]>> handler) {
+        Handler<AsyncResult<byte[]>> h = onContext(handler);
+        DataWatcher watcher = dataWatches.get(path);
+        zookeeper.getData(path, watcher,
+            (rc, p, ctx, data, dataStat) -> {
+                if (dataStat != null) {
+                    copyStat(dataStat, stat);
+                }
+                h.handle(result(rc, p, data));
+            }, null);
+        return this;
+    }
+
+    private static void copyStat(Stat from, Stat to) {
+        to.setCzxid(from.getCzxid());
+        to.setMzxid(from.getMzxid());
+        to.setCtime(from.getCtime());
+        to.setMtime(from.getMtime());
+        to.setVersion(from.getVersion());
+        to.setCversion(from.getCversion());
+        to.setAversion(from.getAversion());
+        to.setEphemeralOwner(from.getEphemeralOwner());
+        to.setDataLength(from.getDataLength());
+        to.setNumChildren(from.getNumChildren());
+        to.setPzxid(from.getPzxid());
+    }
+
+    @Override
+    public Zk delete(String path, int version, Handler<AsyncResult<Void>> handler) {
+        Handler<AsyncResult<Void>> h = onContext(handler);
+        zookeeper.delete(path, version,
+            (rc, p, ctx) -> h.handle(result(rc, p, null)), null);
+        return this;
+    }
+
+    @Override
+    public Zk children(String path, Handler<AsyncResult<List<String>>> handler) {
+        Handler<AsyncResult<List<String>>> h = onContext(handler);
+        ChildWatcher watcher = childWatches.get(path);
+        zookeeper.getChildren(path, watcher,
+            (rc, p, ctx, children) -> h.handle(result(rc, p, children)), null);
+        return this;
+    }
+
+    @Override
+    public Future<Zk> watchData(String path, Handler<AsyncResult<byte[]>> watcher) {
+        DataWatcher dataWatcher = new DataWatcher(path, onContext(watcher));
+        dataWatches.put(path, dataWatcher);
+        return dataWatcher.register().map((Zk) this);
+    }
+
+    @Override
+    public Zk unwatchData(String path) {
+        // ZooKeeper 3.4 cannot remove a watch, a removed watcher ignores its next event instead
+        dataWatches.remove(path);
+        return this;
+    }
+
+    @Override
+    public Future<Zk> watchChildren(String path, Handler<AsyncResult<List<String>>> watcher) {
+        ChildWatcher childWatcher = new ChildWatcher(path, onContext(watcher));
+        childWatches.put(path, childWatcher);
+        return childWatcher.register().map((Zk) this);
+    }
+
+    @Override
+    public Zk unwatchChildren(String path) {
+        // ZooKeeper 3.4 cannot remove a watch, a removed watcher ignores its next event instead
+        childWatches.remove(path);
+        return this;
+    }
+
+    /**
+     * Passes the failure, if any, to re-register a watch to the watch's handler.
+     */
+    private static <T> void reportFailure(AsyncResult<Void> registered, Handler<AsyncResult<T>> handler) {
+        if (registered.failed()) {
+            handler.handle(Future.failedFuture(registered.cause()));
+        }
+    }
+
+    /**
+     * A watch which ZooKeeper removes once it has fired, so must be re-armed by the requests which read the znode.
+     * Those requests are retried with a back-off when they fail with a retryable code,
+     * so that losing the connection doesn't lose the watch.
+     */
+    private abstract class RearmedWatcher implements Watcher {
+        protected final String path;
+        private BackOff backOff = new BackOff(WATCH_MAX_ATTEMPTS);
+
+        RearmedWatcher(String path) {
+            this.path = path;
+        }
+
+        abstract boolean isActive();
+
+        /**
+         * Sends the given request again after a delay, if the given code is retryable
+         * and the attempts have not been exhausted.
+         * @return Whether the request will be retried.
+         */
+        synchronized boolean retry(KeeperException.Code code, Runnable request) {
+            if (!isRetryable(code) || backOff.done()) {
+                backOff = new BackOff(WATCH_MAX_ATTEMPTS);
+                return false;
+            }
+            long delayMs = backOff.delayMs();
+            LOGGER.debug("Re-arming the watch on {} failed with {}, retrying in {}ms", path, code, delayMs);
+            vertx.setTimer(Math.max(1, delayMs), timerId -> {
+                if (isActive()) {
+                    request.run();
+                }
+            });
+            return true;
+        }
+
+        /**
+         * Resets the back-off, once a request has succeeded.
+         */
+        synchronized void rearmed() {
+            backOff = new BackOff(WATCH_MAX_ATTEMPTS);
+        }
+    }
+
+    /**
+     * Watches the data of a znode, like an {@code IZkDataListener} of {@code ZkClient}:
+     * when the data changes it is read again, re-registering the watch, and passed to the handler.
+     */
+    private class DataWatcher extends RearmedWatcher {
+        private final Handler<AsyncResult<byte[]>> handler;
+
+        DataWatcher(String path, Handler<AsyncResult<byte[]>> handler) {
+            super(path);
+            this.handler = handler;
+        }
+
+        @Override
+        boolean isActive() {
+            return dataWatches.get(path) == this;
+        }
+
+        /**
+         * Registers the watch, whether or not the znode exists.
+         */
+        Future<Void> register() {
+            Future<Void> registered = Future.future();
+            register(onContext(registered));
+            return registered;
+        }
+
+        private void register(Handler<AsyncResult<Void>> h) {
+            zookeeper.exists(path, this, (rc, p, ctx, stat) -> {
+                KeeperException.Code code = KeeperException.Code.get(rc);
+                if (code == KeeperException.Code.OK || code == KeeperException.Code.NONODE) {
+                    rearmed();
+                    h.handle(Future.succeededFuture());
+                } else if (!retry(code, () -> register(h))) {
+                    h.handle(result(rc, p, null));
+                }
+            }, null);
+        }
+
+        /**
+         * Reads the data, re-registering the watch, and passes it to the handler.
+         */
+        void fetch() {
+            zookeeper.getData(path, this, (rc, p, ctx, data, stat) -> {
+                if (!isActive()) {
+                    return;
+                }
+                KeeperException.Code code = KeeperException.Code.get(rc);
+                if (code == KeeperException.Code.NONODE) {
+                    // Like ZkClient, deletions are not reported to the handler, but the znode is watched for its re-creation
+                    register(ar -> reportFailure(ar, handler));
+                } else if (code == KeeperException.Code.OK) {
+                    rearmed();
+                    handler.handle(result(rc, p, data));
+                } else if (!retry(code, this::fetch)) {
+                    handler.handle(result(rc, p, data));
+                }
+            }, null);
+        }
+
+        @Override
+        public void process(WatchedEvent event) {
+            if (event.getType() == Event.EventType.None || !isActive()) {
+                return;
+            }
+            LOGGER.trace("Data watch {} on {}", event.getType(), path);
+            if (event.getType() == Event.EventType.NodeDeleted) {
+                register(ar -> reportFailure(ar, handler));
+            } else {
+                fetch();
+            }
+        }
+    }
+
+    /**
+     * Watches the children of a znode, like an {@code IZkChildListener} of {@code ZkClient}:
+     * when the children change they are listed again, re-registering the watch, and passed to the handler,
+     * or null is passed if the znode was deleted.
+     */
+    private class ChildWatcher extends RearmedWatcher {
+        private final Handler<AsyncResult<List<String>>> handler;
+
+        ChildWatcher(String path, Handler<AsyncResult<List<String>>> handler) {
+            super(path);
+            this.handler = handler;
+        }
+
+        @Override
+        boolean isActive() {
+            return childWatches.get(path) == this;
+        }
+
+        /**
+         * Registers the watch, whether or not the znode exists.
+         */
+        Future<Void> register() {
+            Future<Void> registered = Future.future();
+            register(onContext(registered));
+            return registered;
+        }
+
+        private void register(Handler<AsyncResult<Void>> h) {
+            zookeeper.exists(path, this, (rc, p, ctx, stat) -> {
+                if (stat != null) {
+                    // Set the child watch too
+                    zookeeper.getChildren(path, this, (rc2, p2, ctx2, children) -> registered(rc2, p2, h), null);
+                } else {
+                    registered(rc, p, h);
+                }
+            }, null);
+        }
+
+        private void registered(int rc, String p, Handler<AsyncResult<Void>> h) {
+            KeeperException.Code code = KeeperException.Code.get(rc);
+            if (code == KeeperException.Code.OK || code == KeeperException.Code.NONODE) {
+                rearmed();
+                h.handle(Future.succeededFuture());
+            } else if (!retry(code, () -> register(h))) {
+                h.handle(result(rc, p, null));
+            }
+        }
+
+        /**
+         * Lists the children, re-registering the watch, and passes them to the handler.
+         */
+        void fetch() {
+            zookeeper.getChildren(path, this, (rc, p, ctx, children) -> {
+                if (!isActive()) {
+                    return;
+                }
+                KeeperException.Code code = KeeperException.Code.get(rc);
+                if (code == KeeperException.Code.NONODE) {
+                    register(ar -> reportFailure(ar, handler));
+                    handler.handle(Future.succeededFuture(null));
+                } else if (code == KeeperException.Code.OK) {
+                    rearmed();
+                    handler.handle(result(rc, p, children));
+                } else if (!retry(code, this::fetch)) {
+                    handler.handle(result(rc, p, children));
+                }
+            }, null);
+        }
+
+        @Override
+        public void process(WatchedEvent event) {
+            if (event.getType() == Event.EventType.None || !isActive()) {
+                return;
+            }
+            LOGGER.trace("Children watch {} on {}", event.getType(), path);
+            if (event.getType() == Event.EventType.NodeCreated
+                    || event.getType() == Event.EventType.NodeDeleted
+                    || event.getType() == Event.EventType.NodeChildrenChanged) {
+                fetch();
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.I0Itec.zkclient.ZkClient;
 import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
 
 import java.util.List;
 
@@ -22,9 +23,23 @@ public interface Zk {
 
     static void create(Vertx vertx, String zkConnectionString, int sessionTimeout, int connectionTimeout,
                               Handler<AsyncResult<Zk>> handler) {
+        create(vertx, zkConnectionString, sessionTimeout, connectionTimeout, false, handler);
+    }
+
+    /**
+     * Asynchronously connect to ZooKeeper.
+     * @param vertx The Vertx instance.
+     * @param zkConnectionString The ZooKeeper connection string.
+     * @param sessionTimeout The session timeout, in milliseconds.
+     * @param connectionTimeout The connection timeout, in milliseconds.
+     * @param nativeAsync Whether to use the {@link AsyncZkImpl} rather than the {@link ZkImpl}.
+     * @param handler The result handler.
+     */
+    static void create(Vertx vertx, String zkConnectionString, int sessionTimeout, int connectionTimeout,
+                              boolean nativeAsync, Handler<AsyncResult<Zk>> handler) {
         vertx.executeBlocking(f -> {
             try {
-                f.complete(createSync(vertx, zkConnectionString, sessionTimeout, connectionTimeout));
+                f.complete(createSync(vertx, zkConnectionString, sessionTimeout, connectionTimeout, nativeAsync));
             } catch (Throwable t) {
                 f.fail(t);
             }
@@ -33,6 +48,13 @@ public interface Zk {
     }
 
     static Zk createSync(Vertx vertx, String zkConnectionString, int sessionTimeout, int connectionTimeout) {
+        return createSync(vertx, zkConnectionString, sessionTimeout, connectionTimeout, false);
+    }
+
+    static Zk createSync(Vertx vertx, String zkConnectionString, int sessionTimeout, int connectionTimeout, boolean nativeAsync) {
+        if (nativeAsync) {
+            return new AsyncZkImpl(vertx, zkConnectionString, sessionTimeout, connectionTimeout);
+        }
         return new ZkImpl(vertx,
                 new ZkClient(zkConnectionString, sessionTimeout, connectionTimeout,
                         new BytesPushThroughSerializer()));
@@ -116,6 +138,18 @@ public interface Zk {
      */
     Zk getData(String path, Handler<AsyncResult<byte[]>> handler);
 
+    /**
+     * Asynchronously fetch the data of the given znode at the given path, storing its stat in the given {@code stat},
+     * then call the given handler with the result.
+     * The version of the stat can be passed to {@link #setData(String, byte[], int, Handler)}
+     * to change the data only if nobody else has changed it in the meantime.
+     * @param path The path.
+     * @param stat The stat to fill in.
+     * @param handler The result handler.
+     * @return This instance.
+     */
+    Zk getData(String path, Stat stat, Handler<AsyncResult<byte[]>> handler);
+
     /**
      * Asynchronously set given the data {@code watcher} on the given {@code path},
      * returning a future which completes when the watcher is subscribed.
@@ -17,6 +17,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -106,6 +107,20 @@ public class ZkImpl implements Zk {
         return this;
     }
 
+    @Override
+    public Zk getData(String path, Stat stat, Handler<AsyncResult<byte[]>> handler) {
+        workerPool().executeBlocking(
+            future -> {
+                try {
+                    future.complete(zookeeper.readData(path, stat));
+                } catch (Throwable t) {
+                    future.fail(t);
+                }
+            },
+            handler);
+        return this;
+    }
+
     static class DataWatchAdapter implements IZkDataListener {
 
         private final Handler<AsyncResult<byte[]>> watcher;
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017-2018, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(VertxUnitRunner.class)
+public class BaseKafkaImplTest {
+
+    private Vertx vertx;
+
+    static class Impl extends BaseKafkaImpl {
+        public Impl(Vertx vertx) {
+            super(null, vertx);
+        }
+
+        @Override
+        public void createTopic(Topic newTopic, Handler<AsyncResult<Void>> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void increasePartitions(Topic topic, Handler<AsyncResult<Void>> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void changeReplicationFactor(Topic topic, Handler<AsyncResult<Void>> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void listTopics(Handler<AsyncResult<Set<String>>> handler) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Before
+    public void setup() {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void teardown() {
+        vertx.close();
+    }
+
+    @Test
+    public void testHandlerCalledOnCallingContextOnlyOnceComplete(TestContext context) {
+        Impl impl = new Impl(vertx);
+        KafkaFutureImpl<String> kafkaFuture = new KafkaFutureImpl<>();
+        AtomicInteger invocations = new AtomicInteger();
+        Async async = context.async();
+        Context ctx = vertx.getOrCreateContext();
+        ctx.runOnContext(ignored -> {
+            impl.handleFuture("test", kafkaFuture, ar -> {
+                context.assertEquals(ctx, Vertx.currentContext());
+                context.assertTrue(ar.succeeded());
+                context.assertEquals("result", ar.result());
+                context.assertEquals(1, invocations.incrementAndGet());
+                async.complete();
+            });
+            context.assertEquals(0, invocations.get());
+            // Complete the future from a non-Vert.x thread, as the AdminClient would
+            new Thread(() -> kafkaFuture.complete("result")).start();
+        });
+    }
+
+    @Test
+    public void testHandlerGetsUnwrappedCause(TestContext context) {
+        Impl impl = new Impl(vertx);
+        KafkaFutureImpl<Void> kafkaFuture = new KafkaFutureImpl<>();
+        Async async = context.async();
+        impl.handleFuture("test", kafkaFuture, ar -> {
+            context.assertTrue(ar.failed());
+            context.assertTrue(ar.cause() instanceof TopicExistsException);
+            async.complete();
+        });
+        kafkaFuture.completeExceptionally(new TopicExistsException("exists"));
+    }
+
+    @Test
+    public void testAlreadyCompletedFuture(TestContext context) {
+        Impl impl = new Impl(vertx);
+        KafkaFutureImpl<Integer> kafkaFuture = new KafkaFutureImpl<>();
+        kafkaFuture.complete(42);
+        Async async = context.async();
+        impl.mapFuture(kafkaFuture).setHandler(ar -> {
+            context.assertTrue(ar.succeeded());
+            context.assertEquals(42, ar.result());
+            async.complete();
+        });
+    }
+}
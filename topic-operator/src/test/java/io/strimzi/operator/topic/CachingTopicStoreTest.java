@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+
+@RunWith(VertxUnitRunner.class)
+public class CachingTopicStoreTest {
+
+    private final Topic foo = new Topic.Builder("foo", 2, (short) 1, Collections.singletonMap("cleanup.policy", "compact")).build();
+    private final Topic bar = new Topic.Builder("bar", 1, (short) 1, Collections.emptyMap()).build();
+
+    private MockZk mockZk;
+    private MockTopicStore delegate;
+    private CachingTopicStore store;
+
+    @Before
+    public void setup(TestContext context) {
+        mockZk = new MockZk();
+        mockZk.childrenResult = Future.succeededFuture(asList("foo"));
+        delegate = new MockTopicStore();
+        delegate.setCreateTopicResponse(foo.getTopicName(), null);
+        delegate.setCreateTopicResponse(bar.getTopicName(), null);
+        delegate.create(foo, context.asyncAssertSuccess());
+        store = new CachingTopicStore(mockZk, delegate);
+        store.load().setHandler(context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void testReadAfterLoadIsHit(TestContext context) {
+        store.read(foo.getTopicName(), context.asyncAssertSuccess(topic -> {
+            context.assertEquals(foo, topic);
+            context.assertEquals(1L, store.hits());
+            context.assertEquals(0L, store.misses());
+        }));
+    }
+
+    @Test
+    public void testReadOfAbsentTopicIsMiss(TestContext context) {
+        store.read(bar.getTopicName(), context.asyncAssertSuccess(topic -> {
+            context.assertNull(topic);
+            context.assertEquals(0L, store.hits());
+            context.assertEquals(1L, store.misses());
+        }));
+    }
+
+    @Test
+    public void testCreateIsWrittenThrough(TestContext context) {
+        store.create(bar, context.asyncAssertSuccess(v -> {
+            delegate.assertContains(context, bar);
+            store.read(bar.getTopicName(), context.asyncAssertSuccess(topic -> {
+                context.assertEquals(bar, topic);
+                context.assertEquals(1L, store.hits());
+                context.assertEquals(0L, store.misses());
+            }));
+        }));
+    }
+
+    @Test
+    public void testUpdateIsWrittenThrough(TestContext context) {
+        Topic updated = new Topic.Builder(foo).withNumPartitions(3).build();
+        store.update(updated, context.asyncAssertSuccess(v -> {
+            delegate.assertContains(context, updated);
+            store.read(foo.getTopicName(), context.asyncAssertSuccess(topic -> {
+                context.assertEquals(updated, topic);
+                context.assertEquals(1L, store.hits());
+            }));
+        }));
+    }
+
+    @Test
+    public void testChildrenWatchEvicts(TestContext context) {
+        mockZk.triggerChildren(Future.succeededFuture(Collections.emptyList()));
+        store.read(foo.getTopicName(), context.asyncAssertSuccess(topic -> {
+            // still in the delegate, but we had to ask it
+            context.assertEquals(foo, topic);
+            context.assertEquals(0L, store.hits());
+            context.assertEquals(1L, store.misses());
+        }));
+    }
+}
@@ -75,4 +75,38 @@ public class ConfigTest {
         Config c = new Config(map);
         assertEquals(3, c.get(Config.TOPIC_METADATA_MAX_ATTEMPTS).intValue());
     }
+
+    @Test
+    public void topicMetadataBatchSize() {
+        Map<String, String> map = new HashMap<>(MANDATORY);
+        assertEquals(500, new Config(map).get(Config.TOPIC_METADATA_BATCH_SIZE).intValue());
+
+        map.put(Config.TC_TOPIC_METADATA_BATCH_SIZE, "100");
+        assertEquals(100, new Config(map).get(Config.TOPIC_METADATA_BATCH_SIZE).intValue());
+
+        try {
+            map.put(Config.TC_TOPIC_METADATA_BATCH_SIZE, "0");
+            new Config(map);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+    }
+
+    @Test
+    public void zookeeperAsyncClient() {
+        Map<String, String> map = new HashMap<>(MANDATORY);
+        assertEquals(false, new Config(map).get(Config.ZOOKEEPER_ASYNC_CLIENT));
+
+        map.put(Config.TC_ZK_ASYNC_CLIENT, "TRUE");
+        assertEquals(true, new Config(map).get(Config.ZOOKEEPER_ASYNC_CLIENT));
+
+        try {
+            map.put(Config.TC_ZK_ASYNC_CLIENT, "yes");
+            new Config(map);
+            fail();
+        } catch (IllegalArgumentException e) {
+
+        }
+    }
 }
@@ -57,6 +57,7 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.admin.RecordsToDelete;
 import org.apache.kafka.clients.admin.RenewDelegationTokenOptions;
 import org.apache.kafka.clients.admin.RenewDelegationTokenResult;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Metric;
 import org.apache.kafka.common.MetricName;
@@ -66,11 +67,13 @@ import org.apache.kafka.common.TopicPartitionReplica;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 import org.apache.kafka.common.internals.KafkaFutureImpl;
 
 import java.lang.reflect.Constructor;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -79,6 +82,9 @@ import static java.util.Arrays.asList;
 
 class MockAdminClient extends AdminClient {
 
+    /** The topics returned by {@link #describeTopics(Collection, DescribeTopicsOptions)}. */
+    final Map<String, TopicDescription> topics = new HashMap<>();
+
     @Override
     public void close(long l, TimeUnit timeUnit) {
         return;
@@ -106,7 +112,24 @@ class MockAdminClient extends AdminClient {
 
     @Override
     public DescribeTopicsResult describeTopics(Collection<String> collection, DescribeTopicsOptions describeTopicsOptions) {
-        return null;
+        try {
+            Constructor<DescribeTopicsResult> ctor = DescribeTopicsResult.class.getDeclaredConstructor(Map.class);
+            ctor.setAccessible(true);
+            Map<String, KafkaFuture<TopicDescription>> futures = new HashMap<>();
+            for (String topicName : collection) {
+                KafkaFutureImpl<TopicDescription> future = new KafkaFutureImpl<>();
+                TopicDescription description = topics.get(topicName);
+                if (description != null) {
+                    future.complete(description);
+                } else {
+                    future.completeExceptionally(new UnknownTopicOrPartitionException());
+                }
+                futures.put(topicName, future);
+            }
+            return ctor.newInstance(futures);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
@@ -11,6 +11,7 @@ import io.vertx.ext.unit.TestContext;
 import org.apache.kafka.clients.admin.NewTopic;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -191,6 +192,18 @@ public class MockKafka implements Kafka {
         handler.handle(topicMetadataRespose.apply(topicName));
     }
 
+    @Override
+    public void topicMetadata(Collection<TopicName> topicNames, Handler<AsyncResult<Map<TopicName, TopicMetadata>>> handler) {
+        Map<TopicName, TopicMetadata> result = new HashMap<>();
+        for (TopicName topicName : topicNames) {
+            AsyncResult<TopicMetadata> metadata = topicMetadataRespose.apply(topicName);
+            if (metadata.succeeded()) {
+                result.put(topicName, metadata.result());
+            }
+        }
+        handler.handle(succeededFuture(result));
+    }
+
     @Override
     public void listTopics(Handler<AsyncResult<Set<String>>> handler) {
         handler.handle(topicsListResponse);
@@ -10,7 +10,9 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,12 +23,19 @@ class MockZk implements Zk {
     public AsyncResult<Void> setDataResult = Future.failedFuture("Unexpected mock interaction. Configure " + getClass().getSimpleName() + ".setDataResult");
     public AsyncResult<List<String>> childrenResult = Future.failedFuture("Unexpected mock interaction. Configure " + getClass().getSimpleName() + ".childrenResult");
     public AsyncResult<byte[]> dataResult = Future.failedFuture("Unexpected mock interaction. Configure " + getClass().getSimpleName() + ".dataResult");
-    private Handler<AsyncResult<List<String>>> childrenHandler;
+    private Map<String, Handler<AsyncResult<List<String>>>> childrenHandlers = new HashMap<>();
     private Map<String, Handler<AsyncResult<byte[]>>> dataHandlers = new HashMap<>();
 
     public void triggerChildren(AsyncResult<List<String>> childrenResult) {
-        if (childrenHandler != null) {
-            childrenHandler.handle(childrenResult);
+        for (Handler<AsyncResult<List<String>>> handler: new ArrayList<>(childrenHandlers.values())) {
+            handler.handle(childrenResult);
+        }
+    }
+
+    public void triggerChildren(String path, AsyncResult<List<String>> childrenResult) {
+        Handler<AsyncResult<List<String>>> handler = childrenHandlers.get(path);
+        if (handler != null) {
+            handler.handle(childrenResult);
         }
     }
 
@@ -64,13 +73,13 @@ class MockZk implements Zk {
 
     @Override
     public Future<Zk> watchChildren(String path, Handler<AsyncResult<List<String>>> watcher) {
-        childrenHandler = watcher;
+        childrenHandlers.put(path, watcher);
         return Future.succeededFuture(this);
     }
 
     @Override
     public Zk unwatchChildren(String path) {
-        childrenHandler = null;
+        childrenHandlers.remove(path);
         return this;
     }
 
@@ -80,6 +89,12 @@ class MockZk implements Zk {
         return this;
     }
 
+    @Override
+    public Zk getData(String path, Stat stat, Handler<AsyncResult<byte[]>> handler) {
+        handler.handle(dataResult);
+        return this;
+    }
+
     @Override
     public Future<Zk> watchData(String path, Handler<AsyncResult<byte[]>> watcher) {
         dataHandlers.put(path, watcher);
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.asList;
+
+@RunWith(VertxUnitRunner.class)
+public class ReconciliationSchedulerTest {
+
+    private Vertx vertx = Vertx.vertx();
+
+    @After
+    public void teardown() {
+        vertx.close();
+    }
+
+    private Supplier<Future<Void>> work(String name, List<String> started, AtomicInteger running, AtomicInteger maxRunning) {
+        return () -> {
+            synchronized (started) {
+                started.add(name);
+            }
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Future<Void> result = Future.future();
+            vertx.setTimer(5, timerId -> {
+                running.decrementAndGet();
+                result.complete();
+            });
+            return result;
+        };
+    }
+
+    @Test
+    public void testEventsRunAheadOfPeriodicWork(TestContext context) {
+        ReconciliationScheduler scheduler = new ReconciliationScheduler(vertx, 1);
+        List<String> started = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Async async = context.async(13);
+        vertx.runOnContext(ignored -> {
+            scheduler.submit(ReconciliationScheduler.Lane.EVENTS, work("A", started, running, maxRunning))
+                    .setHandler(context.asyncAssertSuccess(v -> async.countDown()));
+            for (int i = 1; i <= 6; i++) {
+                scheduler.submit(ReconciliationScheduler.Lane.PERIODIC, work("P" + i, started, running, maxRunning))
+                        .setHandler(context.asyncAssertSuccess(v -> async.countDown()));
+            }
+            for (int i = 1; i <= 6; i++) {
+                scheduler.submit(ReconciliationScheduler.Lane.EVENTS, work("E" + i, started, running, maxRunning))
+                        .setHandler(context.asyncAssertSuccess(v -> async.countDown()));
+            }
+            context.assertEquals(6, scheduler.queued(ReconciliationScheduler.Lane.PERIODIC));
+            context.assertEquals(6, scheduler.queued(ReconciliationScheduler.Lane.EVENTS));
+        });
+        async.await();
+        context.assertEquals(1, maxRunning.get());
+        context.assertEquals(0, scheduler.inflight());
+        // Every ReconciliationScheduler.PERIODIC_SHARE th piece of work comes from the periodic lane
+        context.assertEquals(asList("A", "E1", "E2", "E3", "P1", "E4", "E5", "E6", "P2", "P3", "P4", "P5", "P6"), started);
+    }
+
+    @Test
+    public void testMaxInflight(TestContext context) {
+        ReconciliationScheduler scheduler = new ReconciliationScheduler(vertx, 3);
+        List<String> started = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Async async = context.async(20);
+        for (int i = 0; i < 20; i++) {
+            scheduler.submit(i % 2 == 0 ? ReconciliationScheduler.Lane.EVENTS : ReconciliationScheduler.Lane.PERIODIC,
+                    work("W" + i, started, running, maxRunning))
+                    .setHandler(context.asyncAssertSuccess(v -> async.countDown()));
+        }
+        async.await();
+        context.assertTrue(maxRunning.get() <= 3);
+        context.assertEquals(20, started.size());
+    }
+
+    @Test
+    public void testFailedWork(TestContext context) {
+        ReconciliationScheduler scheduler = new ReconciliationScheduler(vertx, 1);
+        Async async = context.async();
+        scheduler.submit(ReconciliationScheduler.Lane.EVENTS, () -> {
+            throw new RuntimeException("Bang!");
+        }).setHandler(context.asyncAssertFailure(e -> context.assertEquals("Bang!", e.getMessage())));
+        scheduler.submit(ReconciliationScheduler.Lane.EVENTS, () -> Future.succeededFuture())
+                .setHandler(context.asyncAssertSuccess(v -> async.complete()));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(VertxUnitRunner.class)
+public class TopicLocksTest {
+
+    private Vertx vertx = Vertx.vertx();
+
+    @After
+    public void teardown() {
+        vertx.close();
+    }
+
+    @Test
+    public void testWaitersForABusyTopicDontTakeTheSlots(TestContext context) {
+        TopicLocks locks = new TopicLocks(vertx, 2);
+        TopicName hot = new TopicName("hot");
+        AtomicReference<Future<Void>> first = new AtomicReference<>();
+        AtomicInteger hotRun = new AtomicInteger();
+        Async coldDone = context.async();
+        Async allDone = context.async(4);
+        vertx.runOnContext(ignored -> {
+            locks.<Void>executeWithLockHeld(LogContext.periodic("hot-0"), hot, first::set)
+                    .setHandler(context.asyncAssertSuccess(v -> allDone.countDown()));
+            for (int i = 1; i <= 3; i++) {
+                locks.<Void>executeWithLockHeld(LogContext.periodic("hot-" + i), hot, fut -> {
+                    hotRun.incrementAndGet();
+                    fut.complete();
+                }).setHandler(context.asyncAssertSuccess(v -> allDone.countDown()));
+            }
+            locks.<Void>executeWithLockHeld(LogContext.periodic("cold"), new TopicName("cold"), Future::complete)
+                    .setHandler(context.asyncAssertSuccess(v -> coldDone.complete()));
+        });
+        // The action on the cold topic runs while the first action on the hot topic still holds its lock
+        coldDone.await();
+        context.assertEquals(0, hotRun.get());
+        context.assertTrue(locks.isWorkInflight());
+        vertx.runOnContext(ignored -> first.get().complete());
+        allDone.await();
+        context.assertEquals(3, hotRun.get());
+        context.assertFalse(locks.isWorkInflight());
+    }
+
+    @Test
+    public void testLockIsReleasedBeforeCompletion(TestContext context) {
+        TopicLocks locks = new TopicLocks(vertx, 1);
+        TopicName topicName = new TopicName("my-topic");
+        long before = locks.releases();
+        Async async = context.async();
+        locks.<Void>executeWithLockHeld(LogContext.periodic("my-topic"), topicName, Future::complete)
+                .setHandler(context.asyncAssertSuccess(v -> {
+                    context.assertTrue(locks.releasedSince(topicName, before));
+                    context.assertFalse(locks.releasedSince(topicName, locks.releases()));
+                    context.assertFalse(locks.isWorkInflight());
+                    async.complete();
+                }));
+    }
+}
@@ -30,10 +30,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.fabric8.kubernetes.client.Watcher.Action.ADDED;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 
 @RunWith(VertxUnitRunner.class)
@@ -876,6 +878,102 @@ public class TopicOperatorTest {
         }));
     }
 
+    /**
+     * Create the given topic in Kafka, Kubernetes and the topic store, listing its KafkaTopic
+     * even if getting it by name is made to fail later.
+     */
+    private void createConsistentTopic(TestContext context, Topic topic) {
+        Async async = context.async(3);
+        mockKafka.setCreateTopicResponse(topicName -> Future.succeededFuture());
+        mockKafka.createTopic(topic, ar -> async.countDown());
+        mockKafka.setTopicsList(singleton(topicName.toString()));
+        mockKafka.setTopicMetadataResponse(topicName, Utils.getTopicMetadata(topic), null);
+        KafkaTopic topicResource = TopicSerialization.toTopicResource(topic, labels);
+        mockK8s.setCreateResponse(topicName.asKubeName(), null);
+        mockK8s.createResource(topicResource, ar -> async.countDown());
+        mockK8s.setListMapsResult(() -> Future.succeededFuture(singletonList(topicResource)));
+        mockTopicStore.setCreateTopicResponse(topicName, null);
+        mockTopicStore.create(topic, ar -> async.countDown());
+        async.await();
+    }
+
+    @Test
+    public void testReconcileAllTopics_incrementalSkipsUnchanged(TestContext context) {
+        Topic topic = new Topic.Builder(topicName.toString(), 10, (short) 2, map("cleanup.policy", "bar"), metadata).build();
+        createConsistentTopic(context, topic);
+        RuntimeException error = new RuntimeException("some failure");
+
+        Async async = context.async();
+        topicOperator.reconcileAllTopics("incremental", true).setHandler(first -> {
+            context.assertTrue(first.succeeded());
+            // Had the topic been reconciled again, getting its KafkaTopic would fail
+            mockK8s.setGetFromNameResponse(resourceName, Future.failedFuture(error));
+            topicOperator.reconcileAllTopics("incremental", true).setHandler(second -> {
+                context.assertTrue(second.succeeded());
+                mockK8s.assertNoEvents(context);
+                // A full reconciliation doesn't skip it
+                topicOperator.reconcileAllTopics("periodic").setHandler(context.asyncAssertFailure(e -> {
+                    context.assertEquals(error, e.getCause());
+                    async.complete();
+                }));
+            });
+        });
+    }
+
+    @Test
+    public void testReconcileAllTopics_incrementalReconcilesChanged(TestContext context) {
+        Topic topic = new Topic.Builder(topicName.toString(), 10, (short) 2, map("cleanup.policy", "bar"), metadata).build();
+        createConsistentTopic(context, topic);
+        RuntimeException error = new RuntimeException("some failure");
+
+        Async async = context.async();
+        topicOperator.reconcileAllTopics("incremental", true).setHandler(first -> {
+            context.assertTrue(first.succeeded());
+            mockK8s.setGetFromNameResponse(resourceName, Future.failedFuture(error));
+            // Change the topic in Kafka
+            Topic changed = new Topic.Builder(topicName.toString(), 12, (short) 2, map("cleanup.policy", "bar"), metadata).build();
+            mockKafka.setTopicMetadataResponse(topicName, Utils.getTopicMetadata(changed), null);
+            topicOperator.reconcileAllTopics("incremental", true).setHandler(context.asyncAssertFailure(e -> {
+                context.assertEquals(error, e.getCause());
+                async.complete();
+            }));
+        });
+    }
+
+    @Test
+    public void testReconcileAllTopics_batchRefetchesMetadataOfTopicReconciledMeanwhile(TestContext context) {
+        Topic topic = new Topic.Builder(topicName.toString(), 10, (short) 2, map("cleanup.policy", "bar"), metadata).build();
+        createConsistentTopic(context, topic);
+        Topic changed = new Topic.Builder(topicName.toString(), 12, (short) 2, map("cleanup.policy", "bar"), metadata).build();
+        mockK8s.setModifyResponse(resourceName, null);
+        mockTopicStore.setUpdateTopicResponse(topicName, null);
+
+        AtomicReference<Topic> inKafka = new AtomicReference<>(topic);
+        AtomicInteger metadataRequests = new AtomicInteger();
+        mockKafka.setTopicMetadataResponse(requested -> {
+            TopicMetadata response = Utils.getTopicMetadata(inKafka.get());
+            if (metadataRequests.incrementAndGet() == 1) {
+                // Once the metadata of the batch has been fetched, but before the periodic reconciliation
+                // takes the topic lock, another reconciliation changes the topic in Kafka
+                topicOperator.executeWithTopicLockHeld(LogContext.zkWatch("/brokers/topics", "=" + topicName), topicName, fut -> {
+                    inKafka.set(changed);
+                    fut.complete();
+                });
+            }
+            return Future.succeededFuture(response);
+        });
+
+        Async async = context.async();
+        topicOperator.reconcileAllTopics("periodic").setHandler(context.asyncAssertSuccess(v -> {
+            context.assertTrue(metadataRequests.get() > 1);
+            // The reconciliation saw the change, rather than the stale metadata of the batch
+            mockK8s.getFromName(resourceName, ar -> {
+                context.assertEquals(12, ar.result().getSpec().getPartitions());
+                async.complete();
+            });
+        }));
+    }
+
     // TODO tests for nasty races (e.g. create on both ends, update on one end and delete on the other)
     // I think in these cases we should seek to detect the concurrent modification
     // and perform a full reconciliation, possibly after a backoff time
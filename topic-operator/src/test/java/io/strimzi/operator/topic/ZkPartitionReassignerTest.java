@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.strimzi.operator.topic.zk.Zk;
+import io.strimzi.test.EmbeddedZooKeeper;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.I0Itec.zkclient.ZkClient;
+import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
+import org.apache.kafka.common.Node;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.strimzi.test.TestUtils.waitFor;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+@RunWith(VertxUnitRunner.class)
+public class ZkPartitionReassignerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private EmbeddedZooKeeper zkServer;
+    private Vertx vertx = Vertx.vertx();
+    private ZkClient zkClient;
+    private Zk zk;
+    private Config config;
+    private ZkPartitionReassigner reassigner;
+
+    @Before
+    public void setup() throws IOException, InterruptedException {
+        zkServer = new EmbeddedZooKeeper();
+        zkClient = new ZkClient(zkServer.getZkConnectString(), 60_000, 10_000, new BytesPushThroughSerializer());
+        zkClient.createPersistent("/admin", true);
+        zkClient.createPersistent("/config/topics", true);
+        zkClient.createPersistent("/config/brokers", true);
+        zkClient.createPersistent("/config/changes", true);
+        zk = Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000);
+        Map<String, String> map = new HashMap<>();
+        map.put(Config.ZOOKEEPER_CONNECT.key, zkServer.getZkConnectString());
+        map.put(Config.KAFKA_BOOTSTRAP_SERVERS.key, "localhost:9092");
+        map.put(Config.NAMESPACE.key, "default");
+        map.put(Config.REASSIGN_THROTTLE.key, "1000");
+        config = new Config(map);
+        reassigner = new ZkPartitionReassigner(vertx, zk, config);
+    }
+
+    @After
+    public void teardown(TestContext context) {
+        reassigner.stop();
+        Async async = context.async();
+        zk.disconnect(result -> async.complete());
+        async.await();
+        zkClient.close();
+        zkServer.close();
+        vertx.close();
+    }
+
+    private JsonNode read(String path) {
+        try {
+            byte[] data = zkClient.readData(path, true);
+            return data != null ? MAPPER.readTree(data) : null;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private JsonNode awaitReassignment() {
+        waitFor("reassignment", 10, 10_000, () -> zkClient.exists(ZkPartitionReassigner.REASSIGN_PARTITIONS_ZNODE));
+        return read(ZkPartitionReassigner.REASSIGN_PARTITIONS_ZNODE);
+    }
+
+    /** Do what the controller does once all the partitions have been reassigned */
+    private void completeReassignment() {
+        zkClient.delete(ZkPartitionReassigner.REASSIGN_PARTITIONS_ZNODE);
+    }
+
+    @Test
+    public void testReassignmentsAreBatchedAndThrottled(TestContext context) {
+        Async fooDone = context.async();
+        Async barDone = context.async();
+        Async bazDone = context.async();
+        reassigner.reassign(new TopicName("foo"), singletonMap(0, asList(0)), singletonMap(0, asList(0, 1)))
+                .setHandler(context.asyncAssertSuccess(v -> fooDone.complete()));
+
+        JsonNode reassignment = awaitReassignment();
+        context.assertEquals(1, reassignment.get("partitions").size());
+        context.assertEquals("foo", reassignment.get("partitions").get(0).get("topic").asText());
+        context.assertEquals("[0,1]", reassignment.get("partitions").get(0).get("replicas").toString());
+        context.assertEquals("0:0", read("/config/topics/foo").get("config").get(ZkPartitionReassigner.LEADER_THROTTLED_REPLICAS).asText());
+        context.assertEquals("0:1", read("/config/topics/foo").get("config").get(ZkPartitionReassigner.FOLLOWER_THROTTLED_REPLICAS).asText());
+        context.assertEquals("1000", read("/config/brokers/1").get("config").get(ZkPartitionReassigner.FOLLOWER_THROTTLED_RATE).asText());
+        context.assertFalse(zkClient.getChildren("/config/changes").isEmpty());
+
+        // These have to wait for the reassignment of foo
+        reassigner.reassign(new TopicName("bar"), singletonMap(0, asList(1)), singletonMap(0, asList(2)))
+                .setHandler(context.asyncAssertSuccess(v -> barDone.complete()));
+        reassigner.reassign(new TopicName("baz"), singletonMap(0, asList(1)), singletonMap(0, asList(1, 2)))
+                .setHandler(context.asyncAssertSuccess(v -> bazDone.complete()));
+        context.assertFalse(barDone.isCompleted());
+
+        completeReassignment();
+        fooDone.await(10_000);
+        reassignment = awaitReassignment();
+        context.assertEquals(2, reassignment.get("partitions").size());
+        context.assertEquals("bar", reassignment.get("partitions").get(0).get("topic").asText());
+        context.assertEquals("baz", reassignment.get("partitions").get(1).get("topic").asText());
+        context.assertFalse(read("/config/topics/foo").get("config").has(ZkPartitionReassigner.LEADER_THROTTLED_REPLICAS));
+
+        completeReassignment();
+        barDone.await(10_000);
+        bazDone.await(10_000);
+        context.assertFalse(read("/config/topics/bar").get("config").has(ZkPartitionReassigner.FOLLOWER_THROTTLED_REPLICAS));
+        waitFor("brokers unthrottled", 10, 10_000,
+            () -> !read("/config/brokers/1").get("config").has(ZkPartitionReassigner.FOLLOWER_THROTTLED_RATE));
+    }
+
+    @Test
+    public void testThrottleIsRetriedOnConcurrentConfigChange(TestContext context) throws IOException {
+        zkClient.createPersistent("/config/topics/foo", MAPPER.writeValueAsBytes(
+                MAPPER.createObjectNode().put("version", 1).set("config", MAPPER.createObjectNode().put("retention.ms", "1000"))));
+        // Change another config of the topic between the reassigner reading and writing the znode
+        Zk racingZk = spy(zk);
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if ("/config/topics/foo".equals(invocation.getArgument(0)) && raced.compareAndSet(false, true)) {
+                ObjectNode data = (ObjectNode) read("/config/topics/foo");
+                ((ObjectNode) data.get("config")).put("cleanup.policy", "compact");
+                zkClient.writeData("/config/topics/foo", MAPPER.writeValueAsBytes(data));
+            }
+            return invocation.callRealMethod();
+        }).when(racingZk).setData(anyString(), any(), anyInt(), any());
+        reassigner.stop();
+        reassigner = new ZkPartitionReassigner(vertx, racingZk, config);
+
+        reassigner.reassign(new TopicName("foo"), singletonMap(0, asList(0)), singletonMap(0, asList(0, 1)));
+        awaitReassignment();
+        context.assertTrue(raced.get());
+        JsonNode topicConfig = read("/config/topics/foo").get("config");
+        context.assertEquals("0:0", topicConfig.get(ZkPartitionReassigner.LEADER_THROTTLED_REPLICAS).asText());
+        context.assertEquals("1000", topicConfig.get("retention.ms").asText());
+        context.assertEquals("compact", topicConfig.get("cleanup.policy").asText());
+    }
+
+    @Test
+    public void testReassignmentCompletesAsPartitionsAreRemoved(TestContext context) throws IOException {
+        Async fooDone = context.async();
+        Async barDone = context.async();
+        Async bazDone = context.async();
+        reassigner.reassign(new TopicName("foo"), singletonMap(0, asList(0)), singletonMap(0, asList(1)))
+                .setHandler(context.asyncAssertSuccess(v -> fooDone.complete()));
+        awaitReassignment();
+        reassigner.reassign(new TopicName("bar"), singletonMap(0, asList(0)), singletonMap(0, asList(1)))
+                .setHandler(context.asyncAssertSuccess(v -> barDone.complete()));
+        reassigner.reassign(new TopicName("baz"), singletonMap(0, asList(0)), singletonMap(0, asList(1)))
+                .setHandler(context.asyncAssertSuccess(v -> bazDone.complete()));
+        completeReassignment();
+        fooDone.await(10_000);
+        JsonNode reassignment = awaitReassignment();
+        context.assertEquals(2, reassignment.get("partitions").size());
+
+        // Do what the controller does once the partitions of bar have been reassigned
+        ((ArrayNode) reassignment.get("partitions")).remove(0);
+        zkClient.writeData(ZkPartitionReassigner.REASSIGN_PARTITIONS_ZNODE, MAPPER.writeValueAsBytes(reassignment));
+        barDone.await(10_000);
+        context.assertFalse(bazDone.isCompleted());
+
+        completeReassignment();
+        bazDone.await(10_000);
+    }
+
+    @Test
+    public void testNothingToReassign(TestContext context) {
+        reassigner.reassign(new TopicName("foo"), singletonMap(0, asList(0, 1)), singletonMap(0, asList(0, 1)))
+                .setHandler(context.asyncAssertSuccess(v -> context.assertFalse(zkClient.exists(ZkPartitionReassigner.REASSIGN_PARTITIONS_ZNODE))));
+    }
+
+    @Test
+    public void testProposeAssignment(TestContext context) {
+        List<Node> brokers = asList(new Node(0, "h0", 9092, "a"), new Node(1, "h1", 9092, "a"),
+                new Node(2, "h2", 9092, "b"), new Node(3, "h3", 9092, "b"));
+        Map<Integer, List<Integer>> current = new HashMap<>();
+        current.put(0, asList(0));
+        current.put(1, asList(1));
+        current.put(2, asList(2, 3));
+        Map<Integer, List<Integer>> proposed = OperatorAssignedKafkaImpl.proposeAssignment(new TopicName("foo"), current, 2, brokers);
+        // The existing replicas are kept, and new ones go to the other rack
+        context.assertEquals(0, proposed.get(0).get(0));
+        context.assertEquals("b", brokers.get(proposed.get(0).get(1)).rack());
+        context.assertEquals(1, proposed.get(1).get(0));
+        context.assertEquals("b", brokers.get(proposed.get(1).get(1)).rack());
+        context.assertEquals(asList(2, 3), proposed.get(2));
+
+        proposed = OperatorAssignedKafkaImpl.proposeAssignment(new TopicName("foo"), current, 1, brokers);
+        context.assertEquals(asList(2), proposed.get(2));
+
+        try {
+            OperatorAssignedKafkaImpl.proposeAssignment(new TopicName("foo"), current, 5, brokers);
+            context.fail("Expected an InvalidTopicException");
+        } catch (InvalidTopicException e) {
+            // expected
+        }
+    }
+}
@@ -10,9 +10,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.nio.charset.StandardCharsets;
+
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(VertxUnitRunner.class)
@@ -44,7 +48,6 @@ public class ZkTopicsWatcherTest {
         mockZk.triggerChildren(Future.succeededFuture(asList("foo", "bar", "baz")));
         assertEquals(asList(new MockTopicOperator.MockOperatorEvent(
                 MockTopicOperator.MockOperatorEvent.Type.CREATE, new TopicName("baz"))), operator.getMockOperatorEvents());
-        assertTrue(topicConfigsWatcher.watching("baz"));
         assertTrue(topicWatcher.watching("baz"));
     }
 
@@ -54,11 +57,39 @@ public class ZkTopicsWatcherTest {
         addTopic();
         // Now change the config
         operator.clearEvents();
-        mockZk.triggerData(Future.succeededFuture(new byte[0]));
+        mockZk.dataResult = Future.succeededFuture("{\"version\":2,\"entity_path\":\"topics/baz\"}".getBytes(StandardCharsets.UTF_8));
+        mockZk.triggerChildren(TopicConfigsWatcher.CONFIG_CHANGES_ZNODE, Future.succeededFuture(asList("config_change_0000000000")));
         assertEquals(asList(
-                new MockTopicOperator.MockOperatorEvent(MockTopicOperator.MockOperatorEvent.Type.MODIFY_PARTITIONS, new TopicName("baz")),
                 new MockTopicOperator.MockOperatorEvent(MockTopicOperator.MockOperatorEvent.Type.MODIFY_CONFIG, new TopicName("baz"))),
                 operator.getMockOperatorEvents());
+        // Notifications are only processed once
+        operator.clearEvents();
+        mockZk.triggerChildren(TopicConfigsWatcher.CONFIG_CHANGES_ZNODE, Future.succeededFuture(asList("config_change_0000000000")));
+        assertEquals(emptyList(), operator.getMockOperatorEvents());
+    }
+
+    @Test
+    public void testTopicPartitionsChange() {
+        // First add a topic
+        addTopic();
+        // Now change the partitions
+        operator.clearEvents();
+        mockZk.triggerData(Future.succeededFuture(new byte[0]));
+        assertEquals(asList(
+                new MockTopicOperator.MockOperatorEvent(MockTopicOperator.MockOperatorEvent.Type.MODIFY_PARTITIONS, new TopicName("baz"))),
+                operator.getMockOperatorEvents());
+    }
+
+    @Test
+    public void testConfigChangeNotificationParsing() {
+        assertEquals("baz", TopicConfigsWatcher.topicName("p",
+                "{\"version\":2,\"entity_path\":\"topics/baz\"}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("baz", TopicConfigsWatcher.topicName("p",
+                "{\"version\":1,\"entity_type\":\"topics\",\"entity_name\":\"baz\"}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(TopicConfigsWatcher.topicName("p",
+                "{\"version\":2,\"entity_path\":\"users/CN=foo\"}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(asList(1L, 2L, 10L), TopicConfigsWatcher.sequences(
+                asList("config_change_0000000010", "config_change_0000000001", "foo", "config_change_0000000002")));
     }
 
     @Test
@@ -74,6 +105,6 @@ public class ZkTopicsWatcherTest {
         mockZk.triggerChildren(Future.succeededFuture(asList("foo")));
         assertEquals(asList(new MockTopicOperator.MockOperatorEvent(
                 MockTopicOperator.MockOperatorEvent.Type.DELETE, new TopicName("bar"))), operator.getMockOperatorEvents());
-        assertFalse(topicConfigsWatcher.watching("baz"));
+        assertFalse(topicWatcher.watching("baz"));
     }
 }
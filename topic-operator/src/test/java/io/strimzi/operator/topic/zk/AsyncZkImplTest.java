@@ -0,0 +1,17 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic.zk;
+
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class AsyncZkImplTest extends ZkImplTest {
+
+    @Override
+    protected Zk createZk() {
+        return Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000, true);
+    }
+}
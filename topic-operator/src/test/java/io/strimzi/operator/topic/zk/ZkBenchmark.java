@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.topic.zk;
+
+import io.strimzi.test.EmbeddedZooKeeper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.apache.zookeeper.CreateMode;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Compares how many operations per second {@link ZkImpl} and {@link AsyncZkImpl} complete against an embedded ZooKeeper,
+ * with all the operations of each kind issued at once, the way the topic operator issues them when reconciling many topics.
+ * Not run as part of the build; run it with {@code java -cp ... io.strimzi.operator.topic.zk.ZkBenchmark [operations]}.
+ */
+public class ZkBenchmark {
+
+    private static double opsPerSecond(int operations, BiConsumer<Integer, Handler<AsyncResult<Void>>> operation) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(operations);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i, ar -> {
+                if (ar.failed()) {
+                    failure.compareAndSet(null, ar.cause());
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        long elapsed = System.nanoTime() - start;
+        if (failure.get() != null) {
+            throw new RuntimeException(failure.get());
+        }
+        return operations / ((double) elapsed / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @SuppressWarnings("checkstyle:Regexp")
+    private static void benchmark(String name, int round, Zk zk, int operations) throws InterruptedException {
+        String root = "/" + name + "-" + round;
+        opsPerSecond(1, (i, h) -> zk.create(root, null, AclBuilder.PUBLIC, CreateMode.PERSISTENT, h));
+        double create = opsPerSecond(operations, (i, h) -> zk.create(root + "/" + i, new byte[100], AclBuilder.PUBLIC, CreateMode.PERSISTENT, h));
+        double getData = opsPerSecond(operations, (i, h) -> zk.getData(root + "/" + i, ar -> h.handle(ar.map((Void) null))));
+        double setData = opsPerSecond(operations, (i, h) -> zk.setData(root + "/" + i, new byte[100], -1, h));
+        double delete = opsPerSecond(operations, (i, h) -> zk.delete(root + "/" + i, -1, h));
+        System.out.printf("%-12s create %8.1f ops/s, getData %8.1f ops/s, setData %8.1f ops/s, delete %8.1f ops/s%n",
+                name, create, getData, setData, delete);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        EmbeddedZooKeeper zkServer = new EmbeddedZooKeeper();
+        Vertx vertx = Vertx.vertx();
+        try {
+            // The first round warms up
+            for (int round = 0; round < 4; round++) {
+                boolean nativeAsync = round % 2 == 1;
+                Zk zk = Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000, nativeAsync);
+                benchmark(nativeAsync ? "AsyncZkImpl" : "ZkImpl", round, zk, operations);
+                CountDownLatch disconnected = new CountDownLatch(1);
+                zk.disconnect(ar -> disconnected.countDown());
+                disconnected.await();
+            }
+        } finally {
+            vertx.close();
+            zkServer.close();
+        }
+    }
+}
@@ -10,6 +10,9 @@ import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.I0Itec.zkclient.exception.ZkBadVersionException;
+import org.I0Itec.zkclient.exception.ZkNoNodeException;
+import org.I0Itec.zkclient.exception.ZkNodeExistsException;
 import org.apache.zookeeper.CreateMode;
 import org.junit.After;
 import org.junit.Before;
@@ -26,16 +29,20 @@ import static java.util.Collections.singletonList;
 @RunWith(VertxUnitRunner.class)
 public class ZkImplTest {
 
-    private EmbeddedZooKeeper zkServer;
+    protected EmbeddedZooKeeper zkServer;
 
-    private Vertx vertx = Vertx.vertx();
+    protected Vertx vertx = Vertx.vertx();
     private Zk zk;
 
     @Before
     public void setup()
             throws IOException, InterruptedException {
         this.zkServer = new EmbeddedZooKeeper();
-        zk = Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000);
+        zk = createZk();
+    }
+
+    protected Zk createZk() {
+        return Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000);
     }
 
     @After
@@ -52,7 +59,7 @@ public class ZkImplTest {
     @Ignore
     @Test
     public void testReconnectOnBounce(TestContext context) throws IOException, InterruptedException {
-        Zk zkImpl = Zk.createSync(vertx, zkServer.getZkConnectString(), 60_000, 10_000);
+        Zk zkImpl = createZk();
         zkServer.restart();
         Async async = context.async();
         zkImpl.create("/foo", null, AclBuilder.PUBLIC, CreateMode.PERSISTENT, ar -> {
@@ -128,4 +135,22 @@ public class ZkImplTest {
         });
     }
 
+    @Test
+    public void testFailures(TestContext context) {
+        Async async = context.async();
+        zk.getData("/missing", getResult -> {
+            context.assertTrue(getResult.cause() instanceof ZkNoNodeException);
+            zk.create("/existing", null, AclBuilder.PUBLIC, CreateMode.PERSISTENT, createResult -> {
+                context.assertTrue(createResult.succeeded());
+                zk.create("/existing", null, AclBuilder.PUBLIC, CreateMode.PERSISTENT, recreateResult -> {
+                    context.assertTrue(recreateResult.cause() instanceof ZkNodeExistsException);
+                    zk.setData("/existing", new byte[]{1}, 5, setResult -> {
+                        context.assertTrue(setResult.cause() instanceof ZkBadVersionException);
+                        async.complete();
+                    });
+                });
+            });
+        });
+    }
+
 }
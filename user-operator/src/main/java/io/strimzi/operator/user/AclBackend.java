@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user;
+
+import java.util.Locale;
+
+/**
+ * The available ways of managing the ACL rules of users, as selected in the configuration of the User Operator.
+ */
+public enum AclBackend {
+    /** Through Kafka's {@code SimpleAclAuthorizer}, which reads and writes the rules in Zookeeper directly. */
+    ZOOKEEPER,
+    /** Through the Kafka Admin API, which batches the reads and writes of many rules in single requests to a broker. */
+    ADMIN_CLIENT;
+
+    /**
+     * @return The value used to select this backend in the configuration.
+     */
+    public String toValue() {
+        return name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+    }
+
+    /**
+     * @param value The configured value, case insensitive.
+     * @return The backend with the given value.
+     * @throws IllegalArgumentException If there is no backend with the given value.
+     */
+    public static AclBackend forValue(String value) {
+        for (AclBackend backend : values()) {
+            if (backend.toValue().equalsIgnoreCase(value.trim())) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ACL backend " + value);
+    }
+}
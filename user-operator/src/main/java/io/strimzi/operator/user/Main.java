@@ -10,9 +10,11 @@ import io.strimzi.api.kafka.Crds;
 import io.strimzi.api.kafka.model.DoneableKafkaUser;
 import io.strimzi.api.kafka.KafkaUserList;
 import io.strimzi.api.kafka.model.KafkaUser;
-import io.strimzi.certs.OpenSslCertManager;
+import io.strimzi.certs.CertManager;
+import io.strimzi.operator.common.Util;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.strimzi.operator.user.operator.AdminClientAclOperator;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
 import io.strimzi.operator.user.operator.ScramShaCredentials;
 import io.strimzi.operator.user.operator.ScramShaCredentialsOperator;
@@ -20,6 +22,8 @@ import io.strimzi.operator.user.operator.SimpleAclOperator;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import kafka.security.auth.SimpleAclAuthorizer;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -43,9 +47,9 @@ public class Main {
         UserOperatorConfig config = UserOperatorConfig.fromMap(System.getenv());
         Vertx vertx = Vertx.vertx();
         KubernetesClient client = new DefaultKubernetesClient();
-        SimpleAclAuthorizer authorizer = createSimpleAclAuthorizer(config);
+        SimpleAclOperator aclOperations = createAclOperator(vertx, config);
 
-        run(vertx, client, authorizer, config).setHandler(ar -> {
+        run(vertx, client, aclOperations, config).setHandler(ar -> {
             if (ar.failed()) {
                 log.error("Unable to start operator", ar.cause());
                 System.exit(1);
@@ -53,12 +57,11 @@ public class Main {
         });
     }
 
-    static Future<String> run(Vertx vertx, KubernetesClient client, SimpleAclAuthorizer authorizer, UserOperatorConfig config) {
+    static Future<String> run(Vertx vertx, KubernetesClient client, SimpleAclOperator aclOperations, UserOperatorConfig config) {
         printEnvInfo();
-        OpenSslCertManager certManager = new OpenSslCertManager();
+        CertManager certManager = Util.createCertManager(config.getCertManager(), config.getKeyType(), config.getKeyPairPoolSize());
         SecretOperator secretOperations = new SecretOperator(vertx, client);
         CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperations = new CrdOperator<>(vertx, client, KafkaUser.class, KafkaUserList.class, DoneableKafkaUser.class);
-        SimpleAclOperator aclOperations = new SimpleAclOperator(vertx, authorizer);
         ScramShaCredentials scramShaCredentials = new ScramShaCredentials(config.getZookeperConnect(), (int) config.getZookeeperSessionTimeoutMs());
         ScramShaCredentialsOperator scramShaCredentialsOperator = new ScramShaCredentialsOperator(vertx, scramShaCredentials);
 
@@ -84,6 +87,15 @@ public class Main {
         return fut;
     }
 
+    private static SimpleAclOperator createAclOperator(Vertx vertx, UserOperatorConfig config) {
+        if (config.getAclBackend() == AclBackend.ADMIN_CLIENT) {
+            log.debug("Creating AdminClient for Kafka {}", config.getAdminClientConfig().getProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG));
+            return new AdminClientAclOperator(vertx, AdminClient.create(config.getAdminClientConfig()));
+        } else {
+            return new SimpleAclOperator(vertx, createSimpleAclAuthorizer(config));
+        }
+    }
+
     private static SimpleAclAuthorizer createSimpleAclAuthorizer(UserOperatorConfig config) {
         log.debug("Creating SimpleAclAuthorizer for Zookeeper {}", config.getZookeperConnect());
         Map<String, Object> authorizerConfig = new HashMap<>();
@@ -8,6 +8,7 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.Watch;
 
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.model.Labels;
 import io.strimzi.operator.user.operator.KafkaUserOperator;
 
@@ -73,7 +74,15 @@ public class UserOperator extends AbstractVerticle {
         // Configure the executor here, but it is used only in other places
         getVertx().createSharedWorkerExecutor("kubernetes-ops-pool", 10, TimeUnit.SECONDS.toNanos(120));
 
-        kafkaUserOperator.createWatch(namespace, selector, recreateWatch(kafkaUserOperator))
+        Future<Void> clientsCaWatch = Future.future();
+        vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Void>executeBlocking(
+            future -> {
+                kafkaUserOperator.clientsCaCache().watch(client);
+                future.complete();
+            },
+            true,
+            clientsCaWatch);
+        clientsCaWatch.compose(v -> kafkaUserOperator.createWatch(namespace, selector, recreateWatch(kafkaUserOperator)))
             .compose(w -> {
                 log.info("Started operator for {} kind", "KafkaUser");
                 watch = w;
@@ -96,6 +105,7 @@ public class UserOperator extends AbstractVerticle {
         if (watch != null) {
             watch.close();
         }
+        kafkaUserOperator.clientsCaCache().close();
 
         client.close();
         stop.complete();
@@ -115,6 +125,9 @@ public class UserOperator extends AbstractVerticle {
         Future<HttpServer> result = Future.future();
         this.vertx.createHttpServer()
                 .requestHandler(request -> {
+                    if (OperatorMetrics.handle(request)) {
+                        return;
+                    }
                     if (request.path().equals("/healthy")) {
                         request.response().setStatusCode(200).end();
                     } else if (request.path().equals("/ready")) {
@@ -5,10 +5,15 @@
 package io.strimzi.operator.user;
 
 import io.strimzi.api.kafka.model.CertificateAuthority;
+import io.strimzi.certs.CertManagerType;
+import io.strimzi.certs.KeyType;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.model.Labels;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.config.SslConfigs;
 
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * Cluster Operator configuration
@@ -25,10 +30,24 @@ public class UserOperatorConfig {
     public static final String STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS = "STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS";
     public static final String STRIMZI_CLIENTS_CA_VALIDITY = "STRIMZI_CA_VALIDITY";
     public static final String STRIMZI_CLIENTS_CA_RENEWAL = "STRIMZI_CA_RENEWAL";
+    public static final String STRIMZI_CERT_MANAGER = "STRIMZI_CERT_MANAGER";
+    public static final String STRIMZI_KEY_TYPE = "STRIMZI_KEY_TYPE";
+    public static final String STRIMZI_KEY_PAIR_POOL_SIZE = "STRIMZI_KEY_PAIR_POOL_SIZE";
+    public static final String STRIMZI_ACL_BACKEND = "STRIMZI_ACL_BACKEND";
+    public static final String STRIMZI_KAFKA_BOOTSTRAP_SERVERS = "STRIMZI_KAFKA_BOOTSTRAP_SERVERS";
+    public static final String STRIMZI_TLS_ENABLED = "STRIMZI_TLS_ENABLED";
+    public static final String STRIMZI_TRUSTSTORE_LOCATION = "STRIMZI_TRUSTSTORE_LOCATION";
+    public static final String STRIMZI_TRUSTSTORE_PASSWORD = "STRIMZI_TRUSTSTORE_PASSWORD";
+    public static final String STRIMZI_KEYSTORE_LOCATION = "STRIMZI_KEYSTORE_LOCATION";
+    public static final String STRIMZI_KEYSTORE_PASSWORD = "STRIMZI_KEYSTORE_PASSWORD";
 
     public static final long DEFAULT_FULL_RECONCILIATION_INTERVAL_MS = 120_000;
     public static final String DEFAULT_ZOOKEEPER_CONNECT = "localhost:2181";
     public static final long DEFAULT_ZOOKEEPER_SESSION_TIMEOUT_MS = 6_000;
+    public static final CertManagerType DEFAULT_CERT_MANAGER = CertManagerType.OPENSSL;
+    public static final KeyType DEFAULT_KEY_TYPE = KeyType.RSA_2048;
+    public static final int DEFAULT_KEY_PAIR_POOL_SIZE = 0;
+    public static final AclBackend DEFAULT_ACL_BACKEND = AclBackend.ZOOKEEPER;
 
     private final String namespace;
     private final long reconciliationIntervalMs;
@@ -38,6 +57,11 @@ public class UserOperatorConfig {
     private final String caCertSecretName;
     private final String caKeySecretName;
     private final String caNamespace;
+    private final CertManagerType certManager;
+    private final KeyType keyType;
+    private final int keyPairPoolSize;
+    private final AclBackend aclBackend;
+    private final Properties adminClientConfig;
 
     /**
      * Constructor
@@ -50,6 +74,11 @@ public class UserOperatorConfig {
      * @param caCertSecretName Name of the secret containing the Certification Authority certificate.
      * @param caKeySecretName The name of the secret containing the Certification Authority key.
      * @param caNamespace Namespace with the CA secret.
+     * @param certManager The implementation to use for generating keys and certificates.
+     * @param keyType The type of the keys generated by the certificate manager.
+     * @param keyPairPoolSize The number of key pairs which the {@code jca} certificate manager generates in advance.
+     * @param aclBackend The way of managing the ACL rules of users.
+     * @param adminClientConfig The configuration of the Kafka Admin client used by the {@code admin-client} ACL backend.
      */
     public UserOperatorConfig(String namespace,
                               long reconciliationIntervalMs,
@@ -57,7 +86,12 @@ public class UserOperatorConfig {
                               long zookeeperSessionTimeoutMs,
                               Labels labels, String caCertSecretName,
                               String caKeySecretName,
-                              String caNamespace) {
+                              String caNamespace,
+                              CertManagerType certManager,
+                              KeyType keyType,
+                              int keyPairPoolSize,
+                              AclBackend aclBackend,
+                              Properties adminClientConfig) {
         this.namespace = namespace;
         this.reconciliationIntervalMs = reconciliationIntervalMs;
         this.zookeperConnect = zookeperConnect;
@@ -66,6 +100,11 @@ public class UserOperatorConfig {
         this.caCertSecretName = caCertSecretName;
         this.caKeySecretName = caKeySecretName;
         this.caNamespace = caNamespace;
+        this.certManager = certManager;
+        this.keyType = keyType;
+        this.keyPairPoolSize = keyPairPoolSize;
+        this.aclBackend = aclBackend;
+        this.adminClientConfig = adminClientConfig;
     }
 
     /**
@@ -122,7 +161,82 @@ public class UserOperatorConfig {
             caNamespace = namespace;
         }
 
-        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace);
+        CertManagerType certManager = parseCertManager(map.get(UserOperatorConfig.STRIMZI_CERT_MANAGER));
+        KeyType keyType = parseKeyType(map.get(UserOperatorConfig.STRIMZI_KEY_TYPE));
+        int keyPairPoolSize = parseKeyPairPoolSize(map.get(UserOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE));
+        AclBackend aclBackend = parseAclBackend(map.get(UserOperatorConfig.STRIMZI_ACL_BACKEND));
+        Properties adminClientConfig = aclBackend == AclBackend.ADMIN_CLIENT ? parseAdminClientConfig(map) : new Properties();
+
+        return new UserOperatorConfig(namespace, reconciliationInterval, zookeeperConnect, zookeeperSessionTimeoutMs, labels, caCertSecretName, caKeySecretName, caNamespace, certManager, keyType, keyPairPoolSize, aclBackend, adminClientConfig);
+    }
+
+    private static AclBackend parseAclBackend(String aclBackendEnvVar) {
+        if (aclBackendEnvVar == null) {
+            return DEFAULT_ACL_BACKEND;
+        }
+        try {
+            return AclBackend.forValue(aclBackendEnvVar);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException(aclBackendEnvVar + " is not a valid " + UserOperatorConfig.STRIMZI_ACL_BACKEND + " value. "
+                    + UserOperatorConfig.STRIMZI_ACL_BACKEND + " can have one of the following values: zookeeper, admin-client.");
+        }
+    }
+
+    private static Properties parseAdminClientConfig(Map<String, String> map) {
+        String bootstrapServers = map.get(UserOperatorConfig.STRIMZI_KAFKA_BOOTSTRAP_SERVERS);
+        if (bootstrapServers == null || bootstrapServers.isEmpty()) {
+            throw new InvalidConfigurationException(UserOperatorConfig.STRIMZI_KAFKA_BOOTSTRAP_SERVERS + " cannot be null when "
+                    + UserOperatorConfig.STRIMZI_ACL_BACKEND + " is " + AclBackend.ADMIN_CLIENT.toValue());
+        }
+
+        Properties adminClientConfig = new Properties();
+        adminClientConfig.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        if (Boolean.parseBoolean(map.get(UserOperatorConfig.STRIMZI_TLS_ENABLED))) {
+            adminClientConfig.setProperty(AdminClientConfig.SECURITY_PROTOCOL_CONFIG, "SSL");
+            adminClientConfig.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, map.getOrDefault(UserOperatorConfig.STRIMZI_TRUSTSTORE_LOCATION, ""));
+            adminClientConfig.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, map.getOrDefault(UserOperatorConfig.STRIMZI_TRUSTSTORE_PASSWORD, ""));
+            adminClientConfig.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG, map.getOrDefault(UserOperatorConfig.STRIMZI_KEYSTORE_LOCATION, ""));
+            adminClientConfig.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, map.getOrDefault(UserOperatorConfig.STRIMZI_KEYSTORE_PASSWORD, ""));
+            adminClientConfig.setProperty(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG, "HTTPS");
+        }
+
+        return adminClientConfig;
+    }
+
+    private static CertManagerType parseCertManager(String certManagerEnvVar) {
+        if (certManagerEnvVar == null) {
+            return DEFAULT_CERT_MANAGER;
+        }
+        try {
+            return CertManagerType.forValue(certManagerEnvVar);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException(certManagerEnvVar + " is not a valid " + UserOperatorConfig.STRIMZI_CERT_MANAGER + " value. "
+                    + UserOperatorConfig.STRIMZI_CERT_MANAGER + " can have one of the following values: openssl, jca.");
+        }
+    }
+
+    private static KeyType parseKeyType(String keyTypeEnvVar) {
+        if (keyTypeEnvVar == null) {
+            return DEFAULT_KEY_TYPE;
+        }
+        try {
+            return KeyType.forValue(keyTypeEnvVar);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException(keyTypeEnvVar + " is not a valid " + UserOperatorConfig.STRIMZI_KEY_TYPE + " value. "
+                    + UserOperatorConfig.STRIMZI_KEY_TYPE + " must be of the form rsa:<bits>, with at least 2048 bits.");
+        }
+    }
+
+    private static int parseKeyPairPoolSize(String keyPairPoolSizeEnvVar) {
+        if (keyPairPoolSizeEnvVar == null) {
+            return DEFAULT_KEY_PAIR_POOL_SIZE;
+        }
+        int keyPairPoolSize = Integer.parseInt(keyPairPoolSizeEnvVar);
+        if (keyPairPoolSize < 0) {
+            throw new InvalidConfigurationException(UserOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE + " must not be negative");
+        }
+        return keyPairPoolSize;
     }
 
     public static int getClientsCaValidityDays() {
@@ -198,6 +312,41 @@ public class UserOperatorConfig {
         return zookeeperSessionTimeoutMs;
     }
 
+    /**
+     * @return  The implementation to use for generating keys and certificates
+     */
+    public CertManagerType getCertManager() {
+        return certManager;
+    }
+
+    /**
+     * @return The type of the keys generated by the certificate manager.
+     */
+    public KeyType getKeyType() {
+        return keyType;
+    }
+
+    /**
+     * @return The number of key pairs which the {@code jca} certificate manager generates in advance.
+     */
+    public int getKeyPairPoolSize() {
+        return keyPairPoolSize;
+    }
+
+    /**
+     * @return The way of managing the ACL rules of users.
+     */
+    public AclBackend getAclBackend() {
+        return aclBackend;
+    }
+
+    /**
+     * @return The configuration of the Kafka Admin client used by the {@code admin-client} ACL backend.
+     */
+    public Properties getAdminClientConfig() {
+        return adminClientConfig;
+    }
+
     @Override
     public String toString() {
         return "ClusterOperatorConfig(" +
@@ -208,6 +357,7 @@ public class UserOperatorConfig {
                 ",labels=" + labels +
                 ",caName=" + caCertSecretName +
                 ",caNamespace=" + caNamespace +
+                ",aclBackend=" + aclBackend.toValue() +
                 ")";
     }
 }
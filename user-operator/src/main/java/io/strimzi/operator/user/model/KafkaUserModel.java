@@ -37,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class KafkaUserModel {
@@ -92,6 +93,25 @@ public class KafkaUserModel {
                                          Secret clientsCaCert,
                                          Secret clientsCaKey,
                                          Secret userSecret) {
+        return fromCrd(passwordGenerator, kafkaUser,
+            () -> clientsCa(certManager, clientsCaCert, clientsCaKey,
+                    UserOperatorConfig.getClientsCaValidityDays(), UserOperatorConfig.getClientsCaRenewalDays()),
+            userSecret);
+    }
+
+    /**
+     * Creates instance of KafkaUserModel from CRD definition.
+     *
+     * @param passwordGenerator A password generator.
+     * @param kafkaUser The Custom Resource based on which the model should be created.
+     * @param clientsCa Supplies the clients CA, which is only needed for users with TLS client authentication.
+     * @param userSecret Kubernetes secret with existing user certificate.
+     * @return The user model.
+     */
+    public static KafkaUserModel fromCrd(PasswordGenerator passwordGenerator,
+                                         KafkaUser kafkaUser,
+                                         Supplier<ClientsCa> clientsCa,
+                                         Secret userSecret) {
         KafkaUserModel result = new KafkaUserModel(kafkaUser.getMetadata().getNamespace(),
                 kafkaUser.getMetadata().getName(),
                 Labels.fromResource(kafkaUser).withKind(kafkaUser.getKind()));
@@ -104,8 +124,7 @@ public class KafkaUserModel {
                 throw new InvalidResourceException("Users with TLS client authentication can have a username (name of the KafkaUser custom resource) only up to 64 characters long.");
             }
 
-            result.maybeGenerateCertificates(certManager, clientsCaCert, clientsCaKey, userSecret,
-                    UserOperatorConfig.getClientsCaValidityDays(), UserOperatorConfig.getClientsCaRenewalDays());
+            result.maybeGenerateCertificates(clientsCa.get(), userSecret);
         } else if (kafkaUser.getSpec().getAuthentication() instanceof KafkaUserScramSha512ClientAuthentication) {
             result.maybeGeneratePassword(passwordGenerator, userSecret);
         }
@@ -118,6 +137,35 @@ public class KafkaUserModel {
         return result;
     }
 
+    /**
+     * Returns the ACL rules which the given user should have, by the names of the two principals of the user,
+     * as applied by a reconciliation of the user: the rules of a user with TLS client authentication apply to its TLS
+     * principal, those of a user with SCRAM-SHA-512 authentication to its SCRAM principal, and the other principal
+     * should have no rules.
+     *
+     * @param kafkaUser The Custom Resource of the user.
+     * @return The desired rules by principal name.
+     * @throws InvalidResourceException If the user is not valid.
+     */
+    public static Map<String, Set<SimpleAclRule>> desiredAclRules(KafkaUser kafkaUser) {
+        String name = kafkaUser.getMetadata().getName();
+        if (kafkaUser.getSpec().getAuthentication() instanceof KafkaUserTlsClientAuthentication
+                && name.length() > OpenSslCertManager.MAXIMUM_CN_LENGTH) {
+            throw new InvalidResourceException("Users with TLS client authentication can have a username (name of the KafkaUser custom resource) only up to 64 characters long.");
+        }
+        Set<SimpleAclRule> rules = new HashSet<>();
+        if (kafkaUser.getSpec().getAuthorization() != null && kafkaUser.getSpec().getAuthorization().getType().equals(KafkaUserAuthorizationSimple.TYPE_SIMPLE)) {
+            for (AclRule rule : ((KafkaUserAuthorizationSimple) kafkaUser.getSpec().getAuthorization()).getAcls()) {
+                rules.add(SimpleAclRule.fromCrd(rule));
+            }
+        }
+        KafkaUserAuthentication authentication = kafkaUser.getSpec().getAuthentication();
+        Map<String, Set<SimpleAclRule>> result = new HashMap<>(2);
+        result.put(getTlsUserName(name), authentication instanceof KafkaUserTlsClientAuthentication ? rules : new HashSet<>());
+        result.put(getScramUserName(name), authentication instanceof KafkaUserScramSha512ClientAuthentication ? rules : new HashSet<>());
+        return result;
+    }
+
     /**
      * Generates secret containing the certificate for TLS client auth when TLS client auth is enabled for this user.
      * Returns null otherwise.
@@ -153,47 +201,70 @@ public class KafkaUserModel {
     public void maybeGenerateCertificates(CertManager certManager,
                                           Secret clientsCaCertSecret, Secret clientsCaKeySecret,
                                           Secret userSecret, int validityDays, int renewalDays) {
+        maybeGenerateCertificates(clientsCa(certManager, clientsCaCertSecret, clientsCaKeySecret, validityDays, renewalDays), userSecret);
+    }
+
+    /**
+     * Manage certificates generation based on those already present in the Secrets
+     *
+     * @param clientsCa The clients CA.
+     * @param userSecret Secret with the user certificate
+     */
+    public void maybeGenerateCertificates(ClientsCa clientsCa, Secret userSecret) {
+        this.caCert = clientsCa.currentCaCertBase64();
+        if (userSecret != null) {
+            // Secret already exists -> lets verify if it has keys from the same CA
+            String caCrt = userSecret.getData().get("ca.crt");
+            String userCrt = userSecret.getData().get("user.crt");
+            String userKey = userSecret.getData().get("user.key");
+            if (this.caCert != null
+                    && this.caCert.equals(caCrt)
+                    && userCrt != null
+                    && !userCrt.isEmpty()
+                    && userKey != null
+                    && !userKey.isEmpty()) {
+                this.userCertAndKey = new CertAndKey(
+                        decodeFromSecret(userSecret, "user.key"),
+                        decodeFromSecret(userSecret, "user.crt"));
+                return;
+            }
+        }
+
+        try {
+            this.userCertAndKey = clientsCa.generateSignedCert(name);
+        } catch (IOException e) {
+            log.error("Error generating signed certificate for user {}", name, e);
+        }
+    }
+
+    /**
+     * Creates the clients CA from its Secrets.
+     *
+     * @param certManager CertManager instance for handling certificates creation
+     * @param clientsCaCertSecret The clients CA certificate Secret.
+     * @param clientsCaKeySecret The clients CA key Secret.
+     * @param validityDays The number of days the certificate should be valid for.
+     * @param renewalDays The renewal days.
+     * @return The clients CA.
+     * @throws NoCertificateSecretException If either of the Secrets is null.
+     */
+    public static ClientsCa clientsCa(CertManager certManager,
+                                      Secret clientsCaCertSecret, Secret clientsCaKeySecret,
+                                      int validityDays, int renewalDays) {
         if (clientsCaCertSecret == null) {
             throw new NoCertificateSecretException("The Clients CA Cert Secret is missing");
         } else if (clientsCaKeySecret == null) {
             throw new NoCertificateSecretException("The Clients CA Key Secret is missing");
-        } else {
-            ClientsCa clientsCa = new ClientsCa(certManager,
-                    clientsCaCertSecret.getMetadata().getName(),
-                    clientsCaCertSecret,
-                    clientsCaCertSecret.getMetadata().getName(),
-                    clientsCaKeySecret,
-                    validityDays,
-                    renewalDays,
-                    false,
-                    null);
-            this.caCert = clientsCa.currentCaCertBase64();
-            if (userSecret != null) {
-                // Secret already exists -> lets verify if it has keys from the same CA
-                String originalCaCrt = clientsCaCertSecret.getData().get("ca.crt");
-                String caCrt = userSecret.getData().get("ca.crt");
-                String userCrt = userSecret.getData().get("user.crt");
-                String userKey = userSecret.getData().get("user.key");
-                if (originalCaCrt != null
-                        && originalCaCrt.equals(caCrt)
-                        && userCrt != null
-                        && !userCrt.isEmpty()
-                        && userKey != null
-                        && !userKey.isEmpty()) {
-                    this.userCertAndKey = new CertAndKey(
-                            decodeFromSecret(userSecret, "user.key"),
-                            decodeFromSecret(userSecret, "user.crt"));
-                    return;
-                }
-            }
-
-            try {
-                this.userCertAndKey = clientsCa.generateSignedCert(name);
-            } catch (IOException e) {
-                log.error("Error generating signed certificate for user {}", name, e);
-            }
-
         }
+        return new ClientsCa(certManager,
+                clientsCaCertSecret.getMetadata().getName(),
+                clientsCaCertSecret,
+                clientsCaCertSecret.getMetadata().getName(),
+                clientsCaKeySecret,
+                validityDays,
+                renewalDays,
+                false,
+                null);
     }
 
     /**
@@ -8,6 +8,7 @@ import io.strimzi.api.kafka.model.AclOperation;
 import io.strimzi.api.kafka.model.AclRule;
 import io.strimzi.api.kafka.model.AclRuleType;
 
+import kafka.security.SecurityUtils;
 import kafka.security.auth.Acl;
 import kafka.security.auth.All$;
 import kafka.security.auth.Allow$;
@@ -21,9 +22,16 @@ import kafka.security.auth.Describe$;
 import kafka.security.auth.DescribeConfigs$;
 import kafka.security.auth.IdempotentWrite$;
 import kafka.security.auth.Operation;
+import kafka.security.auth.Operation$;
 import kafka.security.auth.PermissionType;
+import kafka.security.auth.PermissionType$;
 import kafka.security.auth.Read$;
+import kafka.security.auth.Resource;
+import kafka.security.auth.ResourceType$;
 import kafka.security.auth.Write$;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.resource.ResourcePattern;
 import org.apache.kafka.common.security.auth.KafkaPrincipal;
 
 /**
@@ -243,6 +251,31 @@ public class SimpleAclRule {
         return new SimpleAclRule(type, resource, acl.host(), operation);
     }
 
+    /**
+     * Returns the binding of this rule for the given principal, as used by the Kafka Admin API.
+     *
+     * @param principal The principal the rule applies to.
+     * @return The ACL binding.
+     */
+    public AclBinding toAclBinding(KafkaPrincipal principal)   {
+        return SecurityUtils.convertToAclBinding(resource.toKafkaResource(), toKafkaAcl(principal));
+    }
+
+    /**
+     * Creates the rule of an ACL binding returned by the Kafka Admin API.
+     *
+     * @param binding The ACL binding.
+     * @return The rule.
+     */
+    public static SimpleAclRule fromAclBinding(AclBinding binding)   {
+        ResourcePattern pattern = binding.pattern();
+        AccessControlEntry entry = binding.entry();
+        Resource resource = new Resource(ResourceType$.MODULE$.fromJava(pattern.resourceType()), pattern.name(), pattern.patternType());
+        Acl acl = new Acl(org.apache.kafka.common.utils.SecurityUtils.parseKafkaPrincipal(entry.principal()),
+                PermissionType$.MODULE$.fromJava(entry.permissionType()), entry.host(), Operation$.MODULE$.fromJava(entry.operation()));
+        return fromKafkaAcl(SimpleAclRuleResource.fromKafkaResource(resource), acl);
+    }
+
     /**
      * Creates SimpleAclRule object based on AclRule object which is received as part ofthe KafkaUser CRD.
      *
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user.operator;
+
+import io.strimzi.operator.common.operator.resource.ReconcileResult;
+import io.strimzi.operator.user.model.KafkaUserModel;
+import io.strimzi.operator.user.model.acl.SimpleAclRule;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import kafka.security.SecurityUtils;
+import kafka.security.auth.Acl;
+import kafka.security.auth.Resource;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.acl.AccessControlEntryFilter;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.security.auth.KafkaPrincipal;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An {@link SimpleAclOperator} which manages the Acl rules through the Kafka Admin API rather than
+ * through a {@code SimpleAclAuthorizer} talking to Zookeeper.
+ * The rules of all the users (or of one user) are read with a single {@code describeAcls} request, and the rules
+ * added or deleted by a reconciliation are written with a single {@code createAcls} and a single {@code deleteAcls}
+ * request, however many users and resources they are for.
+ * The broker handling the requests must use an authorizer, and the principal of the Admin client must be allowed to
+ * describe and alter the cluster.
+ */
+public class AdminClientAclOperator extends SimpleAclOperator {
+    private static final Logger log = LogManager.getLogger(AdminClientAclOperator.class.getName());
+
+    private final AdminClient adminClient;
+
+    /**
+     * Constructor
+     *
+     * @param vertx         Vertx instance
+     * @param adminClient   Kafka Admin client instance
+     */
+    public AdminClientAclOperator(Vertx vertx, AdminClient adminClient) {
+        super(vertx, null);
+        this.adminClient = adminClient;
+    }
+
+    @Override
+    protected Future<ReconcileResult<Set<SimpleAclRule>>> internalCreate(String username, Set<SimpleAclRule> desired) {
+        try {
+            if (!desired.isEmpty()) {
+                get(adminClient.createAcls(toBindings(username, desired)).all());
+            }
+        } catch (Exception e) {
+            log.error("Adding Acl rules for user {} failed", username, e);
+            return Future.failedFuture(e);
+        }
+
+        return Future.succeededFuture(ReconcileResult.created(desired));
+    }
+
+    @Override
+    protected Future<ReconcileResult<Set<SimpleAclRule>>> internalDelete(String username, Set<SimpleAclRule> current) {
+        try {
+            if (!current.isEmpty()) {
+                get(adminClient.deleteAcls(toFilters(toBindings(username, current))).all());
+            }
+        } catch (Exception e) {
+            log.error("Deleting Acl rules for user {} failed", username, e);
+            return Future.failedFuture(e);
+        }
+
+        return Future.succeededFuture(ReconcileResult.deleted());
+    }
+
+    @Override
+    public Set<SimpleAclRule> getAcls(String username) {
+        log.debug("Searching for ACL rules of user {}", username);
+        Set<SimpleAclRule> result = new HashSet<>();
+        AclBindingFilter filter = new AclBindingFilter(ResourcePatternFilter.ANY,
+                new AccessControlEntryFilter(new KafkaPrincipal(KafkaPrincipal.USER_TYPE, username).toString(), null, AclOperation.ANY, AclPermissionType.ANY));
+
+        Collection<AclBinding> bindings;
+        try {
+            bindings = get(adminClient.describeAcls(filter).values());
+        } catch (RuntimeException e) {
+            log.error("Failed to get existing Acls rules for user {}", username, e);
+            throw e;
+        }
+
+        for (AclBinding binding : bindings) {
+            result.add(SimpleAclRule.fromAclBinding(binding));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Set<String> getUsersWithAcls() {
+        Set<String> result = new HashSet<>();
+
+        log.debug("Searching for Users with any ACL rules");
+
+        Map<String, Set<SimpleAclRule>> acls;
+        try {
+            acls = getAllAcls();
+        } catch (RuntimeException e) {
+            return result;
+        }
+
+        for (String principal : acls.keySet()) {
+            // Username in ACL might keep different format (for example based on user's subject) and need to be decoded
+            result.add(KafkaUserModel.decodeUsername(principal));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Set<SimpleAclRule>> getAllAcls() {
+        log.debug("Searching for ACL rules of all users");
+        Map<String, Set<SimpleAclRule>> result = new HashMap<>();
+
+        Collection<AclBinding> bindings;
+        try {
+            bindings = get(adminClient.describeAcls(AclBindingFilter.ANY).values());
+        } catch (RuntimeException e) {
+            log.error("Failed to get existing Acls rules for all users", e);
+            throw e;
+        }
+
+        for (AclBinding binding : bindings) {
+            KafkaPrincipal principal = org.apache.kafka.common.utils.SecurityUtils.parseKafkaPrincipal(binding.entry().principal());
+
+            if (KafkaPrincipal.USER_TYPE.equals(principal.getPrincipalType())
+                    && !IGNORED_USERS.contains(KafkaUserModel.decodeUsername(principal.getName()))) {
+                result.computeIfAbsent(principal.getName(), name -> new HashSet<>()).add(SimpleAclRule.fromAclBinding(binding));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Deletes and then adds the given ACL rules with a single request each.
+     */
+    @Override
+    protected void applyAll(Map<Resource, Set<Acl>> toBeDeleted, Map<Resource, Set<Acl>> toBeAdded, BulkReconcileResult result) {
+        RuntimeException failure = null;
+
+        List<AclBinding> deleted = toBindings(toBeDeleted);
+        if (!deleted.isEmpty()) {
+            try {
+                get(adminClient.deleteAcls(toFilters(deleted)).all());
+                result.removed(1, deleted.size());
+            } catch (RuntimeException e) {
+                log.error("Deleting Acl rules failed", e);
+                failure = e;
+            }
+        }
+
+        List<AclBinding> added = toBindings(toBeAdded);
+        if (!added.isEmpty()) {
+            try {
+                get(adminClient.createAcls(added).all());
+                result.added(1, added.size());
+            } catch (RuntimeException e) {
+                log.error("Adding Acl rules failed", e);
+                failure = e;
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static List<AclBinding> toBindings(String username, Set<SimpleAclRule> rules) {
+        KafkaPrincipal principal = new KafkaPrincipal(KafkaPrincipal.USER_TYPE, username);
+        List<AclBinding> bindings = new ArrayList<>(rules.size());
+        for (SimpleAclRule rule : rules) {
+            bindings.add(rule.toAclBinding(principal));
+        }
+        return bindings;
+    }
+
+    private static List<AclBinding> toBindings(Map<Resource, Set<Acl>> acls) {
+        List<AclBinding> bindings = new ArrayList<>();
+        for (Map.Entry<Resource, Set<Acl>> entry : acls.entrySet()) {
+            for (Acl acl : entry.getValue()) {
+                bindings.add(SecurityUtils.convertToAclBinding(entry.getKey(), acl));
+            }
+        }
+        return bindings;
+    }
+
+    private static List<AclBindingFilter> toFilters(List<AclBinding> bindings) {
+        List<AclBindingFilter> filters = new ArrayList<>(bindings.size());
+        for (AclBinding binding : bindings) {
+            filters.add(binding.toFilter());
+        }
+        return filters;
+    }
+
+    /**
+     * Waits for the result of a request made by the Admin client, rethrowing its failure unchecked.
+     */
+    private static <T> T get(KafkaFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
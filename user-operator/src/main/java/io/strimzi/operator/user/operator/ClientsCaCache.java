@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user.operator;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.strimzi.certs.CertManager;
+import io.strimzi.operator.cluster.model.ClientsCa;
+import io.strimzi.operator.common.operator.resource.ResourceCache;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.strimzi.operator.user.UserOperatorConfig;
+import io.strimzi.operator.user.model.KafkaUserModel;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Holds the clients CA which signs the certificates of users with TLS client authentication,
+ * so that it isn't fetched, decoded and parsed again by every reconciliation of a {@code KafkaUser}.
+ * Once {@linkplain #watch(KubernetesClient) watching}, the CA Secrets are read from caches which are kept up to date
+ * by watches on the two Secrets; until then (or while a watch is being recreated) they are read from the API server.
+ * The {@code ClientsCa} made from the Secrets is reused for as long as the resourceVersions of both Secrets
+ * are unchanged.
+ */
+public class ClientsCaCache {
+
+    private static final Logger log = LogManager.getLogger(ClientsCaCache.class);
+
+    private final Vertx vertx;
+    private final CertManager certManager;
+    private final SecretOperator secretOperations;
+    private final String caNamespace;
+    private final String caCertName;
+    private final String caKeyName;
+
+    private volatile ResourceCache<Secret> caCertCache;
+    private volatile ResourceCache<Secret> caKeyCache;
+
+    private ClientsCa clientsCa;
+    private String caCertResourceVersion;
+    private String caKeyResourceVersion;
+
+    /**
+     * @param vertx The Vertx instance.
+     * @param certManager For managing certificates.
+     * @param secretOperations For operating on Secrets.
+     * @param caNamespace The namespace of the Secrets containing the clients CA certificate and private key.
+     * @param caCertName The name of the Secret containing the clients CA certificate.
+     * @param caKeyName The name of the Secret containing the clients CA private key.
+     */
+    public ClientsCaCache(Vertx vertx, CertManager certManager, SecretOperator secretOperations,
+                          String caNamespace, String caCertName, String caKeyName) {
+        this.vertx = vertx;
+        this.certManager = certManager;
+        this.secretOperations = secretOperations;
+        this.caNamespace = caNamespace;
+        this.caCertName = caCertName;
+        this.caKeyName = caKeyName;
+    }
+
+    /**
+     * Synchronously lists and then starts watching the CA Secrets.
+     * @param client The Kubernetes client.
+     */
+    public synchronized void watch(KubernetesClient client) {
+        if (caCertCache == null) {
+            caCertCache = start(client, caCertName);
+            caKeyCache = start(client, caKeyName);
+            log.info("Watching the clients CA Secrets {} and {} in namespace {}", caCertName, caKeyName, caNamespace);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private ResourceCache<Secret> start(KubernetesClient client, String name) {
+        ResourceCache<Secret> cache = new ResourceCache<>(vertx, "Secret",
+            () -> client.secrets().inNamespace(caNamespace).withField("metadata.name", name).list(),
+            (resourceVersion, watcher) -> client.secrets().inNamespace(caNamespace).withField("metadata.name", name).watch(resourceVersion, watcher));
+        cache.start();
+        return cache;
+    }
+
+    /**
+     * Stops watching the CA Secrets.
+     */
+    public synchronized void close() {
+        if (caCertCache != null) {
+            caCertCache.close();
+            caKeyCache.close();
+            caCertCache = null;
+            caKeyCache = null;
+        }
+    }
+
+    /**
+     * @return The Secret containing the clients CA certificate, or null if it doesn't exist.
+     */
+    public Secret caCertSecret() {
+        return secret(caCertCache, caCertName);
+    }
+
+    /**
+     * @return The Secret containing the clients CA private key, or null if it doesn't exist.
+     */
+    public Secret caKeySecret() {
+        return secret(caKeyCache, caKeyName);
+    }
+
+    private Secret secret(ResourceCache<Secret> cache, String name) {
+        if (cache != null && cache.isSynced()) {
+            return cache.get(caNamespace, name);
+        }
+        return secretOperations.get(caNamespace, name);
+    }
+
+    /**
+     * Gets the clients CA for the given Secrets, reusing the one made for the previous call
+     * if the resourceVersions of the Secrets haven't changed since.
+     * @param caCertSecret The Secret containing the clients CA certificate.
+     * @param caKeySecret The Secret containing the clients CA private key.
+     * @return The clients CA.
+     * @throws io.strimzi.operator.user.model.NoCertificateSecretException If either of the Secrets is null.
+     */
+    public synchronized ClientsCa clientsCa(Secret caCertSecret, Secret caKeySecret) {
+        String certVersion = resourceVersion(caCertSecret);
+        String keyVersion = resourceVersion(caKeySecret);
+        if (clientsCa != null
+                && certVersion != null && certVersion.equals(caCertResourceVersion)
+                && keyVersion != null && keyVersion.equals(caKeyResourceVersion)) {
+            return clientsCa;
+        }
+        ClientsCa ca = KafkaUserModel.clientsCa(certManager, caCertSecret, caKeySecret,
+                UserOperatorConfig.getClientsCaValidityDays(), UserOperatorConfig.getClientsCaRenewalDays());
+        if (certVersion != null && keyVersion != null) {
+            log.debug("Using clients CA from Secrets {} and {} at resourceVersions {} and {}",
+                    caCertName, caKeyName, certVersion, keyVersion);
+            clientsCa = ca;
+            caCertResourceVersion = certVersion;
+            caKeyResourceVersion = keyVersion;
+        }
+        return ca;
+    }
+
+    private static String resourceVersion(Secret secret) {
+        return secret != null && secret.getMetadata() != null ? secret.getMetadata().getResourceVersion() : null;
+    }
+}
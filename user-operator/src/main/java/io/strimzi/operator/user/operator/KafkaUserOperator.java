@@ -12,9 +12,15 @@ import io.fabric8.kubernetes.client.Watcher;
 import io.strimzi.api.kafka.KafkaUserList;
 import io.strimzi.api.kafka.model.DoneableKafkaUser;
 import io.strimzi.api.kafka.model.KafkaUser;
+import io.strimzi.api.kafka.model.KafkaUserScramSha512ClientAuthentication;
 import io.strimzi.certs.CertManager;
+import io.strimzi.operator.cluster.model.InvalidResourceException;
+import io.strimzi.operator.common.BackOff;
+import io.strimzi.operator.common.OperatorMetrics;
 import io.strimzi.operator.common.Reconciliation;
+import io.strimzi.operator.common.WorkQueue;
 import io.strimzi.operator.common.model.Labels;
+import io.strimzi.operator.common.model.NamespaceAndName;
 import io.strimzi.operator.common.model.ResourceType;
 import io.strimzi.operator.common.operator.resource.CrdOperator;
 import io.strimzi.operator.common.operator.resource.SecretOperator;
@@ -31,8 +37,12 @@ import org.apache.logging.log4j.Logger;
 
 import java.nio.charset.Charset;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -45,15 +55,26 @@ public class KafkaUserOperator {
     private static final Logger log = LogManager.getLogger(KafkaUserOperator.class.getName());
     private static final int LOCK_TIMEOUT_MS = 10;
     private static final String RESOURCE_KIND = "KafkaUser";
+    private static final long RETRY_SCALE_MS = 1_000L;
+    private static final int RETRY_MAX_ATTEMPTS = 5;
+    private static final String NO_PASSWORD = "";
     private final Vertx vertx;
     private final CrdOperator<KubernetesClient, KafkaUser, KafkaUserList, DoneableKafkaUser> crdOperator;
     private final SecretOperator secretOperations;
     private final SimpleAclOperator aclOperations;
-    private final CertManager certManager;
-    private final String caCertName;
-    private final String caKeyName;
-    private final String caNamespace;
     private final ScramShaCredentialsOperator scramShaCredentialOperator;
+    private final WorkQueue<NamespaceAndName> workQueue;
+    private final ClientsCaCache clientsCaCache;
+    /**
+     * The users whose ACL rules were reconciled by the last bulk reconciliation, with the resourceVersion
+     * of the KafkaUser whose rules were applied.
+     */
+    private final Map<NamespaceAndName, String> bulkReconciledAcls = new ConcurrentHashMap<>();
+    /**
+     * The users whose SCRAM-SHA credentials were reconciled by the last bulk reconciliation, with the password
+     * which was set (or {@link #NO_PASSWORD} if the credentials were deleted).
+     */
+    private final Map<NamespaceAndName, String> bulkReconciledCredentials = new ConcurrentHashMap<>();
     private PasswordGenerator passwordGenerator = new PasswordGenerator(12,
             "abcdefghijklmnopqrstuvwxyz" +
                     "ABCDEFGHIJKLMNOPQRSTUVWXYZ",
@@ -79,14 +100,20 @@ public class KafkaUserOperator {
                              ScramShaCredentialsOperator scramShaCredentialOperator,
                              SimpleAclOperator aclOperations, String caCertName, String caKeyName, String caNamespace) {
         this.vertx = vertx;
-        this.certManager = certManager;
         this.secretOperations = secretOperations;
         this.scramShaCredentialOperator = scramShaCredentialOperator;
         this.crdOperator = crdOperator;
         this.aclOperations = aclOperations;
-        this.caCertName = caCertName;
-        this.caKeyName = caKeyName;
-        this.caNamespace = caNamespace;
+        this.workQueue = new WorkQueue<>(vertx, "kafkauser-reconciliations", WorkQueue.DEFAULT_MAX_CONCURRENCY,
+            () -> new BackOff(RETRY_SCALE_MS, 2, RETRY_MAX_ATTEMPTS));
+        this.clientsCaCache = new ClientsCaCache(vertx, certManager, secretOperations, caNamespace, caCertName, caKeyName);
+    }
+
+    /**
+     * @return The cache of the clients CA used for users with TLS client authentication.
+     */
+    public ClientsCaCache clientsCaCache() {
+        return clientsCaCache;
     }
 
     /**
@@ -107,7 +134,7 @@ public class KafkaUserOperator {
      * @param reconciliation Unique identification for the reconciliation
      * @param kafkaUser KafkaUser resources with the desired user configuration.
      * @param clientsCaCert Secret with the Clients CA cert
-     * @param clientsCaCert Secret with the Clients CA key
+     * @param clientsCaKey Secret with the Clients CA key
      * @param userSecret User secret (if it exists, null otherwise)
      * @param handler Completion handler
      */
@@ -116,7 +143,8 @@ public class KafkaUserOperator {
         String userName = reconciliation.name();
         KafkaUserModel user;
         try {
-            user = KafkaUserModel.fromCrd(certManager, passwordGenerator, kafkaUser, clientsCaCert, clientsCaKey, userSecret);
+            user = KafkaUserModel.fromCrd(passwordGenerator, kafkaUser,
+                () -> clientsCaCache.clientsCa(clientsCaCert, clientsCaKey), userSecret);
         } catch (Exception e) {
             handler.handle(Future.failedFuture(e));
             return;
@@ -139,11 +167,21 @@ public class KafkaUserOperator {
             scramAcls = user.getSimpleAclRules();
         }
 
+        boolean reconcileAcls = !aclsReconciledInBulk(reconciliation, kafkaUser.getMetadata().getResourceVersion());
+        if (!reconcileAcls) {
+            log.debug("{}: Acl rules were already reconciled in bulk", reconciliation);
+        }
+
+        boolean reconcileCredentials = !credentialsReconciledInBulk(reconciliation, password);
+        if (!reconcileCredentials) {
+            log.debug("{}: SCRAM-SHA credentials were already reconciled in bulk", reconciliation);
+        }
+
         CompositeFuture.join(
-                scramShaCredentialOperator.reconcile(user.getName(), password),
+                reconcileCredentials ? scramShaCredentialOperator.reconcile(user.getName(), password) : Future.succeededFuture(),
                 secretOperations.reconcile(namespace, user.getSecretName(), desired),
-                aclOperations.reconcile(KafkaUserModel.getTlsUserName(userName), tlsAcls),
-                aclOperations.reconcile(KafkaUserModel.getScramUserName(userName), scramAcls))
+                reconcileAcls ? aclOperations.reconcile(KafkaUserModel.getTlsUserName(userName), tlsAcls) : Future.succeededFuture(),
+                reconcileAcls ? aclOperations.reconcile(KafkaUserModel.getScramUserName(userName), scramAcls) : Future.succeededFuture())
                 .map((Void) null).setHandler(handler);
     }
 
@@ -156,10 +194,13 @@ public class KafkaUserOperator {
         String namespace = reconciliation.namespace();
         String user = reconciliation.name();
         log.debug("{}: Deleting User", reconciliation, user, namespace);
+        // The rules of deleted users are never reconciled in bulk
+        bulkReconciledAcls.remove(new NamespaceAndName(namespace, user));
+        boolean reconcileCredentials = !credentialsReconciledInBulk(reconciliation, null);
         CompositeFuture.join(secretOperations.reconcile(namespace, KafkaUserModel.getSecretName(user), null),
                 aclOperations.reconcile(KafkaUserModel.getTlsUserName(user), null),
                 aclOperations.reconcile(KafkaUserModel.getScramUserName(user), null),
-                scramShaCredentialOperator.reconcile(KafkaUserModel.getScramUserName(user), null))
+                reconcileCredentials ? scramShaCredentialOperator.reconcile(KafkaUserModel.getScramUserName(user), null) : Future.succeededFuture())
             .map((Void) null).setHandler(handler);
     }
 
@@ -174,7 +215,10 @@ public class KafkaUserOperator {
         String namespace = reconciliation.namespace();
         String name = reconciliation.name();
         final String lockName = getLockName(namespace, name);
+        final String kind = reconciliation.type().toString();
+        final long startNanos = System.nanoTime();
         vertx.sharedData().getLockWithTimeout(lockName, LOCK_TIMEOUT_MS, res -> {
+            OperatorMetrics.lockWaited(kind, startNanos, res.succeeded());
             if (res.succeeded()) {
                 log.debug("{}: Lock {} acquired", reconciliation, lockName);
                 Lock lock = res.result();
@@ -184,22 +228,23 @@ public class KafkaUserOperator {
 
                     if (cr != null) {
                         log.info("{}: User {} should be created or updated", reconciliation, name);
-                        Secret clientsCaCert = secretOperations.get(caNamespace, caCertName);
-                        Secret clientsCaKey = secretOperations.get(caNamespace, caKeyName);
+                        Secret clientsCaCert = clientsCaCache.caCertSecret();
+                        Secret clientsCaKey = clientsCaCache.caKeySecret();
                         Secret userSecret = secretOperations.get(namespace, KafkaUserModel.getSecretName(name));
 
                         createOrUpdate(reconciliation, cr, clientsCaCert, clientsCaKey, userSecret, createResult -> {
                             lock.release();
                             log.debug("{}: Lock {} released", reconciliation, lockName);
+                            OperatorMetrics.reconciliationCompleted(kind, startNanos, createResult.succeeded());
                             if (createResult.failed()) {
                                 log.error("{}: createOrUpdate failed", reconciliation, createResult.cause());
-                            } else {
-                                handler.handle(createResult);
                             }
+                            handler.handle(createResult);
                         });
                     } else {
                         log.info("{}: User {} should be deleted", reconciliation, name);
                         delete(reconciliation, deleteResult -> {
+                            OperatorMetrics.reconciliationCompleted(kind, startNanos, deleteResult.succeeded());
                             if (deleteResult.succeeded())   {
                                 log.info("{}: User {} deleted", reconciliation, name);
                                 lock.release();
@@ -215,16 +260,36 @@ public class KafkaUserOperator {
                     }
                 } catch (Throwable ex) {
                     lock.release();
+                    OperatorMetrics.reconciliationCompleted(kind, startNanos, false);
                     log.error("{}: Reconciliation failed", reconciliation, ex);
                     log.debug("{}: Lock {} released", reconciliation, lockName);
                     handler.handle(Future.failedFuture(ex));
                 }
             } else {
                 log.warn("{}: Failed to acquire lock {}.", reconciliation, lockName);
+                bulkReconciledAcls.remove(new NamespaceAndName(namespace, name));
+                bulkReconciledCredentials.remove(new NamespaceAndName(namespace, name));
+                OperatorMetrics.reconciliationLockedOut(kind);
+                handler.handle(Future.failedFuture(res.cause()));
             }
         });
     }
 
+    /**
+     * Enqueues a {@linkplain #reconcile(Reconciliation, Handler) reconciliation} of the user
+     * with the namespace and name of the given {@code reconciliation} on the work queue of this operator,
+     * so that events for a user which is being reconciled are coalesced into a single follow-up reconciliation.
+     * @param reconciliation The reconciliation.
+     * @return A future which completes with the outcome of the next reconciliation of the user.
+     */
+    public final Future<Void> enqueueReconciliation(Reconciliation reconciliation) {
+        return workQueue.enqueue(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()), () -> {
+            Future<Void> result = Future.future();
+            reconcile(reconciliation, result);
+            return result;
+        });
+    }
+
     /**
      * Reconcile User resources in the given namespace having the given selector.
      * Reconciliation works by getting the KafkaUSer custom resources in the given namespace with the given selector and
@@ -245,16 +310,16 @@ public class KafkaUserOperator {
         vertx.createSharedWorkerExecutor("kubernetes-ops-pool").<Set<String>>executeBlocking(
             future -> {
                 try {
-                    Set<String> usersWithAcls = aclOperations.getUsersWithAcls();
-                    future.complete(usersWithAcls);
+                    Set<String> users = reconcileAllAcls(namespace, desiredResources);
+                    users.addAll(reconcileAllCredentials(namespace, selector, desiredResources));
+                    future.complete(users);
                 } catch (Throwable t) {
-                    future.failed();
+                    future.fail(t);
                 }
             }, res -> {
                 if (res.succeeded()) {
-                    log.debug("reconcileAll({}, {}): User with ACLs: {}", RESOURCE_KIND, trigger, res.result());
+                    log.debug("reconcileAll({}, {}): User with ACLs or SCRAM-SHA credentials: {}", RESOURCE_KIND, trigger, res.result());
                     desiredNames.addAll(res.result());
-                    desiredNames.addAll(scramShaCredentialOperator.list());
 
                     // We use a latch so that callers (specifically, test callers) know when the reconciliation is complete
                     // Using futures would be more complex for no benefit
@@ -262,7 +327,7 @@ public class KafkaUserOperator {
 
                     for (String name : desiredNames) {
                         Reconciliation reconciliation = new Reconciliation(trigger, ResourceType.USER, namespace, name);
-                        reconcile(reconciliation, result -> {
+                        enqueueReconciliation(reconciliation).setHandler(result -> {
                             handleResult(reconciliation, result);
                             if (counter.getAndDecrement() == 0) {
                                 outerLatch.countDown();
@@ -270,7 +335,7 @@ public class KafkaUserOperator {
                         });
                     }
                 } else {
-                    log.error("Error while getting users with ACLs");
+                    log.error("Error while getting users with ACLs or SCRAM-SHA credentials", res.cause());
                 }
                 return;
             });
@@ -278,6 +343,145 @@ public class KafkaUserOperator {
         return outerLatch;
     }
 
+    /**
+     * Reconciles the ACL rules of all the given users from a single snapshot of the current rules of all users
+     * and with the writes grouped by resource.
+     * The reconciliations of the users which follow then don't need to reconcile their rules again, unless the users
+     * have changed in the meantime.
+     * The rules of principals without a user in the given list are left to the reconciliations of their users,
+     * which check that the user doesn't exist with its lock held: the list is taken before the snapshot,
+     * so a user created in between would otherwise have its new rules deleted.
+     * If the snapshot or any of the writes fail the reconciliations of the users reconcile their rules.
+     *
+     * @param namespace The namespace of the users.
+     * @param kafkaUsers The users.
+     * @return The names of the users which had ACL rules.
+     */
+    private Set<String> reconcileAllAcls(String namespace, List<KafkaUser> kafkaUsers) {
+        Map<String, Set<SimpleAclRule>> current;
+        try {
+            current = aclOperations.getAllAcls();
+        } catch (Exception e) {
+            log.error("Failed to get the Acl rules of all users, the rules will be reconciled for each user", e);
+            return new HashSet<>();
+        }
+
+        Set<String> usersWithAcls = new HashSet<>();
+        Map<String, Set<SimpleAclRule>> desired = new HashMap<>();
+        Map<NamespaceAndName, String> reconciled = new HashMap<>();
+
+        for (String principal : current.keySet()) {
+            // Username in ACL might keep different format (for example based on user's subject) and need to be decoded
+            usersWithAcls.add(KafkaUserModel.decodeUsername(principal));
+        }
+
+        for (KafkaUser kafkaUser : kafkaUsers) {
+            String name = kafkaUser.getMetadata().getName();
+            NamespaceAndName key = new NamespaceAndName(namespace, name);
+            String resourceVersion = kafkaUser.getMetadata().getResourceVersion();
+            try {
+                desired.putAll(KafkaUserModel.desiredAclRules(kafkaUser));
+                if (resourceVersion != null) {
+                    reconciled.put(key, resourceVersion);
+                } else {
+                    reconciled.remove(key);
+                }
+            } catch (InvalidResourceException e) {
+                // Leave the user to its own reconciliation
+                desired.remove(KafkaUserModel.getTlsUserName(name));
+                desired.remove(KafkaUserModel.getScramUserName(name));
+                reconciled.remove(key);
+            }
+        }
+
+        bulkReconciledAcls.clear();
+        try {
+            aclOperations.reconcileAll(desired, current);
+            bulkReconciledAcls.putAll(reconciled);
+        } catch (Exception e) {
+            log.error("Failed to reconcile the Acl rules of all users, the rules will be reconciled for each user", e);
+        }
+
+        return usersWithAcls;
+    }
+
+    /**
+     * Reconciles the SCRAM-SHA credentials of all the given users whose password is already stored in their Secret,
+     * and deletes those of the given users which no longer use SCRAM-SHA authentication, with batched writes.
+     * The reconciliations of the users which follow then don't need to reconcile their credentials again, unless the
+     * password has changed in the meantime.
+     * Users without a password yet, for example new users, are left to their own reconciliation.
+     * So are the credentials of users which are not in the given list, which the reconciliations of the users delete
+     * after checking that the user doesn't exist with its lock held: the list is taken before the credentials are
+     * listed, so a user created in between would otherwise have its new credentials deleted.
+     * If the writes fail the reconciliations of the users reconcile their credentials.
+     *
+     * @param namespace The namespace of the users.
+     * @param selector The labels of the users.
+     * @param kafkaUsers The users.
+     * @return The names of the users which had SCRAM-SHA credentials.
+     */
+    private Set<String> reconcileAllCredentials(String namespace, Labels selector, List<KafkaUser> kafkaUsers) {
+        Set<String> usersWithCredentials = new HashSet<>(scramShaCredentialOperator.list());
+
+        Map<String, Secret> secrets = new HashMap<>();
+        for (Secret secret : secretOperations.list(namespace, selector.withKind(RESOURCE_KIND))) {
+            secrets.put(secret.getMetadata().getName(), secret);
+        }
+
+        Map<String, String> passwords = new HashMap<>();
+        Map<NamespaceAndName, String> reconciled = new HashMap<>();
+
+        for (KafkaUser kafkaUser : kafkaUsers) {
+            String name = kafkaUser.getMetadata().getName();
+            NamespaceAndName key = new NamespaceAndName(namespace, name);
+
+            if (kafkaUser.getSpec() != null && kafkaUser.getSpec().getAuthentication() instanceof KafkaUserScramSha512ClientAuthentication) {
+                Secret secret = secrets.get(KafkaUserModel.getSecretName(name));
+                String password = secret != null && secret.getData() != null ? secret.getData().get(KafkaUserModel.KEY_PASSWORD) : null;
+
+                // Users without a password yet are left to their own reconciliation
+                if (password != null && !password.isEmpty()) {
+                    password = new String(Base64.getDecoder().decode(password), Charset.forName("US-ASCII"));
+                    passwords.put(name, password);
+                    reconciled.put(key, password);
+                }
+            } else if (usersWithCredentials.contains(name)) {
+                passwords.put(name, null);
+                reconciled.put(key, NO_PASSWORD);
+            }
+        }
+
+        bulkReconciledCredentials.clear();
+        try {
+            int written = scramShaCredentialOperator.reconcileAll(passwords);
+            log.debug("Reconciled SCRAM-SHA credentials of {} users with {} writes", passwords.size(), written);
+            bulkReconciledCredentials.putAll(reconciled);
+        } catch (Exception e) {
+            log.error("Failed to reconcile the SCRAM-SHA credentials of all users, the credentials will be reconciled for each user", e);
+        }
+
+        return usersWithCredentials;
+    }
+
+    /**
+     * Returns whether the SCRAM-SHA credentials of the user of the given {@code reconciliation} were reconciled by the
+     * last bulk reconciliation for the given password (null for no credentials), forgetting that they were.
+     */
+    private boolean credentialsReconciledInBulk(Reconciliation reconciliation, String password) {
+        String reconciledPassword = bulkReconciledCredentials.remove(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()));
+        return reconciledPassword != null && reconciledPassword.equals(password != null ? password : NO_PASSWORD);
+    }
+
+    /**
+     * Returns whether the ACL rules of the user of the given {@code reconciliation} were reconciled by the last
+     * bulk reconciliation for the given resourceVersion of the user, forgetting that they were.
+     */
+    private boolean aclsReconciledInBulk(Reconciliation reconciliation, String resourceVersion) {
+        String reconciledVersion = bulkReconciledAcls.remove(new NamespaceAndName(reconciliation.namespace(), reconciliation.name()));
+        return reconciledVersion != null && reconciledVersion.equals(resourceVersion);
+    }
+
     /**
      * Create Kubernetes watch for KafkaUser resources.
      *
@@ -301,7 +505,7 @@ public class KafkaUserOperator {
                             case MODIFIED:
                                 Reconciliation reconciliation = new Reconciliation("watch", ResourceType.USER, namespace, name);
                                 log.info("{}: {} {} in namespace {} was {}", reconciliation, RESOURCE_KIND, name, namespace, action);
-                                reconcile(reconciliation, result -> {
+                                enqueueReconciliation(reconciliation).setHandler(result -> {
                                     handleResult(reconciliation, result);
                                 });
                                 break;
@@ -6,6 +6,8 @@ package io.strimzi.operator.user.operator;
 
 import io.vertx.core.json.JsonObject;
 import org.I0Itec.zkclient.ZkClient;
+import org.I0Itec.zkclient.ZkConnection;
+import org.I0Itec.zkclient.exception.ZkInterruptedException;
 import org.I0Itec.zkclient.serialize.BytesPushThroughSerializer;
 import org.apache.kafka.common.security.scram.ScramCredential;
 import org.apache.kafka.common.security.scram.internals.ScramCredentialUtils;
@@ -13,11 +15,23 @@ import org.apache.kafka.common.security.scram.internals.ScramFormatter;
 import org.apache.kafka.common.security.scram.internals.ScramMechanism;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.ZooDefs;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Utility class for managing Scram credentials
@@ -27,12 +41,24 @@ public class ScramShaCredentials {
 
     private final static int ITERATIONS = 4096;
     private final static int CONNECTION_TIMEOUT = 30_000;
+    /**
+     * The maximum number of users whose credentials are written by a single multi-op,
+     * which keeps the request well within the default 1MB jute.maxbuffer of Zookeeper.
+     */
+    final static int MAX_BATCH_SIZE = 100;
 
     private final ScramMechanism mechanism = ScramMechanism.SCRAM_SHA_512;
+    private final ZkConnection zkConnection;
     private ZkClient zkClient;
+    /**
+     * The credentials of each user which were last found to match the desired password, so that while neither the
+     * credentials nor the password change the salted password doesn't need computing again on every reconciliation.
+     */
+    private final Map<String, VerifiedCredentials> verified = new ConcurrentHashMap<>();
 
     public ScramShaCredentials(String zookeeperUrl, int zookeeperSessionTimeout) {
-        zkClient = new ZkClient(zookeeperUrl, zookeeperSessionTimeout, CONNECTION_TIMEOUT, new BytesPushThroughSerializer());
+        zkConnection = new ZkConnection(zookeeperUrl, zookeeperSessionTimeout);
+        zkClient = new ZkClient(zkConnection, CONNECTION_TIMEOUT, new BytesPushThroughSerializer());
     }
 
     /**
@@ -63,6 +89,7 @@ public class ScramShaCredentials {
      * @param username Name of the user
      */
     public void delete(String username) {
+        verified.remove(username);
         byte[] data = zkClient.readData("/config/users/" + username, true);
 
         if (data != null)   {
@@ -82,8 +109,18 @@ public class ScramShaCredentials {
      * @return True if the user exists and is configured for given mechanism
      */
     public boolean exists(String username) {
-        byte[] data = zkClient.readData("/config/users/" + username, true);
+        return hasCredentials(username, zkClient.readData("/config/users/" + username, true));
+    }
 
+    /**
+     * Determine whether the given configuration of a user contains SCRAM-SHA credentials.
+     *
+     * @param username Name of the user
+     * @param data The configuration of the user in Zookeeper, or null if there is none
+     *
+     * @return True if the configuration contains valid credentials for given mechanism
+     */
+    private boolean hasCredentials(String username, byte[] data) {
         if (data != null)   {
             String jsonString = new String(data, Charset.defaultCharset());
             JsonObject json = new JsonObject(jsonString);
@@ -118,9 +155,9 @@ public class ScramShaCredentials {
         if (zkClient.exists("/config/users"))   {
             List<String> nodes = zkClient.getChildren("/config/users");
 
-            for (String node : nodes)   {
-                if (exists(node))   {
-                    result.add(node);
+            for (Map.Entry<String, UserNode> entry : readAll(nodes).entrySet())   {
+                if (hasCredentials(entry.getKey(), entry.getValue().data))   {
+                    result.add(entry.getKey());
                 }
             }
         }
@@ -128,6 +165,151 @@ public class ScramShaCredentials {
         return result;
     }
 
+    /**
+     * Create, update or delete the SCRAM-SHA credentials of many users at once.
+     * The configurations of the users are read in parallel, and then written together with the notifications of
+     * the changes to Kafka by Zookeeper multi-ops of up to {@link #MAX_BATCH_SIZE} users each, so that each batch is
+     * written atomically in a single round trip.
+     * A multi-op fails if the configuration of any of its users was changed since it was read.
+     * The credentials of users which already match the desired password are not written again.
+     *
+     * @param passwords The desired passwords by the names of the users, with null for the users whose credentials
+     *                  should be deleted.
+     * @return The number of users whose credentials were written.
+     */
+    public int createOrUpdateAll(Map<String, String> passwords) {
+        if (passwords.isEmpty()) {
+            return 0;
+        }
+
+        ensurePath("/config/users");
+        ensurePath("/config/changes");
+
+        Map<String, UserNode> current = readAll(passwords.keySet());
+        List<Op> ops = new ArrayList<>();
+        int users = 0;
+        int written = 0;
+
+        for (Map.Entry<String, String> entry : passwords.entrySet()) {
+            String username = entry.getKey();
+            String password = entry.getValue();
+            UserNode node = current.get(username);
+            String path = "/config/users/" + username;
+
+            if (password != null) {
+                if (node != null && hasCredentials(username, node.data) && credentialsMatch(username, node.data, password)) {
+                    log.debug("{} credentials for user {} are up to date", mechanism.mechanismName(), username);
+                    continue;
+                } else if (node != null) {
+                    log.debug("Updating {} credentials for user {}", mechanism.mechanismName(), username);
+                    ops.add(Op.setData(path, updateUserJson(node.data, password), node.version));
+                } else {
+                    log.debug("Creating {} credentials for user {}", mechanism.mechanismName(), username);
+                    ops.add(Op.create(path, createUserJson(password), ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT));
+                }
+            } else if (node != null && hasCredentials(username, node.data)) {
+                verified.remove(username);
+                log.debug("Deleting {} credentials for user {}", mechanism.mechanismName(), username);
+                ops.add(Op.setData(path, deleteUserJson(node.data), node.version));
+            } else {
+                continue;
+            }
+
+            ops.add(Op.create("/config/changes/config_change_", changeNotification(username), ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT_SEQUENTIAL));
+
+            if (++users == MAX_BATCH_SIZE) {
+                zkClient.multi(ops);
+                written += users;
+                ops.clear();
+                users = 0;
+            }
+        }
+
+        if (users > 0) {
+            zkClient.multi(ops);
+            written += users;
+        }
+
+        log.debug("Wrote {} credentials of {} users", mechanism.mechanismName(), written);
+        return written;
+    }
+
+    /**
+     * Determine whether the SCRAM-SHA credentials in the given configuration of a user are for the given password.
+     * The salted password is only computed when the credentials or the password have changed since they last matched.
+     *
+     * @param username Name of the user
+     * @param user JSON string with existing user configuration, with valid credentials, as byte[]
+     * @param password  Password in String format
+     *
+     * @return True if the credentials were generated from the password
+     */
+    private boolean credentialsMatch(String username, byte[] user, String password) {
+        JsonObject json = new JsonObject(new String(user, Charset.defaultCharset()));
+        String credentialsString = json.getJsonObject("config").getString(mechanism.mechanismName());
+        ScramCredential credentials = ScramCredentialUtils.credentialFromString(credentialsString);
+
+        try {
+            byte[] passwordDigest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            VerifiedCredentials last = verified.get(username);
+            if (last != null && last.credentials.equals(credentialsString) && MessageDigest.isEqual(last.passwordDigest, passwordDigest)) {
+                return true;
+            }
+
+            ScramFormatter formatter = new ScramFormatter(mechanism);
+            byte[] saltedPassword = formatter.saltedPassword(password, credentials.salt(), credentials.iterations());
+            if (MessageDigest.isEqual(credentials.storedKey(), formatter.storedKey(formatter.clientKey(saltedPassword)))) {
+                verified.put(username, new VerifiedCredentials(credentialsString, passwordDigest));
+                return true;
+            } else {
+                verified.remove(username);
+                return false;
+            }
+        } catch (NoSuchAlgorithmException | InvalidKeyException e)    {
+            throw new RuntimeException("Failed to verify credentials", e);
+        }
+    }
+
+    /**
+     * Reads the configurations of the given users with asynchronous reads which are all in flight at once.
+     *
+     * @param usernames Names of the users
+     *
+     * @return The configurations of the users which have one, by name
+     */
+    private Map<String, UserNode> readAll(Collection<String> usernames) {
+        Map<String, UserNode> result = new ConcurrentHashMap<>(usernames.size());
+        Map<String, KeeperException.Code> failures = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(usernames.size());
+
+        for (String username : usernames) {
+            zkConnection.getZookeeper().getData("/config/users/" + username, false, (rc, path, ctx, data, stat) -> {
+                KeeperException.Code code = KeeperException.Code.get(rc);
+                if (code == KeeperException.Code.OK) {
+                    result.put(username, new UserNode(data, stat.getVersion()));
+                } else if (code != KeeperException.Code.NONODE) {
+                    failures.put(username, code);
+                }
+                latch.countDown();
+            }, null);
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZkInterruptedException(e);
+        }
+
+        if (!failures.isEmpty()) {
+            Map.Entry<String, KeeperException.Code> failure = failures.entrySet().iterator().next();
+            throw new RuntimeException("Failed to read the configuration of " + failures.size() + " users, for example of user "
+                    + failure.getKey(), KeeperException.create(failure.getValue(), "/config/users/" + failure.getKey()));
+        }
+
+        return new HashMap<>(result);
+    }
+
     /**
      * This notifies Kafka about the changes we have made
      *
@@ -138,8 +320,18 @@ public class ScramShaCredentials {
 
         ensurePath("/config/changes");
 
+        zkClient.createPersistentSequential("/config/changes/config_change_", changeNotification(username));
+    }
+
+    /**
+     * Generates the JSON of the notification to Kafka of a change to the configuration of a user
+     *
+     * @param username  Name of the user whose configuration changed
+     * @return  Returns the generated JSON as byte array
+     */
+    private byte[] changeNotification(String username) {
         JsonObject json = new JsonObject().put("version", 2).put("entity_path", "users/" + username);
-        zkClient.createPersistentSequential("/config/changes/config_change_", json.encode().getBytes(Charset.defaultCharset()));
+        return json.encode().getBytes(Charset.defaultCharset());
     }
 
     /**
@@ -232,5 +424,30 @@ public class ScramShaCredentials {
             throw new RuntimeException("Failed to validate the user JSON. The version is missing or has an invalid value.");
         }
     }
-}
 
+    /**
+     * Credentials which were found to be for a password, with a digest of that password
+     */
+    private static class VerifiedCredentials {
+        private final String credentials;
+        private final byte[] passwordDigest;
+
+        private VerifiedCredentials(String credentials, byte[] passwordDigest) {
+            this.credentials = credentials;
+            this.passwordDigest = passwordDigest;
+        }
+    }
+
+    /**
+     * The configuration of a user in Zookeeper, with the version it was read at
+     */
+    private static class UserNode {
+        private final byte[] data;
+        private final int version;
+
+        private UserNode(byte[] data, int version) {
+            this.data = data;
+            this.version = version;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
 import java.util.List;
+import java.util.Map;
 
 public class ScramShaCredentialsOperator {
 
@@ -46,4 +47,16 @@ public class ScramShaCredentialsOperator {
     public List<String> list() {
         return credsManager.list();
     }
+
+    /**
+     * Creates, updates or deletes the credentials of many users with batched writes.
+     * This is a blocking operation.
+     *
+     * @param passwords The desired passwords by the names of the users, with null for the users whose credentials
+     *                  should be deleted.
+     * @return The number of users whose credentials were written.
+     */
+    public int reconcileAll(Map<String, String> passwords) {
+        return credsManager.createOrUpdateAll(passwords);
+    }
 }
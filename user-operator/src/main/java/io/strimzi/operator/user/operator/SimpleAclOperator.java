@@ -23,6 +23,7 @@ import scala.collection.JavaConverters;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -39,7 +40,7 @@ import java.util.Set;
 public class SimpleAclOperator {
     private static final Logger log = LogManager.getLogger(SimpleAclOperator.class.getName());
 
-    private static final List<String> IGNORED_USERS = Arrays.asList("*", "ANONYMOUS");
+    static final List<String> IGNORED_USERS = Arrays.asList("*", "ANONYMOUS");
 
     private final Vertx vertx;
     private final SimpleAclAuthorizer authorizer;
@@ -267,4 +268,220 @@ public class SimpleAclOperator {
 
         return result;
     }
+
+    /**
+     * Returns the ACL rules of all users, read with a single call to the authorizer.
+     * The rules of the {@code *} and {@code ANONYMOUS} users are not included.
+     *
+     * @return The ACL rules by the principal name of the user, which is in the Kafka format, e.g. CN=my-user for TLS users.
+     */
+    public Map<String, Set<SimpleAclRule>> getAllAcls()   {
+        log.debug("Searching for ACL rules of all users");
+        Map<String, Set<SimpleAclRule>> result = new HashMap<>();
+
+        scala.collection.immutable.Map<Resource, scala.collection.immutable.Set<Acl>> rules;
+
+        try {
+            rules = authorizer.getAcls();
+        } catch (Exception e)   {
+            log.error("Failed to get existing Acls rules for all users", e);
+            throw e;
+        }
+
+        Iterator<Tuple2<Resource, scala.collection.immutable.Set<Acl>>> iter = rules.iterator();
+        while (iter.hasNext())  {
+            Tuple2<Resource, scala.collection.immutable.Set<Acl>> tuple = iter.next();
+            SimpleAclRuleResource resource = SimpleAclRuleResource.fromKafkaResource(tuple._1());
+
+            Iterator<Acl> iter2 = tuple._2().iterator();
+            while (iter2.hasNext()) {
+                Acl acl = iter2.next();
+                KafkaPrincipal principal = acl.principal();
+
+                if (KafkaPrincipal.USER_TYPE.equals(principal.getPrincipalType())
+                        && !IGNORED_USERS.contains(KafkaUserModel.decodeUsername(principal.getName())))  {
+                    result.computeIfAbsent(principal.getName(), name -> new HashSet<>()).add(SimpleAclRule.fromKafkaAcl(resource, acl));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reconciles the ACL rules of many users at once.
+     * The changes for all the users are computed up front from the given {@code current} rules, and then applied
+     * grouped by resource, so that each resource is written at most once for removing rules and once for adding rules,
+     * however many users have rules for it.
+     * A failure to write one resource doesn't stop the others being written.
+     *
+     * @param desired   The desired ACL rules by principal name. Only these principals are reconciled.
+     *                  Principals with no desired rules have all their rules deleted.
+     * @param current   The current ACL rules by principal name, as returned by {@link #getAllAcls()}.
+     * @return The numbers of writes made.
+     * @throws RuntimeException If writing any of the resources failed.
+     */
+    public BulkReconcileResult reconcileAll(Map<String, Set<SimpleAclRule>> desired, Map<String, Set<SimpleAclRule>> current) {
+        Map<Resource, Set<Acl>> toBeAdded = new HashMap<>();
+        Map<Resource, Set<Acl>> toBeDeleted = new HashMap<>();
+        int changedPrincipals = 0;
+
+        for (Map.Entry<String, Set<SimpleAclRule>> entry : desired.entrySet()) {
+            String username = entry.getKey();
+            Set<SimpleAclRule> desiredRules = entry.getValue() != null ? entry.getValue() : Collections.emptySet();
+            Set<SimpleAclRule> currentRules = current.getOrDefault(username, Collections.emptySet());
+
+            Set<SimpleAclRule> added = new HashSet<>(desiredRules);
+            added.removeAll(currentRules);
+            Set<SimpleAclRule> deleted = new HashSet<>(currentRules);
+            deleted.removeAll(desiredRules);
+
+            if (!added.isEmpty() || !deleted.isEmpty()) {
+                log.debug("User {}: Adding {} and deleting {} Acl rules", username, added.size(), deleted.size());
+                changedPrincipals++;
+                merge(toBeAdded, getResourceAclsMap(username, added));
+                merge(toBeDeleted, getResourceAclsMap(username, deleted));
+            }
+        }
+
+        BulkReconcileResult result = new BulkReconcileResult(desired.size(), changedPrincipals);
+        RuntimeException failure = null;
+        try {
+            applyAll(toBeDeleted, toBeAdded, result);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        log.info("Reconciled Acl rules of {} users: {}", desired.size(), result);
+
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+
+    /**
+     * Deletes and then adds the given ACL rules of a {@linkplain #reconcileAll(Map, Map) bulk reconciliation},
+     * with one write per resource, recording the writes made in the {@code result}.
+     * A failure to write one resource doesn't stop the others being written.
+     *
+     * @param toBeDeleted   The ACL rules to delete, by resource.
+     * @param toBeAdded     The ACL rules to add, by resource.
+     * @param result        The result to record the writes in.
+     * @throws RuntimeException If writing any of the resources failed.
+     */
+    protected void applyAll(Map<Resource, Set<Acl>> toBeDeleted, Map<Resource, Set<Acl>> toBeAdded, BulkReconcileResult result) {
+        RuntimeException failure = null;
+
+        for (Map.Entry<Resource, Set<Acl>> entry : toBeDeleted.entrySet()) {
+            try {
+                authorizer.removeAcls(JavaConverters.asScalaSet(entry.getValue()).toSet(), entry.getKey());
+                result.removed(1, entry.getValue().size());
+            } catch (RuntimeException e) {
+                log.error("Deleting Acl rules for resource {} failed", entry.getKey(), e);
+                failure = e;
+            }
+        }
+
+        for (Map.Entry<Resource, Set<Acl>> entry : toBeAdded.entrySet()) {
+            try {
+                authorizer.addAcls(JavaConverters.asScalaSet(entry.getValue()).toSet(), entry.getKey());
+                result.added(1, entry.getValue().size());
+            } catch (RuntimeException e) {
+                log.error("Adding Acl rules for resource {} failed", entry.getKey(), e);
+                failure = e;
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void merge(Map<Resource, Set<Acl>> into, Map<Resource, Set<Acl>> from) {
+        for (Map.Entry<Resource, Set<Acl>> entry : from.entrySet()) {
+            into.computeIfAbsent(entry.getKey(), resource -> new HashSet<>()).addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * The numbers of writes made by a {@linkplain #reconcileAll(Map, Map) bulk reconciliation} of ACL rules.
+     */
+    public static final class BulkReconcileResult {
+        private final int principals;
+        private final int changedPrincipals;
+        private int addCalls;
+        private int removeCalls;
+        private int aclsAdded;
+        private int aclsRemoved;
+
+        BulkReconcileResult(int principals, int changedPrincipals) {
+            this.principals = principals;
+            this.changedPrincipals = changedPrincipals;
+        }
+
+        /**
+         * @return The number of principals which were reconciled.
+         */
+        public int principals() {
+            return principals;
+        }
+
+        /**
+         * @return The number of principals whose rules were changed.
+         */
+        public int changedPrincipals() {
+            return changedPrincipals;
+        }
+
+        /**
+         * @return The number of writes made to add rules.
+         */
+        public int addCalls() {
+            return addCalls;
+        }
+
+        /**
+         * @return The number of writes made to remove rules.
+         */
+        public int removeCalls() {
+            return removeCalls;
+        }
+
+        /**
+         * @return The number of rules added.
+         */
+        public int aclsAdded() {
+            return aclsAdded;
+        }
+
+        /**
+         * @return The number of rules removed.
+         */
+        public int aclsRemoved() {
+            return aclsRemoved;
+        }
+
+        void added(int calls, int acls) {
+            addCalls += calls;
+            aclsAdded += acls;
+        }
+
+        void removed(int calls, int acls) {
+            removeCalls += calls;
+            aclsRemoved += acls;
+        }
+
+        @Override
+        public String toString() {
+            return "BulkReconcileResult(" +
+                    "principals=" + principals +
+                    ",changedPrincipals=" + changedPrincipals +
+                    ",addCalls=" + addCalls +
+                    ",removeCalls=" + removeCalls +
+                    ",aclsAdded=" + aclsAdded +
+                    ",aclsRemoved=" + aclsRemoved +
+                    ")";
+        }
+    }
 }
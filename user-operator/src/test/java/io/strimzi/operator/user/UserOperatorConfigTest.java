@@ -4,8 +4,12 @@
  */
 package io.strimzi.operator.user;
 
+import io.strimzi.certs.CertManagerType;
+import io.strimzi.certs.KeyType;
 import io.strimzi.operator.common.InvalidConfigurationException;
 import io.strimzi.operator.common.model.Labels;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.config.SslConfigs;
 import org.junit.Test;
 
 import java.util.HashMap;
@@ -45,6 +49,9 @@ public class UserOperatorConfigTest {
         assertEquals(envVars.get(UserOperatorConfig.STRIMZI_CA_NAMESPACE), config.getCaNamespace());
         assertEquals(envVars.get(UserOperatorConfig.STRIMZI_ZOOKEEPER_CONNECT), config.getZookeperConnect());
         assertEquals(Long.parseLong(envVars.get(UserOperatorConfig.STRIMZI_ZOOKEEPER_SESSION_TIMEOUT_MS)), config.getZookeeperSessionTimeoutMs());
+        assertEquals(UserOperatorConfig.DEFAULT_CERT_MANAGER, config.getCertManager());
+        assertEquals(UserOperatorConfig.DEFAULT_KEY_TYPE, config.getKeyType());
+        assertEquals(UserOperatorConfig.DEFAULT_KEY_PAIR_POOL_SIZE, config.getKeyPairPoolSize());
     }
 
     @Test(expected = InvalidConfigurationException.class)
@@ -105,4 +112,72 @@ public class UserOperatorConfigTest {
 
         UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
     }
+
+    @Test
+    public void testCertManager()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_CERT_MANAGER, "JCA");
+
+        assertEquals(CertManagerType.JCA, UserOperatorConfig.fromMap(envVars).getCertManager());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidCertManager()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_CERT_MANAGER, "gnutls");
+
+        UserOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testKeyPairPool()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_KEY_TYPE, "rsa:4096");
+        envVars.put(UserOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE, "20");
+
+        UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+        assertEquals(KeyType.forValue("rsa:4096"), config.getKeyType());
+        assertEquals(20, config.getKeyPairPoolSize());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testInvalidKeyType()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_KEY_TYPE, "rsa:1024");
+
+        UserOperatorConfig.fromMap(envVars);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testNegativeKeyPairPoolSize()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_KEY_PAIR_POOL_SIZE, "-1");
+
+        UserOperatorConfig.fromMap(envVars);
+    }
+
+    @Test
+    public void testAdminClientAclBackend()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        assertEquals(AclBackend.ZOOKEEPER, UserOperatorConfig.fromMap(envVars).getAclBackend());
+
+        envVars.put(UserOperatorConfig.STRIMZI_ACL_BACKEND, "admin-client");
+        envVars.put(UserOperatorConfig.STRIMZI_KAFKA_BOOTSTRAP_SERVERS, "my-cluster-kafka-bootstrap:9091");
+        envVars.put(UserOperatorConfig.STRIMZI_TLS_ENABLED, "true");
+        envVars.put(UserOperatorConfig.STRIMZI_TRUSTSTORE_LOCATION, "/tmp/truststore.p12");
+
+        UserOperatorConfig config = UserOperatorConfig.fromMap(envVars);
+        assertEquals(AclBackend.ADMIN_CLIENT, config.getAclBackend());
+        assertEquals("my-cluster-kafka-bootstrap:9091", config.getAdminClientConfig().getProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals("SSL", config.getAdminClientConfig().getProperty(AdminClientConfig.SECURITY_PROTOCOL_CONFIG));
+        assertEquals("/tmp/truststore.p12", config.getAdminClientConfig().getProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG));
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testAdminClientAclBackendWithoutBootstrapServers()  {
+        Map<String, String> envVars = new HashMap<>(UserOperatorConfigTest.envVars);
+        envVars.put(UserOperatorConfig.STRIMZI_ACL_BACKEND, "admin-client");
+
+        UserOperatorConfig.fromMap(envVars);
+    }
 }
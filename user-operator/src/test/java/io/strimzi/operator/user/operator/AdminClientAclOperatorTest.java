@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user.operator;
+
+import io.debezium.kafka.KafkaCluster;
+import io.strimzi.api.kafka.model.AclOperation;
+import io.strimzi.api.kafka.model.AclResourcePatternType;
+import io.strimzi.api.kafka.model.AclRuleType;
+import io.strimzi.operator.user.model.acl.SimpleAclRule;
+import io.strimzi.operator.user.model.acl.SimpleAclRuleResource;
+import io.strimzi.operator.user.model.acl.SimpleAclRuleResourceType;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+@RunWith(VertxUnitRunner.class)
+public class AdminClientAclOperatorTest {
+    private static Vertx vertx;
+    private static KafkaCluster kafkaCluster;
+    private static AdminClient adminClient;
+
+    private static final SimpleAclRuleResource TOPIC = new SimpleAclRuleResource("my-topic", SimpleAclRuleResourceType.TOPIC, AclResourcePatternType.LITERAL);
+    private static final SimpleAclRuleResource GROUP = new SimpleAclRuleResource("my-", SimpleAclRuleResourceType.GROUP, AclResourcePatternType.PREFIX);
+    private static final SimpleAclRuleResource CLUSTER = new SimpleAclRuleResource("kafka-cluster", SimpleAclRuleResourceType.CLUSTER, AclResourcePatternType.LITERAL);
+    private static final SimpleAclRule READ_TOPIC = new SimpleAclRule(AclRuleType.ALLOW, TOPIC, "*", AclOperation.READ);
+    private static final SimpleAclRule WRITE_TOPIC = new SimpleAclRule(AclRuleType.ALLOW, TOPIC, "*", AclOperation.WRITE);
+    private static final SimpleAclRule READ_GROUP = new SimpleAclRule(AclRuleType.ALLOW, GROUP, "*", AclOperation.READ);
+    private static final SimpleAclRule DENY_DESCRIBE_CLUSTER = new SimpleAclRule(AclRuleType.DENY, CLUSTER, "10.0.0.1", AclOperation.DESCRIBE);
+
+    @BeforeClass
+    public static void before() throws IOException {
+        vertx = Vertx.vertx();
+
+        Properties config = new Properties();
+        config.setProperty("authorizer.class.name", "kafka.security.auth.SimpleAclAuthorizer");
+        config.setProperty("super.users", "User:ANONYMOUS");
+        kafkaCluster = new KafkaCluster();
+        kafkaCluster.addBrokers(1);
+        kafkaCluster.withKafkaConfiguration(config);
+        kafkaCluster.deleteDataPriorToStartup(true);
+        kafkaCluster.deleteDataUponShutdown(true);
+        kafkaCluster.usingDirectory(Files.createTempDirectory("user-operator-acls-test").toFile());
+        kafkaCluster.startup();
+
+        Properties p = new Properties();
+        p.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaCluster.brokerList());
+        adminClient = AdminClient.create(p);
+    }
+
+    @AfterClass
+    public static void after() {
+        adminClient.close();
+        kafkaCluster.shutdown();
+        vertx.close();
+    }
+
+    @Test
+    public void testReconcile(TestContext context) {
+        AdminClientAclOperator aclOp = new AdminClientAclOperator(vertx, adminClient);
+        Set<SimpleAclRule> created = new HashSet<>(asList(READ_TOPIC, READ_GROUP, DENY_DESCRIBE_CLUSTER));
+        Set<SimpleAclRule> updated = new HashSet<>(asList(READ_TOPIC, WRITE_TOPIC));
+
+        Async async = context.async();
+        aclOp.reconcile("CN=reconciled", created).compose(res -> {
+            context.assertEquals(created, aclOp.getAcls("CN=reconciled"));
+            return aclOp.reconcile("CN=reconciled", updated);
+        }).compose(res -> {
+            context.assertEquals(updated, aclOp.getAcls("CN=reconciled"));
+            context.assertTrue(aclOp.getUsersWithAcls().contains("reconciled"));
+            return aclOp.reconcile("CN=reconciled", null);
+        }).setHandler(context.asyncAssertSuccess(res -> {
+            context.assertTrue(aclOp.getAcls("CN=reconciled").isEmpty());
+            context.assertFalse(aclOp.getUsersWithAcls().contains("reconciled"));
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void testReconcileAll(TestContext context) {
+        AdminClientAclOperator aclOp = new AdminClientAclOperator(vertx, adminClient);
+
+        Map<String, Set<SimpleAclRule>> desired = new HashMap<>();
+        desired.put("CN=bulk-foo", new HashSet<>(asList(READ_TOPIC, READ_GROUP)));
+        desired.put("bulk-bar", new HashSet<>(asList(READ_TOPIC)));
+        desired.put("bulk-deleted", new HashSet<>(asList(WRITE_TOPIC)));
+
+        SimpleAclOperator.BulkReconcileResult result = aclOp.reconcileAll(desired, aclOp.getAllAcls());
+        // All the rules are written by a single request
+        context.assertEquals(1, result.addCalls());
+        context.assertEquals(4, result.aclsAdded());
+        context.assertEquals(0, result.removeCalls());
+
+        Map<String, Set<SimpleAclRule>> current = aclOp.getAllAcls();
+        context.assertEquals(desired.get("CN=bulk-foo"), current.get("CN=bulk-foo"));
+        context.assertEquals(desired.get("bulk-bar"), current.get("bulk-bar"));
+        context.assertEquals(desired.get("bulk-deleted"), current.get("bulk-deleted"));
+
+        desired.put("CN=bulk-foo", new HashSet<>(asList(WRITE_TOPIC)));
+        desired.put("bulk-deleted", Collections.emptySet());
+
+        result = aclOp.reconcileAll(desired, current);
+        context.assertEquals(2, result.changedPrincipals());
+        context.assertEquals(1, result.addCalls());
+        context.assertEquals(1, result.aclsAdded());
+        context.assertEquals(1, result.removeCalls());
+        context.assertEquals(3, result.aclsRemoved());
+
+        current = aclOp.getAllAcls();
+        context.assertEquals(new HashSet<>(asList(WRITE_TOPIC)), current.get("CN=bulk-foo"));
+        context.assertEquals(new HashSet<>(asList(READ_TOPIC)), current.get("bulk-bar"));
+        context.assertFalse(current.containsKey("bulk-deleted"));
+    }
+}
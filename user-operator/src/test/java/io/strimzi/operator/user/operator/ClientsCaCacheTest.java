@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019, Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.operator.user.operator;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.strimzi.operator.cluster.model.ClientsCa;
+import io.strimzi.operator.common.operator.MockCertManager;
+import io.strimzi.operator.common.operator.resource.SecretOperator;
+import io.strimzi.operator.user.ResourceUtils;
+import io.strimzi.operator.user.model.NoCertificateSecretException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClientsCaCacheTest {
+
+    private final SecretOperator mockSecretOps = mock(SecretOperator.class);
+    private final ClientsCaCache cache = new ClientsCaCache(null, new MockCertManager(), mockSecretOps,
+            ResourceUtils.NAMESPACE, ResourceUtils.CA_CERT_NAME, ResourceUtils.CA_KEY_NAME);
+
+    private static Secret withResourceVersion(Secret secret, String resourceVersion) {
+        return new SecretBuilder(secret).editMetadata().withResourceVersion(resourceVersion).endMetadata().build();
+    }
+
+    @Test
+    public void testClientsCaIsReusedWhileResourceVersionsAreUnchanged() {
+        Secret cert = withResourceVersion(ResourceUtils.createClientsCaCertSecret(), "1");
+        Secret key = withResourceVersion(ResourceUtils.createClientsCaKeySecret(), "1");
+
+        ClientsCa ca = cache.clientsCa(cert, key);
+        assertEquals(cert.getData().get("ca.crt"), ca.currentCaCertBase64());
+        assertSame(ca, cache.clientsCa(withResourceVersion(cert, "1"), withResourceVersion(key, "1")));
+
+        ClientsCa renewed = cache.clientsCa(withResourceVersion(cert, "2"), key);
+        assertNotSame(ca, renewed);
+        assertSame(renewed, cache.clientsCa(withResourceVersion(cert, "2"), key));
+        assertNotSame(renewed, cache.clientsCa(withResourceVersion(cert, "2"), withResourceVersion(key, "2")));
+    }
+
+    @Test
+    public void testClientsCaIsNotReusedWithoutResourceVersions() {
+        Secret cert = ResourceUtils.createClientsCaCertSecret();
+        Secret key = ResourceUtils.createClientsCaKeySecret();
+
+        assertNotSame(cache.clientsCa(cert, key), cache.clientsCa(cert, key));
+    }
+
+    @Test(expected = NoCertificateSecretException.class)
+    public void testMissingSecret() {
+        cache.clientsCa(ResourceUtils.createClientsCaCertSecret(), null);
+    }
+
+    @Test
+    public void testSecretsAreReadFromApiServerWhenNotWatching() {
+        Secret cert = ResourceUtils.createClientsCaCertSecret();
+        Secret key = ResourceUtils.createClientsCaKeySecret();
+        when(mockSecretOps.get(ResourceUtils.NAMESPACE, ResourceUtils.CA_CERT_NAME)).thenReturn(cert);
+        when(mockSecretOps.get(ResourceUtils.NAMESPACE, ResourceUtils.CA_KEY_NAME)).thenReturn(key);
+
+        assertSame(cert, cache.caCertSecret());
+        assertSame(key, cache.caKeySecret());
+    }
+}
@@ -31,12 +31,15 @@ import org.mockito.ArgumentCaptor;
 
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -561,8 +564,15 @@ public class KafkaUserOperatorTest {
 
         when(mockCrdOps.list(eq(ResourceUtils.NAMESPACE), eq(Labels.userLabels(ResourceUtils.LABELS)))).thenReturn(Arrays.asList(newTlsUser, newScramShaUser, existingTlsUser, existingScramShaUser));
         when(mockSecretOps.list(eq(ResourceUtils.NAMESPACE), eq(Labels.userLabels(ResourceUtils.LABELS).withKind(KafkaUser.RESOURCE_KIND)))).thenReturn(Arrays.asList(existingTlsUserSecret, existingScramShaUserSecret));
-        when(aclOps.getUsersWithAcls()).thenReturn(new HashSet<String>(Arrays.asList("existing-tls-user", "second-deleted-user")));
+        Map<String, Set<SimpleAclRule>> currentAcls = new HashMap<>();
+        currentAcls.put("CN=existing-tls-user", ResourceUtils.createExpectedSimpleAclRules(existingTlsUser));
+        currentAcls.put("second-deleted-user", ResourceUtils.createExpectedSimpleAclRules(existingTlsUser));
+        when(aclOps.getAllAcls()).thenReturn(currentAcls);
+        ArgumentCaptor<Map<String, Set<SimpleAclRule>>> desiredAclsCaptor = ArgumentCaptor.forClass(Map.class);
+        when(aclOps.reconcileAll(desiredAclsCaptor.capture(), eq(currentAcls))).thenReturn(null);
         when(scramOps.list()).thenReturn(asList("existing-tls-user", "deleted-scram-sha-user"));
+        ArgumentCaptor<Map<String, String>> passwordsCaptor = ArgumentCaptor.forClass(Map.class);
+        when(scramOps.reconcileAll(passwordsCaptor.capture())).thenReturn(2);
 
         when(mockCrdOps.get(eq(newTlsUser.getMetadata().getNamespace()), eq(newTlsUser.getMetadata().getName()))).thenReturn(newTlsUser);
         when(mockCrdOps.get(eq(newScramShaUser.getMetadata().getNamespace()), eq(newScramShaUser.getMetadata().getName()))).thenReturn(newScramShaUser);
@@ -606,6 +616,21 @@ public class KafkaUserOperatorTest {
         context.assertEquals(new HashSet(asList("new-tls-user", "existing-tls-user",
                 "new-scram-sha-user", "existing-scram-sha-user")), createdOrUpdated);
         context.assertEquals(new HashSet(asList("second-deleted-user", "deleted-scram-sha-user")), deleted);
+
+        // The ACL rules of all users are reconciled from the single snapshot,
+        // while the rules of deleted users are left to their own reconciliation
+        Map<String, Set<SimpleAclRule>> desiredAcls = desiredAclsCaptor.getValue();
+        context.assertEquals(new HashSet(asList("CN=new-tls-user", "new-tls-user", "CN=new-scram-sha-user", "new-scram-sha-user",
+                "CN=existing-tls-user", "existing-tls-user", "CN=existing-scram-sha-user", "existing-scram-sha-user")), desiredAcls.keySet());
+        context.assertEquals(ResourceUtils.createExpectedSimpleAclRules(existingTlsUser), desiredAcls.get("CN=existing-tls-user"));
+        context.assertEquals(ResourceUtils.createExpectedSimpleAclRules(newScramShaUser), desiredAcls.get("new-scram-sha-user"));
+        context.assertTrue(desiredAcls.get("existing-tls-user").isEmpty());
+
+        // The SCRAM-SHA credentials of users which no longer use them are deleted in a single batch,
+        // new users without a password yet and deleted users are left to their own reconciliation
+        Map<String, String> passwords = passwordsCaptor.getValue();
+        context.assertEquals(singleton("existing-tls-user"), passwords.keySet());
+        context.assertNull(passwords.get("existing-tls-user"));
     }
 
     @Test
@@ -13,7 +13,11 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -98,6 +102,58 @@ public class ScramShaCredentialsTest {
         assertTrue(ss.list().isEmpty());
     }
 
+    @Test
+    public void batchCreateUpdateAndDelete() {
+        ss.createOrUpdate("batchUpdated", "foo-password");
+        ss.createOrUpdate("batchUnchanged", "foo-password");
+        ss.createOrUpdate("batchDeleted", "foo-password");
+
+        Map<String, String> passwords = new HashMap<>();
+        passwords.put("batchCreated", "foo-password");
+        passwords.put("batchUpdated", "bar-password");
+        passwords.put("batchUnchanged", "foo-password");
+        passwords.put("batchDeleted", null);
+        passwords.put("batchNotExisting", null);
+
+        // Neither the unchanged nor the not existing user is written
+        assertEquals(3, ss.createOrUpdateAll(passwords));
+
+        List<String> users = ss.list();
+        assertTrue(users.contains("batchCreated"));
+        assertTrue(users.contains("batchUpdated"));
+        assertTrue(users.contains("batchUnchanged"));
+        assertFalse(users.contains("batchDeleted"));
+        assertFalse(users.contains("batchNotExisting"));
+
+        assertEquals(0, ss.createOrUpdateAll(passwords));
+    }
+
+    @Test
+    public void batchNoticesChangedPasswordsAndCredentials() {
+        assertEquals(1, ss.createOrUpdateAll(singletonMap("batchVerified", "foo-password")));
+        // The credentials are verified once, and then known to match while neither changes
+        assertEquals(0, ss.createOrUpdateAll(singletonMap("batchVerified", "foo-password")));
+        assertEquals(0, ss.createOrUpdateAll(singletonMap("batchVerified", "foo-password")));
+        // A changed password
+        assertEquals(1, ss.createOrUpdateAll(singletonMap("batchVerified", "bar-password")));
+        assertEquals(0, ss.createOrUpdateAll(singletonMap("batchVerified", "bar-password")));
+        // Credentials changed by someone else
+        ss.createOrUpdate("batchVerified", "baz-password");
+        assertEquals(1, ss.createOrUpdateAll(singletonMap("batchVerified", "bar-password")));
+        assertEquals(0, ss.createOrUpdateAll(singletonMap("batchVerified", "bar-password")));
+    }
+
+    @Test
+    public void batchLargerThanMultiOp() {
+        Map<String, String> passwords = new HashMap<>();
+        for (int i = 0; i < ScramShaCredentials.MAX_BATCH_SIZE + 1; i++) {
+            passwords.put("batchLarge" + i, "foo-password");
+        }
+
+        assertEquals(ScramShaCredentials.MAX_BATCH_SIZE + 1, ss.createOrUpdateAll(passwords));
+        assertTrue(ss.list().containsAll(passwords.keySet()));
+    }
+
     @Test
     public void testValidation()    {
         JsonObject valid = new JsonObject().put("version", 1);
@@ -12,9 +12,11 @@ import io.strimzi.operator.user.model.acl.SimpleAclRule;
 import io.strimzi.operator.user.model.acl.SimpleAclRuleResource;
 import io.strimzi.operator.user.model.acl.SimpleAclRuleResourceType;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import io.vertx.core.Future;
@@ -88,6 +90,58 @@ public class SimpleAclOperatorTest {
         context.assertEquals(new HashSet(asList("foo", "bar", "baz")), aclOp.getUsersWithAcls());
     }
 
+    @Test
+    public void testReconcileAllGroupsChangesByResource(TestContext context)  {
+        SimpleAclAuthorizer mockAuthorizer = mock(SimpleAclAuthorizer.class);
+        SimpleAclOperator aclOp = new SimpleAclOperator(vertx, mockAuthorizer);
+
+        ArgumentCaptor<scala.collection.immutable.Set<Acl>> addedCaptor = ArgumentCaptor.forClass(scala.collection.immutable.Set.class);
+        ArgumentCaptor<Resource> addedResourceCaptor = ArgumentCaptor.forClass(Resource.class);
+        doNothing().when(mockAuthorizer).addAcls(addedCaptor.capture(), addedResourceCaptor.capture());
+        ArgumentCaptor<scala.collection.immutable.Set<Acl>> removedCaptor = ArgumentCaptor.forClass(scala.collection.immutable.Set.class);
+        ArgumentCaptor<Resource> removedResourceCaptor = ArgumentCaptor.forClass(Resource.class);
+        when(mockAuthorizer.removeAcls(removedCaptor.capture(), removedResourceCaptor.capture())).thenReturn(true);
+
+        SimpleAclRuleResource topic = new SimpleAclRuleResource("my-topic", SimpleAclRuleResourceType.TOPIC, AclResourcePatternType.LITERAL);
+        SimpleAclRuleResource group = new SimpleAclRuleResource("my-group", SimpleAclRuleResourceType.GROUP, AclResourcePatternType.LITERAL);
+        SimpleAclRule readTopic = new SimpleAclRule(AclRuleType.ALLOW, topic, "*", AclOperation.READ);
+        SimpleAclRule writeTopic = new SimpleAclRule(AclRuleType.ALLOW, topic, "*", AclOperation.WRITE);
+        SimpleAclRule readGroup = new SimpleAclRule(AclRuleType.ALLOW, group, "*", AclOperation.READ);
+
+        Map<String, Set<SimpleAclRule>> current = new HashMap<>();
+        current.put("CN=foo", new HashSet<>(asList(readTopic, readGroup)));
+        current.put("bar", new HashSet<>(asList(readGroup)));
+        current.put("CN=unchanged", new HashSet<>(asList(readTopic)));
+        current.put("not-reconciled", new HashSet<>(asList(readTopic)));
+
+        Map<String, Set<SimpleAclRule>> desired = new HashMap<>();
+        desired.put("CN=foo", new HashSet<>(asList(readTopic, writeTopic)));
+        desired.put("bar", new HashSet<>(asList(readTopic, writeTopic)));
+        desired.put("CN=unchanged", new HashSet<>(asList(readTopic)));
+        desired.put("baz", new HashSet<>(asList(writeTopic)));
+
+        SimpleAclOperator.BulkReconcileResult result = aclOp.reconcileAll(desired, current);
+
+        context.assertEquals(4, result.principals());
+        context.assertEquals(3, result.changedPrincipals());
+        // The additions of the three users are made by a single call for the topic
+        context.assertEquals(1, result.addCalls());
+        context.assertEquals(4, result.aclsAdded());
+        context.assertEquals(asList(new Resource(Topic$.MODULE$, "my-topic", PatternType.LITERAL)), addedResourceCaptor.getAllValues());
+        context.assertEquals(new scala.collection.immutable.Set.Set4<>(
+                new Acl(new KafkaPrincipal("User", "CN=foo"), Allow$.MODULE$, "*", Write$.MODULE$),
+                new Acl(new KafkaPrincipal("User", "bar"), Allow$.MODULE$, "*", Read$.MODULE$),
+                new Acl(new KafkaPrincipal("User", "bar"), Allow$.MODULE$, "*", Write$.MODULE$),
+                new Acl(new KafkaPrincipal("User", "baz"), Allow$.MODULE$, "*", Write$.MODULE$)), addedCaptor.getValue());
+        // And the deletions of the two users by a single call for the group
+        context.assertEquals(1, result.removeCalls());
+        context.assertEquals(2, result.aclsRemoved());
+        context.assertEquals(asList(new Resource(Group$.MODULE$, "my-group", PatternType.LITERAL)), removedResourceCaptor.getAllValues());
+        context.assertEquals(new scala.collection.immutable.Set.Set2<>(
+                new Acl(new KafkaPrincipal("User", "CN=foo"), Allow$.MODULE$, "*", Read$.MODULE$),
+                new Acl(new KafkaPrincipal("User", "bar"), Allow$.MODULE$, "*", Read$.MODULE$)), removedCaptor.getValue());
+    }
+
     @Test
     public void testInternalCreate(TestContext context)  {
         SimpleAclAuthorizer mockAuthorizer = mock(SimpleAclAuthorizer.class);